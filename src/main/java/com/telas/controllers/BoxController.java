@@ -12,6 +12,7 @@ import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.UUID;
 
@@ -52,10 +53,11 @@ public interface BoxController {
     @Hidden
     @Operation(summary = "Endpoint to fetch monitors and ads data by Ip or MacAddress, this endpoint should be accessed only by Box API", responses = {
             @ApiResponse(responseCode = "200", description = "Monitors and ads founded successfully."),
+            @ApiResponse(responseCode = "304", description = "Playlist unchanged since the ETag sent in If-None-Match."),
             @ApiResponse(responseCode = "422", description = "Request with invalid data."),
             @ApiResponse(responseCode = "404", description = "Some data not found."),
     })
-    ResponseEntity<?> getMonitorsAdsByIp(@RequestHeader("X-Box-Address") String address);
+    ResponseEntity<?> getMonitorsAdsByIp(@RequestHeader("X-Box-Address") String address, WebRequest webRequest);
 
     @Operation(
             summary = "Atualiza saúde da box ou de um monitor (integração monitoramento / webhook)",
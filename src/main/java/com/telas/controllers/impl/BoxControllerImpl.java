@@ -13,6 +13,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.UUID;
 
@@ -59,9 +60,16 @@ public class BoxControllerImpl implements BoxController {
 
     @Override
     @GetMapping("/ads")
-    public ResponseEntity<?> getMonitorsAdsByIp(@RequestHeader("X-Box-Address") String address) {
-        return ResponseEntity.status(HttpStatus.OK)
-                .body(ResponseDto.fromData(service.getMonitorsAdsByAddress(address), HttpStatus.OK, MessageCommonsConstants.FIND_ID_SUCCESS_MESSAGE));
+    public ResponseEntity<?> getMonitorsAdsByIp(@RequestHeader("X-Box-Address") String address, WebRequest webRequest) {
+        String eTag = service.getPlaylistETag(address);
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK);
+        if (eTag != null) {
+            response.eTag(eTag);
+        }
+        return response.body(ResponseDto.fromData(service.getMonitorsAdsByAddress(address), HttpStatus.OK, MessageCommonsConstants.FIND_ID_SUCCESS_MESSAGE));
     }
 
     @Override
@@ -9,7 +9,7 @@ import com.telas.dtos.response.PartnerPlatformSettingsResponseDto;
 import com.telas.dtos.response.ResponseDto;
 import com.telas.entities.Client;
 import com.telas.enums.Permission;
-import com.telas.infra.security.model.AuthenticatedUser;
+import com.telas.infra.security.model.PrincipalSnapshot;
 import com.telas.infra.security.services.AuthenticatedUserService;
 import com.telas.repositories.ClientRepository;
 import com.telas.services.AdminEmailAlertPreferenceService;
@@ -113,7 +113,7 @@ public class DeveloperPermissionControllerImpl {
     @SecurityRequirement(name = "jwt")
     public ResponseEntity<?> replacePermissions(
             @PathVariable UUID clientId, @Valid @RequestBody UpdatePermissionsRequestDto body) {
-        AuthenticatedUser dev = authenticatedUserService.validateDeveloper();
+        PrincipalSnapshot dev = authenticatedUserService.validateDeveloper();
         Set<Permission> parsed = new HashSet<>();
         List<String> raw = body.getPermissions();
         if (raw != null) {
@@ -121,7 +121,7 @@ public class DeveloperPermissionControllerImpl {
                 parsed.add(Permission.valueOf(code.trim()));
             }
         }
-        permissionService.replacePermissionsForAdmin(clientId, parsed, dev.client().getId());
+        permissionService.replacePermissionsForAdmin(clientId, parsed, dev.clientId());
         return ResponseEntity.noContent().build();
     }
 
@@ -1,9 +1,13 @@
 package com.telas.controllers.impl;
 
 import com.telas.dtos.request.AcknowledgeIncidentRequestDto;
+import com.telas.dtos.request.BoxLogBatchRequestDto;
 import com.telas.dtos.request.BoxLogRequestDto;
+import com.telas.dtos.request.HeartbeatBatchRequestDto;
 import com.telas.dtos.request.HeartbeatRequestDto;
-import com.telas.dtos.response.ApplicationLogResponseDto;
+import com.telas.dtos.request.filters.ApplicationLogFilterRequestDto;
+import com.telas.dtos.response.ApplicationLogPageResponseDto;
+import com.telas.dtos.response.HeartbeatBatchResponseDto;
 import com.telas.dtos.response.IncidentResponseDto;
 import com.telas.dtos.response.PaginationResponseDto;
 import com.telas.dtos.response.ResponseDto;
@@ -23,13 +27,10 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.web.PageableDefault;
-import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.Instant;
 import java.util.UUID;
 
 @RestController
@@ -51,31 +52,33 @@ public class MonitoringControllerImpl {
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/heartbeat/batch")
+    @Operation(summary = "Recebe heartbeats de várias boxes ou reenviados após queda (API key)")
+    public ResponseEntity<?> heartbeatBatch(@Valid @RequestBody HeartbeatBatchRequestDto request) {
+        HeartbeatBatchResponseDto result = boxHeartbeatService.persistHeartbeats(request.getHeartbeats());
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(ResponseDto.fromData(result, HttpStatus.OK, MessageCommonsConstants.SAVE_SUCCESS_MESSAGE));
+    }
+
     @PostMapping("/logs")
     public ResponseEntity<Void> boxLogs(@Valid @RequestBody BoxLogRequestDto request) {
         applicationLogService.persistBoxLog(request);
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/logs/batch")
+    @Operation(summary = "Recebe um lote de logs da box (aceita Content-Encoding: gzip; 429 + Retry-After quando saturado)")
+    public ResponseEntity<Void> boxLogsBatch(@Valid @RequestBody BoxLogBatchRequestDto request) {
+        applicationLogService.persistBoxLogBatch(request);
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/logs")
-    @Operation(summary = "Lista logs de aplicação (admin)")
+    @Operation(summary = "Busca logs de aplicação com paginação por cursor (admin)")
     @SecurityRequirement(name = "jwt")
-    public ResponseEntity<?> applicationLogs(
-            @RequestParam(required = false) String source,
-            @RequestParam(required = false) String level,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
-            @RequestParam(required = false) String q,
-            @PageableDefault(size = 20) Pageable pageable) {
+    public ResponseEntity<?> applicationLogs(@ModelAttribute ApplicationLogFilterRequestDto request) {
         authenticatedUserService.validatePermission(Permission.MONITORING_LOGS_VIEW);
-        Page<ApplicationLogResponseDto> page =
-                applicationLogQueryService.findAll(source, level, from, to, q, pageable);
-        PaginationResponseDto<java.util.List<ApplicationLogResponseDto>> body =
-                PaginationResponseDto.fromResult(
-                        page.getContent(),
-                        (int) page.getTotalElements(),
-                        page.getTotalPages(),
-                        page.getNumber() + 1);
+        ApplicationLogPageResponseDto body = applicationLogQueryService.search(request);
         return ResponseEntity.status(HttpStatus.OK)
                 .body(ResponseDto.fromData(body, HttpStatus.OK, MessageCommonsConstants.FIND_ALL_SUCCESS_MESSAGE));
     }
@@ -99,7 +102,8 @@ public class MonitoringControllerImpl {
     @SecurityRequirement(name = "jwt")
     public ResponseEntity<?> acknowledgeIncident(
             @PathVariable UUID id, @Valid @RequestBody AcknowledgeIncidentRequestDto dto) {
-        AuthenticatedUser user = authenticatedUserService.validateAdmin();
+        authenticatedUserService.validateAdmin();
+        AuthenticatedUser user = authenticatedUserService.getLoggedUser();
         IncidentResponseDto data = incidentCommandService.acknowledge(id, dto, user);
         return ResponseEntity.status(HttpStatus.OK)
                 .body(ResponseDto.fromData(data, HttpStatus.OK, MessageCommonsConstants.UPDATE_SUCCESS_MESSAGE));
@@ -1,5 +1,6 @@
 package com.telas.controllers.impl;
 
+import com.telas.dtos.request.SmartPlugIngestBatchRequestDto;
 import com.telas.dtos.request.SmartPlugIngestRequestDto;
 import com.telas.dtos.response.ResponseDto;
 import com.telas.services.SmartPlugIngestService;
@@ -30,5 +31,12 @@ public class SmartPlugIngestControllerImpl {
         return ResponseEntity.status(HttpStatus.OK)
                 .body(ResponseDto.fromData(null, HttpStatus.OK, MessageCommonsConstants.SAVE_SUCCESS_MESSAGE));
     }
-}
 
+    @PostMapping("/ingest/batch")
+    @Operation(summary = "Recebe um lote de leituras do agente, inclusive acumuladas offline (API key)")
+    public ResponseEntity<?> ingestBatch(@Valid @RequestBody SmartPlugIngestBatchRequestDto dto) {
+        smartPlugIngestService.ingestBatch(dto.getReadings());
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(ResponseDto.fromData(null, HttpStatus.OK, MessageCommonsConstants.SAVE_SUCCESS_MESSAGE));
+    }
+}
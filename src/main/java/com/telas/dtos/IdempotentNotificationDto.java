@@ -0,0 +1,19 @@
+package com.telas.dtos;
+
+import com.telas.enums.NotificationReference;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Notificação individual com chave de idempotência: gravar de novo a mesma chave (reexecução de um job)
+ * não cria outra notificação nem outro e-mail.
+ */
+public record IdempotentNotificationDto(
+        String idempotencyKey,
+        NotificationReference reference,
+        UUID clientId,
+        String email,
+        Map<String, String> params,
+        boolean sendEmail) {
+}
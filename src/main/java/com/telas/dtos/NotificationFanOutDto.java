@@ -0,0 +1,15 @@
+package com.telas.dtos;
+
+import com.telas.enums.NotificationReference;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Uma referência com seus parâmetros e destinatários; vários fan-outs podem ser gravados no mesmo batch JDBC.
+ */
+public record NotificationFanOutDto(
+        NotificationReference reference,
+        Map<String, String> params,
+        List<NotificationRecipientDto> recipients) {
+}
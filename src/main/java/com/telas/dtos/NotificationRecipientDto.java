@@ -0,0 +1,9 @@
+package com.telas.dtos;
+
+import java.util.UUID;
+
+/**
+ * Destinatário de um fan-out de notificação: o e-mail já resolvido evita recarregar o {@code Client}.
+ */
+public record NotificationRecipientDto(UUID clientId, String email, boolean sendEmail) {
+}
@@ -0,0 +1,28 @@
+package com.telas.dtos.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class BoxLogBatchRequestDto implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /** Box que envia o lote; vale para as entradas sem {@code boxAddress} próprio e identifica as métricas. */
+    private String boxAddress;
+
+    @NotEmpty
+    @Size(max = 1000)
+    private @Valid List<BoxLogRequestDto> entries = new ArrayList<>();
+}
@@ -7,6 +7,7 @@ import lombok.Setter;
 
 import java.io.Serial;
 import java.io.Serializable;
+import java.time.Instant;
 import java.util.Map;
 
 @Getter
@@ -25,4 +26,7 @@ public class BoxLogRequestDto implements Serializable {
     private String boxAddress;
 
     private Map<String, Object> metadata;
+
+    /** Horário do evento na box; ausente ou no futuro, vale o horário de recebimento. */
+    private Instant at;
 }
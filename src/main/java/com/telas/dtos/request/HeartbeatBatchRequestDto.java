@@ -0,0 +1,26 @@
+package com.telas.dtos.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class HeartbeatBatchRequestDto implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /** Heartbeats de uma ou várias boxes, em qualquer ordem; por box vale o mais recente. */
+    @NotEmpty
+    @Size(max = 2000)
+    private @Valid List<HeartbeatRequestDto> heartbeats = new ArrayList<>();
+}
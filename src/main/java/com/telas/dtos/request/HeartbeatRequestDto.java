@@ -7,6 +7,7 @@ import lombok.Setter;
 
 import java.io.Serial;
 import java.io.Serializable;
+import java.time.Instant;
 import java.util.Map;
 
 @Getter
@@ -22,4 +23,7 @@ public class HeartbeatRequestDto implements Serializable {
     private String reportedVersion;
 
     private Map<String, Object> metadata;
+
+    /** Horário do heartbeat na box, usado no lote (replay após queda); ausente ou no futuro, vale o recebimento. */
+    private Instant at;
 }
@@ -0,0 +1,20 @@
+package com.telas.dtos.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+public class SmartPlugIngestBatchRequestDto {
+
+    /** Leituras acumuladas pelo agente (inclusive offline), em qualquer ordem. */
+    @NotEmpty
+    @Size(max = 500)
+    private @Valid List<SmartPlugIngestRequestDto> readings = new ArrayList<>();
+}
@@ -0,0 +1,49 @@
+package com.telas.dtos.request.filters;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class ApplicationLogFilterRequestDto {
+
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 200;
+
+    private String source;
+    private String level;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private Instant from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private Instant to;
+
+    /** Palavras (full-text, inclusive valores do metadata) ou trecho da mensagem (trigramas). */
+    private String q;
+
+    /** Filtros exatos no metadata, no formato {@code chave=valor} (ex.: {@code boxAddress=100.64.0.1}). */
+    private List<String> metadata = new ArrayList<>();
+
+    /** Predicado jsonpath sobre o metadata (ex.: {@code $.attempts > 3}). */
+    private String metadataPath;
+
+    /** {@code nextCursor} da página anterior; ausente = primeira página. */
+    private String cursor;
+
+    private Integer size;
+
+    public int resolvedSize() {
+        if (size == null || size < 1) {
+            return DEFAULT_SIZE;
+        }
+        return Math.min(size, MAX_SIZE);
+    }
+}
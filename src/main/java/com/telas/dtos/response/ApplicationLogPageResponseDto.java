@@ -0,0 +1,23 @@
+package com.telas.dtos.response;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+@Value
+@Builder
+public class ApplicationLogPageResponseDto implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    List<ApplicationLogResponseDto> list;
+    /** Cursor da próxima página ({@code null} na última). */
+    String nextCursor;
+    long totalRecords;
+    /** {@code true} quando {@code totalRecords} é estimativa (resultado acima do limite de contagem exata). */
+    boolean totalIsEstimate;
+}
@@ -0,0 +1,20 @@
+package com.telas.dtos.response;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+@Value
+@Builder
+public class HeartbeatBatchResponseDto implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    int received;
+    int boxesUpdated;
+    List<String> unknownBoxAddresses;
+}
@@ -26,4 +26,7 @@ public class SchedulerJobStatusResponseDto {
     private Long lastDurationMillis;
     private Instant nextExecutionEstimated;
     private Map<String, Object> lastRunSummary;
+    private Instant lastSuccessAt;
+    private Instant lastFailureAt;
+    private String lastFailureMessage;
 }
@@ -42,6 +42,11 @@ public class Box implements Serializable {
   @CreatedDate
   private Instant createdAt = Instant.now();
 
+  // Mantida por triggers (V41); nunca escrita pela aplicação.
+  @JsonIgnore
+  @Column(name = "playlist_version", nullable = false, insertable = false, updatable = false)
+  private long playlistVersion;
+
   @OneToMany(mappedBy = "box", cascade = CascadeType.ALL)
   private List<Monitor> monitors = new ArrayList<>();
 
@@ -371,6 +371,27 @@ public enum NotificationReference {
             return createAdminClientAdDeployedToBoxEmailData(params);
         }
     },
+    ADMIN_AD_DEPLOY_FAILED {
+        @Override
+        public String getNotificationMessage(Map<String, String> params) {
+            String clientName = params.getOrDefault("clientName", "Customer");
+            String adName = params.getOrDefault("adName", "Ad");
+            String link = params.getOrDefault("link", "");
+            return formatNotificationMessage(
+                    "Ad could not be sent to box",
+                    String.format("%s — %s was not delivered to the customer’s screens after all retries.", clientName, adName),
+                    params,
+                    null,
+                    ObjectUtils.isEmpty(link) ? null : "Open client messages",
+                    false
+            );
+        }
+
+        @Override
+        public EmailDataDto getEmailData(Map<String, String> params) {
+            return createAdminAdDeployFailedEmailData(params);
+        }
+    },
     MONITOR_IN_WISHLIST_NOW_AVAILABLE {
         @Override
         public String getNotificationMessage(Map<String, String> params) {
@@ -1096,6 +1117,18 @@ public enum NotificationReference {
         return emailData;
     }
 
+    private static EmailDataDto createAdminAdDeployFailedEmailData(Map<String, String> params) {
+        EmailDataDto emailData = new EmailDataDto();
+        emailData.setSubject(SharedConstants.EMAIL_SUBJECT_ADMIN_AD_DEPLOY_FAILED);
+        emailData.setTemplate(SharedConstants.TEMPLATE_EMAIL_ADMIN_AD_DEPLOY_FAILED);
+        emailData.setParams(new HashMap<>());
+        emailData.getParams().put("clientName", params.getOrDefault("clientName", ""));
+        emailData.getParams().put("adName", params.getOrDefault("adName", "Ad"));
+        emailData.getParams().put("link", params.getOrDefault("link", ""));
+        emailData.getParams().put("monitorsSummary", params.getOrDefault("monitorsSummary", ""));
+        return emailData;
+    }
+
     public abstract String getNotificationMessage(Map<String, String> params);
 
     public abstract EmailDataDto getEmailData(Map<String, String> params);
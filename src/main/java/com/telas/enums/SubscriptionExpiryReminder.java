@@ -0,0 +1,38 @@
+package com.telas.enums;
+
+import lombok.Getter;
+
+/**
+ * Lembretes de vencimento enviados pelo job diário: quantos dias antes do {@code endsAt} cada um sai,
+ * a notificação usada e a chave do bucket no resumo do scheduler.
+ */
+@Getter
+public enum SubscriptionExpiryReminder {
+    DAYS_15(15, NotificationReference.SUBSCRIPTION_ABOUT_TO_EXPIRY_REMINDER, null, "reminder15"),
+    DAYS_10(10, NotificationReference.SUBSCRIPTION_ABOUT_TO_EXPIRY_10_DAYS, "10", "reminder10"),
+    DAYS_5(5, NotificationReference.SUBSCRIPTION_ABOUT_TO_EXPIRY_5_DAYS, "5", "reminder5"),
+    DAYS_3(3, NotificationReference.SUBSCRIPTION_ABOUT_TO_EXPIRY_3_DAYS, "3", "reminder3"),
+    PENULTIMATE_DAY(1, NotificationReference.SUBSCRIPTION_ABOUT_TO_EXPIRY_PENULTIMATE_DAY, null, "penultimate");
+
+    private final int daysBefore;
+    private final NotificationReference reference;
+    // Valor de "daysRemaining" nos templates de contagem regressiva; nulo nos que não usam.
+    private final String daysRemaining;
+    private final String summaryKey;
+
+    SubscriptionExpiryReminder(int daysBefore, NotificationReference reference, String daysRemaining, String summaryKey) {
+        this.daysBefore = daysBefore;
+        this.reference = reference;
+        this.daysRemaining = daysRemaining;
+        this.summaryKey = summaryKey;
+    }
+
+    public static SubscriptionExpiryReminder forDaysBefore(long daysBefore) {
+        for (SubscriptionExpiryReminder reminder : values()) {
+            if (reminder.daysBefore == daysBefore) {
+                return reminder;
+            }
+        }
+        return null;
+    }
+}
@@ -5,13 +5,11 @@ import com.telas.entities.Client;
 import com.telas.entities.Monitor;
 import com.telas.entities.MonitorAd;
 import com.telas.enums.AdValidationType;
+import com.telas.enums.AdminEmailAlertCategory;
 import com.telas.enums.NotificationReference;
 import com.telas.enums.Permission;
 import com.telas.repositories.AdRepository;
-import com.telas.repositories.ClientRepository;
-import com.telas.services.AdminEmailAlertPreferenceService;
 import com.telas.services.NotificationService;
-import com.telas.services.PermissionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -26,9 +24,6 @@ import java.util.Map;
 public class AdOnAirNotificationHelper {
 
     private final NotificationService notificationService;
-    private final ClientRepository clientRepository;
-    private final PermissionService permissionService;
-    private final AdminEmailAlertPreferenceService adminEmailAlertPreferenceService;
     private final AdRepository adRepository;
 
     @Value("${front.base.url}")
@@ -72,23 +67,9 @@ public class AdOnAirNotificationHelper {
             adminParams.put("clientName", client.getBusinessName());
             adminParams.put("adName", ad.getName());
             adminParams.put("link", adminLink);
-            for (Client recipient : clientRepository.findAllAdminsAndDevelopers()) {
-                boolean canManageAds = recipient.isDeveloper()
-                        || permissionService.hasPermission(recipient, Permission.ADMIN_ADS_MANAGE);
-                if (!canManageAds) {
-                    continue;
-                }
-                boolean sendAdminEmail = sendEmailNotifications
-                        && !recipient.isDeveloper()
-                        && adminEmailAlertPreferenceService.wantsEmail(
-                                recipient.getId(), com.telas.enums.AdminEmailAlertCategory.ADS_MANAGEMENT);
-                notificationService.save(
-                        NotificationReference.ADMIN_AD_ON_AIR,
-                        recipient,
-                        new HashMap<>(adminParams),
-                        sendAdminEmail
-                );
-            }
+            notificationService.notifyAdminsWithPermission(
+                    NotificationReference.ADMIN_AD_ON_AIR, adminParams, Permission.ADMIN_ADS_MANAGE,
+                    AdminEmailAlertCategory.ADS_MANAGEMENT, sendEmailNotifications);
         }
     }
 }
@@ -6,6 +6,7 @@ import com.telas.dtos.response.ClientReferenceAttachmentAdminDto;
 import com.telas.dtos.response.LinkResponseDto;
 import com.telas.entities.*;
 import com.telas.enums.AdValidationType;
+import com.telas.enums.AdminEmailAlertCategory;
 import com.telas.enums.NotificationReference;
 import com.telas.enums.Permission;
 import com.telas.infra.exceptions.BusinessRuleException;
@@ -18,9 +19,7 @@ import com.telas.repositories.ClientRepository;
 import com.telas.services.AdUnusedTrackingService;
 import com.telas.services.BucketService;
 import com.telas.services.BusinessQuestionnaireService;
-import com.telas.services.AdminEmailAlertPreferenceService;
 import com.telas.services.NotificationService;
-import com.telas.services.PermissionService;
 import com.telas.shared.audit.CustomRevisionListener;
 import com.telas.shared.constants.valitation.AdValidationMessages;
 import com.telas.shared.constants.valitation.AttachmentValidationMessages;
@@ -47,8 +46,6 @@ public class AttachmentHelper {
     private final ClientRepository clientRepository;
     private final SubscriptionHelper subscriptionHelper;
     private final MonitorHelper monitorHelper;
-    private final PermissionService permissionService;
-    private final AdminEmailAlertPreferenceService adminEmailAlertPreferenceService;
 
     private final AdUnusedTrackingService adUnusedTrackingService;
 
@@ -298,22 +295,9 @@ public class AttachmentHelper {
         params.put("adName", ad.getName());
         params.put("adminName", actingAdmin != null ? actingAdmin.getBusinessName() : "");
         params.put("link", adminLink);
-        for (Client recipient : clientRepository.findAllAdminsAndDevelopers()) {
-            boolean canManageAds = recipient.isDeveloper()
-                    || permissionService.hasPermission(recipient, Permission.ADMIN_ADS_MANAGE);
-            if (!canManageAds) {
-                continue;
-            }
-            boolean sendEmail = !recipient.isDeveloper()
-                    && adminEmailAlertPreferenceService.wantsEmail(
-                            recipient.getId(), com.telas.enums.AdminEmailAlertCategory.ADS_MANAGEMENT);
-            notificationService.save(
-                    NotificationReference.ADMIN_AD_RESUBMITTED_TO_CLIENT,
-                    recipient,
-                    new HashMap<>(params),
-                    sendEmail
-            );
-        }
+        notificationService.notifyAdminsWithPermission(
+                NotificationReference.ADMIN_AD_RESUBMITTED_TO_CLIENT, params, Permission.ADMIN_ADS_MANAGE,
+                AdminEmailAlertCategory.ADS_MANAGEMENT);
     }
 
     private Ad updateAdDetails(AttachmentRequestDto request, Ad ad) {
@@ -401,17 +385,9 @@ public class AttachmentHelper {
         params.put("clientName", client.getBusinessName());
         params.put("adName", entity.getName());
         params.put("link", adminLink);
-        for (Client recipient : clientRepository.findAllAdminsAndDevelopers()) {
-            boolean canManageAds = recipient.isDeveloper()
-                    || permissionService.hasPermission(recipient, Permission.ADMIN_ADS_MANAGE);
-            if (!canManageAds) {
-                continue;
-            }
-            boolean sendEmail = !recipient.isDeveloper()
-                    && adminEmailAlertPreferenceService.wantsEmail(
-                            recipient.getId(), com.telas.enums.AdminEmailAlertCategory.ADS_MANAGEMENT);
-            notificationService.save(NotificationReference.ADMIN_CLIENT_AD_APPROVED, recipient, new HashMap<>(params), sendEmail);
-        }
+        notificationService.notifyAdminsWithPermission(
+                NotificationReference.ADMIN_CLIENT_AD_APPROVED, params, Permission.ADMIN_ADS_MANAGE,
+                AdminEmailAlertCategory.ADS_MANAGEMENT);
     }
 
     private void notifyAdminsClientRejectedAd(Ad entity, RefusedAdRequestDto request) {
@@ -430,19 +406,11 @@ public class AttachmentHelper {
                 params.put("description", request.getDescription());
             }
         }
-        for (Client recipient : clientRepository.findAllAdminsAndDevelopers()) {
-            boolean canManageAds = recipient.isDeveloper()
-                    || permissionService.hasPermission(recipient, Permission.ADMIN_ADS_MANAGE);
-            if (!canManageAds) {
-                continue;
-            }
-            boolean sendEmail = !recipient.isDeveloper()
-                    && adminEmailAlertPreferenceService.wantsEmail(
-                            recipient.getId(), com.telas.enums.AdminEmailAlertCategory.ADS_MANAGEMENT);
-            Map<String, String> adminParams = new HashMap<>(params);
-            adminParams.put("link", adminLink);
-            notificationService.save(NotificationReference.CLIENT_AD_REJECTED, recipient, adminParams, sendEmail);
-        }
+        Map<String, String> adminParams = new HashMap<>(params);
+        adminParams.put("link", adminLink);
+        notificationService.notifyAdminsWithPermission(
+                NotificationReference.CLIENT_AD_REJECTED, adminParams, Permission.ADMIN_ADS_MANAGE,
+                AdminEmailAlertCategory.ADS_MANAGEMENT);
 
         Map<String, String> clientParams = new HashMap<>(params);
         clientParams.put("link", clientLink);
@@ -457,22 +425,9 @@ public class AttachmentHelper {
         Map<String, String> params = new HashMap<>();
         params.put("clientName", client.getBusinessName());
         params.put("link", adminLink);
-        for (Client recipient : clientRepository.findAllAdminsAndDevelopers()) {
-            boolean canManageAds = recipient.isDeveloper()
-                    || permissionService.hasPermission(recipient, Permission.ADMIN_ADS_MANAGE);
-            if (!canManageAds) {
-                continue;
-            }
-            boolean sendEmail = !recipient.isDeveloper()
-                    && adminEmailAlertPreferenceService.wantsEmail(
-                            recipient.getId(), com.telas.enums.AdminEmailAlertCategory.ADS_MANAGEMENT);
-            notificationService.save(
-                    NotificationReference.ADMIN_CLIENT_FIRST_ATTACHMENTS_UPLOADED,
-                    recipient,
-                    new HashMap<>(params),
-                    sendEmail
-            );
-        }
+        notificationService.notifyAdminsWithPermission(
+                NotificationReference.ADMIN_CLIENT_FIRST_ATTACHMENTS_UPLOADED, params, Permission.ADMIN_ADS_MANAGE,
+                AdminEmailAlertCategory.ADS_MANAGEMENT);
     }
 
     private void validateValidatorPermissions(Ad entity, Client validator) {
@@ -1,28 +1,33 @@
 package com.telas.helpers;
 
+import com.telas.dtos.NotificationFanOutDto;
+import com.telas.dtos.NotificationRecipientDto;
 import com.telas.dtos.request.UpdateBoxMonitorsAdRequestDto;
 import com.telas.entities.Ad;
 import com.telas.entities.Client;
 import com.telas.entities.Monitor;
 import com.telas.entities.MonitorAd;
 import com.telas.entities.Subscription;
+import com.telas.enums.AdminEmailAlertCategory;
 import com.telas.enums.NotificationReference;
 import com.telas.enums.Permission;
-import com.telas.repositories.ClientRepository;
+import com.telas.repositories.AdRepository;
+import com.telas.repositories.MonitorRepository;
 import com.telas.repositories.SubscriptionRepository;
-import com.telas.services.AdminEmailAlertPreferenceService;
+import com.telas.services.BoxCommandService;
 import com.telas.services.NotificationService;
-import com.telas.services.PermissionService;
 import com.telas.shared.constants.SharedConstants;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -30,6 +35,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
@@ -39,42 +45,59 @@ public class BoxAdPushNotificationHelper {
             .withZone(ZoneId.of(SharedConstants.ZONE_ID));
 
     private final NotificationService notificationService;
-    private final ClientRepository clientRepository;
     private final SubscriptionRepository subscriptionRepository;
-    private final PermissionService permissionService;
-    private final AdminEmailAlertPreferenceService adminEmailAlertPreferenceService;
+    private final MonitorRepository monitorRepository;
+    private final AdRepository adRepository;
 
     @Value("${front.base.url}")
     private String frontBaseUrl;
 
-    public void notifyAfterSuccessfulPush(
-            Map<Monitor, List<AbstractMap.SimpleEntry<MonitorAd, UpdateBoxMonitorsAdRequestDto>>> grouped,
-            Set<String> successfulBaseUrls) {
-        if (grouped == null || grouped.isEmpty() || successfulBaseUrls == null || successfulBaseUrls.isEmpty()) {
-            return;
-        }
-
-        Set<Ad> ads = new HashSet<>();
-        for (Map.Entry<Monitor, List<AbstractMap.SimpleEntry<MonitorAd, UpdateBoxMonitorsAdRequestDto>>> e : grouped.entrySet()) {
-            for (AbstractMap.SimpleEntry<MonitorAd, UpdateBoxMonitorsAdRequestDto> pair : e.getValue()) {
-                UpdateBoxMonitorsAdRequestDto dto = pair.getValue();
-                MonitorAd ma = pair.getKey();
-                if (dto == null || ma == null || ma.getAd() == null) {
-                    continue;
-                }
-                if (successfulBaseUrls.contains(dto.getBaseUrl())) {
-                    ads.add(ma.getAd());
-                }
+    /**
+     * Agrupa por box os anúncios de {@code pairs} para {@link BoxCommandService#enqueueUpdateAds}; a notificação
+     * sai por {@link #notifyAfterDelivery} quando o worker confirmar a entrega da playlist.
+     */
+    public static Map<String, List<BoxCommandService.PushedAd>> pushedAdsByBaseUrl(
+            Collection<AbstractMap.SimpleEntry<MonitorAd, UpdateBoxMonitorsAdRequestDto>> pairs) {
+        Map<String, List<BoxCommandService.PushedAd>> out = new HashMap<>();
+        for (AbstractMap.SimpleEntry<MonitorAd, UpdateBoxMonitorsAdRequestDto> pair : pairs) {
+            MonitorAd ma = pair.getKey();
+            UpdateBoxMonitorsAdRequestDto dto = pair.getValue();
+            if (ma == null || ma.getAd() == null || ma.getMonitor() == null || dto == null || dto.getBaseUrl() == null) {
+                continue;
             }
+            out.computeIfAbsent(dto.getBaseUrl(), k -> new ArrayList<>())
+                    .add(new BoxCommandService.PushedAd(ma.getMonitor().getId(), ma.getAd().getId()));
         }
+        return out;
+    }
 
+    @Transactional
+    public void notifyAfterDelivery(Collection<BoxCommandService.PushedAd> pushed) {
+        if (pushed == null || pushed.isEmpty()) {
+            return;
+        }
+        Map<UUID, Monitor> monitorsById = monitorRepository
+                .findAllById(pushed.stream().map(BoxCommandService.PushedAd::monitorId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Monitor::getId, m -> m));
+        List<Ad> ads = adRepository.findAllById(
+                pushed.stream().map(BoxCommandService.PushedAd::adId).collect(Collectors.toSet()));
+        if (ads.isEmpty()) {
+            return;
+        }
+        // Destinatários admin e permissões resolvidos uma vez para a entrega inteira; as notificações de todos os
+        // anúncios saem num único batch.
+        List<NotificationRecipientDto> admins = notificationService.adminRecipientsWithPermission(
+                Permission.ADMIN_ADS_MANAGE, AdminEmailAlertCategory.ADS_MANAGEMENT, true);
+        Map<UUID, String> subscriptionEndsByClient = new HashMap<>();
+        List<NotificationFanOutDto> fanOuts = new ArrayList<>();
         for (Ad ad : ads) {
             Client client = ad.getClient();
             if (client == null) {
                 continue;
             }
-            String monitorsSummary = buildMonitorsSummaryForAd(grouped, successfulBaseUrls, ad.getId());
-            String subscriptionEndsAt = formatSubscriptionEnds(client.getId());
+            String monitorsSummary = buildMonitorsSummaryForAd(pushed, monitorsById, ad.getId());
+            String subscriptionEndsAt = subscriptionEndsByClient.computeIfAbsent(client.getId(), this::formatSubscriptionEnds);
             String clientLink = frontBaseUrl + "/client/my-telas?tab=ads";
             String adminLink = frontBaseUrl + "/admin/clients/" + client.getId() + "/messages";
 
@@ -84,7 +107,8 @@ public class BoxAdPushNotificationHelper {
             clientParams.put("link", clientLink);
             clientParams.put("monitorsSummary", monitorsSummary);
             clientParams.put("subscriptionEndsAt", subscriptionEndsAt);
-            notificationService.save(NotificationReference.CLIENT_AD_DEPLOYED_TO_BOX, client, clientParams, true);
+            fanOuts.add(new NotificationFanOutDto(NotificationReference.CLIENT_AD_DEPLOYED_TO_BOX, clientParams,
+                    List.of(new NotificationRecipientDto(client.getId(), contactEmail(client), true))));
 
             Map<String, String> adminBase = new HashMap<>();
             adminBase.put("clientName", client.getBusinessName());
@@ -92,23 +116,49 @@ public class BoxAdPushNotificationHelper {
             adminBase.put("monitorsSummary", monitorsSummary);
             adminBase.put("subscriptionEndsAt", subscriptionEndsAt);
             adminBase.put("link", adminLink);
+            fanOuts.add(new NotificationFanOutDto(NotificationReference.ADMIN_CLIENT_AD_DEPLOYED_TO_BOX, adminBase, admins));
+        }
+        notificationService.saveAll(fanOuts);
+    }
 
-            for (Client recipient : clientRepository.findAllAdminsAndDevelopers()) {
-                boolean canManageAds = recipient.isDeveloper()
-                        || permissionService.hasPermission(recipient, Permission.ADMIN_ADS_MANAGE);
-                if (!canManageAds) {
-                    continue;
-                }
-                boolean sendEmail = !recipient.isDeveloper()
-                        && adminEmailAlertPreferenceService.wantsEmail(
-                                recipient.getId(), com.telas.enums.AdminEmailAlertCategory.ADS_MANAGEMENT);
-                notificationService.save(
-                        NotificationReference.ADMIN_CLIENT_AD_DEPLOYED_TO_BOX,
-                        recipient,
-                        new HashMap<>(adminBase),
-                        sendEmail);
+    /**
+     * Chamado quando o UPDATE_ADS esgota as tentativas. O e-mail de on-air foi suprimido à espera da confirmação
+     * da box, então sem este alerta ninguém saberia que os anúncios não chegaram.
+     */
+    @Transactional
+    public void notifyDeliveryFailed(Collection<BoxCommandService.PushedAd> pushed) {
+        if (pushed == null || pushed.isEmpty()) {
+            return;
+        }
+        Map<UUID, Monitor> monitorsById = monitorRepository
+                .findAllById(pushed.stream().map(BoxCommandService.PushedAd::monitorId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Monitor::getId, m -> m));
+        List<Ad> ads = adRepository.findAllById(
+                pushed.stream().map(BoxCommandService.PushedAd::adId).collect(Collectors.toSet()));
+        if (ads.isEmpty()) {
+            return;
+        }
+        List<NotificationRecipientDto> admins = notificationService.adminRecipientsWithPermission(
+                Permission.ADMIN_ADS_MANAGE, AdminEmailAlertCategory.ADS_MANAGEMENT, true);
+        List<NotificationFanOutDto> fanOuts = new ArrayList<>();
+        for (Ad ad : ads) {
+            Client client = ad.getClient();
+            if (client == null) {
+                continue;
             }
+            Map<String, String> params = new HashMap<>();
+            params.put("clientName", client.getBusinessName());
+            params.put("adName", ad.getName());
+            params.put("monitorsSummary", buildMonitorsSummaryForAd(pushed, monitorsById, ad.getId()));
+            params.put("link", frontBaseUrl + "/admin/clients/" + client.getId() + "/messages");
+            fanOuts.add(new NotificationFanOutDto(NotificationReference.ADMIN_AD_DEPLOY_FAILED, params, admins));
         }
+        notificationService.saveAll(fanOuts);
+    }
+
+    private static String contactEmail(Client client) {
+        return client.getContact() != null ? client.getContact().getEmail() : null;
     }
 
     private String formatSubscriptionEnds(UUID clientId) {
@@ -128,21 +178,12 @@ public class BoxAdPushNotificationHelper {
     }
 
     private String buildMonitorsSummaryForAd(
-            Map<Monitor, List<AbstractMap.SimpleEntry<MonitorAd, UpdateBoxMonitorsAdRequestDto>>> grouped,
-            Set<String> successfulBaseUrls,
-            UUID adId) {
+            Collection<BoxCommandService.PushedAd> pushed, Map<UUID, Monitor> monitorsById, UUID adId) {
         List<String> lines = new ArrayList<>();
-        for (Map.Entry<Monitor, List<AbstractMap.SimpleEntry<MonitorAd, UpdateBoxMonitorsAdRequestDto>>> e : grouped.entrySet()) {
-            Monitor monitor = e.getKey();
-            boolean relevant = e.getValue().stream().anyMatch(pair -> {
-                UpdateBoxMonitorsAdRequestDto dto = pair.getValue();
-                MonitorAd ma = pair.getKey();
-                return dto != null
-                        && successfulBaseUrls.contains(dto.getBaseUrl())
-                        && ma.getAd() != null
-                        && adId.equals(ma.getAd().getId());
-            });
-            if (!relevant) {
+        Set<UUID> seen = new HashSet<>();
+        for (BoxCommandService.PushedAd p : pushed) {
+            Monitor monitor = monitorsById.get(p.monitorId());
+            if (monitor == null || !adId.equals(p.adId()) || !seen.add(monitor.getId())) {
                 continue;
             }
             String addressPart = "";
@@ -14,6 +14,7 @@ import com.telas.infra.exceptions.BusinessRuleException;
 import com.telas.infra.exceptions.ResourceNotFoundException;
 import com.telas.repositories.*;
 import com.telas.services.AddressService;
+import com.telas.services.BoxCommandService;
 import com.telas.services.PartnerSlotAccessService;
 import com.telas.services.BucketService;
 import com.telas.services.MapsService;
@@ -21,7 +22,6 @@ import com.telas.services.NotificationService;
 import com.telas.shared.constants.SharedConstants;
 import com.telas.shared.constants.valitation.*;
 import com.telas.shared.utils.AttachmentUtils;
-import com.telas.shared.utils.HttpClientUtil;
 import com.telas.shared.utils.ValidateDataUtils;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
@@ -47,18 +47,14 @@ public class ClientHelper {
     private final SubscriptionMonitorRepository subscriptionMonitorRepository;
     private final AddressService addressService;
     private final MapsService mapsService;
-    private final HttpClientUtil httpClient;
+    private final BoxCommandService boxCommandService;
     private final BucketService bucketService;
     private final NotificationService notificationService;
-    private final BoxAdPushNotificationHelper boxAdPushNotificationHelper;
     private final PartnerSlotAccessService partnerSlotAccessService;
 
     @Value("${front.base.url}")
     private String frontBaseUrl;
 
-    @Value("${TOKEN_SECRET}")
-    private String API_KEY;
-
     @Transactional(readOnly = true)
     public void validateClientRequest(ClientRequestDto request, Client client) {
         request.validate();
@@ -292,10 +288,10 @@ public class ClientHelper {
         }
 
         if (!requestList.isEmpty()) {
-            Set<String> successfulBaseUrls = sendBoxesMonitorsUpdateAd(requestList);
-            if (!successfulBaseUrls.isEmpty()) {
-                boxAdPushNotificationHelper.notifyAfterSuccessfulPush(grouped, successfulBaseUrls);
-            }
+            List<AbstractMap.SimpleEntry<MonitorAd, UpdateBoxMonitorsAdRequestDto>> pairs = grouped.values().stream()
+                    .flatMap(Collection::stream)
+                    .toList();
+            sendBoxesMonitorsUpdateAd(requestList, BoxAdPushNotificationHelper.pushedAdsByBaseUrl(pairs));
         }
     }
 
@@ -375,34 +371,26 @@ public class ClientHelper {
         );
     }
 
-    private Set<String> sendBoxesMonitorsUpdateAd(List<UpdateBoxMonitorsAdRequestDto> requestList) {
-        Set<String> successfulBaseUrls = new HashSet<>();
+    private void sendBoxesMonitorsUpdateAd(
+            List<UpdateBoxMonitorsAdRequestDto> requestList,
+            Map<String, List<BoxCommandService.PushedAd>> pushedByBaseUrl) {
         if (requestList == null || requestList.isEmpty()) {
-            return successfulBaseUrls;
+            return;
         }
 
         Map<String, List<UpdateBoxMonitorsAdRequestDto>> grouped = requestList.stream()
                 .filter(Objects::nonNull)
                 .collect(Collectors.groupingBy(UpdateBoxMonitorsAdRequestDto::getBaseUrl));
 
-        Map<String, String> headers = Map.of("X-API-KEY", API_KEY);
-
         grouped.forEach((baseUrl, group) -> {
             if (baseUrl == null || baseUrl.isBlank()) {
                 log.warn("Ignorando grupo com baseUrl nula ou vazia. Itens: {}", group.size());
                 return;
             }
 
-            String url = baseUrl.endsWith("/") ? baseUrl + "update-ads" : baseUrl + "/update-ads";
-            try {
-                log.info("Sending ad update to box URL: {}", url);
-                httpClient.makePostRequest(url, group, Void.class, null, headers);
-                successfulBaseUrls.add(baseUrl);
-            } catch (Exception e) {
-                log.error("Error sending ad update to box URL: {}, message: {}", url, e.getMessage());
-            }
+            log.info("Queueing ad update to box baseUrl: {}", baseUrl);
+            boxCommandService.enqueueUpdateAds(baseUrl, group, pushedByBaseUrl.getOrDefault(baseUrl, List.of()));
         });
-        return successfulBaseUrls;
     }
 
     @Transactional
@@ -2,13 +2,13 @@ package com.telas.helpers;
 
 import com.telas.dtos.request.MonitorAdRequestDto;
 import com.telas.dtos.request.MonitorRequestDto;
-import com.telas.dtos.request.RemoveBoxMonitorsAdRequestDto;
 import com.telas.dtos.request.UpdateBoxMonitorsAdRequestDto;
 import com.telas.dtos.response.MonitorAdResponseDto;
 import com.telas.dtos.response.MonitorValidAdResponseDto;
 import com.telas.entities.Ad;
 import com.telas.entities.Address;
 import com.telas.entities.Monitor;
+import com.telas.entities.MonitorAd;
 import com.telas.entities.SubscriptionMonitor;
 import com.telas.enums.AdValidationType;
 import com.telas.infra.exceptions.BusinessRuleException;
@@ -16,6 +16,7 @@ import com.telas.repositories.AdRepository;
 import com.telas.repositories.MonitorRepository;
 import com.telas.repositories.SubscriptionMonitorRepository;
 import com.telas.services.AddressService;
+import com.telas.services.BoxCommandService;
 import com.telas.services.BucketService;
 import com.telas.services.MapsService;
 import com.telas.shared.constants.valitation.MonitorValidationMessages;
@@ -27,7 +28,6 @@ import jakarta.persistence.criteria.Root;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -54,8 +54,7 @@ public class MonitorHelper {
 
 	private final HttpClientUtil httpClient;
 
-	@Value("${TOKEN_SECRET}")
-	private String API_KEY;
+	private final BoxCommandService boxCommandService;
 
 
 	@Transactional
@@ -156,68 +155,78 @@ public class MonitorHelper {
 	}
 
 
-	public Set<String> syncBoxAdsPlaylist(Monitor monitor, List<UpdateBoxMonitorsAdRequestDto> requestList) {
-		Set<String> successfulBaseUrls = new HashSet<>();
+	public void syncBoxAdsPlaylist(Monitor monitor, List<UpdateBoxMonitorsAdRequestDto> requestList) {
+		syncBoxAdsPlaylist(monitor, requestList, List.of());
+	}
+
+
+	/**
+	 * Enfileira a playlist da box do monitor; os anúncios de {@code notifyOnDelivery} recebem a notificação
+	 * "ad deployed" quando o {@code BoxCommandWorker} confirmar a entrega.
+	 */
+	public void syncBoxAdsPlaylist(
+			Monitor monitor,
+			List<UpdateBoxMonitorsAdRequestDto> requestList,
+			Collection<AbstractMap.SimpleEntry<MonitorAd, UpdateBoxMonitorsAdRequestDto>> notifyOnDelivery) {
 		if (monitor == null || monitor.getBox() == null || monitor.getBox().getBoxAddress() == null) {
-			return successfulBaseUrls;
+			return;
 		}
 		String ip = monitor.getBox().getBoxAddress().getIp();
 		if (ip == null || ip.isBlank()) {
-			return successfulBaseUrls;
+			return;
 		}
 		String baseUrl = String.format("http://%s:8081/", ip);
 		List<UpdateBoxMonitorsAdRequestDto> items = requestList != null ? requestList : List.of();
 		if (items.isEmpty()) {
-			String url = baseUrl.endsWith("/") ? baseUrl + "update-ads" : baseUrl + "/update-ads";
-			try {
-				log.warn(
-						"SYNC_BOX: Sending empty playlist to box (monitor may have zero monitorAds or DTO filters dropped all ads). Monitor id: {}, URL: {}",
-						monitor.getId(),
-						url);
-				httpClient.makePostRequest(url, List.of(), Void.class, null, Map.of("X-API-KEY", API_KEY));
-				successfulBaseUrls.add(baseUrl);
-			} catch (Exception e) {
-				log.error("Error while sending empty playlist, URL: {}, message: {}", url, e.getMessage());
-			}
-			return successfulBaseUrls;
+			log.warn(
+					"SYNC_BOX: Sending empty playlist to box (monitor may have zero monitorAds or DTO filters dropped all ads). Monitor id: {}, baseUrl: {}",
+					monitor.getId(),
+					baseUrl);
+			boxCommandService.enqueueUpdateAds(baseUrl, List.of());
+			return;
 		}
-		return sendBoxesMonitorsUpdateAdsReturnSuccess(items);
+		sendBoxesMonitorsUpdateAds(items, notifyOnDelivery);
 	}
 
 
-	public Set<String> sendBoxesMonitorsUpdateAdsReturnSuccess(List<UpdateBoxMonitorsAdRequestDto> requestList) {
-		Set<String> successfulBaseUrls = new HashSet<>();
+	public void sendBoxesMonitorsUpdateAds(
+			List<UpdateBoxMonitorsAdRequestDto> requestList,
+			Collection<AbstractMap.SimpleEntry<MonitorAd, UpdateBoxMonitorsAdRequestDto>> notifyOnDelivery) {
 		if (requestList == null || requestList.isEmpty()) {
-			return successfulBaseUrls;
+			return;
 		}
+		Map<String, List<BoxCommandService.PushedAd>> pushedByBaseUrl =
+				BoxAdPushNotificationHelper.pushedAdsByBaseUrl(notifyOnDelivery);
 		Map<String, List<UpdateBoxMonitorsAdRequestDto>> grouped = requestList.stream()
 				.filter(Objects::nonNull)
 				.collect(Collectors.groupingBy(UpdateBoxMonitorsAdRequestDto::getBaseUrl));
-		Map<String, String> headers = Map.of("X-API-KEY", API_KEY);
 		grouped.forEach((baseUrl, group) -> {
 			if (baseUrl == null || baseUrl.isBlank()) {
 				log.warn("Skipping box update group with blank baseUrl, size={}", group.size());
 				return;
 			}
-			String url = baseUrl.endsWith("/") ? baseUrl + "update-ads" : baseUrl + "/update-ads";
-			try {
-				log.info("Sending request to update Ads, URL: {}", url);
-				httpClient.makePostRequest(url, group, Void.class, null, headers);
-				successfulBaseUrls.add(baseUrl);
-			} catch (Exception e) {
-				log.error("Error while sending request, URL: {}, message: {}", url, e.getMessage());
-			}
+			log.info("Queueing request to update Ads, baseUrl: {}", baseUrl);
+			boxCommandService.enqueueUpdateAds(baseUrl, group, pushedByBaseUrl.getOrDefault(baseUrl, List.of()));
 		});
-		return successfulBaseUrls;
 	}
 
 
 	public void sendBoxesMonitorsRemoveAds(Monitor monitor, List<String> adNamesToRemove) {
-		String url = String.format("http://%s:8081/remove-ads", monitor.getBox().getBoxAddress().getIp());
-		RemoveBoxMonitorsAdRequestDto dto = new RemoveBoxMonitorsAdRequestDto(adNamesToRemove);
+		String baseUrl = boxBaseUrl(monitor);
 
-		log.info("Sending request to remove ads from boxMonitorsAds for monitor with ID: {}, URL: {}", monitor.getId(), url);
-		executePostRequest(url, dto);
+		log.info("Queueing request to remove ads from boxMonitorsAds for monitor with ID: {}, baseUrl: {}", monitor.getId(), baseUrl);
+		boxCommandService.enqueueRemoveAds(baseUrl, adNamesToRemove);
+	}
+
+
+	public void sendBoxRemoveAds(String baseUrl, Collection<String> adNamesToRemove) {
+		log.info("Queueing request to remove {} ads from box, baseUrl: {}", adNamesToRemove.size(), baseUrl);
+		boxCommandService.enqueueRemoveAds(baseUrl, List.copyOf(adNamesToRemove));
+	}
+
+
+	public String boxBaseUrl(Monitor monitor) {
+		return String.format("http://%s:8081/", monitor.getBox().getBoxAddress().getIp());
 	}
 
 
@@ -237,16 +246,6 @@ public class MonitorHelper {
 	}
 
 
-	private <T> void executePostRequest(String url, T body) {
-		try {
-			Map<String, String> headers = Map.of("X-API-KEY", API_KEY);
-			httpClient.makePostRequest(url, body, Void.class, null, headers);
-		} catch (Exception e) {
-			log.error("Error while sending request, URL: {}, message: {}", url, e.getMessage());
-		}
-	}
-
-
 	@Transactional(readOnly = true)
 	public List<MonitorValidAdResponseDto> getBoxMonitorAdsResponse(Monitor monitor, List<String> adNames) {
 		return monitor.getMonitorAds().stream().filter(monitorAd -> adNames.contains(monitorAd.getAd().getName()))
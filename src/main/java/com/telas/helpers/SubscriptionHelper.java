@@ -5,12 +5,14 @@ import com.stripe.model.Customer;
 import com.stripe.model.Invoice;
 import com.stripe.model.billingportal.Session;
 import com.stripe.param.billingportal.SessionCreateParams;
+import com.telas.dtos.IdempotentNotificationDto;
 import com.telas.dtos.response.MonitorAdResponseDto;
 import com.telas.dtos.response.SubscriptionMonitorResponseDto;
 import com.telas.dtos.response.SubscriptionResponseDto;
 import com.telas.entities.*;
 import com.telas.enums.NotificationReference;
 import com.telas.enums.Recurrence;
+import com.telas.enums.SubscriptionExpiryReminder;
 import com.telas.enums.SubscriptionStatus;
 import com.telas.infra.exceptions.BusinessRuleException;
 import com.telas.infra.exceptions.ForbiddenException;
@@ -244,66 +246,31 @@ public class SubscriptionHelper {
     }
 
 
-    @Transactional
-    public void sendSubscriptionAboutToExpiryEmail(Subscription subscription) {
+    /**
+     * Lembrete de vencimento da assinatura; a chave inclui o {@code endsAt}, então uma renovação (novo fim)
+     * volta a receber os lembretes.
+     */
+    public IdempotentNotificationDto buildExpiryReminder(Subscription subscription, SubscriptionExpiryReminder reminder) {
         Map<String, String> params = new HashMap<>(Map.of(
                 "name", subscription.getClient().getBusinessName(),
                 "link", buildRedirectUrl("subscriptions/" + subscription.getId()),
                 "endDate", DateUtils.formatInstantToString(subscription.getEndsAt())
         ));
-
-        notificationService.save(NotificationReference.SUBSCRIPTION_ABOUT_TO_EXPIRY_REMINDER, subscription.getClient(), params, true);
-    }
-
-    @Transactional
-    public void sendSubscriptionTenDaysBeforeExpiryEmail(Subscription subscription) {
-        notificationService.save(
-                NotificationReference.SUBSCRIPTION_ABOUT_TO_EXPIRY_10_DAYS,
-                subscription.getClient(),
-                buildCountdownExpiryParams(subscription, "10"),
-                true
-        );
-    }
-
-    @Transactional
-    public void sendSubscriptionFiveDaysBeforeExpiryEmail(Subscription subscription) {
-        notificationService.save(
-                NotificationReference.SUBSCRIPTION_ABOUT_TO_EXPIRY_5_DAYS,
-                subscription.getClient(),
-                buildCountdownExpiryParams(subscription, "5"),
-                true
-        );
-    }
-
-    @Transactional
-    public void sendSubscriptionThreeDaysBeforeExpiryEmail(Subscription subscription) {
-        notificationService.save(
-                NotificationReference.SUBSCRIPTION_ABOUT_TO_EXPIRY_3_DAYS,
-                subscription.getClient(),
-                buildCountdownExpiryParams(subscription, "3"),
+        if (reminder.getDaysRemaining() != null) {
+            params.put("daysRemaining", reminder.getDaysRemaining());
+        }
+        Client client = subscription.getClient();
+        String key = reminder.getReference().name() + ":" + subscription.getId() + ":" + subscription.getEndsAt().getEpochSecond();
+        return new IdempotentNotificationDto(
+                key,
+                reminder.getReference(),
+                client.getId(),
+                client.getContact() != null ? client.getContact().getEmail() : null,
+                params,
                 true
         );
     }
 
-    @Transactional
-    public void sendSubscriptionPenultimateDayEmail(Subscription subscription) {
-        Map<String, String> params = new HashMap<>(Map.of(
-                "name", subscription.getClient().getBusinessName(),
-                "link", buildRedirectUrl("subscriptions/" + subscription.getId()),
-                "endDate", DateUtils.formatInstantToString(subscription.getEndsAt())
-        ));
-        notificationService.save(NotificationReference.SUBSCRIPTION_ABOUT_TO_EXPIRY_PENULTIMATE_DAY, subscription.getClient(), params, true);
-    }
-
-    private Map<String, String> buildCountdownExpiryParams(Subscription subscription, String daysRemaining) {
-        return new HashMap<>(Map.of(
-                "name", subscription.getClient().getBusinessName(),
-                "link", buildRedirectUrl("subscriptions/" + subscription.getId()),
-                "endDate", DateUtils.formatInstantToString(subscription.getEndsAt()),
-                "daysRemaining", daysRemaining
-        ));
-    }
-
     public void sendPurchaseConfirmationEmail(Subscription subscription) {
         Map<String, String> params = new HashMap<>(Map.of(
                 "name", subscription.getClient().getBusinessName(),
@@ -319,9 +286,19 @@ public class SubscriptionHelper {
         notificationService.save(NotificationReference.FIRST_SUBSCRIPTION, subscription.getClient(), params, true);
     }
 
+    /**
+     * Avisa os clientes que têm na wishlist algum dos monitores liberados. Quem chama captura os monitores antes de
+     * remover os anúncios da assinatura, que limpa {@code subscriptionMonitors}.
+     */
     @Transactional
     @Async
-    public void notifyClientsWishList(List<Client> clients, Set<Monitor> monitors) {
+    public void notifyClientsWishList(Set<Monitor> monitors) {
+        List<Client> clients = monitors.isEmpty() ? List.of() : clientRepository.findAllByMonitorsInWishlist(monitors);
+        if (clients.isEmpty()) {
+            log.info("No clients or monitors to notify.");
+            return;
+        }
+
         clients.forEach(client -> {
             Set<Monitor> wishlistMonitors = new HashSet<>(client.getWishlist().getMonitors());
             wishlistMonitors.retainAll(monitors);
@@ -0,0 +1,25 @@
+package com.telas.infra.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class BoxConnectivityProbeExecutorConfig {
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService boxConnectivityProbeExecutor(
+            @Value("${monitoring.box-connectivity-probe.max-parallel:16}") int maxParallel) {
+        int n = Math.max(1, Math.min(maxParallel, 64));
+        AtomicInteger seq = new AtomicInteger();
+        return Executors.newFixedThreadPool(n, r -> {
+            Thread t = new Thread(r, "box-probe-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+}
@@ -168,6 +168,17 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return handleExceptionInternal(ex, obj, new HttpHeaders(), HttpStatus.FORBIDDEN, request);
     }
 
+    @ExceptionHandler({TooManyRequestsException.class})
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    public ResponseEntity<?> handleTooManyRequestsException(TooManyRequestsException ex, WebRequest request) {
+        ResponseDto<Object> obj = ResponseDto.fromData(null, HttpStatus.TOO_MANY_REQUESTS, ex.getMessage());
+        // Sem logException: backpressure é esperado e gravar em application_logs só aumentaria a fila cheia.
+        logger.warn("TooManyRequestsException: " + ex.getMessage());
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+        return handleExceptionInternal(ex, obj, headers, HttpStatus.TOO_MANY_REQUESTS, request);
+    }
+
     @ExceptionHandler({InvalidQueryParamsException.class})
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ResponseEntity<?> handleInvalidQueryParamsException(InvalidQueryParamsException ex, WebRequest request) {
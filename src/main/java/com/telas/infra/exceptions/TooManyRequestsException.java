@@ -0,0 +1,19 @@
+package com.telas.infra.exceptions;
+
+import lombok.Getter;
+
+import java.io.Serial;
+
+@Getter
+public class TooManyRequestsException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = -6180375902216641587L;
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
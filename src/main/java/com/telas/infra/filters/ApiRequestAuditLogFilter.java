@@ -3,7 +3,7 @@ package com.telas.infra.filters;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.telas.infra.security.model.AuthenticatedUser;
+import com.telas.infra.security.model.PrincipalSnapshot;
 import com.telas.infra.security.services.AuthenticatedUserService;
 import com.telas.services.ApplicationLogService;
 import com.telas.shared.utils.SensitiveDataMasker;
@@ -71,13 +71,13 @@ public class ApiRequestAuditLogFilter extends OncePerRequestFilter {
             return;
         }
 
-        AuthenticatedUser user;
+        PrincipalSnapshot user;
         try {
-            user = authenticatedUserService.getLoggedUser();
+            user = authenticatedUserService.getLoggedPrincipal();
         } catch (RuntimeException ignored) {
             return;
         }
-        if (user == null || user.isDeveloper() || user.client() == null) {
+        if (user == null || user.developer() || user.clientId() == null) {
             return;
         }
 
@@ -105,7 +105,7 @@ public class ApiRequestAuditLogFilter extends OncePerRequestFilter {
             applicationLogService.persistApiRequestLog(
                 request.getMethod(),
                 endpoint,
-                user.client().getId(),
+                user.clientId(),
                 response.getStatus(),
                 metadata
             );
@@ -0,0 +1,190 @@
+package com.telas.infra.filters;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Descompacta corpos de requisição enviados com {@code Content-Encoding: gzip} nos endpoints de ingestão de logs das
+ * boxes, limitando o tamanho descompactado a {@code max-decompressed-bytes}. Nos demais endpoints o corpo segue intacto.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class GzipRequestBodyFilter extends OncePerRequestFilter {
+
+    private static final Set<String> GZIP_PATHS = Set.of("/monitoring/logs", "/monitoring/logs/batch");
+
+    private final long maxDecompressedBytes;
+
+    public GzipRequestBodyFilter(@Value("${http.request.gzip.max-decompressed-bytes:10485760}") long maxDecompressedBytes) {
+        this.maxDecompressedBytes = Math.max(1L, maxDecompressedBytes);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        if (!"POST".equalsIgnoreCase(request.getMethod()) || !GZIP_PATHS.contains(request.getServletPath())) {
+            return true;
+        }
+        String encoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+        return encoding == null || !encoding.trim().equalsIgnoreCase("gzip");
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+        filterChain.doFilter(new GzipRequest(request, maxDecompressedBytes), response);
+    }
+
+    private static final class GzipRequest extends HttpServletRequestWrapper {
+
+        private final long limit;
+        private ServletInputStream stream;
+        private BufferedReader reader;
+
+        GzipRequest(HttpServletRequest request, long limit) {
+            super(request);
+            this.limit = limit;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (stream == null) {
+                stream = new LimitedGzipInputStream(new GZIPInputStream(super.getInputStream()), limit);
+            }
+            return stream;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            if (reader == null) {
+                String encoding = getCharacterEncoding();
+                Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+                reader = new BufferedReader(new InputStreamReader(getInputStream(), charset));
+            }
+            return reader;
+        }
+
+        @Override
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1L;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            if (isStrippedHeader(name)) {
+                return null;
+            }
+            return super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            if (isStrippedHeader(name)) {
+                return Collections.emptyEnumeration();
+            }
+            return super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            return Collections.enumeration(
+                    Collections.list(super.getHeaderNames()).stream().filter(h -> !isStrippedHeader(h)).toList());
+        }
+
+        private static boolean isStrippedHeader(String name) {
+            return HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name) || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name);
+        }
+    }
+
+    private static final class LimitedGzipInputStream extends ServletInputStream {
+
+        private final InputStream delegate;
+        private final long limit;
+        private long read;
+        private boolean finished;
+
+        LimitedGzipInputStream(InputStream delegate, long limit) {
+            this.delegate = delegate;
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = delegate.read();
+            if (b < 0) {
+                finished = true;
+            } else {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(@NonNull byte[] buf, int off, int len) throws IOException {
+            int n = delegate.read(buf, off, len);
+            if (n < 0) {
+                finished = true;
+            } else {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(int n) throws IOException {
+            read += n;
+            if (read > limit) {
+                throw new IOException("Decompressed request body exceeds " + limit + " bytes");
+            }
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            throw new UnsupportedOperationException("Async read not supported for gzip request bodies");
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
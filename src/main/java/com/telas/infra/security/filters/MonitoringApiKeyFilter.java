@@ -53,8 +53,11 @@ public class MonitoringApiKeyFilter extends OncePerRequestFilter {
         if ("POST".equalsIgnoreCase(method)) {
             return "/boxes/health".equals(path)
                     || "/monitoring/heartbeat".equals(path)
+                    || "/monitoring/heartbeat/batch".equals(path)
                     || "/monitoring/logs".equals(path)
+                    || "/monitoring/logs/batch".equals(path)
                     || "/monitoring/smart-plugs/ingest".equals(path)
+                    || "/monitoring/smart-plugs/ingest/batch".equals(path)
                     || "/monitoring/box-script/commands/ack".equals(path);
         }
         return false;
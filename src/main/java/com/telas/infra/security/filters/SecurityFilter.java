@@ -2,6 +2,7 @@ package com.telas.infra.security.filters;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.telas.dtos.response.ResponseDto;
+import com.telas.infra.security.model.PrincipalSnapshot;
 import com.telas.infra.security.model.TokenData;
 import com.telas.infra.security.services.AuthenticatedUserService;
 import com.telas.infra.security.services.TokenService;
@@ -15,23 +16,20 @@ import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.List;
 
 @Component
 public class SecurityFilter extends OncePerRequestFilter {
     private final TokenService tokenService;
-    private final UserDetailsService userDetailsService;
     private final AuthenticatedUserService authenticatedUserService;
 
-    public SecurityFilter(TokenService tokenService, UserDetailsService userDetailsService, AuthenticatedUserService authenticatedUserService) {
+    public SecurityFilter(TokenService tokenService, AuthenticatedUserService authenticatedUserService) {
         this.tokenService = tokenService;
-        this.userDetailsService = userDetailsService;
         this.authenticatedUserService = authenticatedUserService;
     }
 
@@ -56,12 +54,12 @@ public class SecurityFilter extends OncePerRequestFilter {
                 TokenData tokenData = tokenService.validateToken(idToken);
 
                 if (tokenData != null) {
-                    UserDetails user = userDetailsService.loadUserByUsername(tokenData.getEmail());
-                    Authentication authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+                    PrincipalSnapshot principal = authenticatedUserService.loadPrincipal(tokenData.getEmail());
+                    Authentication authentication = new UsernamePasswordAuthenticationToken(principal, null, List.of());
                     SecurityContextHolder.getContext().setAuthentication(authentication);
 
                     if (!acceptTermsURL && !authenticatedURL) {
-                        authenticatedUserService.verifyTermsAccepted(user);
+                        authenticatedUserService.verifyTermsAccepted(principal);
                     }
                 } else {
                     SecurityContextHolder.clearContext();
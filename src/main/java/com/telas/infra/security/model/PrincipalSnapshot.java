@@ -0,0 +1,41 @@
+package com.telas.infra.security.model;
+
+import com.telas.entities.Client;
+import com.telas.enums.Role;
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+import java.util.UUID;
+
+/**
+ * Dados do usuário autenticado necessários ao filtro de segurança, à auditoria e às checagens de papel e
+ * permissão, sem manter a entidade {@link Client}. É o principal do {@code SecurityContext} nas requisições
+ * autenticadas por token.
+ */
+public record PrincipalSnapshot(UUID clientId, String email, Role role, boolean termsAccepted)
+        implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public boolean admin() {
+        return Role.ADMIN.equals(role);
+    }
+
+    public boolean developer() {
+        return Role.DEVELOPER.equals(role);
+    }
+
+    public boolean privilegedPanelUser() {
+        return admin() || developer();
+    }
+
+    public static PrincipalSnapshot of(Client client) {
+        return new PrincipalSnapshot(
+                client.getId(),
+                client.getContact().getEmail(),
+                client.getRole(),
+                client.isTermsAccepted());
+    }
+}
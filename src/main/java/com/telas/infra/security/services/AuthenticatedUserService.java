@@ -2,24 +2,30 @@ package com.telas.infra.security.services;
 
 import com.telas.enums.Permission;
 import com.telas.infra.security.model.AuthenticatedUser;
-import org.springframework.security.core.userdetails.UserDetails;
+import com.telas.infra.security.model.PrincipalSnapshot;
 
 import java.util.UUID;
 
 public interface AuthenticatedUserService {
   AuthenticatedUser getLoggedUser();
 
-  AuthenticatedUser validateSelfOrAdmin(UUID id);
+  PrincipalSnapshot validateSelfOrAdmin(UUID id);
 
-  AuthenticatedUser validateAdmin();
+  PrincipalSnapshot validateAdmin();
 
-  AuthenticatedUser validateAdminOrAdsManageAccess();
+  PrincipalSnapshot validateAdminOrAdsManageAccess();
 
-  AuthenticatedUser validateDeveloper();
+  PrincipalSnapshot validateDeveloper();
 
   void validatePermission(Permission permission);
 
   AuthenticatedUser validateActiveSubscription();
 
-  void verifyTermsAccepted(UserDetails user);
+  void verifyTermsAccepted(PrincipalSnapshot principal);
+
+  PrincipalSnapshot loadPrincipal(String email);
+
+  PrincipalSnapshot getLoggedPrincipal();
+
+  void evictPrincipal(UUID clientId);
 }
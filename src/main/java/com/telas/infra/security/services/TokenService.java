@@ -7,4 +7,8 @@ public interface TokenService {
     String generateToken(Client client);
 
     TokenData validateToken(String token);
+
+    void invalidateToken(String token);
+
+    void invalidateUser(String email);
 }
@@ -57,6 +57,7 @@ public class AuthServiceImpl implements AuthService {
     @Override
     public void resetPassword(String email, PasswordRequestDto request) {
         clientService.resetPassword(email, request);
+        tokenService.invalidateUser(email);
     }
 
     @Transactional
@@ -65,5 +66,6 @@ public class AuthServiceImpl implements AuthService {
         request.validate();
         AuthenticatedUser authClient = authenticatedUserService.getLoggedUser();
         clientService.updatePassword(request, authClient);
+        tokenService.invalidateUser(authClient.getUsername());
     }
 }
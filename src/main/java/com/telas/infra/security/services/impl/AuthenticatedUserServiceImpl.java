@@ -6,26 +6,37 @@ import com.telas.enums.Permission;
 import com.telas.infra.exceptions.ForbiddenException;
 import com.telas.infra.exceptions.UnauthorizedException;
 import com.telas.infra.security.model.AuthenticatedUser;
+import com.telas.infra.security.model.PrincipalSnapshot;
 import com.telas.infra.security.services.AuthenticatedUserService;
 import com.telas.repositories.ClientRepository;
 import com.telas.services.PermissionService;
 import com.telas.shared.constants.valitation.AuthValidationMessageConstants;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class AuthenticatedUserServiceImpl implements AuthenticatedUserService {
+    private static final String LOGGED_CLIENT_ATTRIBUTE = AuthenticatedUserServiceImpl.class.getName() + ".loggedClient";
+
     private final ClientRepository clientRepository;
     private final PermissionService permissionService;
+    private final PrincipalSnapshotCache principalSnapshotCache;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
-    @Transactional(readOnly = true)
     @Override
     public AuthenticatedUser getLoggedUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -36,6 +47,10 @@ public class AuthenticatedUserServiceImpl implements AuthenticatedUserService {
 
         Object principal = authentication.getPrincipal();
 
+        if (principal instanceof PrincipalSnapshot snapshot) {
+            return loadLoggedUser(snapshot.clientId());
+        }
+
         if (principal instanceof AuthenticatedUser) {
             AuthenticatedUser authenticatedUser = (AuthenticatedUser) principal;
             Client client = clientRepository.findActiveById(authenticatedUser.client().getId())
@@ -61,61 +76,107 @@ public class AuthenticatedUserServiceImpl implements AuthenticatedUserService {
         throw new UnauthorizedException(AuthValidationMessageConstants.ERROR_NO_AUTHENTICATION);
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Carrega o cliente uma vez por requisição. Fora de transação a cópia guardada é reaproveitada (uma busca nova
+     * também sairia destacada); dentro de uma transação só se já pertencer ao persistence context dela, senão busca
+     * de novo para o chamador receber a entidade gerenciada. Checagens de papel e permissão não passam por aqui.
+     */
+    private AuthenticatedUser loadLoggedUser(UUID clientId) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null
+                && attributes.getAttribute(LOGGED_CLIENT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof Client cached
+                && clientId.equals(cached.getId())
+                && (!TransactionSynchronizationManager.isActualTransactionActive() || entityManager.contains(cached))) {
+            return new AuthenticatedUser(cached);
+        }
+        Client client = clientRepository.findActiveById(clientId)
+                .orElseThrow(() -> new UnauthorizedException(AuthValidationMessageConstants.ERROR_NO_AUTHENTICATION));
+        if (attributes != null) {
+            attributes.setAttribute(LOGGED_CLIENT_ATTRIBUTE, client, RequestAttributes.SCOPE_REQUEST);
+        }
+        return new AuthenticatedUser(client);
+    }
+
     @Override
-    public AuthenticatedUser validateSelfOrAdmin(UUID id) {
-        Client loggedClient = getLoggedUser().client();
-        AuthenticatedUser authenticatedUser = new AuthenticatedUser(loggedClient);
+    public PrincipalSnapshot loadPrincipal(String email) {
+        return principalSnapshotCache.get(email);
+    }
 
-        if (loggedClient.isPrivilegedPanelUser() || loggedClient.getId().equals(id)) {
-            return authenticatedUser;
+    @Override
+    public PrincipalSnapshot getLoggedPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            throw new UnauthorizedException(AuthValidationMessageConstants.ERROR_NO_AUTHENTICATION);
+        }
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof PrincipalSnapshot snapshot) {
+            return snapshot;
+        }
+        if (principal instanceof AuthenticatedUser authenticatedUser) {
+            return PrincipalSnapshot.of(authenticatedUser.client());
+        }
+        throw new UnauthorizedException(AuthValidationMessageConstants.ERROR_NO_AUTHENTICATION);
+    }
+
+    @Override
+    public void evictPrincipal(UUID clientId) {
+        principalSnapshotCache.invalidateClient(clientId);
+        permissionService.evictClient(clientId);
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null
+                && attributes.getAttribute(LOGGED_CLIENT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof Client cached
+                && cached.getId().equals(clientId)) {
+            attributes.removeAttribute(LOGGED_CLIENT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    @Override
+    public PrincipalSnapshot validateSelfOrAdmin(UUID id) {
+        PrincipalSnapshot principal = getLoggedPrincipal();
+
+        if (principal.privilegedPanelUser() || principal.clientId().equals(id)) {
+            return principal;
         }
 
         throw new ForbiddenException(AuthValidationMessageConstants.ERROR_NO_PERMISSION);
     }
 
-    @Transactional(readOnly = true)
     @Override
-    public AuthenticatedUser validateAdmin() {
-        Client loggedClient = getLoggedUser().client();
-        AuthenticatedUser authenticatedUser = new AuthenticatedUser(loggedClient);
+    public PrincipalSnapshot validateAdmin() {
+        PrincipalSnapshot principal = getLoggedPrincipal();
 
-        if (loggedClient.isPrivilegedPanelUser()) {
-            return authenticatedUser;
+        if (principal.privilegedPanelUser()) {
+            return principal;
         }
 
         throw new ForbiddenException(AuthValidationMessageConstants.ERROR_NO_PERMISSION);
     }
 
-    @Transactional(readOnly = true)
     @Override
-    public AuthenticatedUser validateAdminOrAdsManageAccess() {
-        Client loggedClient = getLoggedUser().client();
-        AuthenticatedUser authenticatedUser = new AuthenticatedUser(loggedClient);
-        if (loggedClient.isPrivilegedPanelUser()) {
-            return authenticatedUser;
+    public PrincipalSnapshot validateAdminOrAdsManageAccess() {
+        PrincipalSnapshot principal = getLoggedPrincipal();
+        if (principal.privilegedPanelUser()) {
+            return principal;
         }
-        if (permissionService.hasPermission(loggedClient, Permission.ADMIN_ADS_MANAGE)) {
-            return authenticatedUser;
+        if (permissionService.hasPermission(principal.clientId(), principal.role(), Permission.ADMIN_ADS_MANAGE)) {
+            return principal;
         }
         throw new ForbiddenException(AuthValidationMessageConstants.ERROR_NO_PERMISSION);
     }
 
-    @Transactional(readOnly = true)
     @Override
-    public AuthenticatedUser validateDeveloper() {
-        Client loggedClient = getLoggedUser().client();
-        if (loggedClient.isDeveloper()) {
-            return new AuthenticatedUser(loggedClient);
+    public PrincipalSnapshot validateDeveloper() {
+        PrincipalSnapshot principal = getLoggedPrincipal();
+        if (principal.developer()) {
+            return principal;
         }
         throw new ForbiddenException(AuthValidationMessageConstants.ERROR_NO_PERMISSION);
     }
 
     @Override
-    @Transactional(readOnly = true)
     public void validatePermission(Permission permission) {
-        Client loggedClient = getLoggedUser().client();
-        if (!permissionService.hasPermission(loggedClient, permission)) {
+        PrincipalSnapshot principal = getLoggedPrincipal();
+        if (!permissionService.hasPermission(principal.clientId(), principal.role(), permission)) {
             throw new ForbiddenException(AuthValidationMessageConstants.ERROR_NO_PERMISSION);
         }
     }
@@ -123,10 +184,10 @@ public class AuthenticatedUserServiceImpl implements AuthenticatedUserService {
     @Override
     @Transactional(readOnly = true)
     public AuthenticatedUser validateActiveSubscription() {
-        Client loggedClient = getLoggedUser().client();
-        AuthenticatedUser authenticatedUser = new AuthenticatedUser(loggedClient);
+        PrincipalSnapshot principal = getLoggedPrincipal();
+        AuthenticatedUser authenticatedUser = getLoggedUser();
 
-        if (loggedClient.hasActiveSubscription() || loggedClient.isPrivilegedPanelUser()) {
+        if (principal.privilegedPanelUser() || authenticatedUser.client().hasActiveSubscription()) {
             return authenticatedUser;
         }
 
@@ -134,13 +195,10 @@ public class AuthenticatedUserServiceImpl implements AuthenticatedUserService {
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public void verifyTermsAccepted(UserDetails user) {
-        AuthenticatedUser authenticatedUser = (AuthenticatedUser) user;
-
-        if (!authenticatedUser.isAdmin()
-                && !authenticatedUser.isDeveloper()
-                && !authenticatedUser.isTermsAccepted()) {
+    public void verifyTermsAccepted(PrincipalSnapshot principal) {
+        if (!principal.admin()
+                && !principal.developer()
+                && !principal.termsAccepted()) {
             throw new ForbiddenException(AuthValidationMessageConstants.ERROR_TERMS_NOT_ACCEPTED);
         }
     }
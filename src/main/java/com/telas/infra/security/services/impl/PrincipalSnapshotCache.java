@@ -0,0 +1,69 @@
+package com.telas.infra.security.services.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.telas.infra.security.model.AuthenticatedUser;
+import com.telas.infra.security.model.PrincipalSnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Cache curto (entre requisições) de {@link PrincipalSnapshot} por e-mail. Alterações de cadastro, papel,
+ * status ou aceite de termos chamam {@link #invalidateClient(UUID)}; o TTL limita qualquer caminho esquecido.
+ */
+@Component
+public class PrincipalSnapshotCache {
+
+    static final String CACHE_NAME = "security.principals";
+
+    private final UserDetailsServiceImpl userDetailsService;
+    private final Cache<String, PrincipalSnapshot> cache;
+
+    public PrincipalSnapshotCache(
+            UserDetailsServiceImpl userDetailsService,
+            MeterRegistry meterRegistry,
+            @Value("${api.security.principal-cache.ttl-seconds:30}") long ttlSeconds,
+            @Value("${api.security.principal-cache.max-entries:10000}") long maxEntries) {
+        this.userDetailsService = userDetailsService;
+        this.cache =
+                Caffeine.newBuilder()
+                        .maximumSize(maxEntries)
+                        .expireAfterWrite(Duration.ofSeconds(Math.max(1L, ttlSeconds)))
+                        .recordStats()
+                        .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /** Lança {@link org.springframework.security.core.userdetails.UsernameNotFoundException} se não houver cliente ativo. */
+    public PrincipalSnapshot get(String email) {
+        return cache.get(
+                email, k -> PrincipalSnapshot.of(((AuthenticatedUser) userDetailsService.loadUserByUsername(k)).client()));
+    }
+
+    public void invalidateClient(UUID clientId) {
+        if (clientId == null) {
+            return;
+        }
+        evict(clientId);
+        // Remove de novo após o commit: uma requisição concorrente pode ter recarregado o estado antigo.
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(clientId);
+                }
+            });
+        }
+    }
+
+    private void evict(UUID clientId) {
+        cache.asMap().values().removeIf(p -> clientId.equals(p.clientId()));
+    }
+}
@@ -4,12 +4,20 @@ import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.auth0.jwt.interfaces.JWTVerifier;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.telas.entities.Client;
 import com.telas.infra.security.model.AuthenticatedUser;
 import com.telas.infra.security.model.TokenData;
 import com.telas.infra.security.services.TokenService;
 import com.telas.shared.constants.SharedConstants;
 import com.telas.shared.constants.valitation.AuthValidationMessageConstants;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -17,11 +25,18 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Locale;
 import java.util.Set;
 
 @Service
@@ -29,14 +44,64 @@ import java.util.Set;
 public class TokenServiceImpl implements TokenService {
     private final Logger log = LogManager.getLogger(TokenServiceImpl.class);
 
+    static final String CACHE_NAME = "security.jwt-verification";
+    private static final Duration TOKEN_LIFETIME = Duration.ofMinutes(30L);
+
+    private final MeterRegistry meterRegistry;
+
     @Value("${api.security.token.secret}")
     private String secret;
 
+    @Value("${api.security.token.cache.max-entries:10000}")
+    private long cacheMaxEntries;
+
+    private Algorithm algorithm;
+    private JWTVerifier verifier;
+    private Cache<String, CachedToken> verifiedTokens;
+    // Nenhum token vive mais que TOKEN_LIFETIME: depois disso a entrada de revogação não tem mais o que barrar.
+    private Cache<String, Instant> revokedBeforeByEmail;
+    private Cache<String, Boolean> revokedTokens;
+
+    /** Resultado de uma verificação bem-sucedida; vale até o {@code exp} do próprio token. */
+    private record CachedToken(String subject, String email, Instant issuedAt, Instant expiresAt, TokenData tokenData) {
+    }
+
+    @PostConstruct
+    void init() {
+        algorithm = Algorithm.HMAC256(secret);
+        verifier = JWT.require(algorithm).withIssuer(SharedConstants.PROJECT_NAME).build();
+        verifiedTokens =
+                Caffeine.newBuilder()
+                        .maximumSize(cacheMaxEntries)
+                        .expireAfter(new Expiry<String, CachedToken>() {
+                            @Override
+                            public long expireAfterCreate(String key, CachedToken value, long currentTime) {
+                                return timeToLive(value.expiresAt()).toNanos();
+                            }
+
+                            @Override
+                            public long expireAfterUpdate(
+                                    String key, CachedToken value, long currentTime, long currentDuration) {
+                                return timeToLive(value.expiresAt()).toNanos();
+                            }
+
+                            @Override
+                            public long expireAfterRead(
+                                    String key, CachedToken value, long currentTime, long currentDuration) {
+                                return currentDuration;
+                            }
+                        })
+                        .recordStats()
+                        .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, CACHE_NAME);
+        revokedBeforeByEmail = Caffeine.newBuilder().maximumSize(cacheMaxEntries).expireAfterWrite(TOKEN_LIFETIME).build();
+        revokedTokens = Caffeine.newBuilder().maximumSize(cacheMaxEntries).expireAfterWrite(TOKEN_LIFETIME).build();
+    }
+
     @Override
     @Transactional
     public String generateToken(Client client) {
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
             AuthenticatedUser user = new AuthenticatedUser(client);
 
             return JWT.create()
@@ -46,6 +111,7 @@ public class TokenServiceImpl implements TokenService {
                     .withClaim("id", client.getId().toString())
                     .withClaim("businessName", client.getBusinessName())
                     .withClaim("email", client.getContact().getEmail())
+                    .withIssuedAt(Instant.now())
                     .withExpiresAt(genExpirationDate())
                     .sign(algorithm);
         } catch (JWTCreationException ex) {
@@ -55,28 +121,91 @@ public class TokenServiceImpl implements TokenService {
     }
 
     @Override
-    @Transactional
     public TokenData validateToken(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        String key = hash(token);
+        if (revokedTokens.getIfPresent(key) != null) {
+            return null;
+        }
+        CachedToken cached = verifiedTokens.getIfPresent(key);
+        if (cached != null && cached.expiresAt().isAfter(Instant.now())) {
+            return isRevoked(cached.email(), cached.issuedAt()) ? null : cached.tokenData();
+        }
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            var decodedJWT = JWT.require(algorithm)
-                    .withIssuer(SharedConstants.PROJECT_NAME)
-                    .build()
-                    .verify(token);
+            DecodedJWT decodedJWT = verifier.verify(token);
 
             Long id = decodedJWT.getClaim("id").asLong();
             String email = decodedJWT.getClaim("email").asString();
+            TokenData tokenData = new TokenData(id, email);
+            Instant issuedAt = decodedJWT.getIssuedAtAsInstant();
+            if (isRevoked(email, issuedAt)) {
+                return null;
+            }
 
-            return new TokenData(id, email);
+            Instant expiresAt = decodedJWT.getExpiresAtAsInstant();
+            if (expiresAt != null) {
+                verifiedTokens.put(key, new CachedToken(decodedJWT.getSubject(), email, issuedAt, expiresAt, tokenData));
+            }
+            return tokenData;
         } catch (JWTVerificationException ex) {
             log.error("Error while verifying JWT token, message: {}", ex.getMessage());
             return null;
         }
     }
 
+    @Override
+    public void invalidateToken(String token) {
+        if (token != null && !token.isBlank()) {
+            String key = hash(token);
+            revokedTokens.put(key, Boolean.TRUE);
+            verifiedTokens.invalidate(key);
+        }
+    }
+
+    /**
+     * Recusa todo token do usuário emitido até agora. O {@code iat} tem precisão de segundos, então um login no
+     * mesmo segundo da revogação também é recusado.
+     */
+    @Override
+    public void invalidateUser(String email) {
+        if (email == null) {
+            return;
+        }
+        revokedBeforeByEmail.put(email.toLowerCase(Locale.ROOT), Instant.now().truncatedTo(ChronoUnit.SECONDS));
+        verifiedTokens.asMap().values().removeIf(t -> email.equalsIgnoreCase(t.email()));
+    }
+
+    // Token sem iat (emitido antes do claim existir) não tem como provar que é posterior à revogação.
+    private boolean isRevoked(String email, Instant issuedAt) {
+        if (email == null) {
+            return false;
+        }
+        Instant revokedBefore = revokedBeforeByEmail.getIfPresent(email.toLowerCase(Locale.ROOT));
+        return revokedBefore != null && (issuedAt == null || !issuedAt.isAfter(revokedBefore));
+    }
+
+    private static Duration timeToLive(Instant expiresAt) {
+        Duration remaining = Duration.between(Instant.now(), expiresAt);
+        if (remaining.isNegative()) {
+            return Duration.ZERO;
+        }
+        return remaining.compareTo(TOKEN_LIFETIME) > 0 ? TOKEN_LIFETIME : remaining;
+    }
+
+    // A chave é o hash do token: o cache não guarda o JWT em claro.
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 
     Instant genExpirationDate() {
-        return LocalDateTime.now(ZoneOffset.UTC).plusMinutes(30L).toInstant(ZoneOffset.UTC);
+        return LocalDateTime.now(ZoneOffset.UTC).plus(TOKEN_LIFETIME).toInstant(ZoneOffset.UTC);
     }
 
 
@@ -15,4 +15,14 @@ public class KasMonitoringCheckRunner {
     public Map<String, Object> runKasaChecks() {
         return smartPlugCheckService.runAllChecks();
     }
+
+    /** Só a fase de rede: leituras das tomadas, sem transação. */
+    public SmartPlugCheckService.CheckCycle readKasa() {
+        return smartPlugCheckService.collectReadings();
+    }
+
+    /** Grava os check runs do ciclo e avalia as regras. */
+    public Map<String, Object> applyKasa(SmartPlugCheckService.CheckCycle cycle) {
+        return smartPlugCheckService.applyReadings(cycle);
+    }
 }
@@ -10,6 +10,7 @@ import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.util.HashMap;
@@ -40,6 +41,15 @@ public class SidecarSmartPlugClient implements SmartPlugClient {
 
     @Override
     public PlugReading readAtHost(SmartPlugEntity plug, String host, SmartPlugCredentials credentials) {
+        return readAtHostAsync(plug, host, credentials).block();
+    }
+
+    @Override
+    public Mono<PlugReading> readAsync(SmartPlugEntity plug, SmartPlugCredentials credentials) {
+        return readAtHostAsync(plug, plug.getLastSeenIp(), credentials);
+    }
+
+    private Mono<PlugReading> readAtHostAsync(SmartPlugEntity plug, String host, SmartPlugCredentials credentials) {
         if (host == null || host.isBlank()) {
             log.warn(
                     "smartPlug.read.missingHost plugId={} mac={} vendor={} monitorId={} plugBoxId={} effectiveBoxId={}",
@@ -49,7 +59,7 @@ public class SidecarSmartPlugClient implements SmartPlugClient {
                     plug.getMonitor() != null ? plug.getMonitor().getId() : null,
                     plug.getBox() != null ? plug.getBox().getId() : null,
                     resolveBoxIdForDiscovery(plug));
-            return PlugReading.unreachable("missing_host");
+            return Mono.just(PlugReading.unreachable("missing_host"));
         }
         Map<String, Object> body = new HashMap<>();
         body.put("macAddress", plug.getMacAddress());
@@ -59,55 +69,56 @@ public class SidecarSmartPlugClient implements SmartPlugClient {
         String password = credentials != null ? credentials.password() : null;
         body.put("username", username != null ? username : "");
         body.put("password", password != null ? password : "");
-        try {
-            JsonNode root =
-                    webClient
-                            .post()
-                            .uri("/read")
-                            .contentType(MediaType.APPLICATION_JSON)
-                            .bodyValue(body)
-                            .retrieve()
-                            .bodyToMono(JsonNode.class)
-                            .block(timeout);
-            if (root == null) {
-                return PlugReading.unreachable("empty_response");
-            }
-            boolean reachable = root.path("reachable").asBoolean(false);
-            if (!reachable) {
-                return PlugReading.unreachable(
-                        textOrNull(root.path("errorCode")));
-            }
-            return new PlugReading(
-                    true,
-                    readNullableBoolean(root, "relayOn"),
-                    readNullableDouble(root, "powerWatts"),
-                    readNullableDouble(root, "voltageVolts"),
-                    readNullableDouble(root, "currentAmperes"),
+        return webClient
+                .post()
+                .uri("/read")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .timeout(timeout)
+                .map(SidecarSmartPlugClient::toReading)
+                .defaultIfEmpty(PlugReading.unreachable("empty_response"))
+                .onErrorResume(WebClientResponseException.class, e -> {
+                    String responseBody = e.getResponseBodyAsString();
+                    String bodyHint = responseBody != null && responseBody.length() > 300
+                            ? responseBody.substring(0, 300) + "…"
+                            : responseBody;
+                    log.warn(
+                            "smartPlug.read.sidecarHttp plugId={} mac={} vendor={} host={} status={} body={}",
+                            plug.getId(),
+                            plug.getMacAddress(),
+                            plug.getVendor(),
+                            host,
+                            e.getStatusCode().value(),
+                            bodyHint);
+                    return Mono.just(PlugReading.unreachable("http_" + e.getStatusCode().value()));
+                })
+                .onErrorResume(e -> {
+                    log.warn(
+                            "smartPlug.read.sidecarError plugId={} mac={} vendor={} host={}",
+                            plug.getId(),
+                            plug.getMacAddress(),
+                            plug.getVendor(),
+                            host,
+                            e);
+                    return Mono.just(PlugReading.unreachable("sidecar_error"));
+                });
+    }
+
+    private static PlugReading toReading(JsonNode root) {
+        boolean reachable = root.path("reachable").asBoolean(false);
+        if (!reachable) {
+            return PlugReading.unreachable(
                     textOrNull(root.path("errorCode")));
-        } catch (WebClientResponseException e) {
-            String responseBody = e.getResponseBodyAsString();
-            String bodyHint = responseBody != null && responseBody.length() > 300
-                    ? responseBody.substring(0, 300) + "…"
-                    : responseBody;
-            log.warn(
-                    "smartPlug.read.sidecarHttp plugId={} mac={} vendor={} host={} status={} body={}",
-                    plug.getId(),
-                    plug.getMacAddress(),
-                    plug.getVendor(),
-                    host,
-                    e.getStatusCode().value(),
-                    bodyHint);
-            return PlugReading.unreachable("http_" + e.getStatusCode().value());
-        } catch (Exception e) {
-            log.warn(
-                    "smartPlug.read.sidecarError plugId={} mac={} vendor={} host={}",
-                    plug.getId(),
-                    plug.getMacAddress(),
-                    plug.getVendor(),
-                    host,
-                    e);
-            return PlugReading.unreachable("sidecar_error");
         }
+        return new PlugReading(
+                true,
+                readNullableBoolean(root, "relayOn"),
+                readNullableDouble(root, "powerWatts"),
+                readNullableDouble(root, "voltageVolts"),
+                readNullableDouble(root, "currentAmperes"),
+                textOrNull(root.path("errorCode")));
     }
 
     private static UUID resolveBoxIdForDiscovery(SmartPlugEntity plug) {
@@ -1,10 +1,20 @@
 package com.telas.monitoring.plug;
 
 import com.telas.monitoring.entities.SmartPlugEntity;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 public interface SmartPlugClient {
 
     PlugReading read(SmartPlugEntity plug, SmartPlugCredentials credentials);
 
     PlugReading readAtHost(SmartPlugEntity plug, String host, SmartPlugCredentials credentials);
+
+    /**
+     * Leitura sem bloquear a thread de quem chama. Implementações com I/O reativo devem sobrescrever;
+     * o padrão delega para {@link #read} num scheduler elástico.
+     */
+    default Mono<PlugReading> readAsync(SmartPlugEntity plug, SmartPlugCredentials credentials) {
+        return Mono.fromCallable(() -> read(plug, credentials)).subscribeOn(Schedulers.boundedElastic());
+    }
 }
@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -16,11 +17,22 @@ public interface BoxHeartbeatEntityRepository extends JpaRepository<BoxHeartbeat
 
     Optional<BoxHeartbeatEntity> findByBox_Id(UUID boxId);
 
+    List<BoxHeartbeatEntity> findAllByBox_IdIn(Collection<UUID> boxIds);
+
     @Query("""
             SELECT h FROM BoxHeartbeatEntity h
             JOIN FETCH h.box b
             JOIN FETCH b.boxAddress
-            WHERE h.lastSeenAt < :cutoff
+            WHERE b.id IN :boxIds
             """)
-    List<BoxHeartbeatEntity> findStaleHeartbeats(@Param("cutoff") Instant cutoff);
+    List<BoxHeartbeatEntity> findWithBoxByBoxIdIn(@Param("boxIds") Collection<UUID> boxIds);
+
+    interface LastSeenRow {
+        UUID getBoxId();
+
+        Instant getLastSeenAt();
+    }
+
+    @Query("SELECT h.box.id AS boxId, h.lastSeenAt AS lastSeenAt FROM BoxHeartbeatEntity h WHERE h.box.active = true")
+    List<LastSeenRow> findLastSeenOfActiveBoxes();
 }
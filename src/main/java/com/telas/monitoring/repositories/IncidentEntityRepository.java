@@ -4,6 +4,8 @@ import com.telas.monitoring.entities.IncidentEntity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Collection;
@@ -20,4 +22,10 @@ public interface IncidentEntityRepository extends JpaRepository<IncidentEntity,
     boolean existsByBox_IdAndIncidentTypeAndClosedAtIsNull(UUID boxId, String incidentType);
 
     List<IncidentEntity> findAllByBox_IdAndIncidentTypeInAndClosedAtIsNull(UUID boxId, Collection<String> incidentTypes);
+
+    List<IncidentEntity> findAllByBox_IdInAndIncidentTypeInAndClosedAtIsNull(
+            Collection<UUID> boxIds, Collection<String> incidentTypes);
+
+    @Query("SELECT DISTINCT i.box.id FROM IncidentEntity i WHERE i.box IS NOT NULL AND i.incidentType IN :types AND i.closedAt IS NULL")
+    List<UUID> findBoxIdsWithOpenIncidents(@Param("types") Collection<String> incidentTypes);
 }
@@ -47,23 +47,15 @@ public interface SmartPlugCheckRunRepository extends Repository<com.telas.monito
             value =
                     """
                     SELECT
-                        cr.smart_plug_id AS smartPlugId,
-                        cr.started_at AS startedAt,
-                        cr.success AS success,
-                        cr.error_message AS errorMessage,
-                        (cr.metadata_json->>'relayOn')::boolean AS relayOn,
-                        (cr.metadata_json->>'powerWatts')::double precision AS powerWatts,
-                        (cr.metadata_json->>'voltageVolts')::double precision AS voltageVolts,
-                        (cr.metadata_json->>'currentAmperes')::double precision AS currentAmperes
-                    FROM monitoring.check_runs cr
-                    JOIN (
-                        SELECT smart_plug_id, MAX(started_at) AS max_started_at
-                        FROM monitoring.check_runs
-                        WHERE smart_plug_id IS NOT NULL
-                        GROUP BY smart_plug_id
-                    ) last_run
-                        ON last_run.smart_plug_id = cr.smart_plug_id
-                        AND last_run.max_started_at = cr.started_at
+                        lr.smart_plug_id AS smartPlugId,
+                        lr.started_at AS startedAt,
+                        lr.success AS success,
+                        lr.error_message AS errorMessage,
+                        lr.relay_on AS relayOn,
+                        lr.power_watts AS powerWatts,
+                        lr.voltage_volts AS voltageVolts,
+                        lr.current_amperes AS currentAmperes
+                    FROM monitoring.smart_plug_latest_reading lr
                     """,
             nativeQuery = true)
     List<SmartPlugLastReadingRow> findLastReadingsForAllPlugs();
@@ -5,7 +5,9 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -22,6 +24,15 @@ public interface SmartPlugEntityRepository extends JpaRepository<SmartPlugEntity
                     + "WHERE p.enabled = true AND (m IS NOT NULL OR bx IS NOT NULL)")
     List<SmartPlugEntity> findAllEnabledForChecks();
 
+    @Query(
+            "SELECT p FROM SmartPlugEntity p "
+                    + "LEFT JOIN FETCH p.monitor m "
+                    + "LEFT JOIN FETCH m.box mb "
+                    + "LEFT JOIN FETCH p.box bx "
+                    + "LEFT JOIN FETCH p.smartPlugAccount spa "
+                    + "WHERE p.id = :id")
+    Optional<SmartPlugEntity> findWithBoxAndAccountById(@Param("id") UUID id);
+
     List<SmartPlugEntity> findByEnabledTrue();
 
     Optional<SmartPlugEntity> findByMonitor_Id(UUID monitorId);
@@ -30,6 +41,22 @@ public interface SmartPlugEntityRepository extends JpaRepository<SmartPlugEntity
 
     Optional<SmartPlugEntity> findByMacAddress(String macAddress);
 
+    @Query(
+            "SELECT DISTINCT p FROM SmartPlugEntity p "
+                    + "LEFT JOIN FETCH p.monitor m "
+                    + "LEFT JOIN FETCH m.box mb "
+                    + "LEFT JOIN FETCH p.box bx "
+                    + "WHERE p.macAddress IN :macAddresses")
+    List<SmartPlugEntity> findAllWithBoxByMacAddressIn(@Param("macAddresses") Collection<String> macAddresses);
+
+    @Query(
+            "SELECT DISTINCT p FROM SmartPlugEntity p "
+                    + "LEFT JOIN FETCH p.monitor m "
+                    + "LEFT JOIN FETCH m.box mb "
+                    + "LEFT JOIN FETCH p.box bx "
+                    + "WHERE p.id IN :ids")
+    List<SmartPlugEntity> findAllWithBoxByIdIn(@Param("ids") Collection<UUID> ids);
+
     List<SmartPlugEntity> findByMonitorIsNullAndBoxIsNullOrderByCreatedAtDesc();
 
     @Query(
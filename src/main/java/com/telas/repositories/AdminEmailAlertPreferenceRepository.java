@@ -16,6 +16,17 @@ public interface AdminEmailAlertPreferenceRepository extends JpaRepository<Admin
 
     List<AdminEmailAlertPreference> findAllByClient_Id(UUID clientId);
 
+    interface PreferenceRow {
+        UUID getClientId();
+
+        String getAlertCategory();
+
+        Boolean getEnabled();
+    }
+
+    @Query("SELECT p.client.id AS clientId, p.alertCategory AS alertCategory, p.enabled AS enabled FROM AdminEmailAlertPreference p")
+    List<PreferenceRow> findAllRows();
+
     Optional<AdminEmailAlertPreference> findByClient_IdAndAlertCategory(UUID clientId, String alertCategory);
 
     @Modifying
@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -22,6 +23,15 @@ public interface BoxRepository extends JpaRepository<Box, UUID> {
   @Query("SELECT b FROM Box b LEFT JOIN FETCH b.monitors JOIN b.boxAddress ba WHERE ba.ip = :address OR ba.mac = :address")
   Optional<Box> findByAddress(String address);
 
+  @Query("SELECT DISTINCT b FROM Box b JOIN FETCH b.boxAddress ba WHERE ba.ip IN :addresses OR ba.mac IN :addresses")
+  List<Box> findAllByAddressIn(@Param("addresses") Collection<String> addresses);
+
+  @Query("SELECT b.id FROM Box b JOIN b.boxAddress ba WHERE ba.ip = :address OR ba.mac = :address")
+  List<UUID> findIdsByAddress(@Param("address") String address);
+
+  @Query("SELECT b.playlistVersion FROM Box b JOIN b.boxAddress ba WHERE (ba.ip = :address OR ba.mac = :address) AND b.active = true")
+  Optional<Long> findActivePlaylistVersionByAddress(@Param("address") String address);
+
   @Override
   @NotNull
   @Query("SELECT b FROM Box b LEFT JOIN FETCH b.monitors JOIN b.boxAddress ba WHERE b.id = :boxId")
@@ -31,11 +41,22 @@ public interface BoxRepository extends JpaRepository<Box, UUID> {
       "SELECT DISTINCT b FROM Box b JOIN FETCH b.boxAddress LEFT JOIN FETCH b.monitors m LEFT JOIN FETCH m.address")
   List<Box> findAllForTestingOverview();
 
+  interface BoxCreatedRow {
+    UUID getId();
+
+    Instant getCreatedAt();
+  }
+
+  @Query(
+      "SELECT b.id AS id, b.createdAt AS createdAt FROM Box b "
+              + "WHERE b.active = true AND NOT EXISTS (SELECT 1 FROM BoxHeartbeatEntity h WHERE h.box.id = b.id)")
+  List<BoxCreatedRow> findActiveBoxesWithoutHeartbeat();
+
   @Query(
-      "SELECT DISTINCT b FROM Box b JOIN FETCH b.boxAddress LEFT JOIN FETCH b.monitors "
-              + "WHERE b.active = true AND b.createdAt < :graceCutoff "
+      "SELECT b FROM Box b JOIN FETCH b.boxAddress "
+              + "WHERE b.id IN :ids AND b.active = true "
               + "AND NOT EXISTS (SELECT 1 FROM BoxHeartbeatEntity h WHERE h.box.id = b.id)")
-  List<Box> findActiveBoxesWithoutHeartbeatAfterGrace(@Param("graceCutoff") Instant graceCutoff);
+  List<Box> findActiveWithoutHeartbeatByIdIn(@Param("ids") Collection<UUID> ids);
 
   @Query("SELECT DISTINCT b FROM Box b JOIN FETCH b.boxAddress WHERE b.active = true")
   List<Box> findAllActiveWithBoxAddress();
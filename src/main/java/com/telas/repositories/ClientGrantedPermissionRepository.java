@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -22,4 +23,13 @@ public interface ClientGrantedPermissionRepository extends JpaRepository<ClientG
     boolean existsByClient_IdAndPermissionCode(UUID clientId, String permissionCode);
 
     long countByClient_Id(UUID clientId);
+
+    interface ClientPermissionCodeRow {
+        UUID getClientId();
+
+        String getPermissionCode();
+    }
+
+    @Query("SELECT g.client.id AS clientId, g.permissionCode AS permissionCode FROM ClientGrantedPermission g WHERE g.client.id IN :clientIds")
+    List<ClientPermissionCodeRow> findPermissionCodesByClientIds(@Param("clientIds") Collection<UUID> clientIds);
 }
@@ -2,12 +2,14 @@ package com.telas.repositories;
 
 import com.telas.entities.Client;
 import com.telas.entities.Monitor;
+import com.telas.enums.Role;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -35,6 +37,27 @@ public interface ClientRepository extends JpaRepository<Client, UUID>, JpaSpecif
     @Query("SELECT c FROM Client c WHERE c.role IN ('ADMIN', 'DEVELOPER')")
     List<Client> findAllAdminsAndDevelopers();
 
+    interface ClientRoleRow {
+        UUID getId();
+
+        Role getRole();
+    }
+
+    @Query("SELECT c.id AS id, c.role AS role FROM Client c WHERE c.id IN :ids")
+    List<ClientRoleRow> findRolesByIdIn(Collection<UUID> ids);
+
+    interface AdminContactRow {
+        UUID getId();
+
+        Role getRole();
+
+        String getEmail();
+    }
+
+    // LEFT JOIN: admin sem contato continua recebendo a notificação in-app (email nulo).
+    @Query("SELECT c.id AS id, c.role AS role, ct.email AS email FROM Client c LEFT JOIN c.contact ct WHERE c.role IN ('ADMIN', 'DEVELOPER')")
+    List<AdminContactRow> findAdminAndDeveloperContacts();
+
     @Query("SELECT c FROM Client c WHERE c.role = 'DEVELOPER'")
     List<Client> findAllDevelopers();
 
@@ -32,11 +32,17 @@ public interface SubscriptionRepository extends JpaRepository<Subscription, UUID
             """)
     List<Subscription> findActiveSubscriptionsByClientId(@Param("clientId") UUID clientId);
 
+    @Query(
+            "SELECT s.id FROM Subscription s "
+                    + "WHERE s.endsAt IS NOT NULL AND s.endsAt < :now AND s.status = 'ACTIVE' AND s.bonus = false "
+                    + "ORDER BY s.endsAt, s.id")
+    List<UUID> findActiveAndExpiredSubscriptionIds(Instant now);
+
     @Query(
             "SELECT DISTINCT s FROM Subscription s JOIN FETCH s.client c JOIN FETCH c.contact "
                     + "LEFT JOIN FETCH s.subscriptionMonitors sm LEFT JOIN FETCH sm.id.monitor "
-                    + "WHERE s.endsAt IS NOT NULL AND s.endsAt < :now AND s.status = 'ACTIVE' AND s.bonus = false")
-    List<Subscription> getActiveAndExpiredSubscriptions(Instant now);
+                    + "WHERE s.id IN :ids AND s.endsAt IS NOT NULL AND s.endsAt < :now AND s.status = 'ACTIVE' AND s.bonus = false")
+    List<Subscription> findActiveAndExpiredByIdIn(@Param("ids") Collection<UUID> ids, @Param("now") Instant now);
 
     @Query(
             """
@@ -44,12 +50,12 @@ public interface SubscriptionRepository extends JpaRepository<Subscription, UUID
                 JOIN FETCH s.client c
                 JOIN FETCH c.contact
                 WHERE s.endsAt IS NOT NULL
-                  AND FUNCTION('date', s.endsAt) = :targetDate
+                  AND FUNCTION('date', s.endsAt) IN :targetDates
                   AND s.status = 'ACTIVE'
                   AND s.bonus = false
                   AND s.recurrence <> 'MONTHLY'
             """)
-    List<Subscription> findSubscriptionsWithEndsAtOnDate(@Param("targetDate") java.sql.Date targetDate);
+    List<Subscription> findSubscriptionsWithEndsAtOnDates(@Param("targetDates") Collection<java.sql.Date> targetDates);
 
     @Query("SELECT CASE WHEN COUNT(s) > 0 THEN true ELSE false END FROM Subscription s WHERE s.client.id = :clientId")
     boolean existsByClientId(UUID clientId);
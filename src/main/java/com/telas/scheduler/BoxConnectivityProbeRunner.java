@@ -12,18 +12,18 @@ import java.util.UUID;
 public class BoxConnectivityProbeRunner {
 
     private final BoxConnectivityProbeService boxConnectivityProbeService;
-    private final SchedulerJobRunService schedulerJobRunService;
+    private final SchedulerJobRunRecorder schedulerJobRunRecorder;
     private final SchedulerJobRunContext schedulerJobRunContext;
 
     @SchedulerLock(name = "boxConnectivityProbe", lockAtMostFor = "PT10M", lockAtLeastFor = "PT30S")
     public void runLocked() {
-        UUID runId = schedulerJobRunService.start("boxConnectivityProbe");
+        UUID runId = schedulerJobRunRecorder.start(SchedulerJobStatusRegistry.BOX_CONNECTIVITY_PROBE);
         schedulerJobRunContext.begin(runId);
         try {
             boxConnectivityProbeService.runScheduledProbes();
-            schedulerJobRunService.finishSuccess(runId, schedulerJobRunContext.takeSummary());
+            schedulerJobRunRecorder.finishSuccess(runId, schedulerJobRunContext.takeSummary());
         } catch (Throwable t) {
-            schedulerJobRunService.finishFailure(runId, t, schedulerJobRunContext.takeSummary());
+            schedulerJobRunRecorder.finishFailure(runId, t, schedulerJobRunContext.takeSummary());
             throw t;
         }
     }
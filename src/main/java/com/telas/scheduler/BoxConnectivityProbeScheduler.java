@@ -17,15 +17,18 @@ public class BoxConnectivityProbeScheduler {
     private final TaskScheduler connectivityProbeTaskScheduler;
     private final BoxConnectivityProbeRunner boxConnectivityProbeRunner;
     private final MonitoringConnectivityProbeSettingsService monitoringConnectivityProbeSettingsService;
+    private final SchedulerJobStatusRegistry schedulerJobStatusRegistry;
     private volatile ScheduledFuture<?> scheduledFuture;
 
     public BoxConnectivityProbeScheduler(
             @Qualifier("connectivityProbeTaskScheduler") TaskScheduler connectivityProbeTaskScheduler,
             BoxConnectivityProbeRunner boxConnectivityProbeRunner,
-            MonitoringConnectivityProbeSettingsService monitoringConnectivityProbeSettingsService) {
+            MonitoringConnectivityProbeSettingsService monitoringConnectivityProbeSettingsService,
+            SchedulerJobStatusRegistry schedulerJobStatusRegistry) {
         this.connectivityProbeTaskScheduler = connectivityProbeTaskScheduler;
         this.boxConnectivityProbeRunner = boxConnectivityProbeRunner;
         this.monitoringConnectivityProbeSettingsService = monitoringConnectivityProbeSettingsService;
+        this.schedulerJobStatusRegistry = schedulerJobStatusRegistry;
     }
 
     @EventListener(ApplicationReadyEvent.class)
@@ -38,6 +41,7 @@ public class BoxConnectivityProbeScheduler {
             scheduledFuture.cancel(false);
         }
         long delayMs = monitoringConnectivityProbeSettingsService.getIntervalMs();
+        schedulerJobStatusRegistry.updateFixedDelay(SchedulerJobStatusRegistry.BOX_CONNECTIVITY_PROBE, delayMs);
         scheduledFuture =
                 connectivityProbeTaskScheduler.scheduleWithFixedDelay(
                         boxConnectivityProbeRunner::runLocked,
@@ -0,0 +1,18 @@
+package com.telas.scheduler;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca métodos {@code @Scheduled} de manutenção interna (flush de buffers, recarga de caches) que rodam em toda
+ * instância, sem lock: ficam fora de {@link ScheduledJobsObservationAspect}, sem registro em
+ * {@code scheduler_job_runs} nem entrada no overview.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface InternalScheduledTask {
+}
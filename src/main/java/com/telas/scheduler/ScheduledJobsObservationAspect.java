@@ -13,25 +13,31 @@ import org.springframework.stereotype.Component;
 import java.lang.reflect.Method;
 import java.util.UUID;
 
+/**
+ * Roda dentro do interceptor do ShedLock ({@code @EnableSchedulerLock(order = HIGHEST_PRECEDENCE)}): execuções
+ * puladas por falta de lock não viram registro nem aviso de início. Métodos com {@link InternalScheduledTask} não
+ * são observados.
+ */
 @Aspect
 @Component
-@Order(Ordered.HIGHEST_PRECEDENCE)
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
 public class ScheduledJobsObservationAspect {
 
-    private final SchedulerJobRunService schedulerJobRunService;
+    private final SchedulerJobRunRecorder schedulerJobRunRecorder;
     private final SchedulerPreRunNotificationService schedulerPreRunNotificationService;
     private final SchedulerJobRunContext schedulerJobRunContext;
 
     public ScheduledJobsObservationAspect(
-            SchedulerJobRunService schedulerJobRunService,
+            SchedulerJobRunRecorder schedulerJobRunRecorder,
             SchedulerPreRunNotificationService schedulerPreRunNotificationService,
             SchedulerJobRunContext schedulerJobRunContext) {
-        this.schedulerJobRunService = schedulerJobRunService;
+        this.schedulerJobRunRecorder = schedulerJobRunRecorder;
         this.schedulerPreRunNotificationService = schedulerPreRunNotificationService;
         this.schedulerJobRunContext = schedulerJobRunContext;
     }
 
-    @Around("@annotation(org.springframework.scheduling.annotation.Scheduled)")
+    @Around("@annotation(org.springframework.scheduling.annotation.Scheduled) "
+            + "&& !@annotation(com.telas.scheduler.InternalScheduledTask)")
     public Object aroundScheduledJob(ProceedingJoinPoint pjp) throws Throwable {
         MethodSignature signature = (MethodSignature) pjp.getSignature();
         Method method = signature.getMethod();
@@ -44,14 +50,14 @@ public class ScheduledJobsObservationAspect {
         if (cronSchedule) {
             schedulerPreRunNotificationService.notifyCronStarting(jobId);
         }
-        UUID runId = schedulerJobRunService.start(jobId);
+        UUID runId = schedulerJobRunRecorder.start(jobId);
         schedulerJobRunContext.begin(runId);
         try {
             Object result = pjp.proceed();
-            schedulerJobRunService.finishSuccess(runId, schedulerJobRunContext.takeSummary());
+            schedulerJobRunRecorder.finishSuccess(runId, schedulerJobRunContext.takeSummary());
             return result;
         } catch (Throwable t) {
-            schedulerJobRunService.finishFailure(runId, t, schedulerJobRunContext.takeSummary());
+            schedulerJobRunRecorder.finishFailure(runId, t, schedulerJobRunContext.takeSummary());
             throw t;
         }
     }
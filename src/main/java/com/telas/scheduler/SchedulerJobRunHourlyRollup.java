@@ -0,0 +1,148 @@
+package com.telas.scheduler;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Agrega em memória as execuções com sucesso dos jobs amostrados por hora (quantidade, p50, p95 e máximo da
+ * duração) e grava em {@code scheduler_job_run_hourly} quando a hora fecha. Com o lock mudando de instância, a
+ * mesma hora pode ser gravada por mais de uma: as contagens somam, o máximo e o p95 ficam com o maior valor e o
+ * p50 é a média ponderada (aproximação). Cada instância grava as próprias horas encerradas a cada
+ * {@code scheduler.runs.rollup-flush-interval-ms}, sem lock, mesmo quando o job parou de rodar nela.
+ */
+@Component
+public class SchedulerJobRunHourlyRollup {
+
+    private static final Logger log = LoggerFactory.getLogger(SchedulerJobRunHourlyRollup.class);
+
+    /** Limite de amostras por hora para os percentis; contagem e máximo continuam exatos acima disso. */
+    static final int MAX_SAMPLES_PER_BUCKET = 10_000;
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO scheduler_job_run_hourly (job_id, hour_start, success_count, p50_ms, p95_ms, max_ms) "
+                    + "VALUES (?, ?, ?, ?, ?, ?) "
+                    + "ON CONFLICT (job_id, hour_start) DO UPDATE SET "
+                    + "p50_ms = (scheduler_job_run_hourly.p50_ms * scheduler_job_run_hourly.success_count "
+                    + "+ EXCLUDED.p50_ms * EXCLUDED.success_count) "
+                    + "/ (scheduler_job_run_hourly.success_count + EXCLUDED.success_count), "
+                    + "p95_ms = GREATEST(scheduler_job_run_hourly.p95_ms, EXCLUDED.p95_ms), "
+                    + "max_ms = GREATEST(scheduler_job_run_hourly.max_ms, EXCLUDED.max_ms), "
+                    + "success_count = scheduler_job_run_hourly.success_count + EXCLUDED.success_count";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, Bucket> buckets = new HashMap<>();
+
+    public SchedulerJobRunHourlyRollup(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    private static final class Bucket {
+        private final Instant hourStart;
+        private final List<Long> samples = new ArrayList<>();
+        private int count;
+        private long max;
+
+        private Bucket(Instant hourStart) {
+            this.hourStart = hourStart;
+        }
+    }
+
+    public void recordSuccess(String jobId, Instant endedAt, long durationMillis) {
+        Instant hour = endedAt.truncatedTo(ChronoUnit.HOURS);
+        Bucket closed = null;
+        synchronized (this) {
+            Bucket bucket = buckets.get(jobId);
+            if (bucket == null || !bucket.hourStart.equals(hour)) {
+                closed = bucket;
+                bucket = new Bucket(hour);
+                buckets.put(jobId, bucket);
+            }
+            bucket.count++;
+            bucket.max = Math.max(bucket.max, durationMillis);
+            if (bucket.samples.size() < MAX_SAMPLES_PER_BUCKET) {
+                bucket.samples.add(durationMillis);
+            }
+        }
+        if (closed != null) {
+            write(jobId, closed);
+        }
+    }
+
+    @Scheduled(
+            fixedDelayString = "${scheduler.runs.rollup-flush-interval-ms:300000}",
+            initialDelayString = "${scheduler.runs.rollup-flush-interval-ms:300000}")
+    @InternalScheduledTask
+    public void flushClosedHours() {
+        flushCompleted(Instant.now());
+    }
+
+    /** Grava as horas já encerradas (jobs que pararam de rodar nesta instância); devolve quantas foram gravadas. */
+    public int flushCompleted(Instant now) {
+        Instant currentHour = now.truncatedTo(ChronoUnit.HOURS);
+        Map<String, Bucket> closed = new HashMap<>();
+        synchronized (this) {
+            buckets.entrySet().removeIf(e -> {
+                if (e.getValue().hourStart.isBefore(currentHour)) {
+                    closed.put(e.getKey(), e.getValue());
+                    return true;
+                }
+                return false;
+            });
+        }
+        closed.forEach(this::write);
+        return closed.size();
+    }
+
+    @PreDestroy
+    public void flushAll() {
+        Map<String, Bucket> all;
+        synchronized (this) {
+            all = Map.copyOf(buckets);
+            buckets.clear();
+        }
+        all.forEach(this::write);
+    }
+
+    private void write(String jobId, Bucket bucket) {
+        if (bucket.count == 0) {
+            return;
+        }
+        List<Long> sorted = new ArrayList<>(bucket.samples);
+        Collections.sort(sorted);
+        try {
+            jdbcTemplate.update(
+                    UPSERT_SQL,
+                    jobId,
+                    Timestamp.from(bucket.hourStart),
+                    bucket.count,
+                    percentile(sorted, 50),
+                    percentile(sorted, 95),
+                    bucket.max);
+        } catch (DataAccessException e) {
+            log.warn("scheduler.rollup.write_failed jobId={} hour={} err={}", jobId, bucket.hourStart, e.getMessage());
+        }
+    }
+
+    /** Nearest-rank sobre a lista ordenada. */
+    static long percentile(List<Long> sorted, int p) {
+        if (sorted.isEmpty()) {
+            return 0L;
+        }
+        int rank = (int) Math.ceil(p / 100.0 * sorted.size());
+        return sorted.get(Math.max(0, rank - 1));
+    }
+}
@@ -0,0 +1,103 @@
+package com.telas.scheduler;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Política de gravação de {@code scheduler_job_runs}. Jobs fora de {@code scheduler.runs.sampled-jobs} seguem
+ * gravando toda execução (RUNNING no início, atualizada no fim). Nos amostrados (alta frequência) a execução fica
+ * em memória e só vira linha quando falha, quando muda de estado (primeiro sucesso depois de uma falha ou do
+ * boot) ou quando o último sucesso gravado tem mais de {@code success-sample-interval-seconds}; todo sucesso
+ * entra no agregado por hora de {@link SchedulerJobRunHourlyRollup}. Toda execução atualiza
+ * {@link SchedulerJobStatusRegistry}, de onde sai o overview.
+ */
+@Component
+public class SchedulerJobRunRecorder {
+
+    private final SchedulerJobRunService schedulerJobRunService;
+    private final SchedulerJobRunHourlyRollup schedulerJobRunHourlyRollup;
+    private final SchedulerJobStatusRegistry schedulerJobStatusRegistry;
+    private final Set<String> sampledJobs;
+    private final Duration successSampleInterval;
+
+    private record PendingRun(String jobId, Instant startedAt, boolean sampled) {
+    }
+
+    private record LastRecorded(boolean success, Instant at) {
+    }
+
+    private final Map<UUID, PendingRun> pending = new ConcurrentHashMap<>();
+    private final Map<String, LastRecorded> lastRecorded = new ConcurrentHashMap<>();
+
+    public SchedulerJobRunRecorder(
+            SchedulerJobRunService schedulerJobRunService,
+            SchedulerJobRunHourlyRollup schedulerJobRunHourlyRollup,
+            SchedulerJobStatusRegistry schedulerJobStatusRegistry,
+            @Value("${scheduler.runs.sampled-jobs:monitoringWorker,boxConnectivityProbe}") List<String> sampledJobs,
+            @Value("${scheduler.runs.success-sample-interval-seconds:300}") long successSampleIntervalSeconds) {
+        this.schedulerJobRunService = schedulerJobRunService;
+        this.schedulerJobRunHourlyRollup = schedulerJobRunHourlyRollup;
+        this.schedulerJobStatusRegistry = schedulerJobStatusRegistry;
+        this.sampledJobs = sampledJobs.stream().map(String::trim).filter(s -> !s.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        this.successSampleInterval = Duration.ofSeconds(Math.max(0, successSampleIntervalSeconds));
+    }
+
+    public UUID start(String jobId) {
+        boolean sampled = sampledJobs.contains(jobId);
+        UUID runId = sampled ? UUID.randomUUID() : schedulerJobRunService.start(jobId);
+        Instant startedAt = Instant.now();
+        pending.put(runId, new PendingRun(jobId, startedAt, sampled));
+        schedulerJobStatusRegistry.runStarted(jobId, startedAt);
+        return runId;
+    }
+
+    public void finishSuccess(UUID runId, Map<String, Object> summary) {
+        PendingRun run = pending.remove(runId);
+        if (run == null) {
+            schedulerJobRunService.finishSuccess(runId, summary);
+            return;
+        }
+        Instant endedAt = Instant.now();
+        schedulerJobStatusRegistry.runFinished(run.jobId(), run.startedAt(), endedAt, null, summary);
+        if (!run.sampled()) {
+            schedulerJobRunService.finishSuccess(runId, summary);
+            return;
+        }
+        schedulerJobRunHourlyRollup.recordSuccess(
+                run.jobId(), endedAt, Duration.between(run.startedAt(), endedAt).toMillis());
+        LastRecorded last = lastRecorded.get(run.jobId());
+        boolean record = last == null
+                || !last.success()
+                || !endedAt.isBefore(last.at().plus(successSampleInterval));
+        if (record) {
+            schedulerJobRunService.recordFinished(run.jobId(), run.startedAt(), endedAt, null, summary);
+            lastRecorded.put(run.jobId(), new LastRecorded(true, endedAt));
+        }
+    }
+
+    public void finishFailure(UUID runId, Throwable error, Map<String, Object> summary) {
+        PendingRun run = pending.remove(runId);
+        if (run == null) {
+            schedulerJobRunService.finishFailure(runId, error, summary);
+            return;
+        }
+        Instant endedAt = Instant.now();
+        schedulerJobStatusRegistry.runFinished(run.jobId(), run.startedAt(), endedAt, error, summary);
+        if (!run.sampled()) {
+            schedulerJobRunService.finishFailure(runId, error, summary);
+            return;
+        }
+        schedulerJobRunService.recordFinished(run.jobId(), run.startedAt(), endedAt, error, summary);
+        lastRecorded.put(run.jobId(), new LastRecorded(false, endedAt));
+    }
+}
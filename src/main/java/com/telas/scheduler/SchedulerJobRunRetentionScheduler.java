@@ -0,0 +1,68 @@
+package com.telas.scheduler;
+
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Retenção de {@code scheduler_job_runs} e {@code scheduler_job_run_hourly}. Remove em lotes com commit próprio
+ * (sem transação envolvendo o job) para não segurar locks longos no primeiro purge de uma tabela grande; a última
+ * execução de cada job é mantida para o overview. O flush do agregado por hora roda em toda instância, em
+ * {@link SchedulerJobRunHourlyRollup#flushClosedHours()}.
+ */
+@Component
+public class SchedulerJobRunRetentionScheduler {
+
+    private static final String DELETE_RUNS_SQL =
+            "DELETE FROM scheduler_job_runs WHERE id IN "
+                    + "(SELECT r.id FROM scheduler_job_runs r WHERE r.started_at < ? "
+                    + "AND r.started_at < (SELECT max(l.started_at) FROM scheduler_job_runs l WHERE l.job_id = r.job_id) "
+                    + "LIMIT ?)";
+
+    private static final String DELETE_HOURLY_SQL = "DELETE FROM scheduler_job_run_hourly WHERE hour_start < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SchedulerJobRunContext schedulerJobRunContext;
+
+    @Value("${scheduler.runs.retention.days:30}")
+    private int runsRetentionDays;
+
+    @Value("${scheduler.runs.hourly-retention.days:180}")
+    private int hourlyRetentionDays;
+
+    @Value("${scheduler.runs.retention.batch-size:5000}")
+    private int batchSize;
+
+    public SchedulerJobRunRetentionScheduler(
+            JdbcTemplate jdbcTemplate,
+            SchedulerJobRunContext schedulerJobRunContext) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.schedulerJobRunContext = schedulerJobRunContext;
+    }
+
+    @Scheduled(
+            cron = "${scheduler.runs.retention.cron:0 15 * * * *}",
+            zone = "${app.scheduler.zone:America/New_York}")
+    @SchedulerLock(name = "purgeSchedulerJobRuns", lockAtMostFor = "PT30M")
+    public void purge() {
+        Instant now = Instant.now();
+        Timestamp runsCutoff = Timestamp.from(now.minus(runsRetentionDays, ChronoUnit.DAYS));
+        int limit = Math.max(1, batchSize);
+        long runsDeleted = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(DELETE_RUNS_SQL, runsCutoff, limit);
+            runsDeleted += deleted;
+        } while (deleted >= limit);
+        int hourlyDeleted = jdbcTemplate.update(
+                DELETE_HOURLY_SQL, Timestamp.from(now.minus(hourlyRetentionDays, ChronoUnit.DAYS)));
+        schedulerJobRunContext.put("runsDeleted", runsDeleted);
+        schedulerJobRunContext.put("hourlyDeleted", hourlyDeleted);
+    }
+}
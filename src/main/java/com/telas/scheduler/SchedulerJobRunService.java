@@ -56,15 +56,33 @@ public class SchedulerJobRunService {
                         row -> {
                             row.setEndedAt(Instant.now());
                             row.setStatus(SchedulerJobRunStatus.FAILED);
-                            row.setErrorMessage(
-                                    error != null && error.getMessage() != null
-                                            ? truncate(error.getMessage(), 4000)
-                                            : "failed");
+                            row.setErrorMessage(errorMessage(error));
                             row.setResultSummary(SchedulerJobResultSummarySupport.normalize(objectMapper, summary));
                             schedulerJobRunRepository.save(row);
                         });
     }
 
+    /** Grava de uma vez uma execução já terminada (jobs amostrados não gravam a linha RUNNING no início). */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void recordFinished(
+            String jobId, Instant startedAt, Instant endedAt, Throwable error, Map<String, Object> summary) {
+        SchedulerJobRunEntity row = new SchedulerJobRunEntity();
+        row.setId(UUID.randomUUID());
+        row.setJobId(jobId);
+        row.setStartedAt(startedAt);
+        row.setEndedAt(endedAt);
+        row.setStatus(error == null ? SchedulerJobRunStatus.SUCCESS : SchedulerJobRunStatus.FAILED);
+        if (error != null) {
+            row.setErrorMessage(errorMessage(error));
+        }
+        row.setResultSummary(SchedulerJobResultSummarySupport.normalize(objectMapper, summary));
+        schedulerJobRunRepository.save(row);
+    }
+
+    private static String errorMessage(Throwable error) {
+        return error != null && error.getMessage() != null ? truncate(error.getMessage(), 4000) : "failed";
+    }
+
     private static String truncate(String s, int max) {
         if (s == null || s.length() <= max) {
             return s;
@@ -0,0 +1,320 @@
+package com.telas.scheduler;
+
+import com.cronutils.model.CronType;
+import com.cronutils.model.definition.CronDefinitionBuilder;
+import com.cronutils.model.time.ExecutionTime;
+import com.cronutils.parser.CronParser;
+import com.telas.dtos.response.SchedulerJobStatusResponseDto;
+import com.telas.scheduler.model.SchedulerJobRunEntity;
+import com.telas.scheduler.model.SchedulerJobRunStatus;
+import com.telas.scheduler.repository.SchedulerJobRunRepository;
+import net.javacrumbs.shedlock.support.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Estado em memória dos jobs do overview (última execução, último sucesso, última falha e próximo disparo já
+ * calculado), atualizado por {@link SchedulerJobRunRecorder} a cada execução desta instância. É montado a partir
+ * de {@code scheduler_job_runs} no startup; depois, a cada {@code scheduler.registry.refresh-ms}, lê a tabela
+ * {@code shedlock} e recarrega do banco só os jobs cujo lock foi tomado por outra instância.
+ */
+@Component
+public class SchedulerJobStatusRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(SchedulerJobStatusRegistry.class);
+
+    public static final String BOX_CONNECTIVITY_PROBE = "boxConnectivityProbe";
+
+    private static final String LOCKS_SQL = "SELECT name, locked_at, locked_by FROM shedlock";
+
+    private static final CronParser CRON_PARSER =
+            new CronParser(CronDefinitionBuilder.instanceDefinitionFor(CronType.SPRING));
+
+    private final SchedulerJobRunRepository schedulerJobRunRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final String hostname = Utils.getHostname();
+
+    private final Map<String, JobState> jobs = new LinkedHashMap<>();
+    private final Map<String, LockSeen> locks = new ConcurrentHashMap<>();
+    private volatile boolean seeded;
+
+    private record LockSeen(String lockedBy, Timestamp lockedAt) {
+    }
+
+    private static final class JobState {
+        private final String jobId;
+        private final String title;
+        private final String cronExpression;
+        private final ZoneId zone;
+        private Long fixedDelayMillis;
+        private Instant lastStartedAt;
+        private Instant lastEndedAt;
+        private String lastStatus;
+        private Map<String, Object> lastRunSummary;
+        private Instant lastSuccessAt;
+        private Instant lastFailureAt;
+        private String lastFailureMessage;
+        private Instant nextFireAt;
+
+        private JobState(String jobId, String title, String cronExpression, ZoneId zone, Long fixedDelayMillis) {
+            this.jobId = jobId;
+            this.title = title;
+            this.cronExpression = cronExpression;
+            this.zone = zone;
+            this.fixedDelayMillis = fixedDelayMillis;
+        }
+    }
+
+    public SchedulerJobStatusRegistry(
+            SchedulerJobRunRepository schedulerJobRunRepository,
+            JdbcTemplate jdbcTemplate,
+            @Value("${app.scheduler.zone:America/New_York}") String appSchedulerZone,
+            @Value("${monitoring.log.retention.cron:0 0 3 * * *}") String monitoringLogRetentionCron,
+            @Value("${subscription.cron.remove-expired-ads:0 0 4 * * *}") String removeExpiredAdsCron,
+            @Value("${subscription.cron.expiry-emails:0 0 6 * * *}") String expiryEmailsCron,
+            @Value("${cleanup.ads.cron:0 0 5 * * *}") String cleanupAdsCron,
+            @Value("${scheduler.runs.retention.cron:0 15 * * * *}") String schedulerRunsRetentionCron,
+            @Value("${monitoring.worker.heartbeat-check-interval-ms:10000}") long monitoringWorkerIntervalMs,
+            @Value("${monitoring.box-connectivity-probe.interval-ms:300000}") long boxConnectivityProbeIntervalMs) {
+        this.schedulerJobRunRepository = schedulerJobRunRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        ZoneId zoneId = ZoneId.of(appSchedulerZone);
+        cron("purgeApplicationLogs", "Purge application logs (retention)", monitoringLogRetentionCron, zoneId);
+        cron("removeAdsFromExpiredSubscriptionsLock", "Remove ads from expired subscriptions", removeExpiredAdsCron, zoneId);
+        cron("sendSubscriptionExpirationEmailLock", "Subscription expiry reminder emails", expiryEmailsCron, zoneId);
+        cron("cleanupUnusedAds", "Unused approved ads retention (S3 + DB)", cleanupAdsCron, zoneId);
+        cron("purgeSchedulerJobRuns", "Scheduler runs retention", schedulerRunsRetentionCron, zoneId);
+        fixedDelay(
+                "monitoringWorker",
+                "Monitoring worker (heartbeats + Kasa a cada monitoring.worker.interval-ms)",
+                monitoringWorkerIntervalMs);
+        fixedDelay(BOX_CONNECTIVITY_PROBE, "Box connectivity probe (TCP, Box ping logs tab)", boxConnectivityProbeIntervalMs);
+    }
+
+    private void cron(String jobId, String title, String expression, ZoneId zone) {
+        jobs.put(jobId, new JobState(jobId, title, expression, zone, null));
+    }
+
+    private void fixedDelay(String jobId, String title, long intervalMs) {
+        jobs.put(jobId, new JobState(jobId, title, null, null, intervalMs));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Instant now = Instant.now();
+        try {
+            Map<String, LockSeen> current = readLocks();
+            for (String jobId : jobs.keySet()) {
+                reload(jobId, now);
+            }
+            locks.putAll(current);
+        } catch (DataAccessException e) {
+            log.warn("scheduler.registry.seed_failed err={}", e.getMessage());
+        }
+        seeded = true;
+    }
+
+    public void runStarted(String jobId, Instant startedAt) {
+        JobState state = jobs.get(jobId);
+        if (state == null) {
+            return;
+        }
+        synchronized (state) {
+            state.lastStartedAt = startedAt;
+            state.lastEndedAt = null;
+            state.lastStatus = SchedulerJobRunStatus.RUNNING;
+            state.lastRunSummary = null;
+        }
+    }
+
+    public void runFinished(
+            String jobId, Instant startedAt, Instant endedAt, Throwable error, Map<String, Object> summary) {
+        JobState state = jobs.get(jobId);
+        if (state == null) {
+            return;
+        }
+        synchronized (state) {
+            state.lastStartedAt = startedAt;
+            state.lastEndedAt = endedAt;
+            state.lastRunSummary = summary == null || summary.isEmpty() ? null : summary;
+            if (error == null) {
+                state.lastStatus = SchedulerJobRunStatus.SUCCESS;
+                state.lastSuccessAt = endedAt;
+            } else {
+                state.lastStatus = SchedulerJobRunStatus.FAILED;
+                state.lastFailureAt = endedAt;
+                state.lastFailureMessage = error.getMessage() != null ? error.getMessage() : "failed";
+            }
+            state.nextFireAt = computeNext(state, endedAt);
+        }
+    }
+
+    /** Intervalo do probe é configurável em runtime (ver {@link BoxConnectivityProbeScheduler#reschedule()}). */
+    public void updateFixedDelay(String jobId, long intervalMs) {
+        JobState state = jobs.get(jobId);
+        if (state == null) {
+            return;
+        }
+        synchronized (state) {
+            state.fixedDelayMillis = intervalMs;
+            state.nextFireAt = computeNext(state, Instant.now());
+        }
+    }
+
+    public List<SchedulerJobStatusResponseDto> snapshot(Instant now) {
+        List<SchedulerJobStatusResponseDto> out = new ArrayList<>(jobs.size());
+        for (JobState state : jobs.values()) {
+            synchronized (state) {
+                if (state.cronExpression != null && (state.nextFireAt == null || !state.nextFireAt.isAfter(now))) {
+                    state.nextFireAt = computeNext(state, now);
+                }
+                out.add(toDto(state, now));
+            }
+        }
+        return out;
+    }
+
+    void refresh() {
+        Instant now = Instant.now();
+        for (Map.Entry<String, LockSeen> e : readLocks().entrySet()) {
+            String jobId = e.getKey();
+            LockSeen current = e.getValue();
+            if (!jobs.containsKey(jobId) || current.equals(locks.put(jobId, current))) {
+                continue;
+            }
+            if (!hostname.equals(current.lockedBy())) {
+                reload(jobId, now);
+            }
+        }
+        // Execução de outra instância ainda RUNNING: o locked_at não muda mais até o fim, então relê até terminar.
+        for (JobState state : jobs.values()) {
+            LockSeen lock = locks.get(state.jobId);
+            boolean running;
+            synchronized (state) {
+                running = SchedulerJobRunStatus.RUNNING.equals(state.lastStatus);
+            }
+            if (running && lock != null && !hostname.equals(lock.lockedBy())) {
+                reload(state.jobId, now);
+            }
+        }
+    }
+
+    /** Só depois do seed do startup: antes disso o estado ainda não veio do banco. */
+    @Scheduled(
+            fixedDelayString = "${scheduler.registry.refresh-ms:30000}",
+            initialDelayString = "${scheduler.registry.refresh-ms:30000}")
+    @InternalScheduledTask
+    public void refreshQuietly() {
+        if (!seeded) {
+            return;
+        }
+        try {
+            refresh();
+        } catch (DataAccessException e) {
+            log.warn("scheduler.registry.refresh_failed err={}", e.getMessage());
+        } catch (Exception e) {
+            log.error("scheduler.registry.refresh_failed", e);
+        }
+    }
+
+    private Map<String, LockSeen> readLocks() {
+        Map<String, LockSeen> out = new LinkedHashMap<>();
+        jdbcTemplate.query(LOCKS_SQL, rs -> {
+            out.put(rs.getString("name"), new LockSeen(rs.getString("locked_by"), rs.getTimestamp("locked_at")));
+        });
+        return out;
+    }
+
+    private void reload(String jobId, Instant now) {
+        SchedulerJobRunEntity last = schedulerJobRunRepository.findFirstByJobIdOrderByStartedAtDesc(jobId).orElse(null);
+        SchedulerJobRunEntity success = schedulerJobRunRepository
+                .findFirstByJobIdAndStatusOrderByStartedAtDesc(jobId, SchedulerJobRunStatus.SUCCESS)
+                .orElse(null);
+        SchedulerJobRunEntity failure = schedulerJobRunRepository
+                .findFirstByJobIdAndStatusOrderByStartedAtDesc(jobId, SchedulerJobRunStatus.FAILED)
+                .orElse(null);
+        JobState state = jobs.get(jobId);
+        synchronized (state) {
+            // Jobs amostrados podem ter rodado aqui depois da última linha gravada: a memória vence se for mais nova.
+            if (last != null && !isAfter(state.lastStartedAt, last.getStartedAt())) {
+                state.lastStartedAt = last.getStartedAt();
+                state.lastEndedAt = last.getEndedAt();
+                state.lastStatus = last.getStatus();
+                state.lastRunSummary = last.getResultSummary();
+            }
+            if (success != null && !isAfter(state.lastSuccessAt, endedOrStarted(success))) {
+                state.lastSuccessAt = endedOrStarted(success);
+            }
+            if (failure != null && !isAfter(state.lastFailureAt, endedOrStarted(failure))) {
+                state.lastFailureAt = endedOrStarted(failure);
+                state.lastFailureMessage = failure.getErrorMessage();
+            }
+            state.nextFireAt = computeNext(state, now);
+        }
+    }
+
+    private static boolean isAfter(Instant inMemory, Instant fromDb) {
+        return inMemory != null && fromDb != null && inMemory.isAfter(fromDb);
+    }
+
+    private static Instant endedOrStarted(SchedulerJobRunEntity row) {
+        return row.getEndedAt() != null ? row.getEndedAt() : row.getStartedAt();
+    }
+
+    private static Instant computeNext(JobState state, Instant now) {
+        if (state.cronExpression != null) {
+            try {
+                return ExecutionTime.forCron(CRON_PARSER.parse(state.cronExpression))
+                        .nextExecution(ZonedDateTime.ofInstant(now, state.zone))
+                        .map(ZonedDateTime::toInstant)
+                        .orElse(null);
+            } catch (Exception ex) {
+                return null;
+            }
+        }
+        Instant base = state.lastEndedAt != null ? state.lastEndedAt : state.lastStartedAt;
+        return base != null && state.fixedDelayMillis != null ? base.plusMillis(state.fixedDelayMillis) : null;
+    }
+
+    private static SchedulerJobStatusResponseDto toDto(JobState state, Instant now) {
+        SchedulerJobStatusResponseDto dto = new SchedulerJobStatusResponseDto();
+        dto.setJobId(state.jobId);
+        dto.setTitle(state.title);
+        dto.setScheduleKind(state.cronExpression != null ? "CRON" : "FIXED_DELAY");
+        dto.setCronExpression(state.cronExpression);
+        dto.setZone(state.zone != null ? state.zone.getId() : null);
+        dto.setFixedDelayMillis(state.fixedDelayMillis);
+        dto.setNextExecutionEstimated(state.nextFireAt);
+        dto.setLastStartedAt(state.lastStartedAt);
+        dto.setLastEndedAt(state.lastEndedAt);
+        dto.setLastStatus(state.lastStatus);
+        if (state.lastStartedAt != null && state.lastEndedAt != null) {
+            dto.setLastDurationMillis(Duration.between(state.lastStartedAt, state.lastEndedAt).toMillis());
+        } else if (SchedulerJobRunStatus.RUNNING.equals(state.lastStatus) && state.lastStartedAt != null) {
+            dto.setLastDurationMillis(Duration.between(state.lastStartedAt, now).toMillis());
+        }
+        dto.setLastRunSummary(state.lastRunSummary);
+        dto.setLastSuccessAt(state.lastSuccessAt);
+        dto.setLastFailureAt(state.lastFailureAt);
+        dto.setLastFailureMessage(state.lastFailureMessage);
+        return dto;
+    }
+}
@@ -11,4 +11,6 @@ import java.util.UUID;
 public interface SchedulerJobRunRepository extends JpaRepository<SchedulerJobRunEntity, UUID> {
 
     Optional<SchedulerJobRunEntity> findFirstByJobIdOrderByStartedAtDesc(String jobId);
+
+    Optional<SchedulerJobRunEntity> findFirstByJobIdAndStatusOrderByStartedAtDesc(String jobId, String status);
 }
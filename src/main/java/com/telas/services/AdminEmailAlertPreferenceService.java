@@ -1,5 +1,6 @@
 package com.telas.services;
 
+import com.telas.dtos.NotificationRecipientDto;
 import com.telas.dtos.response.EmailAlertCategoryOptionDto;
 import com.telas.dtos.response.EmailAlertPreferencesResponseDto;
 import com.telas.enums.AdminEmailAlertCategory;
@@ -13,6 +14,11 @@ public interface AdminEmailAlertPreferenceService {
 
     boolean wantsEmail(UUID clientId, AdminEmailAlertCategory category);
 
+    /**
+     * Todos os ADMIN/DEVELOPER com {@code sendEmail} resolvido para a categoria, lidos do snapshot em memória.
+     */
+    List<NotificationRecipientDto> recipientsFor(AdminEmailAlertCategory category);
+
     EnumMap<AdminEmailAlertCategory, Boolean> getPreferencesForAdmin(UUID clientId);
 
     EmailAlertPreferencesResponseDto getPreferencesResponseForAdmin(UUID clientId);
@@ -1,18 +1,9 @@
 package com.telas.services;
 
-import com.telas.dtos.response.ApplicationLogResponseDto;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-
-import java.time.Instant;
+import com.telas.dtos.request.filters.ApplicationLogFilterRequestDto;
+import com.telas.dtos.response.ApplicationLogPageResponseDto;
 
 public interface ApplicationLogQueryService {
 
-    Page<ApplicationLogResponseDto> findAll(
-            String source,
-            String level,
-            Instant from,
-            Instant to,
-            String q,
-            Pageable pageable);
+    ApplicationLogPageResponseDto search(ApplicationLogFilterRequestDto request);
 }
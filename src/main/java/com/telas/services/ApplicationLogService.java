@@ -1,5 +1,6 @@
 package com.telas.services;
 
+import com.telas.dtos.request.BoxLogBatchRequestDto;
 import com.telas.dtos.request.BoxLogRequestDto;
 
 import java.util.Map;
@@ -11,6 +12,8 @@ public interface ApplicationLogService {
 
     void persistBoxLog(BoxLogRequestDto request);
 
+    void persistBoxLogBatch(BoxLogBatchRequestDto request);
+
     void persistSystemLog(String level, String message, String source, Map<String, Object> metadata);
 
     void persistApiRequestLog(
@@ -0,0 +1,29 @@
+package com.telas.services;
+
+import com.telas.dtos.request.UpdateBoxMonitorsAdRequestDto;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface BoxCommandService {
+    /** Anúncio de um monitor cuja notificação "ad deployed" sai quando a box confirmar a playlist. */
+    record PushedAd(UUID monitorId, UUID adId) {
+    }
+
+    /**
+     * Grava a playlist da box na fila na transação corrente; a entrega acontece depois do commit, pelo worker. Um
+     * UPDATE_ADS ainda pendente para a mesma box é descartado (SUPERSEDED), já que a playlist nova o substitui por
+     * inteiro; as notificações que ele carregava passam para o comando novo.
+     */
+    default void enqueueUpdateAds(String baseUrl, List<UpdateBoxMonitorsAdRequestDto> playlist) {
+        enqueueUpdateAds(baseUrl, playlist, List.of());
+    }
+
+    /** Como {@link #enqueueUpdateAds(String, List)}, notificando {@code notifyOnDelivery} quando a box confirmar. */
+    void enqueueUpdateAds(
+            String baseUrl, List<UpdateBoxMonitorsAdRequestDto> playlist, Collection<PushedAd> notifyOnDelivery);
+
+    /** Grava um REMOVE_ADS na fila na transação corrente; a entrega acontece depois do commit, pelo worker. */
+    void enqueueRemoveAds(String baseUrl, List<String> fileNames);
+}
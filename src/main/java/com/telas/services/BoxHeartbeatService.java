@@ -1,8 +1,13 @@
 package com.telas.services;
 
 import com.telas.dtos.request.HeartbeatRequestDto;
+import com.telas.dtos.response.HeartbeatBatchResponseDto;
+
+import java.util.List;
 
 public interface BoxHeartbeatService {
 
     void persistHeartbeat(HeartbeatRequestDto request);
+
+    HeartbeatBatchResponseDto persistHeartbeats(List<HeartbeatRequestDto> requests);
 }
@@ -15,5 +15,7 @@ public interface BoxService {
 
     List<BoxMonitorAdResponseDto> getMonitorsAdsByAddress(String address);
 
+    String getPlaylistETag(String address);
+
     void updateHealth(StatusBoxMonitorsRequestDto request);
 }
\ No newline at end of file
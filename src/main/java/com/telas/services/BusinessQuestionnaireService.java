@@ -53,8 +53,6 @@ public class BusinessQuestionnaireService {
     private final AdRequestRepository adRequestRepository;
     private final ClientRepository clientRepository;
     private final NotificationService notificationService;
-    private final PermissionService permissionService;
-    private final AdminEmailAlertPreferenceService adminEmailAlertPreferenceService;
 
     @Value("${front.base.url}")
     private String frontBaseUrl;
@@ -219,22 +217,9 @@ public class BusinessQuestionnaireService {
         base.put("revisionVersion", String.valueOf(version));
         base.put("link", adminLink);
         base.put("adRequestId", adRequest.getId().toString());
-        for (Client recipient : clientRepository.findAllAdminsAndDevelopers()) {
-            boolean canManageAds = recipient.isDeveloper()
-                    || permissionService.hasPermission(recipient, Permission.ADMIN_ADS_MANAGE);
-            if (!canManageAds) {
-                continue;
-            }
-            boolean sendEmail = !recipient.isDeveloper()
-                    && adminEmailAlertPreferenceService.wantsEmail(
-                            recipient.getId(), AdminEmailAlertCategory.ADS_MANAGEMENT);
-            notificationService.save(
-                    NotificationReference.AD_REQUEST_QUESTIONNAIRE_UPDATED,
-                    recipient,
-                    new HashMap<>(base),
-                    sendEmail
-            );
-        }
+        notificationService.notifyAdminsWithPermission(
+                NotificationReference.AD_REQUEST_QUESTIONNAIRE_UPDATED, base, Permission.ADMIN_ADS_MANAGE,
+                AdminEmailAlertCategory.ADS_MANAGEMENT);
     }
 
     private void validateAnswers(BusinessQuestionnaireAnswersRequestDto dto) {
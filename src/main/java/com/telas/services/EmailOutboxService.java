@@ -0,0 +1,16 @@
+package com.telas.services;
+
+import com.telas.dtos.EmailDataDto;
+
+import java.util.Map;
+import java.util.UUID;
+
+public interface EmailOutboxService {
+    /**
+     * Grava o e-mail no outbox na transação corrente; o envio acontece depois do commit, pelo worker.
+     */
+    void enqueue(EmailDataDto data, UUID notificationId);
+
+    /** Igual a {@link #enqueue}, com um único batch JDBC para todas as linhas. */
+    void enqueueAll(Map<UUID, EmailDataDto> emailsByNotificationId);
+}
@@ -2,6 +2,15 @@ package com.telas.services;
 
 import com.telas.dtos.EmailDataDto;
 
+import java.util.List;
+import java.util.Map;
+
 public interface EmailService {
     void send(EmailDataDto data);
+
+    /**
+     * Envia o lote reaproveitando uma única conexão SMTP. Não lança exceção por mensagem: devolve as falhas
+     * indexadas pela posição em {@code batch} (vazio quando todas foram enviadas).
+     */
+    Map<Integer, Exception> sendAll(List<EmailDataDto> batch);
 }
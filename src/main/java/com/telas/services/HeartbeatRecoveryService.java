@@ -2,7 +2,12 @@ package com.telas.services;
 
 import com.telas.entities.Box;
 
+import java.util.Collection;
+
 public interface HeartbeatRecoveryService {
 
     void recoverAfterSuccessfulHeartbeat(Box box);
+
+    /** Mesmo efeito de {@link #recoverAfterSuccessfulHeartbeat} para várias boxes, com uma consulta de incidentes. */
+    void recoverAfterSuccessfulHeartbeats(Collection<Box> boxes);
 }
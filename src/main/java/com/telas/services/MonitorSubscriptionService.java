@@ -3,7 +3,17 @@ package com.telas.services;
 import com.telas.entities.Subscription;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Map;
+import java.util.Set;
+
 public interface MonitorSubscriptionService {
     @Transactional
     RemoveMonitorAdsOutcome removeMonitorAdsFromSubscription(Subscription subscription);
+
+    /**
+     * Igual a {@link #removeMonitorAdsFromSubscription(Subscription)}, mas em vez de enviar um remove-ads por monitor
+     * acumula os nomes em {@code boxRemovals} (base URL da box -> anúncios), para o chamador enviar um comando por box.
+     */
+    @Transactional
+    RemoveMonitorAdsOutcome removeMonitorAdsFromSubscription(Subscription subscription, Map<String, Set<String>> boxRemovals);
 }
@@ -1,16 +1,61 @@
 package com.telas.services;
 
+import com.telas.dtos.IdempotentNotificationDto;
+import com.telas.dtos.NotificationFanOutDto;
+import com.telas.dtos.NotificationRecipientDto;
 import com.telas.dtos.response.NotificationResponseDto;
 import com.telas.entities.Client;
+import com.telas.enums.AdminEmailAlertCategory;
 import com.telas.enums.NotificationReference;
+import com.telas.enums.Permission;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 public interface NotificationService {
     void save(NotificationReference notificationReference, Client client, Map<String, String> params, boolean sendEmail);
 
+    /**
+     * Fan-out: mesma referência e parâmetros para vários destinatários. A mensagem é renderizada uma vez e
+     * as notificações (e os e-mails no outbox) são gravados em batch JDBC.
+     */
+    void saveAll(NotificationReference notificationReference, Map<String, String> params, List<NotificationRecipientDto> recipients);
+
+    /**
+     * Vários fan-outs (referências e parâmetros distintos) num único batch JDBC; cada mensagem é renderizada uma vez.
+     */
+    void saveAll(List<NotificationFanOutDto> fanOuts);
+
+    /**
+     * Grava as notificações num único INSERT, ignorando chaves de idempotência que já existem, e enfileira os
+     * e-mails só das inseridas agora. Devolve as chaves inseridas.
+     */
+    Set<String> saveAllIdempotent(List<IdempotentNotificationDto> notifications);
+
+    default void notifyAdminsWithPermission(
+            NotificationReference notificationReference, Map<String, String> params, Permission permission,
+            AdminEmailAlertCategory emailCategory) {
+        notifyAdminsWithPermission(notificationReference, params, permission, emailCategory, true);
+    }
+
+    /**
+     * Notifica os ADMIN com {@code permission} e todos os DEVELOPER (ver {@link #adminRecipientsWithPermission})
+     * num único batch JDBC.
+     */
+    void notifyAdminsWithPermission(
+            NotificationReference notificationReference, Map<String, String> params, Permission permission,
+            AdminEmailAlertCategory emailCategory, boolean allowEmail);
+
+    /**
+     * ADMIN com {@code permission} e todos os DEVELOPER, resolvidos em no máximo duas consultas. E-mail só para ADMIN
+     * que quer a {@code emailCategory}; {@code allowEmail = false} desliga todos. Quem notifica vários itens de uma vez
+     * resolve aqui uma vez e grava com {@link #saveAll(List)}.
+     */
+    List<NotificationRecipientDto> adminRecipientsWithPermission(
+            Permission permission, AdminEmailAlertCategory emailCategory, boolean allowEmail);
+
     NotificationResponseDto findById(UUID id);
 
     List<NotificationResponseDto> listClientNotifications(List<UUID> ids);
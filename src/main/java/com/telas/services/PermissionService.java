@@ -2,8 +2,11 @@ package com.telas.services;
 
 import com.telas.entities.Client;
 import com.telas.enums.Permission;
+import com.telas.enums.Role;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -11,6 +14,17 @@ public interface PermissionService {
 
     boolean hasPermission(Client client, Permission permission);
 
+    /** Mesma decisão sem a entidade, com o papel já conhecido (ex.: do principal da requisição). */
+    boolean hasPermission(UUID clientId, Role role, Permission permission);
+
+    /** Decisão para vários clientes com no máximo duas consultas (papéis + permissões ainda fora do cache). */
+    Map<UUID, Boolean> hasPermission(Collection<UUID> clientIds, Permission permission);
+
+    /** Decisão em lote com os papéis já carregados pelo chamador: só consulta as permissões fora do cache. */
+    Map<UUID, Boolean> hasPermission(Map<UUID, Role> rolesById, Permission permission);
+
+    void evictClient(UUID clientId);
+
     List<String> listPermissionCodesForClient(UUID clientId);
 
     void replacePermissionsForAdmin(UUID targetClientId, Set<Permission> permissions, UUID grantedByClientId);
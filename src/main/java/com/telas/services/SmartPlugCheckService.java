@@ -1,40 +1,56 @@
 package com.telas.services;
 
+import com.telas.monitoring.entities.BoxHeartbeatEntity;
 import com.telas.monitoring.entities.CheckRunEntity;
 import com.telas.monitoring.entities.SmartPlugEntity;
 import com.telas.monitoring.plug.PlugReading;
 import com.telas.monitoring.plug.SmartPlugClient;
 import com.telas.monitoring.plug.SmartPlugCredentials;
 import com.telas.monitoring.repositories.BoxHeartbeatEntityRepository;
-import com.telas.monitoring.repositories.CheckRunEntityRepository;
 import com.telas.monitoring.repositories.SmartPlugEntityRepository;
+import com.telas.services.impl.BoxHeartbeatWriteBuffer;
+import com.telas.services.impl.SmartPlugCheckPersistence;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Ciclo de checagem das tomadas: leituras concorrentes (até {@code max-parallel}) sem transação aberta,
+ * cada uma limitada por {@code per-plug-timeout-ms} e o ciclo todo por {@code cycle-timeout-ms}. Depois
+ * grava todos os check runs e a última leitura de cada tomada numa transação curta e avalia as regras com uma única consulta de heartbeats.
+ */
 @Service
 @RequiredArgsConstructor
 public class SmartPlugCheckService {
 
     private static final Logger log = LoggerFactory.getLogger(SmartPlugCheckService.class);
 
+    static final String PLUG_TIMEOUT = "timeout";
+    static final String CYCLE_DEADLINE_EXCEEDED = "cycle_deadline_exceeded";
+
     private final SmartPlugEntityRepository smartPlugEntityRepository;
     private final SmartPlugClient smartPlugClient;
     private final SmartPlugCredentialsResolver credentialsResolver;
     private final BoxHeartbeatEntityRepository boxHeartbeatEntityRepository;
-    private final CheckRunEntityRepository checkRunEntityRepository;
     private final SmartPlugRulesService smartPlugRulesService;
+    private final BoxHeartbeatWriteBuffer boxHeartbeatWriteBuffer;
+    private final SmartPlugCheckPersistence smartPlugCheckPersistence;
 
     @Value("${monitoring.kasa.raise-incidents:true}")
     private boolean raiseIncidents;
@@ -42,24 +58,81 @@ public class SmartPlugCheckService {
     @Value("${monitoring.heartbeat.stale-seconds:180}")
     private long staleSeconds;
 
+    @Value("${monitoring.kasa.check.max-parallel:16}")
+    private int maxParallel = 16;
+
+    @Value("${monitoring.kasa.check.per-plug-timeout-ms:10000}")
+    private long perPlugTimeoutMs = 10_000L;
+
+    @Value("${monitoring.kasa.check.cycle-timeout-ms:30000}")
+    private long cycleTimeoutMs = 30_000L;
+
     private static final int KASA_SUMMARY_MAX_FAILED_IDS = 50;
 
-    @Transactional
+    /** Resultado da fase de rede: tomadas (com associações já carregadas) e a leitura de cada uma. */
+    public record CheckCycle(
+            List<SmartPlugEntity> plugs,
+            Map<UUID, PlugReading> readings,
+            Map<UUID, Instant> startedAt,
+            Instant finishedAt,
+            long startedNanos) {
+    }
+
+    /** Leituras e gravação do ciclo numa chamada só; o monitoring worker usa as duas fases separadamente. */
     public Map<String, Object> runAllChecks() {
+        return applyReadings(collectReadings());
+    }
+
+    /** Fase de rede: carrega as tomadas e lê todas, sem transação. */
+    public CheckCycle collectReadings() {
+        long startedNanos = System.nanoTime();
         List<SmartPlugEntity> plugs = smartPlugEntityRepository.findAllEnabledForChecks();
+        Map<UUID, Instant> startedAt = new ConcurrentHashMap<>();
+        Map<UUID, PlugReading> readings = readAll(plugs, startedAt);
+        return new CheckCycle(plugs, readings, startedAt, Instant.now(), startedNanos);
+    }
+
+    /** Fase de escrita: grava os check runs numa transação curta e avalia as regras (uma transação por tomada). */
+    public Map<String, Object> applyReadings(CheckCycle cycle) {
+        List<SmartPlugEntity> plugs = cycle.plugs();
+        Map<UUID, PlugReading> readings = cycle.readings();
+        Instant finishedAt = cycle.finishedAt();
         int failures = 0;
         List<String> failedPlugIds = new ArrayList<>();
+
+        List<CheckRunEntity> runs = new ArrayList<>(plugs.size());
+        int timedOut = 0;
         for (SmartPlugEntity plug : plugs) {
-            try {
-                runSingle(plug);
-            } catch (Exception e) {
-                failures++;
-                log.warn("Smart plug check failed plugId={}", plug.getId(), e);
-                if (failedPlugIds.size() < KASA_SUMMARY_MAX_FAILED_IDS) {
-                    failedPlugIds.add(plug.getId().toString());
+            PlugReading reading = readings.get(plug.getId());
+            if (reading == null) {
+                reading = PlugReading.unreachable(CYCLE_DEADLINE_EXCEEDED);
+                readings.put(plug.getId(), reading);
+            }
+            if (!reading.reachable()
+                    && (PLUG_TIMEOUT.equals(reading.errorCode()) || CYCLE_DEADLINE_EXCEEDED.equals(reading.errorCode()))) {
+                timedOut++;
+            }
+            runs.add(toCheckRun(plug, reading, cycle.startedAt().getOrDefault(plug.getId(), finishedAt), finishedAt));
+        }
+        smartPlugCheckPersistence.saveRuns(runs);
+
+        if (raiseIncidents && !plugs.isEmpty()) {
+            Set<UUID> staleBoxIds = findStaleBoxIds(plugs);
+            for (SmartPlugEntity plug : plugs) {
+                try {
+                    UUID boxId = resolveHeartbeatBoxId(plug);
+                    boolean heartbeatStale = boxId == null || staleBoxIds.contains(boxId);
+                    smartPlugRulesService.evaluate(plug, readings.get(plug.getId()), heartbeatStale);
+                } catch (Exception e) {
+                    failures++;
+                    log.warn("Smart plug check failed plugId={}", plug.getId(), e);
+                    if (failedPlugIds.size() < KASA_SUMMARY_MAX_FAILED_IDS) {
+                        failedPlugIds.add(plug.getId().toString());
+                    }
                 }
             }
         }
+
         Map<String, Object> summary = new LinkedHashMap<>();
         summary.put("kasaPlugsChecked", plugs.size());
         summary.put("kasaFailures", failures);
@@ -67,30 +140,86 @@ public class SmartPlugCheckService {
         if (failures > failedPlugIds.size()) {
             summary.put("kasaFailedIdsTruncated", true);
         }
+        summary.put("kasaTimedOut", timedOut);
+        summary.put("kasaDurationMs", Duration.ofNanos(System.nanoTime() - cycle.startedNanos()).toMillis());
         return summary;
     }
 
-    private void runSingle(SmartPlugEntity plug) {
-        SmartPlugCredentials credentials = credentialsResolver.resolve(plug);
-        PlugReading reading = smartPlugClient.read(plug, credentials);
-        persistCheckRun(plug, reading);
-        if (!raiseIncidents) {
-            return;
+    private Map<UUID, PlugReading> readAll(List<SmartPlugEntity> plugs, Map<UUID, Instant> startedAt) {
+        Map<UUID, PlugReading> readings = new ConcurrentHashMap<>();
+        if (plugs.isEmpty()) {
+            return readings;
+        }
+        // Credenciais resolvidas antes do Flux: o resolver vai ao banco e não pode rodar nas threads de I/O do client.
+        Map<UUID, SmartPlugCredentials> credentials = new HashMap<>();
+        List<SmartPlugEntity> readable = new ArrayList<>(plugs.size());
+        for (SmartPlugEntity plug : plugs) {
+            try {
+                credentials.put(plug.getId(), credentialsResolver.resolve(plug));
+                readable.add(plug);
+            } catch (Exception e) {
+                log.warn("Smart plug check failed plugId={}", plug.getId(), e);
+                startedAt.put(plug.getId(), Instant.now());
+                readings.put(plug.getId(), PlugReading.unreachable("check_error"));
+            }
+        }
+        Duration perPlugTimeout = Duration.ofMillis(Math.max(1L, perPlugTimeoutMs));
+        try {
+            Flux.fromIterable(readable)
+                    .flatMap(plug -> readOne(plug, credentials.get(plug.getId()), perPlugTimeout, startedAt)
+                            .doOnNext(reading -> readings.put(plug.getId(), reading)), Math.max(1, maxParallel))
+                    .take(Duration.ofMillis(Math.max(1L, cycleTimeoutMs)))
+                    .then()
+                    .block();
+        } catch (Exception e) {
+            log.warn("smartPlug.check.cycleFailed plugs={} read={}", plugs.size(), readings.size(), e);
         }
-        boolean heartbeatStale = isHeartbeatStale(plug);
-        smartPlugRulesService.evaluate(plug, reading, heartbeatStale);
+        if (readings.size() < plugs.size()) {
+            log.warn(
+                    "smartPlug.check.cycleDeadlineExceeded plugs={} read={} cycleTimeoutMs={}",
+                    plugs.size(),
+                    readings.size(),
+                    cycleTimeoutMs);
+        }
+        return readings;
+    }
+
+    private Mono<PlugReading> readOne(
+            SmartPlugEntity plug, SmartPlugCredentials credentials, Duration timeout, Map<UUID, Instant> startedAt) {
+        return Mono.defer(() -> {
+                    startedAt.put(plug.getId(), Instant.now());
+                    return smartPlugClient.readAsync(plug, credentials);
+                })
+                .timeout(timeout, Mono.fromSupplier(() -> PlugReading.unreachable(PLUG_TIMEOUT)))
+                .onErrorResume(e -> {
+                    log.warn("Smart plug check failed plugId={}", plug.getId(), e);
+                    return Mono.just(PlugReading.unreachable("check_error"));
+                });
     }
 
-    private boolean isHeartbeatStale(SmartPlugEntity plug) {
-        UUID boxId = resolveHeartbeatBoxId(plug);
-        if (boxId == null) {
-            return true;
+    private Set<UUID> findStaleBoxIds(List<SmartPlugEntity> plugs) {
+        Set<UUID> boxIds = new HashSet<>();
+        for (SmartPlugEntity plug : plugs) {
+            UUID boxId = resolveHeartbeatBoxId(plug);
+            if (boxId != null) {
+                boxIds.add(boxId);
+            }
         }
         Instant cutoff = Instant.now().minusSeconds(staleSeconds);
-        return boxHeartbeatEntityRepository
-                .findByBox_Id(boxId)
-                .map(h -> h.getLastSeenAt().isBefore(cutoff))
-                .orElse(true);
+        // Heartbeats recentes ainda no buffer (não gravados) já bastam; o banco só é consultado pelo resto.
+        boxIds.removeIf(boxId -> boxHeartbeatWriteBuffer.lastSeenAt(boxId).filter(seen -> !seen.isBefore(cutoff)).isPresent());
+        Set<UUID> stale = new HashSet<>(boxIds);
+        if (boxIds.isEmpty()) {
+            return stale;
+        }
+        for (BoxHeartbeatEntity heartbeat : boxHeartbeatEntityRepository.findAllByBox_IdIn(boxIds)) {
+            if (heartbeat.getBox() != null
+                    && heartbeat.getLastSeenAt() != null
+                    && !heartbeat.getLastSeenAt().isBefore(cutoff)) {
+                stale.remove(heartbeat.getBox().getId());
+            }
+        }
+        return stale;
     }
 
     private static UUID resolveHeartbeatBoxId(SmartPlugEntity plug) {
@@ -103,11 +232,12 @@ public class SmartPlugCheckService {
         return null;
     }
 
-    private void persistCheckRun(SmartPlugEntity plug, PlugReading reading) {
+    private static CheckRunEntity toCheckRun(
+            SmartPlugEntity plug, PlugReading reading, Instant startedAt, Instant finishedAt) {
         CheckRunEntity run = new CheckRunEntity();
         run.setSmartPlug(plug);
-        run.setStartedAt(Instant.now());
-        run.setFinishedAt(Instant.now());
+        run.setStartedAt(startedAt);
+        run.setFinishedAt(finishedAt);
         run.setSuccess(reading.reachable());
         if (!reading.reachable()) {
             run.setErrorMessage(reading.errorCode());
@@ -119,7 +249,7 @@ public class SmartPlugCheckService {
         meta.put("currentAmperes", reading.currentAmperes());
         meta.put("confidence", "medium");
         run.setMetadataJson(meta);
-        checkRunEntityRepository.save(run);
+        return run;
     }
 
     // incident/rules evaluation extracted to SmartPlugRulesService
@@ -2,7 +2,11 @@ package com.telas.services;
 
 import com.telas.dtos.request.SmartPlugIngestRequestDto;
 
+import java.util.List;
+
 public interface SmartPlugIngestService {
     void ingest(SmartPlugIngestRequestDto dto);
+
+    void ingestBatch(List<SmartPlugIngestRequestDto> readings);
 }
 
@@ -1,5 +1,6 @@
 package com.telas.services.impl;
 
+import com.telas.dtos.NotificationRecipientDto;
 import com.telas.dtos.response.EmailAlertCategoryOptionDto;
 import com.telas.dtos.response.EmailAlertPreferencesResponseDto;
 import com.telas.entities.AdminEmailAlertPreference;
@@ -20,7 +21,6 @@ import java.util.EnumMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -29,6 +29,7 @@ public class AdminEmailAlertPreferenceServiceImpl implements AdminEmailAlertPref
 
     private final AdminEmailAlertPreferenceRepository preferenceRepository;
     private final ClientRepository clientRepository;
+    private final AdminEmailAlertPreferenceSnapshot snapshot;
 
     @Override
     @Transactional
@@ -59,20 +60,17 @@ public class AdminEmailAlertPreferenceServiceImpl implements AdminEmailAlertPref
         row.setAlertCategory(category.name());
         row.setEnabled(true);
         preferenceRepository.save(row);
+        snapshot.invalidate();
     }
 
     @Override
-    @Transactional(readOnly = true)
     public boolean wantsEmail(UUID clientId, AdminEmailAlertCategory category) {
-        Optional<AdminEmailAlertPreference> row =
-                preferenceRepository.findByClient_IdAndAlertCategory(clientId, category.name());
-        if (row.isPresent()) {
-            return row.get().isEnabled();
-        }
-        return clientRepository
-                .findById(clientId)
-                .map(c -> Role.DEVELOPER.equals(c.getRole()))
-                .orElse(false);
+        return snapshot.wantsEmail(clientId, category);
+    }
+
+    @Override
+    public List<NotificationRecipientDto> recipientsFor(AdminEmailAlertCategory category) {
+        return snapshot.recipientsFor(category);
     }
 
     @Override
@@ -150,6 +148,7 @@ public class AdminEmailAlertPreferenceServiceImpl implements AdminEmailAlertPref
             throw new IllegalArgumentException("Email alert preferences apply only to ADMIN users.");
         }
         preferenceRepository.deleteByClient_Id(targetClientId);
+        snapshot.invalidate();
         if (preferences == null || preferences.isEmpty()) {
             return;
         }
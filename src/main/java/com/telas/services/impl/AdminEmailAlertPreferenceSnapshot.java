@@ -0,0 +1,209 @@
+package com.telas.services.impl;
+
+import com.telas.dtos.NotificationRecipientDto;
+import com.telas.enums.AdminEmailAlertCategory;
+import com.telas.enums.Role;
+import com.telas.repositories.AdminEmailAlertPreferenceRepository;
+import com.telas.repositories.ClientRepository;
+import com.telas.scheduler.InternalScheduledTask;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Cópia em memória de todas as preferências de alerta por e-mail e dos destinatários (ADMIN/DEVELOPER).
+ * Recarregada após cada escrita ({@link #invalidate()}) e quando a versão calculada no banco muda
+ * (mudança de papel ou e-mail feita fora deste serviço), verificada a cada {@code check-interval-ms}.
+ */
+@Component
+public class AdminEmailAlertPreferenceSnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(AdminEmailAlertPreferenceSnapshot.class);
+
+    // Hash de tudo que compõe o snapshot; a tabela de preferências e o número de admins são pequenos.
+    private static final String VERSION_SQL =
+            "SELECT md5(coalesce(string_agg(v.k, ',' ORDER BY v.k), '')) FROM ("
+                    + "SELECT c.id::text || ':' || c.role || ':' || coalesce(ct.email, '') AS k "
+                    + "FROM clients c LEFT JOIN contacts ct ON ct.id = c.contact_id WHERE c.role IN ('ADMIN', 'DEVELOPER') "
+                    + "UNION ALL "
+                    + "SELECT p.client_id::text || ':' || p.alert_category || ':' || p.enabled::text "
+                    + "FROM admin_email_alert_preferences p) v";
+
+    record State(
+            String version,
+            Map<UUID, Map<AdminEmailAlertCategory, Boolean>> preferences,
+            Set<UUID> developers,
+            Map<AdminEmailAlertCategory, List<NotificationRecipientDto>> recipients,
+            List<NotificationRecipientDto> recipientsWithoutEmail) {
+    }
+
+    private final AdminEmailAlertPreferenceRepository preferenceRepository;
+    private final ClientRepository clientRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Counter reloadCounter;
+
+    private volatile State state;
+
+    public AdminEmailAlertPreferenceSnapshot(
+            AdminEmailAlertPreferenceRepository preferenceRepository,
+            ClientRepository clientRepository,
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry) {
+        this.preferenceRepository = preferenceRepository;
+        this.clientRepository = clientRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.reloadCounter =
+                Counter.builder("admin_email_alerts.snapshot.reloads")
+                        .description("Recargas do snapshot de preferências de alerta por e-mail")
+                        .register(meterRegistry);
+    }
+
+    /** Preferência gravada vence; sem linha para a categoria, só DEVELOPER recebe. */
+    public boolean wantsEmail(UUID clientId, AdminEmailAlertCategory category) {
+        if (clientId == null || category == null) {
+            return false;
+        }
+        State current = current();
+        Map<AdminEmailAlertCategory, Boolean> byCategory = current.preferences().get(clientId);
+        Boolean stored = byCategory != null ? byCategory.get(category) : null;
+        return stored != null ? stored : current.developers().contains(clientId);
+    }
+
+    /**
+     * Todos os ADMIN/DEVELOPER, com {@code sendEmail} já resolvido para a categoria (nula = nenhum e-mail).
+     * Quem não tem contato entra só para a notificação in-app.
+     */
+    public List<NotificationRecipientDto> recipientsFor(AdminEmailAlertCategory category) {
+        State current = current();
+        return category == null ? current.recipientsWithoutEmail() : current.recipients().get(category);
+    }
+
+    /** Descarta o snapshot agora e de novo após o commit, para a próxima leitura ver a escrita. */
+    public void invalidate() {
+        state = null;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    state = null;
+                }
+            });
+        }
+    }
+
+    void checkVersion() {
+        State current = state;
+        if (current == null) {
+            return;
+        }
+        if (!Objects.equals(current.version(), queryVersion())) {
+            state = null;
+        }
+    }
+
+    private State current() {
+        State current = state;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (state == null) {
+                state = load();
+            }
+            return state;
+        }
+    }
+
+    private State load() {
+        String version = queryVersion();
+
+        Map<UUID, Map<AdminEmailAlertCategory, Boolean>> preferences = new HashMap<>();
+        for (AdminEmailAlertPreferenceRepository.PreferenceRow row : preferenceRepository.findAllRows()) {
+            AdminEmailAlertCategory category = parseCategory(row.getAlertCategory());
+            if (category != null) {
+                preferences
+                        .computeIfAbsent(row.getClientId(), id -> new EnumMap<>(AdminEmailAlertCategory.class))
+                        .put(category, Boolean.TRUE.equals(row.getEnabled()));
+            }
+        }
+
+        List<ClientRepository.AdminContactRow> contacts = clientRepository.findAdminAndDeveloperContacts();
+        Set<UUID> developers = new HashSet<>();
+        for (ClientRepository.AdminContactRow contact : contacts) {
+            if (Role.DEVELOPER.equals(contact.getRole())) {
+                developers.add(contact.getId());
+            }
+        }
+
+        Map<AdminEmailAlertCategory, List<NotificationRecipientDto>> recipients = new EnumMap<>(AdminEmailAlertCategory.class);
+        List<NotificationRecipientDto> withoutEmail = new ArrayList<>(contacts.size());
+        for (ClientRepository.AdminContactRow contact : contacts) {
+            withoutEmail.add(new NotificationRecipientDto(contact.getId(), contact.getEmail(), false));
+        }
+        for (AdminEmailAlertCategory category : AdminEmailAlertCategory.values()) {
+            List<NotificationRecipientDto> list = new ArrayList<>(contacts.size());
+            for (ClientRepository.AdminContactRow contact : contacts) {
+                Map<AdminEmailAlertCategory, Boolean> byCategory = preferences.get(contact.getId());
+                Boolean stored = byCategory != null ? byCategory.get(category) : null;
+                boolean sendEmail = hasEmail(contact)
+                        && (stored != null ? stored : developers.contains(contact.getId()));
+                list.add(new NotificationRecipientDto(contact.getId(), contact.getEmail(), sendEmail));
+            }
+            recipients.put(category, Collections.unmodifiableList(list));
+        }
+
+        reloadCounter.increment();
+        log.debug("admin_email_alerts.snapshot.loaded recipients={} preferences={}", contacts.size(), preferences.size());
+        return new State(
+                version,
+                Collections.unmodifiableMap(preferences),
+                Collections.unmodifiableSet(developers),
+                Collections.unmodifiableMap(recipients),
+                Collections.unmodifiableList(withoutEmail));
+    }
+
+    private String queryVersion() {
+        return jdbcTemplate.queryForObject(VERSION_SQL, String.class);
+    }
+
+    @Scheduled(
+            fixedDelayString = "${admin.email-alerts.snapshot.check-interval-ms:30000}",
+            initialDelayString = "${admin.email-alerts.snapshot.check-interval-ms:30000}")
+    @InternalScheduledTask
+    public void checkVersionQuietly() {
+        try {
+            checkVersion();
+        } catch (Exception e) {
+            log.warn("admin_email_alerts.snapshot.version_check_failed err={}", e.getMessage());
+        }
+    }
+
+    private static boolean hasEmail(ClientRepository.AdminContactRow contact) {
+        return contact.getEmail() != null && !contact.getEmail().isBlank();
+    }
+
+    private static AdminEmailAlertCategory parseCategory(String raw) {
+        try {
+            return AdminEmailAlertCategory.valueOf(raw);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package com.telas.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.telas.monitoring.entities.ApplicationLogEntity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fila em memória (limitada) drenada por uma thread de fundo que grava {@code monitoring.application_logs}
+ * com um INSERT multi-row por batch, disparado por tamanho ({@code batch-size}) ou tempo ({@code flush-interval-ms}).
+ * Quem chama não abre transação nem ocupa conexão do pool. A fila é esvaziada no shutdown.
+ */
+@Component
+public class ApplicationLogBatchWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(ApplicationLogBatchWriter.class);
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO monitoring.application_logs "
+                    + "(id, created_at, level, message, source, correlation_id, stack_trace, endpoint, client_id, metadata_json) "
+                    + "VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?, ?, CAST(? AS jsonb))";
+    private static final int COLUMNS = 10;
+    private static final String INSERT_SQL = INSERT_PREFIX + ROW_PLACEHOLDERS;
+    private static final int MAX_BATCH_SIZE = 5_000;
+
+    public enum OverflowPolicy {
+        /** Descarta a entrada mais antiga da fila para aceitar a nova. */
+        DROP_OLDEST,
+        /** Bloqueia quem chama até {@code offer-timeout-ms}; depois descarta a nova entrada. */
+        BLOCK,
+        /** Acima de {@code sample-threshold} de ocupação aceita 1 a cada {@code sample-rate} (ERROR sempre entra). */
+        SAMPLE
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final OverflowPolicy overflowPolicy;
+    private final long offerTimeoutMs;
+    private final double sampleThreshold;
+    private final int sampleRate;
+    private final long shutdownTimeoutMs;
+
+    private final BlockingQueue<ApplicationLogEntity> queue;
+    private final AtomicLong sampleCounter = new AtomicLong();
+    private final ExecutorService drainer =
+            Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "application-log-writer");
+                t.setDaemon(true);
+                return t;
+            });
+
+    private volatile boolean running = true;
+
+    private Counter writtenCounter;
+    private Timer flushTimer;
+
+    public ApplicationLogBatchWriter(
+            JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${monitoring.log.writer.capacity:10000}") int capacity,
+            @Value("${monitoring.log.writer.batch-size:200}") int batchSize,
+            @Value("${monitoring.log.writer.flush-interval-ms:1000}") long flushIntervalMs,
+            @Value("${monitoring.log.writer.overflow-policy:DROP_OLDEST}") String overflowPolicy,
+            @Value("${monitoring.log.writer.offer-timeout-ms:50}") long offerTimeoutMs,
+            @Value("${monitoring.log.writer.sample-threshold:0.8}") double sampleThreshold,
+            @Value("${monitoring.log.writer.sample-rate:10}") int sampleRate,
+            @Value("${monitoring.log.writer.shutdown-timeout-ms:10000}") long shutdownTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.capacity = Math.max(1, capacity);
+        // O Postgres aceita até 65535 parâmetros por instrução (10 por linha no INSERT multi-row).
+        this.batchSize = Math.min(MAX_BATCH_SIZE, Math.max(1, batchSize));
+        this.flushIntervalMs = Math.max(10L, flushIntervalMs);
+        this.overflowPolicy = OverflowPolicy.valueOf(overflowPolicy.trim().toUpperCase(Locale.ROOT));
+        this.offerTimeoutMs = Math.max(0L, offerTimeoutMs);
+        this.sampleThreshold = sampleThreshold;
+        this.sampleRate = Math.max(1, sampleRate);
+        this.shutdownTimeoutMs = Math.max(0L, shutdownTimeoutMs);
+        this.queue = new ArrayBlockingQueue<>(this.capacity);
+    }
+
+    @PostConstruct
+    void start() {
+        Gauge.builder("application_logs.writer.queue.depth", queue, BlockingQueue::size)
+                .description("Entradas de application_logs aguardando gravação")
+                .register(meterRegistry);
+        writtenCounter =
+                Counter.builder("application_logs.writer.written")
+                        .description("Entradas de application_logs gravadas")
+                        .register(meterRegistry);
+        flushTimer =
+                Timer.builder("application_logs.writer.flush")
+                        .description("Duração de cada batch gravado em application_logs")
+                        .register(meterRegistry);
+        drainer.submit(this::drainLoop);
+        log.info(
+                "application_logs.writer.started capacity={} batchSize={} flushIntervalMs={} overflowPolicy={}",
+                capacity,
+                batchSize,
+                flushIntervalMs,
+                overflowPolicy);
+    }
+
+    public void enqueue(ApplicationLogEntity entity) {
+        if (entity.getId() == null) {
+            entity.setId(UUID.randomUUID());
+        }
+        if (!running) {
+            dropped("shutdown");
+            return;
+        }
+        switch (overflowPolicy) {
+            case DROP_OLDEST -> {
+                while (!queue.offer(entity)) {
+                    if (queue.poll() != null) {
+                        dropped("overflow");
+                    }
+                }
+            }
+            case BLOCK -> {
+                try {
+                    if (!queue.offer(entity, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                        dropped("overflow");
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    dropped("interrupted");
+                }
+            }
+            case SAMPLE -> {
+                boolean sampling = queue.size() >= capacity * sampleThreshold && !"ERROR".equals(entity.getLevel());
+                if (sampling && sampleCounter.incrementAndGet() % sampleRate != 0) {
+                    dropped("sampled");
+                    return;
+                }
+                if (!queue.offer(entity)) {
+                    dropped("overflow");
+                }
+            }
+        }
+    }
+
+    /** Ocupação atual da fila (0..1); usada para sinalizar backpressure a quem envia logs em lote. */
+    public double fillRatio() {
+        return (double) queue.size() / capacity;
+    }
+
+    public int remainingCapacity() {
+        return queue.remainingCapacity();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        drainer.shutdown();
+        try {
+            if (!drainer.awaitTermination(shutdownTimeoutMs, TimeUnit.MILLISECONDS)) {
+                log.warn("application_logs.writer.shutdown_timeout pending={}", queue.size());
+                drainer.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            drainer.shutdownNow();
+        }
+    }
+
+    private void drainLoop() {
+        List<ApplicationLogEntity> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                ApplicationLogEntity first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    ApplicationLogEntity next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("application_logs.writer.flush_failed size={} err={}", batch.size(), e.getMessage());
+                dropped("insert_failed", batch.size());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<ApplicationLogEntity> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            // Uma única instrução (e um único round trip) por batch, em vez de uma execução por linha.
+            jdbcTemplate.update(multiRowInsertSql(batch.size()), ps -> {
+                for (int i = 0; i < batch.size(); i++) {
+                    bind(ps, i * COLUMNS, batch.get(i));
+                }
+            });
+            writtenCounter.increment(batch.size());
+        } catch (DataAccessException e) {
+            // Uma linha inválida (ex.: source fora do CHECK, client removido) não pode derrubar o batch inteiro.
+            log.warn("application_logs.writer.batch_failed size={} err={}; retrying row by row", batch.size(), e.getMessage());
+            for (ApplicationLogEntity entity : batch) {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, 0, entity));
+                    writtenCounter.increment();
+                } catch (DataAccessException rowError) {
+                    log.warn("application_logs.writer.row_failed source={} err={}", entity.getSource(), rowError.getMessage());
+                    dropped("insert_failed");
+                }
+            }
+        } finally {
+            sample.stop(flushTimer);
+        }
+    }
+
+    private static String multiRowInsertSql(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows * (ROW_PLACEHOLDERS.length() + 2));
+        sql.append(INSERT_PREFIX);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDERS);
+        }
+        return sql.toString();
+    }
+
+    private void bind(PreparedStatement ps, int offset, ApplicationLogEntity entity) throws SQLException {
+        ps.setObject(offset + 1, entity.getId());
+        ps.setTimestamp(offset + 2, Timestamp.from(entity.getCreatedAt()));
+        ps.setString(offset + 3, entity.getLevel());
+        ps.setString(offset + 4, entity.getMessage() == null ? "" : entity.getMessage());
+        ps.setString(offset + 5, entity.getSource());
+        ps.setString(offset + 6, entity.getCorrelationId());
+        ps.setString(offset + 7, entity.getStackTrace());
+        ps.setString(offset + 8, entity.getEndpoint());
+        ps.setObject(offset + 9, entity.getClientId(), Types.OTHER);
+        ps.setString(offset + 10, toJson(entity.getMetadataJson()));
+    }
+
+    private String toJson(Map<String, Object> metadata) {
+        if (metadata == null || metadata.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(metadata);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private void dropped(String reason) {
+        dropped(reason, 1);
+    }
+
+    private void dropped(String reason, int count) {
+        meterRegistry.counter("application_logs.writer.dropped", "reason", reason).increment(count);
+    }
+}
@@ -0,0 +1,110 @@
+package com.telas.services.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Partições diárias (UTC) de {@code monitoring.application_logs}, nomeadas {@code application_logs_pYYYYMMDD}
+ * (ver V47). Cria as dos próximos dias antes que sejam necessárias e remove as vencidas com DROP TABLE, sem
+ * DELETE em massa; a partição default só recebe linhas com horário fora das partições existentes.
+ */
+@Component
+@RequiredArgsConstructor
+public class ApplicationLogPartitionManager {
+
+    private static final Logger log = LoggerFactory.getLogger(ApplicationLogPartitionManager.class);
+
+    static final String PARTITION_PREFIX = "application_logs_p";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private static final String LIST_PARTITIONS_SQL =
+            "SELECT c.relname FROM pg_inherits i "
+                    + "JOIN pg_class c ON c.oid = i.inhrelid "
+                    + "JOIN pg_class p ON p.oid = i.inhparent "
+                    + "JOIN pg_namespace n ON n.oid = p.relnamespace "
+                    + "WHERE n.nspname = 'monitoring' AND p.relname = 'application_logs'";
+
+    private static final String PURGE_DEFAULT_SQL =
+            "DELETE FROM monitoring.application_logs_default WHERE created_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Garante as partições de {@code fromDay} até {@code fromDay + daysAhead}; devolve quantas foram criadas. */
+    public int ensurePartitions(LocalDate fromDay, int daysAhead) {
+        List<String> existing = listPartitions();
+        int created = 0;
+        for (int i = 0; i <= daysAhead; i++) {
+            LocalDate day = fromDay.plusDays(i);
+            String name = partitionName(day);
+            if (existing.contains(name)) {
+                continue;
+            }
+            try {
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS monitoring." + name
+                        + " PARTITION OF monitoring.application_logs FOR VALUES FROM ('" + startOf(day)
+                        + "') TO ('" + startOf(day.plusDays(1)) + "')");
+                created++;
+                log.info("application_logs.partition.created name={}", name);
+            } catch (DataAccessException e) {
+                // Ex.: a default já tem linhas desse dia; elas continuam consultáveis e saem pelo purge da default.
+                log.warn("application_logs.partition.create_failed name={} err={}", name, e.getMessage());
+            }
+        }
+        return created;
+    }
+
+    /** Remove as partições de dias inteiros anteriores a {@code cutoffDay}; devolve quantas foram removidas. */
+    public int dropPartitionsBefore(LocalDate cutoffDay) {
+        int dropped = 0;
+        for (String name : listPartitions()) {
+            LocalDate day = parseDay(name);
+            if (day == null || !day.isBefore(cutoffDay)) {
+                continue;
+            }
+            jdbcTemplate.execute("DROP TABLE IF EXISTS monitoring." + name);
+            dropped++;
+            log.info("application_logs.partition.dropped name={}", name);
+        }
+        return dropped;
+    }
+
+    /** Linhas vencidas que caíram na partição default (pequena por construção). */
+    public int purgeDefaultPartition(Instant cutoff) {
+        return jdbcTemplate.update(PURGE_DEFAULT_SQL, Timestamp.from(cutoff));
+    }
+
+    static String partitionName(LocalDate day) {
+        return PARTITION_PREFIX + day.format(SUFFIX);
+    }
+
+    static LocalDate parseDay(String partitionName) {
+        if (partitionName == null || !partitionName.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(partitionName.substring(PARTITION_PREFIX.length()), SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private List<String> listPartitions() {
+        return jdbcTemplate.queryForList(LIST_PARTITIONS_SQL, String.class);
+    }
+
+    private static Instant startOf(LocalDate day) {
+        return day.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+}
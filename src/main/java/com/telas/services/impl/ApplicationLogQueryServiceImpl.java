@@ -1,41 +1,277 @@
 package com.telas.services.impl;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.telas.dtos.request.filters.ApplicationLogFilterRequestDto;
+import com.telas.dtos.response.ApplicationLogPageResponseDto;
 import com.telas.dtos.response.ApplicationLogResponseDto;
-import com.telas.monitoring.repositories.ApplicationLogEntityRepository;
+import com.telas.infra.exceptions.InvalidQueryParamsException;
+import com.telas.monitoring.entities.ApplicationLogEntity;
 import com.telas.services.ApplicationLogQueryService;
-import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
 
+/**
+ * Busca de {@code monitoring.application_logs} apoiada nos índices da V48: {@code q} casa palavras no tsvector
+ * (mensagem, endpoint e valores do metadata) ou trecho da mensagem via trigramas; filtros de metadata usam
+ * {@code @>} e {@code @@} (jsonb_path_ops). Paginação por cursor em {@code (created_at, id)}, sem OFFSET, e contagem
+ * exata só até {@code exact-count-limit} (acima disso, estimativa do planner).
+ */
 @Service
-@RequiredArgsConstructor
 public class ApplicationLogQueryServiceImpl implements ApplicationLogQueryService {
 
-    private final ApplicationLogEntityRepository applicationLogEntityRepository;
+    private static final String COLUMNS =
+            "e.id, e.created_at, e.level, e.message, e.source, e.correlation_id, e.stack_trace, e.endpoint, "
+                    + "e.client_id, CAST(e.metadata_json AS TEXT) AS metadata_json";
+    private static final int MIN_TRIGRAM_LENGTH = 3;
+    private static final TypeReference<Map<String, Object>> METADATA_TYPE = new TypeReference<>() {
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int exactCountLimit;
+
+    public ApplicationLogQueryServiceImpl(
+            JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper,
+            @Value("${monitoring.log.search.exact-count-limit:1000}") int exactCountLimit) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.exactCountLimit = Math.max(1, exactCountLimit);
+    }
+
+    private record Filter(String where, List<Object> args) {
+    }
+
+    private record Cursor(Instant createdAt, UUID id) {
+    }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<ApplicationLogResponseDto> findAll(
-            String source,
-            String level,
-            Instant from,
-            Instant to,
-            String q,
-            Pageable pageable) {
-        String sourceParam = StringUtils.hasText(source) ? source.trim() : null;
-        String levelParam = StringUtils.hasText(level) ? level.trim().toUpperCase() : null;
-        String qPattern = null;
-        if (StringUtils.hasText(q)) {
-            String trimmed = q.trim();
-            qPattern = "%" + trimmed + "%";
-        }
-        return applicationLogEntityRepository
-                .search(sourceParam, levelParam, from, to, qPattern, pageable)
-                .map(ApplicationLogResponseDto::new);
+    public ApplicationLogPageResponseDto search(ApplicationLogFilterRequestDto request) {
+        Filter filter = buildFilter(request);
+        int size = request.resolvedSize();
+
+        StringBuilder sql = new StringBuilder("SELECT ").append(COLUMNS)
+                .append(" FROM monitoring.application_logs e").append(filter.where());
+        List<Object> args = new ArrayList<>(filter.args());
+        if (StringUtils.hasText(request.getCursor())) {
+            Cursor cursor = decodeCursor(request.getCursor());
+            sql.append(" AND (e.created_at, e.id) < (?, ?)");
+            args.add(Timestamp.from(cursor.createdAt()));
+            args.add(cursor.id());
+        }
+        sql.append(" ORDER BY e.created_at DESC, e.id DESC LIMIT ?");
+        args.add(size + 1);
+
+        List<ApplicationLogEntity> rows = run(request, () -> jdbcTemplate.query(sql.toString(), this::mapRow, args.toArray()));
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            nextCursor = encodeCursor(rows.get(size - 1));
+        }
+
+        long total = run(request, () -> countCapped(filter));
+        boolean estimate = total > exactCountLimit;
+        if (estimate) {
+            total = Math.max(total, run(request, () -> estimateCount(filter)));
+        }
+        return ApplicationLogPageResponseDto.builder()
+                .list(rows.stream().map(ApplicationLogResponseDto::new).toList())
+                .nextCursor(nextCursor)
+                .totalRecords(total)
+                .totalIsEstimate(estimate)
+                .build();
+    }
+
+    private Filter buildFilter(ApplicationLogFilterRequestDto request) {
+        StringBuilder where = new StringBuilder(" WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (StringUtils.hasText(request.getSource())) {
+            where.append(" AND e.source = ?");
+            args.add(request.getSource().trim());
+        }
+        if (StringUtils.hasText(request.getLevel())) {
+            where.append(" AND e.level = ?");
+            args.add(request.getLevel().trim().toUpperCase());
+        }
+        if (request.getFrom() != null) {
+            where.append(" AND e.created_at >= ?");
+            args.add(Timestamp.from(request.getFrom()));
+        }
+        if (request.getTo() != null) {
+            where.append(" AND e.created_at <= ?");
+            args.add(Timestamp.from(request.getTo()));
+        }
+        if (StringUtils.hasText(request.getQ())) {
+            String q = request.getQ().trim();
+            if (q.length() >= MIN_TRIGRAM_LENGTH) {
+                where.append(" AND (e.search_tsv @@ websearch_to_tsquery('simple', ?) OR e.message ILIKE ?)");
+                args.add(q);
+                args.add("%" + escapeLike(q) + "%");
+            } else {
+                where.append(" AND e.search_tsv @@ websearch_to_tsquery('simple', ?)");
+                args.add(q);
+            }
+        }
+        Map<String, String> metadata = parseMetadata(request.getMetadata());
+        Map<String, String> textOnly = new LinkedHashMap<>();
+        metadata.forEach((key, value) -> {
+            JsonNode typed = typedValue(value);
+            if (typed == null) {
+                textOnly.put(key, value);
+                return;
+            }
+            // "status=500" casa tanto 500 quanto "500": o valor gravado pode ter qualquer um dos dois tipos.
+            where.append(" AND (e.metadata_json @> CAST(? AS jsonb) OR e.metadata_json @> CAST(? AS jsonb))");
+            args.add(toJson(Map.of(key, typed)));
+            args.add(toJson(Map.of(key, value)));
+        });
+        if (!textOnly.isEmpty()) {
+            where.append(" AND e.metadata_json @> CAST(? AS jsonb)");
+            args.add(toJson(textOnly));
+        }
+        if (StringUtils.hasText(request.getMetadataPath())) {
+            where.append(" AND e.metadata_json @@ CAST(? AS jsonpath)");
+            args.add(request.getMetadataPath().trim());
+        }
+        return new Filter(where.toString(), args);
+    }
+
+    private long countCapped(Filter filter) {
+        List<Object> args = new ArrayList<>(filter.args());
+        args.add(exactCountLimit + 1);
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM (SELECT 1 FROM monitoring.application_logs e" + filter.where() + " LIMIT ?) c",
+                Long.class,
+                args.toArray());
+        return count != null ? count : 0L;
+    }
+
+    private long estimateCount(Filter filter) {
+        String plan = jdbcTemplate.queryForObject(
+                "EXPLAIN (FORMAT JSON) SELECT 1 FROM monitoring.application_logs e" + filter.where(),
+                String.class,
+                filter.args().toArray());
+        try {
+            JsonNode rows = objectMapper.readTree(plan).path(0).path("Plan").path("Plan Rows");
+            return rows.asLong(0L);
+        } catch (JsonProcessingException e) {
+            return 0L;
+        }
+    }
+
+    private <T> T run(ApplicationLogFilterRequestDto request, Supplier<T> query) {
+        try {
+            return query.get();
+        } catch (BadSqlGrammarException e) {
+            // Único trecho vindo do usuário que o Postgres interpreta como sintaxe.
+            if (StringUtils.hasText(request.getMetadataPath())) {
+                throw new InvalidQueryParamsException("Invalid metadataPath", e);
+            }
+            throw e;
+        }
+    }
+
+    private ApplicationLogEntity mapRow(ResultSet rs, int rowNum) throws SQLException {
+        ApplicationLogEntity entity = new ApplicationLogEntity();
+        entity.setId(rs.getObject("id", UUID.class));
+        entity.setCreatedAt(rs.getTimestamp("created_at").toInstant());
+        entity.setLevel(rs.getString("level"));
+        entity.setMessage(rs.getString("message"));
+        entity.setSource(rs.getString("source"));
+        entity.setCorrelationId(rs.getString("correlation_id"));
+        entity.setStackTrace(rs.getString("stack_trace"));
+        entity.setEndpoint(rs.getString("endpoint"));
+        entity.setClientId(rs.getObject("client_id", UUID.class));
+        entity.setMetadataJson(parseJson(rs.getString("metadata_json")));
+        return entity;
+    }
+
+    private Map<String, Object> parseJson(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, METADATA_TYPE);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    /** Número ou booleano JSON quando o valor do filtro tem essa forma; {@code null} para texto. */
+    private JsonNode typedValue(String value) {
+        try {
+            JsonNode node = objectMapper.reader().with(DeserializationFeature.FAIL_ON_TRAILING_TOKENS).readTree(value);
+            return node != null && (node.isNumber() || node.isBoolean()) ? node : null;
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private String toJson(Map<String, ?> metadata) {
+        try {
+            return objectMapper.writeValueAsString(metadata);
+        } catch (JsonProcessingException e) {
+            throw new InvalidQueryParamsException("Invalid metadata filter", e);
+        }
+    }
+
+    private static Map<String, String> parseMetadata(List<String> entries) {
+        Map<String, String> metadata = new LinkedHashMap<>();
+        if (entries == null) {
+            return metadata;
+        }
+        for (String entry : entries) {
+            if (!StringUtils.hasText(entry)) {
+                continue;
+            }
+            int eq = entry.indexOf('=');
+            if (eq <= 0) {
+                throw new InvalidQueryParamsException("metadata filters must use key=value: " + entry);
+            }
+            metadata.put(entry.substring(0, eq).trim(), entry.substring(eq + 1).trim());
+        }
+        return metadata;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    static String encodeCursor(ApplicationLogEntity last) {
+        String raw = last.getCreatedAt().toString() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Cursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            return new Cursor(Instant.parse(raw.substring(0, sep)), UUID.fromString(raw.substring(sep + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | StringIndexOutOfBoundsException e) {
+            throw new InvalidQueryParamsException("Invalid cursor", e);
+        }
     }
 }
@@ -1,35 +1,48 @@
 package com.telas.services.impl;
 
-import com.telas.monitoring.repositories.ApplicationLogEntityRepository;
 import com.telas.scheduler.SchedulerJobRunContext;
 import lombok.RequiredArgsConstructor;
 import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 
 @Component
 @RequiredArgsConstructor
 public class ApplicationLogRetentionScheduler {
 
-    private final ApplicationLogEntityRepository applicationLogEntityRepository;
+    private final ApplicationLogPartitionManager applicationLogPartitionManager;
     private final SchedulerJobRunContext schedulerJobRunContext;
 
     @Value("${monitoring.log.retention.days:60}")
     private int retentionDays;
 
+    @Value("${monitoring.log.partitions.days-ahead:7}")
+    private int partitionDaysAhead;
+
+    /**
+     * Sem transação: cada CREATE/DROP de partição é curto e independente, e uma falha não desfaz as anteriores.
+     * Partições de dias inteiros antes do corte são removidas; o que restar antes do corte sai no job seguinte.
+     */
     @Scheduled(
             cron = "${monitoring.log.retention.cron:0 0 3 * * *}",
             zone = "${app.scheduler.zone:America/New_York}")
     @SchedulerLock(name = "purgeApplicationLogs", lockAtMostFor = "PT10M")
-    @Transactional
     public void purgeOldLogs() {
-        Instant cutoff = Instant.now().minus(retentionDays, ChronoUnit.DAYS);
-        int rowsDeleted = applicationLogEntityRepository.deleteOlderThan(cutoff);
+        Instant now = Instant.now();
+        Instant cutoff = now.minus(retentionDays, ChronoUnit.DAYS);
+        int partitionsCreated =
+                applicationLogPartitionManager.ensurePartitions(LocalDate.ofInstant(now, ZoneOffset.UTC), partitionDaysAhead);
+        int partitionsDropped =
+                applicationLogPartitionManager.dropPartitionsBefore(LocalDate.ofInstant(cutoff, ZoneOffset.UTC));
+        int rowsDeleted = applicationLogPartitionManager.purgeDefaultPartition(cutoff);
+        schedulerJobRunContext.put("partitionsCreated", partitionsCreated);
+        schedulerJobRunContext.put("partitionsDropped", partitionsDropped);
         schedulerJobRunContext.put("rowsDeleted", rowsDeleted);
     }
 }
@@ -1,63 +1,93 @@
 package com.telas.services.impl;
 
+import com.telas.dtos.request.BoxLogBatchRequestDto;
 import com.telas.dtos.request.BoxLogRequestDto;
+import com.telas.infra.exceptions.TooManyRequestsException;
 import com.telas.monitoring.entities.ApplicationLogEntity;
-import com.telas.monitoring.repositories.ApplicationLogEntityRepository;
+import com.telas.repositories.BoxRepository;
 import com.telas.services.ApplicationLogService;
 import com.telas.shared.utils.ValidateDataUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
 public class ApplicationLogServiceImpl implements ApplicationLogService {
 
+    private static final Logger log = LoggerFactory.getLogger(ApplicationLogServiceImpl.class);
+
     private static final int MAX_STACK = 8000;
+    private static final long MAX_CLOCK_SKEW_SECONDS = 60;
+
+    private static final String UNKNOWN_BOX = "unknown";
+
+    private final ApplicationLogBatchWriter applicationLogBatchWriter;
+    private final MeterRegistry meterRegistry;
+    private final BoxRepository boxRepository;
+
+    // Tag "box" só assume ids de boxes cadastradas (ou "unknown"): o endereço enviado pela box não vira série.
+    private final Cache<String, String> boxTagByAddress =
+            Caffeine.newBuilder().maximumSize(1000).expireAfterWrite(Duration.ofMinutes(10)).build();
+
+    @Value("${monitoring.log.bulk.reject-fill-ratio:0.8}")
+    private double bulkRejectFillRatio;
+
+    @Value("${monitoring.log.bulk.retry-after-seconds:10}")
+    private long bulkRetryAfterSeconds;
 
-    private final ApplicationLogEntityRepository applicationLogEntityRepository;
+    @Value("${monitoring.log.retention.days:60}")
+    private long retentionDays;
 
     @Override
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void persistFromHandler(String title, Throwable ex, int httpStatus) {
         ApplicationLogEntity entity = new ApplicationLogEntity();
         entity.setLevel(httpStatus >= 500 ? "ERROR" : "WARN");
         entity.setMessage(truncate(title + ": " + (ex.getMessage() != null ? ex.getMessage() : ex.getClass().getName()), 4000));
         entity.setSource("API");
         entity.setStackTrace(truncate(stackTraceToString(ex), MAX_STACK));
-        applicationLogEntityRepository.save(entity);
+        applicationLogBatchWriter.enqueue(entity);
     }
 
     @Override
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void persistBoxLog(BoxLogRequestDto request) {
-        String level = ValidateDataUtils.isNullOrEmptyString(request.getLevel()) ? "ERROR" : request.getLevel().toUpperCase();
-        if (!level.matches("TRACE|DEBUG|INFO|WARN|ERROR")) {
-            level = "ERROR";
-        }
-        ApplicationLogEntity entity = new ApplicationLogEntity();
-        entity.setLevel(level);
-        entity.setMessage(truncate(request.getMessage(), 4000));
-        entity.setSource("BOX");
-        Map<String, Object> meta = new HashMap<>();
-        if (request.getMetadata() != null) {
-            meta.putAll(request.getMetadata());
+        applicationLogBatchWriter.enqueue(toBoxLogEntity(request, null, Instant.now()));
+    }
+
+    /**
+     * O lote inteiro é recusado (429 + Retry-After) quando a fila do writer passa de {@code reject-fill-ratio} ou não
+     * comporta o lote: a box guarda as entradas e reenvia depois, em vez de o writer descartar logs em silêncio.
+     */
+    @Override
+    public void persistBoxLogBatch(BoxLogBatchRequestDto request) {
+        int size = request.getEntries().size();
+        if (applicationLogBatchWriter.fillRatio() >= bulkRejectFillRatio
+                || applicationLogBatchWriter.remainingCapacity() < size) {
+            meterRegistry.counter("box.logs.ingest.rejected", "box", boxTag(request.getBoxAddress())).increment(size);
+            log.warn("box.logs.ingest.rejected box={} entries={} fillRatio={}", boxLabel(request.getBoxAddress()), size, applicationLogBatchWriter.fillRatio());
+            throw new TooManyRequestsException("Log ingestion is behind, retry later", bulkRetryAfterSeconds);
         }
-        if (StringUtils.hasText(request.getBoxAddress())) {
-            meta.put("boxAddress", request.getBoxAddress().trim());
+        Instant receivedAt = Instant.now();
+        for (BoxLogRequestDto entry : request.getEntries()) {
+            applicationLogBatchWriter.enqueue(toBoxLogEntity(entry, request.getBoxAddress(), receivedAt));
         }
-        entity.setMetadataJson(meta.isEmpty() ? null : meta);
-        applicationLogEntityRepository.save(entity);
+        meterRegistry.counter("box.logs.ingested", "box", boxTag(request.getBoxAddress())).increment(size);
     }
 
     @Override
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void persistSystemLog(String level, String message, String source, Map<String, Object> metadata) {
         String lvl = ValidateDataUtils.isNullOrEmptyString(level) ? "INFO" : level.toUpperCase();
         if (!lvl.matches("TRACE|DEBUG|INFO|WARN|ERROR")) {
@@ -73,11 +103,10 @@ public class ApplicationLogServiceImpl implements ApplicationLogService {
         entity.setMessage(truncate(message, 4000));
         entity.setSource(src);
         entity.setMetadataJson(metadata == null || metadata.isEmpty() ? null : new HashMap<>(metadata));
-        applicationLogEntityRepository.save(entity);
+        applicationLogBatchWriter.enqueue(entity);
     }
 
     @Override
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void persistApiRequestLog(
         String httpMethod,
         String endpoint,
@@ -97,7 +126,54 @@ public class ApplicationLogServiceImpl implements ApplicationLogService {
         entity.setEndpoint(ep);
         entity.setClientId(clientId);
         entity.setMetadataJson(metadata == null || metadata.isEmpty() ? null : new HashMap<>(metadata));
-        applicationLogEntityRepository.save(entity);
+        applicationLogBatchWriter.enqueue(entity);
+    }
+
+    /**
+     * {@code at} da box vale se estiver entre o início da retenção (partições mais antigas já foram removidas) e
+     * {@code receivedAt} mais a tolerância de relógio; fora disso grava {@code receivedAt}.
+     */
+    private ApplicationLogEntity toBoxLogEntity(BoxLogRequestDto request, String batchBoxAddress, Instant receivedAt) {
+        String level = ValidateDataUtils.isNullOrEmptyString(request.getLevel()) ? "ERROR" : request.getLevel().toUpperCase();
+        if (!level.matches("TRACE|DEBUG|INFO|WARN|ERROR")) {
+            level = "ERROR";
+        }
+        ApplicationLogEntity entity = new ApplicationLogEntity();
+        entity.setLevel(level);
+        entity.setMessage(truncate(request.getMessage(), 4000));
+        entity.setSource("BOX");
+        Instant at = request.getAt();
+        boolean plausible = at != null
+                && !at.isAfter(receivedAt.plusSeconds(MAX_CLOCK_SKEW_SECONDS))
+                && at.isAfter(receivedAt.minus(Duration.ofDays(retentionDays)));
+        entity.setCreatedAt(plausible ? at : receivedAt);
+        Map<String, Object> meta = new HashMap<>();
+        if (request.getMetadata() != null) {
+            meta.putAll(request.getMetadata());
+        }
+        String boxAddress = StringUtils.hasText(request.getBoxAddress()) ? request.getBoxAddress() : batchBoxAddress;
+        if (StringUtils.hasText(boxAddress)) {
+            meta.put("boxAddress", boxAddress.trim());
+        }
+        if (at != null) {
+            meta.put("receivedAt", receivedAt.toString());
+        }
+        entity.setMetadataJson(meta.isEmpty() ? null : meta);
+        return entity;
+    }
+
+    private String boxTag(String boxAddress) {
+        if (!StringUtils.hasText(boxAddress)) {
+            return UNKNOWN_BOX;
+        }
+        return boxTagByAddress.get(boxLabel(boxAddress), address -> {
+            List<UUID> ids = boxRepository.findIdsByAddress(address);
+            return ids.isEmpty() ? UNKNOWN_BOX : ids.get(0).toString();
+        });
+    }
+
+    private static String boxLabel(String boxAddress) {
+        return StringUtils.hasText(boxAddress) ? truncate(boxAddress.trim(), 64) : "unknown";
     }
 
     private static String truncate(String s, int max) {
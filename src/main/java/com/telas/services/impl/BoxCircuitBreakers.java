@@ -0,0 +1,102 @@
+package com.telas.services.impl;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Circuit breaker por box (chave = base URL). Depois de {@code failure-threshold} falhas seguidas o circuito abre
+ * e nenhuma requisição é feita até {@code open-ms} (dobrando a cada reabertura, até {@code open-max-ms}); vencido
+ * o prazo, uma única requisição de teste (half-open) decide se fecha ou reabre.
+ * Estado só em memória: cada instância aprende sozinha quais boxes estão offline.
+ */
+@Component
+public class BoxCircuitBreakers {
+
+    private static final Logger log = LoggerFactory.getLogger(BoxCircuitBreakers.class);
+
+    private record State(int failures, int openings, Instant openUntil, boolean probing) {
+        static final State CLOSED = new State(0, 0, null, false);
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final int failureThreshold;
+    private final long openMs;
+    private final long openMaxMs;
+
+    private final Map<String, State> states = new ConcurrentHashMap<>();
+
+    public BoxCircuitBreakers(
+            MeterRegistry meterRegistry,
+            @Value("${box.commands.circuit.failure-threshold:3}") int failureThreshold,
+            @Value("${box.commands.circuit.open-ms:60000}") long openMs,
+            @Value("${box.commands.circuit.open-max-ms:900000}") long openMaxMs) {
+        this.meterRegistry = meterRegistry;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMs = Math.max(1_000L, openMs);
+        this.openMaxMs = Math.max(this.openMs, openMaxMs);
+    }
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("box.commands.circuit.open", this, BoxCircuitBreakers::openCount)
+                .description("Boxes com circuito aberto")
+                .register(meterRegistry);
+    }
+
+    /** Reserva o direito de chamar a box agora; em half-open só a primeira chamada passa. */
+    public boolean tryAcquire(String baseUrl, Instant now) {
+        boolean[] allowed = {true};
+        states.computeIfPresent(baseUrl, (key, state) -> {
+            if (state.openUntil() == null) {
+                return state;
+            }
+            if (state.probing() || state.openUntil().isAfter(now)) {
+                allowed[0] = false;
+                return state;
+            }
+            return new State(state.failures(), state.openings(), state.openUntil(), true);
+        });
+        return allowed[0];
+    }
+
+    /** Quando a box volta a aceitar chamadas ({@code null} se o circuito está fechado). */
+    public Instant retryAt(String baseUrl) {
+        State state = states.get(baseUrl);
+        return state == null ? null : state.openUntil();
+    }
+
+    public void onSuccess(String baseUrl) {
+        State previous = states.remove(baseUrl);
+        if (previous != null && previous.openUntil() != null) {
+            log.info("box.circuit.closed baseUrl={}", baseUrl);
+        }
+    }
+
+    public void onFailure(String baseUrl, Instant now) {
+        State next = states.compute(baseUrl, (key, state) -> {
+            State current = state == null ? State.CLOSED : state;
+            int failures = current.failures() + 1;
+            if (failures < failureThreshold) {
+                return new State(failures, current.openings(), null, false);
+            }
+            long duration = Math.min(openMaxMs, openMs << Math.min(current.openings(), 20));
+            return new State(failures, current.openings() + 1, now.plusMillis(duration), false);
+        });
+        if (next.openUntil() != null) {
+            log.warn("box.circuit.opened baseUrl={} failures={} until={}", baseUrl, next.failures(), next.openUntil());
+        }
+    }
+
+    private double openCount() {
+        return states.values().stream().filter(s -> s.openUntil() != null).count();
+    }
+}
@@ -0,0 +1,95 @@
+package com.telas.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.telas.dtos.request.RemoveBoxMonitorsAdRequestDto;
+import com.telas.dtos.request.UpdateBoxMonitorsAdRequestDto;
+import com.telas.services.BoxCommandService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+public class BoxCommandServiceImpl implements BoxCommandService {
+
+    private static final Logger log = LoggerFactory.getLogger(BoxCommandServiceImpl.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO public.box_commands (base_url, command, payload_json, notify_json) "
+                    + "VALUES (?, ?, CAST(? AS jsonb), CAST(? AS jsonb))";
+
+    private static final String SUPERSEDE_SQL =
+            "UPDATE public.box_commands SET status = 'SUPERSEDED', locked_until = NULL "
+                    + "WHERE base_url = ? AND command = 'UPDATE_ADS' AND status = 'PENDING' "
+                    + "RETURNING notify_json::text";
+
+    private static final TypeReference<List<PushedAd>> PUSHED_ADS_TYPE = new TypeReference<>() {
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final BoxCommandWorker worker;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public void enqueueUpdateAds(
+            String baseUrl, List<UpdateBoxMonitorsAdRequestDto> playlist, Collection<PushedAd> notifyOnDelivery) {
+        Set<PushedAd> notify = new LinkedHashSet<>(notifyOnDelivery);
+        List<String> superseded = jdbcTemplate.queryForList(SUPERSEDE_SQL, String.class, baseUrl);
+        if (!superseded.isEmpty()) {
+            meterRegistry.counter("box.commands.superseded").increment(superseded.size());
+            superseded.stream().filter(Objects::nonNull).forEach(json -> notify.addAll(fromJson(json)));
+        }
+        insert(baseUrl, BoxCommandWorker.BoxCommand.UPDATE_ADS, playlist, notify.isEmpty() ? null : toJson(notify));
+    }
+
+    @Override
+    public void enqueueRemoveAds(String baseUrl, List<String> fileNames) {
+        insert(baseUrl, BoxCommandWorker.BoxCommand.REMOVE_ADS, new RemoveBoxMonitorsAdRequestDto(fileNames), null);
+    }
+
+    private void insert(String baseUrl, BoxCommandWorker.BoxCommand command, Object payload, String notifyJson) {
+        // JdbcTemplate participa da transação JPA corrente: o comando só fica visível junto com a alteração.
+        jdbcTemplate.update(INSERT_SQL, baseUrl, command.name(), toJson(payload), notifyJson);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    worker.wakeUp();
+                }
+            });
+        } else {
+            worker.wakeUp();
+        }
+    }
+
+    private List<PushedAd> fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, PUSHED_ADS_TYPE);
+        } catch (JsonProcessingException e) {
+            log.warn("box.commands.notify_unreadable err={}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("box command payload not serializable", e);
+        }
+    }
+}
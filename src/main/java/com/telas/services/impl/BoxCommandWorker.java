@@ -0,0 +1,435 @@
+package com.telas.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.telas.helpers.BoxAdPushNotificationHelper;
+import com.telas.scheduler.InternalScheduledTask;
+import com.telas.services.BoxCommandService;
+import com.telas.shared.utils.HttpClientUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Entrega {@code public.box_commands} com um pool de {@code workers} threads (no máximo {@code workers} POSTs
+ * simultâneos por instância). O claim só considera a cabeça da fila de cada box, então os comandos de uma mesma box
+ * saem um por vez e na ordem em que foram gravados; boxes diferentes não se bloqueiam. Cada POST tem timeout próprio,
+ * falhas são reagendadas com backoff exponencial e alimentam o {@link BoxCircuitBreakers}: com o circuito aberto o
+ * comando volta para a fila sem consumir tentativa. O pool é próprio porque cada worker fica em loop bloqueado em
+ * POSTs; estatísticas da fila e o purge horário rodam no agendador do Spring.
+ */
+@Component
+public class BoxCommandWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(BoxCommandWorker.class);
+
+    private static final int MAX_ERROR_LEN = 1000;
+
+    enum BoxCommand {
+        UPDATE_ADS("update-ads"),
+        REMOVE_ADS("remove-ads");
+
+        private final String path;
+
+        BoxCommand(String path) {
+            this.path = path;
+        }
+
+        String url(String baseUrl) {
+            return baseUrl.endsWith("/") ? baseUrl + path : baseUrl + "/" + path;
+        }
+    }
+
+    // DISTINCT ON escolhe o comando aberto mais antigo de cada box; a condição repetida no UPDATE faz a segunda
+    // instância que disputar a mesma linha desistir dela depois que a primeira a marcar como SENDING.
+    private static final String CLAIM_SQL =
+            "UPDATE public.box_commands c SET status = 'SENDING', attempts = c.attempts + 1, locked_until = ? "
+                    + "WHERE c.id IN (SELECT h.id FROM (SELECT DISTINCT ON (base_url) id, status, next_attempt_at, locked_until "
+                    + "FROM public.box_commands WHERE status IN ('PENDING', 'SENDING') ORDER BY base_url, id) h "
+                    + "WHERE (h.status = 'PENDING' AND h.next_attempt_at <= now()) OR (h.status = 'SENDING' AND h.locked_until < now()) "
+                    + "ORDER BY h.next_attempt_at LIMIT ?) "
+                    + "AND ((c.status = 'PENDING' AND c.next_attempt_at <= now()) OR (c.status = 'SENDING' AND c.locked_until < now())) "
+                    + "RETURNING c.id, c.base_url, c.command, c.payload_json::text AS payload_json, "
+                    + "c.notify_json::text AS notify_json, c.attempts, c.created_at";
+
+    private static final String MARK_SENT_SQL =
+            "UPDATE public.box_commands SET status = 'SENT', sent_at = ?, locked_until = NULL, last_error = NULL WHERE id = ?";
+
+    private static final String MARK_FAILED_SQL =
+            "UPDATE public.box_commands SET status = ?, next_attempt_at = ?, locked_until = NULL, last_error = ? WHERE id = ?";
+
+    private static final String RELEASE_SQL =
+            "UPDATE public.box_commands SET status = 'PENDING', attempts = attempts - 1, next_attempt_at = ?, "
+                    + "locked_until = NULL WHERE id = ?";
+
+    private static final String STATS_SQL =
+            "SELECT count(*) AS pending, min(created_at) AS oldest FROM public.box_commands "
+                    + "WHERE status IN ('PENDING', 'SENDING')";
+
+    private static final String PURGE_SQL =
+            "DELETE FROM public.box_commands WHERE status IN ('SENT', 'SUPERSEDED', 'FAILED') AND created_at < ?";
+
+    record CommandRow(
+            long id, String baseUrl, BoxCommand command, String payloadJson, String notifyJson, int attempts,
+            Instant createdAt) {
+    }
+
+    private static final TypeReference<List<BoxCommandService.PushedAd>> PUSHED_ADS_TYPE = new TypeReference<>() {
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final HttpClientUtil httpClient;
+    private final BoxCircuitBreakers circuitBreakers;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final BoxAdPushNotificationHelper boxAdPushNotificationHelper;
+
+    private final boolean enabled;
+    private final int workers;
+    private final int batchSize;
+    private final long pollIntervalMs;
+    private final Duration requestTimeout;
+    private final long leaseMs;
+    private final int maxAttempts;
+    private final long backoffBaseMs;
+    private final long backoffMaxMs;
+    private final int retentionDays;
+
+    @Value("${TOKEN_SECRET}")
+    private String API_KEY;
+
+    private final Semaphore wakeups = new Semaphore(0);
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong oldestPendingEpochMs = new AtomicLong();
+    private final AtomicLong lastPurgeEpochMs = new AtomicLong();
+
+    private ExecutorService pool;
+    private volatile boolean running;
+
+    private Counter sentCounter;
+    private Counter retriedCounter;
+    private Counter failedCounter;
+    private Counter deferredCounter;
+    private Timer queueLatencyTimer;
+
+    public BoxCommandWorker(
+            JdbcTemplate jdbcTemplate,
+            HttpClientUtil httpClient,
+            BoxCircuitBreakers circuitBreakers,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            BoxAdPushNotificationHelper boxAdPushNotificationHelper,
+            @Value("${box.commands.enabled:true}") boolean enabled,
+            @Value("${box.commands.workers:4}") int workers,
+            @Value("${box.commands.batch-size:5}") int batchSize,
+            @Value("${box.commands.poll-interval-ms:2000}") long pollIntervalMs,
+            @Value("${box.commands.request-timeout-ms:10000}") long requestTimeoutMs,
+            @Value("${box.commands.max-attempts:20}") int maxAttempts,
+            @Value("${box.commands.backoff-base-ms:15000}") long backoffBaseMs,
+            @Value("${box.commands.backoff-max-ms:1800000}") long backoffMaxMs,
+            @Value("${box.commands.retention-days:7}") int retentionDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.httpClient = httpClient;
+        this.circuitBreakers = circuitBreakers;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.boxAdPushNotificationHelper = boxAdPushNotificationHelper;
+        this.enabled = enabled;
+        this.workers = Math.max(1, workers);
+        this.batchSize = Math.max(1, batchSize);
+        this.pollIntervalMs = Math.max(100L, pollIntervalMs);
+        this.requestTimeout = Duration.ofMillis(Math.max(500L, requestTimeoutMs));
+        // O lease cobre o lote inteiro, enviado em sequência pela mesma thread.
+        this.leaseMs = this.requestTimeout.toMillis() * this.batchSize + 30_000L;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffBaseMs = Math.max(1_000L, backoffBaseMs);
+        this.backoffMaxMs = Math.max(this.backoffBaseMs, backoffMaxMs);
+        this.retentionDays = Math.max(1, retentionDays);
+    }
+
+    @PostConstruct
+    void start() {
+        sentCounter = Counter.builder("box.commands.sent").description("Comandos entregues às boxes").register(meterRegistry);
+        retriedCounter =
+                Counter.builder("box.commands.retried")
+                        .description("Comandos que falharam e foram reagendados")
+                        .register(meterRegistry);
+        failedCounter =
+                Counter.builder("box.commands.failed")
+                        .description("Comandos que esgotaram as tentativas")
+                        .register(meterRegistry);
+        deferredCounter =
+                Counter.builder("box.commands.deferred")
+                        .description("Comandos adiados por circuito aberto")
+                        .register(meterRegistry);
+        queueLatencyTimer =
+                Timer.builder("box.commands.queue.latency")
+                        .description("Tempo entre a gravação do comando e a entrega")
+                        .register(meterRegistry);
+        Gauge.builder("box.commands.pending", pending, AtomicLong::get)
+                .description("Comandos pendentes ou em envio")
+                .register(meterRegistry);
+        Gauge.builder("box.commands.oldest.age.seconds", oldestPendingEpochMs, this::oldestPendingAgeSeconds)
+                .description("Idade do comando pendente mais antigo")
+                .register(meterRegistry);
+
+        if (!enabled) {
+            log.info("box.commands.worker.disabled");
+            return;
+        }
+        running = true;
+        AtomicInteger threadIndex = new AtomicInteger();
+        pool = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "box-command-worker-" + threadIndex.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        for (int i = 0; i < workers; i++) {
+            pool.submit(this::workLoop);
+        }
+        log.info("box.commands.worker.started workers={} batchSize={} timeoutMs={}", workers, batchSize,
+                requestTimeout.toMillis());
+    }
+
+    /** Acorda os workers sem esperar o próximo poll (chamado após o commit de um enqueue). */
+    public void wakeUp() {
+        if (running && wakeups.availablePermits() < workers) {
+            wakeups.release();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        if (pool == null) {
+            return;
+        }
+        wakeups.release(workers);
+        pool.shutdown();
+        try {
+            // Comandos que ficarem em SENDING voltam a ser reservados quando o lease expirar.
+            if (!pool.awaitTermination(requestTimeout.toSeconds() + 5, TimeUnit.SECONDS)) {
+                pool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Faz um POST para a box respeitando o circuit breaker; devolve {@code false} sem chamar a box se o circuito
+     * estiver aberto.
+     */
+    private boolean post(String baseUrl, BoxCommand command, Object body) {
+        Instant now = Instant.now();
+        if (!circuitBreakers.tryAcquire(baseUrl, now)) {
+            return false;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            httpClient.makePostRequest(command.url(baseUrl), body, Void.class, null, Map.of("X-API-KEY", API_KEY),
+                    requestTimeout);
+            circuitBreakers.onSuccess(baseUrl);
+            outcome = "ok";
+            return true;
+        } catch (RuntimeException e) {
+            circuitBreakers.onFailure(baseUrl, Instant.now());
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer("box.commands.request", "command", command.name(), "outcome", outcome));
+        }
+    }
+
+    /** Reserva e entrega um lote; devolve quantos comandos foram reservados. */
+    int drainOnce() {
+        Timestamp lockedUntil = Timestamp.from(Instant.now().plusMillis(leaseMs));
+        List<CommandRow> rows = jdbcTemplate.query(CLAIM_SQL, this::mapRow, lockedUntil, batchSize);
+        for (CommandRow row : rows) {
+            deliver(row);
+        }
+        return rows.size();
+    }
+
+    void refreshStats() {
+        jdbcTemplate.query(STATS_SQL, rs -> {
+            pending.set(rs.getLong("pending"));
+            Timestamp oldest = rs.getTimestamp("oldest");
+            oldestPendingEpochMs.set(oldest == null ? 0L : oldest.getTime());
+        });
+        long nowMs = System.currentTimeMillis();
+        long last = lastPurgeEpochMs.get();
+        if (nowMs - last >= TimeUnit.HOURS.toMillis(1) && lastPurgeEpochMs.compareAndSet(last, nowMs)) {
+            Instant cutoff = Instant.now().minus(Duration.ofDays(retentionDays));
+            int purged = jdbcTemplate.update(PURGE_SQL, Timestamp.from(cutoff));
+            if (purged > 0) {
+                log.info("box.commands.purged rows={} olderThanDays={}", purged, retentionDays);
+            }
+        }
+    }
+
+    private void deliver(CommandRow row) {
+        boolean delivered;
+        try {
+            delivered = post(row.baseUrl(), row.command(), objectMapper.readTree(row.payloadJson()));
+        } catch (JsonProcessingException e) {
+            markFailed(row, e, true);
+            return;
+        } catch (RuntimeException e) {
+            markFailed(row, e, row.attempts() >= maxAttempts);
+            return;
+        }
+        Instant now = Instant.now();
+        if (!delivered) {
+            Instant retryAt = circuitBreakers.retryAt(row.baseUrl());
+            jdbcTemplate.update(RELEASE_SQL, Timestamp.from(retryAt != null ? retryAt : now.plusMillis(backoffBaseMs)), row.id());
+            deferredCounter.increment();
+            return;
+        }
+        jdbcTemplate.update(MARK_SENT_SQL, Timestamp.from(now), row.id());
+        queueLatencyTimer.record(Duration.between(row.createdAt(), now));
+        sentCounter.increment();
+        if (row.notifyJson() != null) {
+            notifyDelivered(row);
+        }
+    }
+
+    // O comando já está SENT: uma falha aqui perde só a notificação, não reenvia a playlist.
+    private void notifyDelivered(CommandRow row) {
+        try {
+            boxAdPushNotificationHelper.notifyAfterDelivery(objectMapper.readValue(row.notifyJson(), PUSHED_ADS_TYPE));
+        } catch (Exception e) {
+            log.warn("box.commands.notify_failed id={} baseUrl={} err={}", row.id(), row.baseUrl(), describe(e));
+        }
+    }
+
+    // Sem entrega não há e-mail de "ad deployed" e o de on-air foi suprimido: os admins recebem o alerta de falha.
+    private void notifyFailed(CommandRow row) {
+        try {
+            boxAdPushNotificationHelper.notifyDeliveryFailed(objectMapper.readValue(row.notifyJson(), PUSHED_ADS_TYPE));
+        } catch (Exception e) {
+            log.warn("box.commands.notify_failed id={} baseUrl={} err={}", row.id(), row.baseUrl(), describe(e));
+        }
+    }
+
+    private void markFailed(CommandRow row, Exception error, boolean exhausted) {
+        Instant now = Instant.now();
+        Instant nextAttempt = now.plusMillis(backoffMs(row.attempts()));
+        Instant retryAt = circuitBreakers.retryAt(row.baseUrl());
+        if (retryAt != null && retryAt.isAfter(nextAttempt)) {
+            nextAttempt = retryAt;
+        }
+        jdbcTemplate.update(MARK_FAILED_SQL, exhausted ? "FAILED" : "PENDING", Timestamp.from(nextAttempt),
+                truncate(describe(error)), row.id());
+        if (exhausted) {
+            failedCounter.increment();
+            log.error("box.commands.failed id={} baseUrl={} command={} attempts={} err={}", row.id(), row.baseUrl(),
+                    row.command(), row.attempts(), describe(error));
+            if (row.notifyJson() != null) {
+                notifyFailed(row);
+            }
+        } else {
+            retriedCounter.increment();
+            log.warn("box.commands.retry id={} baseUrl={} command={} attempts={} next={} err={}", row.id(),
+                    row.baseUrl(), row.command(), row.attempts(), nextAttempt, describe(error));
+        }
+    }
+
+    // Exponencial a partir de backoff-base-ms, limitado a backoff-max-ms, com até 20% de jitter.
+    long backoffMs(int attempts) {
+        int exponent = Math.min(Math.max(0, attempts - 1), 20);
+        long delay = Math.min(backoffMaxMs, backoffBaseMs << exponent);
+        return delay + ThreadLocalRandom.current().nextLong(delay / 5 + 1);
+    }
+
+    private void workLoop() {
+        while (running) {
+            try {
+                if (drainOnce() < batchSize) {
+                    wakeups.tryAcquire(pollIntervalMs, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (DataAccessException e) {
+                log.warn("box.commands.drain_failed err={}", e.getMessage());
+                sleepQuietly();
+            } catch (Exception e) {
+                log.error("box.commands.drain_failed", e);
+                sleepQuietly();
+            }
+        }
+    }
+
+    private CommandRow mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new CommandRow(
+                rs.getLong("id"),
+                rs.getString("base_url"),
+                BoxCommand.valueOf(rs.getString("command")),
+                rs.getString("payload_json"),
+                rs.getString("notify_json"),
+                rs.getInt("attempts"),
+                rs.getTimestamp("created_at").toInstant());
+    }
+
+    private double oldestPendingAgeSeconds(AtomicLong oldestEpochMs) {
+        long oldest = oldestEpochMs.get();
+        return oldest == 0L ? 0.0 : Math.max(0L, System.currentTimeMillis() - oldest) / 1000.0;
+    }
+
+    @Scheduled(fixedDelay = 30_000L)
+    @InternalScheduledTask
+    public void refreshStatsQuietly() {
+        if (!running) {
+            return;
+        }
+        try {
+            refreshStats();
+        } catch (Exception e) {
+            log.warn("box.commands.stats_failed err={}", e.getMessage());
+        }
+    }
+
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(pollIntervalMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String describe(Exception e) {
+        return e.getClass().getSimpleName() + ": " + (e.getMessage() == null ? "" : e.getMessage());
+    }
+
+    private static String truncate(String s) {
+        return s.length() <= MAX_ERROR_LEN ? s : s.substring(0, MAX_ERROR_LEN);
+    }
+}
@@ -0,0 +1,135 @@
+package com.telas.services.impl;
+
+import com.telas.services.BoxTailscalePingOutcome;
+import com.telas.services.BoxTailscalePingService;
+import com.telas.services.SideApiHealthCheckService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Fase de rede do ciclo de sonda: executa ping/TCP e o health check da side API de todas as boxes em paralelo
+ * (executor limitado), com um deadline único para o ciclo. Não abre transação nem usa conexão do pool.
+ */
+@Component
+public class BoxConnectivityProbeEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(BoxConnectivityProbeEngine.class);
+
+    static final String DEADLINE_EXCEEDED = "probe_deadline_exceeded";
+
+    private final BoxTailscalePingService boxTailscalePingService;
+    private final SideApiHealthCheckService sideApiHealthCheckService;
+    private final ExecutorService executor;
+    private final Timer cycleTimer;
+    private final Counter timeoutCounter;
+
+    @Value("${monitoring.box-connectivity-probe.cycle-timeout-ms:9000}")
+    private long cycleTimeoutMs;
+
+    @Value("${monitoring.sideapi.enabled:true}")
+    private boolean sideApiEnabled;
+
+    public BoxConnectivityProbeEngine(
+            BoxTailscalePingService boxTailscalePingService,
+            SideApiHealthCheckService sideApiHealthCheckService,
+            @Qualifier("boxConnectivityProbeExecutor") ExecutorService executor,
+            MeterRegistry meterRegistry) {
+        this.boxTailscalePingService = boxTailscalePingService;
+        this.sideApiHealthCheckService = sideApiHealthCheckService;
+        this.executor = executor;
+        this.cycleTimer =
+                Timer.builder("box_connectivity_probe.cycle")
+                        .description("Duração da fase de rede do ciclo de sonda das boxes")
+                        .register(meterRegistry);
+        this.timeoutCounter =
+                Counter.builder("box_connectivity_probe.timeouts")
+                        .description("Boxes sem resposta dentro do deadline do ciclo")
+                        .register(meterRegistry);
+    }
+
+    public record ProbeTarget(UUID boxId, String ip, boolean active) {
+    }
+
+    public record ProbeResult(
+            ProbeTarget target,
+            BoxTailscalePingOutcome outcome,
+            SideApiHealthCheckService.SideApiHealthOutcome sideApi,
+            boolean timedOut) {
+
+        public boolean reachable() {
+            return outcome.attempted() && outcome.reachable();
+        }
+    }
+
+    public List<ProbeResult> probeAll(List<ProbeTarget> targets) {
+        if (targets.isEmpty()) {
+            return List.of();
+        }
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(Math.max(1L, cycleTimeoutMs));
+        List<Future<ProbeResult>> futures = new ArrayList<>(targets.size());
+        for (ProbeTarget target : targets) {
+            futures.add(executor.submit(() -> probe(target)));
+        }
+        List<ProbeResult> results = new ArrayList<>(targets.size());
+        int timedOut = 0;
+        for (int i = 0; i < targets.size(); i++) {
+            ProbeTarget target = targets.get(i);
+            Future<ProbeResult> future = futures.get(i);
+            try {
+                long remaining = Math.max(0L, deadlineNanos - System.nanoTime());
+                results.add(future.get(remaining, TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                timedOut++;
+                results.add(new ProbeResult(
+                        target, BoxTailscalePingOutcome.attempted(false, DEADLINE_EXCEEDED), null, true));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                results.add(new ProbeResult(
+                        target, BoxTailscalePingOutcome.notAttempted("interrupted"), null, false));
+            } catch (ExecutionException e) {
+                String msg = e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+                results.add(new ProbeResult(
+                        target, BoxTailscalePingOutcome.attempted(false, "probe_error:" + msg), null, false));
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+        cycleTimer.record(elapsed);
+        if (timedOut > 0) {
+            timeoutCounter.increment(timedOut);
+            log.warn(
+                    "box.connectivity.probe.deadline_exceeded timedOut={} totalBoxes={} cycleTimeoutMs={}",
+                    timedOut,
+                    targets.size(),
+                    cycleTimeoutMs);
+        }
+        return results;
+    }
+
+    private ProbeResult probe(ProbeTarget target) {
+        BoxTailscalePingOutcome outcome = boxTailscalePingService.pingBoxAddressIp(target.ip());
+        SideApiHealthCheckService.SideApiHealthOutcome sideApi = null;
+        if (sideApiEnabled && outcome.attempted() && outcome.reachable() && target.ip() != null && !target.ip().isBlank()) {
+            sideApi = sideApiHealthCheckService.check(target.ip());
+        }
+        return new ProbeResult(target, outcome, sideApi, false);
+    }
+}
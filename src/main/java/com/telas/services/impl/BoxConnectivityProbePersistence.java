@@ -0,0 +1,46 @@
+package com.telas.services.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class BoxConnectivityProbePersistence {
+
+    // WHERE EXISTS: a box pode ter sido removida entre o snapshot e a gravação (FK), sem derrubar o batch.
+    private static final String UPSERT_SQL =
+            "INSERT INTO monitoring.box_connectivity_probe (box_id, last_probe_at, reachable, probe_detail, box_ip, updated_at) "
+                    + "SELECT ?, ?, ?, ?, ?, ? WHERE EXISTS (SELECT 1 FROM public.boxes b WHERE b.id = ?) "
+                    + "ON CONFLICT (box_id) DO UPDATE SET "
+                    + "last_probe_at = EXCLUDED.last_probe_at, reachable = EXCLUDED.reachable, "
+                    + "probe_detail = EXCLUDED.probe_detail, box_ip = EXCLUDED.box_ip, updated_at = EXCLUDED.updated_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record ProbeRow(UUID boxId, String ip, boolean reachable, String detail) {
+    }
+
+    @Transactional
+    public void saveProbeRows(List<ProbeRow> rows, Instant now) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Timestamp ts = Timestamp.from(now);
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setObject(1, row.boxId());
+            ps.setTimestamp(2, ts);
+            ps.setBoolean(3, row.reachable());
+            ps.setString(4, row.detail());
+            ps.setString(5, row.ip());
+            ps.setTimestamp(6, ts);
+            ps.setObject(7, row.boxId());
+        });
+    }
+}
@@ -6,17 +6,18 @@ import com.telas.entities.Box;
 import com.telas.entities.Monitor;
 import com.telas.monitoring.entities.BoxConnectivityProbeEntity;
 import com.telas.monitoring.repositories.BoxConnectivityProbeEntityRepository;
+import com.telas.monitoring.repositories.IncidentEntityRepository;
 import com.telas.dtos.request.StatusBoxMonitorsRequestDto;
 import com.telas.enums.DefaultStatus;
 import com.telas.repositories.BoxRepository;
+import com.telas.scheduler.SchedulerJobRunContext;
 import com.telas.services.ApplicationLogService;
 import com.telas.services.BoxConnectivityProbeService;
-import com.telas.services.BoxTailscalePingOutcome;
-import com.telas.services.BoxTailscalePingService;
 import com.telas.services.DeveloperNotificationService;
 import com.telas.services.HealthUpdateService;
 import com.telas.services.HeartbeatRecoveryService;
 import com.telas.services.SideApiHealthCheckService;
+import com.telas.shared.constants.MonitoringIncidentTypes;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,11 +31,15 @@ import java.time.Duration;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import com.telas.shared.utils.DateUtils;
 
@@ -45,13 +50,15 @@ public class BoxConnectivityProbeServiceImpl implements BoxConnectivityProbeServ
     private static final Logger log = LoggerFactory.getLogger(BoxConnectivityProbeServiceImpl.class);
 
     private final BoxRepository boxRepository;
-    private final BoxTailscalePingService boxTailscalePingService;
+    private final BoxConnectivityProbeEngine boxConnectivityProbeEngine;
+    private final BoxConnectivityProbePersistence boxConnectivityProbePersistence;
     private final BoxConnectivityProbeEntityRepository boxConnectivityProbeEntityRepository;
+    private final IncidentEntityRepository incidentEntityRepository;
     private final HealthUpdateService healthUpdateService;
     private final HeartbeatRecoveryService heartbeatRecoveryService;
     private final ApplicationLogService applicationLogService;
-    private final SideApiHealthCheckService sideApiHealthCheckService;
     private final DeveloperNotificationService developerNotificationService;
+    private final SchedulerJobRunContext schedulerJobRunContext;
 
     private final Map<UUID, SideApiAlertState> sideApiAlertStates = new ConcurrentHashMap<>();
 
@@ -61,9 +68,6 @@ public class BoxConnectivityProbeServiceImpl implements BoxConnectivityProbeServ
     @Value("${monitoring.box-connectivity-probe.drives-box-active-state:true}")
     private boolean drivesBoxActiveState;
 
-    @Value("${monitoring.sideapi.enabled:true}")
-    private boolean sideApiEnabled;
-
     @Value("${monitoring.sideapi.port:8099}")
     private int sideApiPort;
 
@@ -117,100 +121,113 @@ public class BoxConnectivityProbeServiceImpl implements BoxConnectivityProbeServ
     }
 
     @Override
-    @Transactional
     public void runScheduledProbes() {
         if (!probeEnabled) {
             return;
         }
-        executeProbeCycle();
+        schedulerJobRunContext.putAll(executeProbeCycle());
     }
 
     @Override
-    @Transactional
     public void runProbesNow() {
         executeProbeCycle();
     }
 
-    private void executeProbeCycle() {
-        List<Box> boxes = boxRepository.findAllForTestingOverview();
+    /**
+     * Três fases: snapshot das boxes (leitura curta), sondas de rede em paralelo sem transação
+     * ({@link BoxConnectivityProbeEngine}) e gravação das linhas de sonda num único batch.
+     */
+    private Map<String, Object> executeProbeCycle() {
+        long startNanos = System.nanoTime();
+        List<BoxConnectivityProbeEngine.ProbeTarget> targets =
+                boxRepository.findAllForTestingOverview().stream()
+                        .map(box -> new BoxConnectivityProbeEngine.ProbeTarget(
+                                box.getId(),
+                                box.getBoxAddress() != null ? box.getBoxAddress().getIp() : null,
+                                box.isActive()))
+                        .toList();
+
+        List<BoxConnectivityProbeEngine.ProbeResult> results = boxConnectivityProbeEngine.probeAll(targets);
+
+        Instant now = Instant.now();
+        List<BoxConnectivityProbePersistence.ProbeRow> rows = new ArrayList<>(results.size());
         int ok = 0;
         int fail = 0;
-        Instant now = Instant.now();
-        for (Box box : boxes) {
-            String ip = box.getBoxAddress() != null ? box.getBoxAddress().getIp() : null;
-            BoxTailscalePingOutcome outcome = boxTailscalePingService.pingBoxAddressIp(ip);
-            boolean reachable = outcome.attempted() && outcome.reachable();
+        int timedOut = 0;
+        for (BoxConnectivityProbeEngine.ProbeResult result : results) {
+            BoxConnectivityProbeEngine.ProbeTarget target = result.target();
+            boolean reachable = result.reachable();
             if (reachable) {
                 ok++;
             } else {
                 fail++;
             }
-            String detail = outcome.detail();
+            if (result.timedOut()) {
+                timedOut++;
+            }
+            String detail = result.outcome().detail();
             if (detail != null && detail.length() > 2000) {
                 detail = detail.substring(0, 2000) + "…";
             }
-            BoxConnectivityProbeEntity row =
-                    boxConnectivityProbeEntityRepository
-                            .findById(box.getId())
-                            .orElseGet(
-                                    () -> {
-                                        BoxConnectivityProbeEntity e = new BoxConnectivityProbeEntity();
-                                        e.setBoxId(box.getId());
-                                        return e;
-                                    });
-            row.setLastProbeAt(now);
-            row.setReachable(reachable);
-            row.setProbeDetail(detail);
-            row.setBoxIp(ip);
-            row.setUpdatedAt(now);
-            boxConnectivityProbeEntityRepository.save(row);
+            rows.add(new BoxConnectivityProbePersistence.ProbeRow(target.boxId(), target.ip(), reachable, detail));
             if (reachable) {
                 log.debug(
                         "box.connectivity.probe boxId={} ip={} reachable={} detail={}",
-                        box.getId(),
-                        ip,
+                        target.boxId(),
+                        target.ip(),
                         true,
                         detail);
             } else {
                 log.warn(
                         "box.connectivity.probe.failed boxId={} ip={} detail={}",
-                        box.getId(),
-                        ip,
+                        target.boxId(),
+                        target.ip(),
                         detail);
             }
-
-            if (reachable) {
-                checkSideApiAndAlertDevIfDown(box, ip, now);
+        }
+        boxConnectivityProbePersistence.saveProbeRows(rows, now);
+
+        Set<UUID> boxesWithOpenOutage =
+                drivesBoxActiveState
+                        ? new HashSet<>(incidentEntityRepository.findBoxIdsWithOpenIncidents(
+                                MonitoringIncidentTypes.BOX_OUTAGE_INCIDENT_TYPES))
+                        : Set.of();
+        for (BoxConnectivityProbeEngine.ProbeResult result : results) {
+            if (result.reachable() && result.sideApi() != null) {
+                alertSideApiIfChanged(result.target().boxId(), result.target().ip(), result.sideApi(), now);
             }
-
-            applyActiveStateFromProbeIfEnabled(box, ip, outcome, reachable);
+            applyActiveStateFromProbeIfEnabled(result, boxesWithOpenOutage);
         }
+
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("totalBoxes", results.size());
+        summary.put("reachableCount", ok);
+        summary.put("unreachableCount", fail);
+        summary.put("timedOutCount", timedOut);
+        summary.put("durationMs", durationMs);
         if (fail > 0) {
             log.info(
-                    "box.connectivity.probe.summary totalBoxes={} reachableCount={} unreachableCount={}",
-                    boxes.size(),
+                    "box.connectivity.probe.summary totalBoxes={} reachableCount={} unreachableCount={} timedOutCount={} durationMs={}",
+                    results.size(),
                     ok,
-                    fail);
+                    fail,
+                    timedOut,
+                    durationMs);
         } else {
             log.debug(
-                    "box.connectivity.probe.summary totalBoxes={} reachableCount={} unreachableCount={}",
-                    boxes.size(),
+                    "box.connectivity.probe.summary totalBoxes={} reachableCount={} unreachableCount={} timedOutCount={} durationMs={}",
+                    results.size(),
                     ok,
-                    0);
+                    0,
+                    0,
+                    durationMs);
         }
+        return summary;
     }
 
-    private void checkSideApiAndAlertDevIfDown(Box box, String ip, Instant now) {
-        if (!sideApiEnabled) {
-            return;
-        }
-        if (ip == null || ip.isBlank()) {
-            return;
-        }
-
-        SideApiHealthCheckService.SideApiHealthOutcome outcome = sideApiHealthCheckService.check(ip);
-
-        UUID boxId = box.getId();
+    private void alertSideApiIfChanged(
+            UUID boxId, String ip, SideApiHealthCheckService.SideApiHealthOutcome outcome, Instant now) {
         SideApiAlertState prev = sideApiAlertStates.getOrDefault(boxId, SideApiAlertState.initial());
         String url = "http://" + ip + ":" + sideApiPort + normalizePath(sideApiPath);
         String notifiedAt = DateTimeFormatter.ISO_INSTANT.format(now.atOffset(ZoneOffset.UTC));
@@ -307,23 +324,26 @@ public class BoxConnectivityProbeServiceImpl implements BoxConnectivityProbeServ
     }
 
     private void applyActiveStateFromProbeIfEnabled(
-            Box box, String ip, BoxTailscalePingOutcome outcome, boolean reachable) {
-        if (!drivesBoxActiveState || !outcome.attempted()) {
+            BoxConnectivityProbeEngine.ProbeResult result, Set<UUID> boxesWithOpenOutage) {
+        BoxConnectivityProbeEngine.ProbeTarget target = result.target();
+        if (!drivesBoxActiveState || !result.outcome().attempted()) {
             return;
         }
-        if (reachable && !box.isActive()) {
+        boolean reachable = result.reachable();
+        if (reachable && !target.active()) {
             StatusBoxMonitorsRequestDto dto = new StatusBoxMonitorsRequestDto();
-            dto.setIp(ip);
+            dto.setIp(target.ip());
             dto.setStatus(DefaultStatus.ACTIVE);
             healthUpdateService.applyHealthUpdate(dto);
-        } else if (!reachable && box.isActive()) {
+        } else if (!reachable && target.active()) {
             log.warn(
                     "box.connectivity.probe: box inacessível; não alterando active (apenas fluxo web/API inativa). boxId={} ip={}",
-                    box.getId(),
-                    ip);
+                    target.boxId(),
+                    target.ip());
         }
-        if (reachable) {
-            heartbeatRecoveryService.recoverAfterSuccessfulHeartbeat(box);
+        // Recuperação só tem efeito se a box estava inativa ou tem incidente de queda aberto.
+        if (reachable && (!target.active() || boxesWithOpenOutage.contains(target.boxId()))) {
+            boxRepository.findById(target.boxId()).ifPresent(heartbeatRecoveryService::recoverAfterSuccessfulHeartbeat);
         }
     }
 }
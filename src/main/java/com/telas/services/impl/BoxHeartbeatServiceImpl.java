@@ -1,10 +1,10 @@
 package com.telas.services.impl;
 
 import com.telas.dtos.request.HeartbeatRequestDto;
+import com.telas.dtos.response.HeartbeatBatchResponseDto;
 import com.telas.entities.Box;
+import com.telas.entities.BoxAddress;
 import com.telas.infra.exceptions.ResourceNotFoundException;
-import com.telas.monitoring.entities.BoxHeartbeatEntity;
-import com.telas.monitoring.repositories.BoxHeartbeatEntityRepository;
 import com.telas.repositories.BoxRepository;
 import com.telas.services.BoxHeartbeatService;
 import com.telas.services.HeartbeatRecoveryService;
@@ -12,21 +12,40 @@ import com.telas.services.HeartbeatRebootIncidentService;
 import com.telas.shared.constants.valitation.BoxValidationMessages;
 import com.telas.shared.utils.ValidateDataUtils;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class BoxHeartbeatServiceImpl implements BoxHeartbeatService {
 
+    private static final Logger log = LoggerFactory.getLogger(BoxHeartbeatServiceImpl.class);
+
+    private static final Comparator<HeartbeatRequestDto> BY_AT =
+            Comparator.comparing(HeartbeatRequestDto::getAt, Comparator.nullsFirst(Comparator.naturalOrder()));
+
     private final BoxRepository boxRepository;
-    private final BoxHeartbeatEntityRepository boxHeartbeatEntityRepository;
+    private final BoxHeartbeatWriteBuffer boxHeartbeatWriteBuffer;
+    private final StaleHeartbeatDetector staleHeartbeatDetector;
     private final HeartbeatRebootIncidentService heartbeatRebootIncidentService;
     private final HeartbeatRecoveryService heartbeatRecoveryService;
 
+    @Value("${monitoring.heartbeat.stale-seconds:180}")
+    private long staleSeconds;
+
     @Override
     @Transactional
     public void persistHeartbeat(HeartbeatRequestDto request) {
@@ -36,26 +55,85 @@ public class BoxHeartbeatServiceImpl implements BoxHeartbeatService {
         Box box = boxRepository.findByAddress(request.getBoxAddress().trim())
                 .orElseThrow(() -> new ResourceNotFoundException(BoxValidationMessages.BOX_NOT_FOUND));
         Instant now = Instant.now();
-        Optional<BoxHeartbeatEntity> prior = boxHeartbeatEntityRepository.findByBox_Id(box.getId());
-        if (prior.isPresent()) {
-            BoxHeartbeatEntity heartbeatRow = prior.get();
-            heartbeatRebootIncidentService.recordIfHostRebootDetected(
-                    box, heartbeatRow.getMetadataJson(), request.getMetadata());
-            heartbeatRow.setLastSeenAt(now);
-            heartbeatRow.setReportedVersion(request.getReportedVersion());
-            heartbeatRow.setMetadataJson(request.getMetadata());
-            heartbeatRow.setUpdatedAt(now);
-            boxHeartbeatEntityRepository.save(heartbeatRow);
-            heartbeatRecoveryService.recoverAfterSuccessfulHeartbeat(box);
-            return;
-        }
-        BoxHeartbeatEntity entity = new BoxHeartbeatEntity();
-        entity.setBox(box);
-        entity.setLastSeenAt(now);
-        entity.setReportedVersion(request.getReportedVersion());
-        entity.setMetadataJson(request.getMetadata());
-        entity.setUpdatedAt(now);
-        boxHeartbeatEntityRepository.save(entity);
+        // Grava só em memória; BoxHeartbeatWriteBuffer persiste em batch. Reboot e recuperação disparam já.
+        Optional<BoxHeartbeatWriteBuffer.HeartbeatSnapshot> prior =
+                boxHeartbeatWriteBuffer.record(box.getId(), now, request.getReportedVersion(), request.getMetadata());
+        staleHeartbeatDetector.onHeartbeat(box.getId(), now);
+        prior.ifPresent(p -> heartbeatRebootIncidentService.recordIfHostRebootDetected(
+                box, p.metadata(), request.getMetadata()));
         heartbeatRecoveryService.recoverAfterSuccessfulHeartbeat(box);
     }
+
+    /**
+     * Lote de heartbeats (gateway com várias boxes ou replay após queda de rede): fica só o mais recente de cada box,
+     * as boxes são resolvidas numa consulta e reboot/recuperação rodam uma vez por box, tudo numa transação.
+     * Endereços desconhecidos são devolvidos em vez de derrubar o lote.
+     */
+    @Override
+    @Transactional
+    public HeartbeatBatchResponseDto persistHeartbeats(List<HeartbeatRequestDto> requests) {
+        Map<String, HeartbeatRequestDto> newestByAddress = new LinkedHashMap<>();
+        for (HeartbeatRequestDto request : requests) {
+            if (!ValidateDataUtils.isNullOrEmptyString(request.getBoxAddress())) {
+                newestByAddress.merge(request.getBoxAddress().trim(), request, BoxHeartbeatServiceImpl::newest);
+            }
+        }
+
+        Map<String, Box> boxByAddress = new HashMap<>();
+        if (!newestByAddress.isEmpty()) {
+            for (Box box : boxRepository.findAllByAddressIn(newestByAddress.keySet())) {
+                BoxAddress address = box.getBoxAddress();
+                boxByAddress.put(address.getIp(), box);
+                boxByAddress.put(address.getMac(), box);
+            }
+        }
+
+        // ip e mac da mesma box podem vir no mesmo lote.
+        Map<UUID, HeartbeatRequestDto> newestByBox = new LinkedHashMap<>();
+        Map<UUID, Box> boxes = new HashMap<>();
+        List<String> unknown = new ArrayList<>();
+        newestByAddress.forEach((address, request) -> {
+            Box box = boxByAddress.get(address);
+            if (box == null) {
+                unknown.add(address);
+                return;
+            }
+            boxes.put(box.getId(), box);
+            newestByBox.merge(box.getId(), request, BoxHeartbeatServiceImpl::newest);
+        });
+
+        Instant now = Instant.now();
+        Instant freshCutoff = now.minusSeconds(staleSeconds);
+        boxHeartbeatWriteBuffer.preload(newestByBox.keySet());
+        List<Box> recovered = new ArrayList<>();
+        newestByBox.forEach((boxId, request) -> {
+            Box box = boxes.get(boxId);
+            Instant seenAt = request.getAt() != null && request.getAt().isBefore(now) ? request.getAt() : now;
+            Optional<BoxHeartbeatWriteBuffer.HeartbeatSnapshot> prior =
+                    boxHeartbeatWriteBuffer.record(boxId, seenAt, request.getReportedVersion(), request.getMetadata());
+            staleHeartbeatDetector.onHeartbeat(boxId, seenAt);
+            // Replay mais antigo que o heartbeat atual: comparar o uptime dele com o atual daria um falso reboot.
+            prior.filter(p -> !p.isNewerThan(seenAt)).ifPresent(p -> heartbeatRebootIncidentService
+                    .recordIfHostRebootDetected(box, p.metadata(), request.getMetadata()));
+            // Replay de um heartbeat já vencido não prova que a box está no ar agora.
+            if (!seenAt.isBefore(freshCutoff)) {
+                recovered.add(box);
+            }
+        });
+        heartbeatRecoveryService.recoverAfterSuccessfulHeartbeats(recovered);
+
+        if (!unknown.isEmpty()) {
+            log.warn("heartbeat.batch.unknownBoxes count={} addresses={}", unknown.size(), unknown);
+        }
+        return HeartbeatBatchResponseDto.builder()
+                .received(requests.size())
+                .boxesUpdated(newestByBox.size())
+                .unknownBoxAddresses(unknown)
+                .build();
+    }
+
+    /** Em empate (ou sem horário) vale o que veio depois no lote. */
+    private static HeartbeatRequestDto newest(HeartbeatRequestDto current, HeartbeatRequestDto candidate) {
+        return BY_AT.compare(candidate, current) >= 0 ? candidate : current;
+    }
 }
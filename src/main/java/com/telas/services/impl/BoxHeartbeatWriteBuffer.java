@@ -0,0 +1,192 @@
+package com.telas.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.telas.monitoring.repositories.BoxHeartbeatEntityRepository;
+import com.telas.scheduler.InternalScheduledTask;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Último heartbeat de cada box mantido em memória. Heartbeats só marcam a entrada como suja; um
+ * {@code @Scheduled} grava as sujas em {@code monitoring.box_heartbeat} com um único upsert em batch a cada
+ * {@code flush-interval-ms}. Consultas de frescor podem ser respondidas daqui sem ir ao banco.
+ */
+@Component
+public class BoxHeartbeatWriteBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(BoxHeartbeatWriteBuffer.class);
+
+    // WHERE EXISTS: a box pode ter sido removida antes do flush (FK), sem derrubar o batch. Versão e metadata
+    // só mudam se o heartbeat não for mais antigo que o gravado (outra instância pode ter gravado um mais novo).
+    private static final String UPSERT_SQL =
+            "INSERT INTO monitoring.box_heartbeat (box_id, last_seen_at, reported_version, metadata_json, updated_at) "
+                    + "SELECT ?, ?, ?, CAST(? AS jsonb), ? WHERE EXISTS (SELECT 1 FROM public.boxes b WHERE b.id = ?) "
+                    + "ON CONFLICT (box_id) DO UPDATE SET "
+                    + "last_seen_at = GREATEST(monitoring.box_heartbeat.last_seen_at, EXCLUDED.last_seen_at), "
+                    + "reported_version = CASE WHEN EXCLUDED.last_seen_at >= monitoring.box_heartbeat.last_seen_at "
+                    + "THEN EXCLUDED.reported_version ELSE monitoring.box_heartbeat.reported_version END, "
+                    + "metadata_json = CASE WHEN EXCLUDED.last_seen_at >= monitoring.box_heartbeat.last_seen_at "
+                    + "THEN EXCLUDED.metadata_json ELSE monitoring.box_heartbeat.metadata_json END, "
+                    + "updated_at = EXCLUDED.updated_at";
+
+    public record HeartbeatSnapshot(
+            Instant lastSeenAt, String reportedVersion, Map<String, Object> metadata, boolean dirty) {
+
+        HeartbeatSnapshot clean() {
+            return new HeartbeatSnapshot(lastSeenAt, reportedVersion, metadata, false);
+        }
+
+        /** Heartbeat reenviado com horário anterior a este: não deve substituir versão/metadata nem indicar reboot. */
+        public boolean isNewerThan(Instant seenAt) {
+            return lastSeenAt != null && lastSeenAt.isAfter(seenAt);
+        }
+    }
+
+    private final BoxHeartbeatEntityRepository boxHeartbeatEntityRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<UUID, HeartbeatSnapshot> latest = new ConcurrentHashMap<>();
+
+    private Counter flushedCounter;
+
+    public BoxHeartbeatWriteBuffer(
+            BoxHeartbeatEntityRepository boxHeartbeatEntityRepository,
+            JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.boxHeartbeatEntityRepository = boxHeartbeatEntityRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void start() {
+        Gauge.builder("box_heartbeat.buffer.dirty", latest, m -> m.values().stream().filter(HeartbeatSnapshot::dirty).count())
+                .description("Heartbeats aguardando gravação")
+                .register(meterRegistry);
+        flushedCounter =
+                Counter.builder("box_heartbeat.buffer.flushed")
+                        .description("Linhas de box_heartbeat gravadas pelo buffer")
+                        .register(meterRegistry);
+    }
+
+    /**
+     * Registra o heartbeat e devolve o anterior (da memória ou, na primeira vez após o start, do banco),
+     * usado para detectar reboot. Um heartbeat mais antigo que o atual é ignorado; quem chama reconhece o caso
+     * por {@link HeartbeatSnapshot#isNewerThan}.
+     */
+    public Optional<HeartbeatSnapshot> record(
+            UUID boxId, Instant seenAt, String reportedVersion, Map<String, Object> metadata) {
+        if (!latest.containsKey(boxId)) {
+            boxHeartbeatEntityRepository
+                    .findByBox_Id(boxId)
+                    .ifPresent(h -> latest.putIfAbsent(
+                            boxId, new HeartbeatSnapshot(h.getLastSeenAt(), h.getReportedVersion(), h.getMetadataJson(), false)));
+        }
+        HeartbeatSnapshot[] previous = new HeartbeatSnapshot[1];
+        latest.compute(boxId, (id, current) -> {
+            previous[0] = current;
+            if (current != null && current.isNewerThan(seenAt)) {
+                return current;
+            }
+            return new HeartbeatSnapshot(seenAt, reportedVersion, metadata, true);
+        });
+        return Optional.ofNullable(previous[0]);
+    }
+
+    /** Carrega do banco, numa consulta, o último heartbeat das boxes que ainda não estão em memória. */
+    public void preload(Collection<UUID> boxIds) {
+        List<UUID> missing = boxIds.stream().filter(id -> !latest.containsKey(id)).toList();
+        if (missing.isEmpty()) {
+            return;
+        }
+        boxHeartbeatEntityRepository.findAllByBox_IdIn(missing).forEach(h -> latest.putIfAbsent(
+                h.getBox().getId(), new HeartbeatSnapshot(h.getLastSeenAt(), h.getReportedVersion(), h.getMetadataJson(), false)));
+    }
+
+    /** Último heartbeat conhecido por esta instância; vazio se a box não enviou desde o start. */
+    public Optional<Instant> lastSeenAt(UUID boxId) {
+        HeartbeatSnapshot snapshot = boxId != null ? latest.get(boxId) : null;
+        return snapshot != null ? Optional.ofNullable(snapshot.lastSeenAt()) : Optional.empty();
+    }
+
+    public void flush() {
+        List<Map.Entry<UUID, HeartbeatSnapshot>> dirty = new ArrayList<>();
+        latest.forEach((boxId, snapshot) -> {
+            if (snapshot.dirty()) {
+                dirty.add(Map.entry(boxId, snapshot));
+            }
+        });
+        if (dirty.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(UPSERT_SQL, dirty, dirty.size(), (ps, e) -> {
+            HeartbeatSnapshot snapshot = e.getValue();
+            ps.setObject(1, e.getKey());
+            ps.setTimestamp(2, Timestamp.from(snapshot.lastSeenAt()));
+            ps.setString(3, snapshot.reportedVersion());
+            ps.setString(4, toJson(snapshot.metadata()));
+            ps.setTimestamp(5, now);
+            ps.setObject(6, e.getKey());
+        });
+        // Só limpa se nenhum heartbeat novo chegou durante o flush; senão fica para o próximo.
+        for (Map.Entry<UUID, HeartbeatSnapshot> e : dirty) {
+            latest.replace(e.getKey(), e.getValue(), e.getValue().clean());
+        }
+        flushedCounter.increment(dirty.size());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flushQuietly();
+    }
+
+    @Scheduled(
+            fixedDelayString = "${monitoring.heartbeat.flush-interval-ms:2000}",
+            initialDelayString = "${monitoring.heartbeat.flush-interval-ms:2000}")
+    @InternalScheduledTask
+    public void flushQuietly() {
+        try {
+            flush();
+        } catch (DataAccessException e) {
+            log.warn("box_heartbeat.buffer.flush_failed err={}", e.getMessage());
+        } catch (Exception e) {
+            log.error("box_heartbeat.buffer.flush_failed", e);
+        }
+    }
+
+    private String toJson(Map<String, Object> metadata) {
+        if (metadata == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(metadata);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+}
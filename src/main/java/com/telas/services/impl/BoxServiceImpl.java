@@ -38,6 +38,8 @@ public class BoxServiceImpl implements BoxService {
 
 	private final HealthUpdateService healthUpdateService;
 
+	private final PresignedUrlCache presignedUrlCache;
+
 
 	@Override
 	@Transactional(readOnly = true)
@@ -75,6 +77,15 @@ public class BoxServiceImpl implements BoxService {
 	}
 
 
+	@Override
+	@Transactional(readOnly = true)
+	public String getPlaylistETag(String address) {
+		return repository.findActivePlaylistVersionByAddress(address)
+			.map(version -> "\"" + version + "-" + presignedUrlCache.currentLinkEpoch() + "\"")
+			.orElse(null);
+	}
+
+
 	@Override
 	@Transactional
 	public void updateHealth(StatusBoxMonitorsRequestDto request) {
@@ -34,6 +34,7 @@ public class BucketServiceImpl implements BucketService {
   private final BucketConfigProperties bucketProperties;
   private final S3Client s3Client;
   private final S3Presigner s3Presigner;
+  private final PresignedUrlCache presignedUrlCache;
 
   @Override
   @Async
@@ -62,6 +63,7 @@ public class BucketServiceImpl implements BucketService {
               .build();
       // Remove o objeto do bucket
       s3Client.deleteObject(deleteObjectRequest);
+      presignedUrlCache.invalidate(fileName);
       log.info("File {} deleted successfully from bucket {}.", fileName, bucketProperties.getName());
     } catch (Exception e) {
       log.error("Error deleting file '{}': {}", fileName, e.getMessage());
@@ -79,6 +81,15 @@ public class BucketServiceImpl implements BucketService {
 
   @Override
   public String getLink(String objectName) {
+    return presignedUrlCache.getLink(objectName, () -> presignLink(objectName));
+  }
+
+  @Override
+  public String getDownloadLink(String objectName, String fileName) {
+    return presignedUrlCache.getDownloadLink(objectName, fileName, () -> presignDownloadLink(objectName, fileName));
+  }
+
+  private String presignLink(String objectName) {
     try {
       GetObjectRequest getObjectRequest = GetObjectRequest.builder()
               .bucket(bucketProperties.getName())
@@ -101,8 +112,7 @@ public class BucketServiceImpl implements BucketService {
     }
   }
 
-  @Override
-  public String getDownloadLink(String objectName, String fileName) {
+  private String presignDownloadLink(String objectName, String fileName) {
     try {
       String safe = sanitizeDownloadFileName(fileName);
       GetObjectRequest getObjectRequest = GetObjectRequest.builder()
@@ -305,7 +305,8 @@ public class ClientServiceImpl implements ClientService {
 	@Transactional
 	@Override
 	public void update(ClientRequestDto request, UUID id) {
-		AuthenticatedUser authenticatedUser = authenticatedUserService.validateSelfOrAdmin(id);
+		authenticatedUserService.validateSelfOrAdmin(id);
+		AuthenticatedUser authenticatedUser = authenticatedUserService.getLoggedUser();
 
 		Client client = findActiveEntityById(id);
 		helper.validateClientRequest(request, client);
@@ -315,6 +316,7 @@ public class ClientServiceImpl implements ClientService {
 		client.update(request, authenticatedUser.client().getBusinessName());
 		helper.updateAddresses(request.getAddresses(), client);
 		repository.save(client);
+		authenticatedUserService.evictPrincipal(id);
 	}
 
 
@@ -383,7 +385,8 @@ public class ClientServiceImpl implements ClientService {
 	public void uploadAds(AttachmentRequestDto request, UUID clientId) {
 		request.validate();
 
-		Client admin = authenticatedUserService.validateAdmin().client();
+		authenticatedUserService.validateAdmin();
+		Client admin = authenticatedUserService.getLoggedUser().client();
 		Client client = findActiveEntityById(clientId);
 
 		if (admin.getId().equals(clientId) || Role.ADMIN.equals(client.getRole())) {
@@ -411,13 +414,15 @@ public class ClientServiceImpl implements ClientService {
 		client.setTermCondition(actualTermCondition);
 		client.setTermAcceptedAt(Instant.now());
 		repository.save(client);
+		authenticatedUserService.evictPrincipal(client.getId());
 	}
 
 
 	@Transactional
 	@Override
 	public void changeRoleToPartner(UUID clientId) {
-		Client admin = authenticatedUserService.validateAdmin().client();
+		authenticatedUserService.validateAdmin();
+		Client admin = authenticatedUserService.getLoggedUser().client();
 		Client partner = repository.findById(clientId)
 			.orElseThrow(() -> new ResourceNotFoundException(ClientValidationMessages.USER_NOT_FOUND));
 
@@ -427,6 +432,7 @@ public class ClientServiceImpl implements ClientService {
 			partner.setRole(Role.PARTNER);
 			partner.setUsernameUpdate(admin.getBusinessName());
 			repository.save(partner);
+			authenticatedUserService.evictPrincipal(partner.getId());
 		}
 	}
 
@@ -455,6 +461,7 @@ public class ClientServiceImpl implements ClientService {
 			target.getAdRequest().closeRequest();
 		}
 		repository.save(target);
+		authenticatedUserService.evictPrincipal(target.getId());
 	}
 
 	@Override
@@ -478,6 +485,7 @@ public class ClientServiceImpl implements ClientService {
 		target.setInactiveByClientId(null);
 		target.setUsernameUpdate(actor.getBusinessName());
 		repository.save(target);
+		authenticatedUserService.evictPrincipal(target.getId());
 	}
 
 	@Override
@@ -500,6 +508,7 @@ public class ClientServiceImpl implements ClientService {
 		target.setStatus(DefaultStatus.DELETED);
 		target.setUsernameUpdate(actor.getBusinessName());
 		repository.save(target);
+		authenticatedUserService.evictPrincipal(target.getId());
 	}
 
 	@Override
@@ -527,6 +536,8 @@ public class ClientServiceImpl implements ClientService {
 			throw new ForbiddenException(ClientValidationMessages.CANNOT_DEACTIVATE_USER);
 		}
 		clientPermanentDeletionService.deleteClientAndOwnedData(clientId, request.getMonitorSuccessorClientId());
+		authenticatedUserService.evictPrincipal(clientId);
+		authenticatedUserService.evictPrincipal(request.getMonitorSuccessorClientId());
 	}
 
 	@Override
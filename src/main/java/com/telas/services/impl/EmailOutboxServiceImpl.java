@@ -0,0 +1,82 @@
+package com.telas.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.telas.dtos.EmailDataDto;
+import com.telas.services.EmailOutboxService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class EmailOutboxServiceImpl implements EmailOutboxService {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO public.email_outbox (id, notification_id, recipient_email, subject, template, params_json) "
+                    + "VALUES (?, ?, ?, ?, ?, CAST(? AS jsonb))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final EmailOutboxWorker worker;
+
+    @Override
+    public void enqueue(EmailDataDto data, UUID notificationId) {
+        // JdbcTemplate participa da transação JPA corrente: a linha só fica visível junto com a notificação.
+        jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, data, notificationId));
+        wakeWorkerAfterCommit();
+    }
+
+    @Override
+    public void enqueueAll(Map<UUID, EmailDataDto> emailsByNotificationId) {
+        if (emailsByNotificationId.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<UUID, EmailDataDto>> rows = new ArrayList<>(emailsByNotificationId.entrySet());
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, e) -> bind(ps, e.getValue(), e.getKey()));
+        wakeWorkerAfterCommit();
+    }
+
+    private void bind(PreparedStatement ps, EmailDataDto data, UUID notificationId) throws SQLException {
+        ps.setObject(1, UUID.randomUUID());
+        ps.setObject(2, notificationId, Types.OTHER);
+        ps.setString(3, data.getEmail());
+        ps.setString(4, data.getSubject() == null ? "" : data.getSubject());
+        ps.setString(5, data.getTemplate());
+        ps.setString(6, toJson(data.getParams()));
+    }
+
+    private void wakeWorkerAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    worker.wakeUp();
+                }
+            });
+        } else {
+            worker.wakeUp();
+        }
+    }
+
+    private String toJson(Map<String, String> params) {
+        if (params == null || params.isEmpty()) {
+            return "{}";
+        }
+        try {
+            return objectMapper.writeValueAsString(params);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("email params not serializable", e);
+        }
+    }
+}
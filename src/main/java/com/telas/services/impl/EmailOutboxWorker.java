@@ -0,0 +1,391 @@
+package com.telas.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.telas.dtos.EmailDataDto;
+import com.telas.scheduler.InternalScheduledTask;
+import com.telas.services.EmailService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drena {@code public.email_outbox} com um pool de {@code workers} threads. Cada thread reserva um lote com
+ * {@code FOR UPDATE SKIP LOCKED} (seguro com várias instâncias), envia o lote numa única conexão SMTP via
+ * {@link EmailService#sendAll} e grava o resultado. Falhas voltam para PENDING com backoff exponencial até
+ * {@code max-attempts}; linhas SENDING cujo lease expirou (instância caiu no meio do envio) são reservadas de novo.
+ * Estatísticas da fila e a retenção dos enviados rodam no agendador do Spring.
+ */
+@Component
+public class EmailOutboxWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxWorker.class);
+
+    private static final int MAX_ERROR_LEN = 1000;
+    private static final TypeReference<Map<String, String>> PARAMS_TYPE = new TypeReference<>() {
+    };
+
+    private static final String CLAIM_SQL =
+            "UPDATE public.email_outbox o SET status = 'SENDING', attempts = o.attempts + 1, locked_until = ? "
+                    + "WHERE o.id IN (SELECT id FROM public.email_outbox "
+                    + "WHERE (status = 'PENDING' AND next_attempt_at <= now()) OR (status = 'SENDING' AND locked_until < now()) "
+                    + "ORDER BY next_attempt_at LIMIT ? FOR UPDATE SKIP LOCKED) "
+                    + "RETURNING o.id, o.recipient_email, o.subject, o.template, o.params_json::text AS params_json, "
+                    + "o.attempts, o.created_at";
+
+    private static final String MARK_SENT_SQL =
+            "UPDATE public.email_outbox SET status = 'SENT', sent_at = ?, locked_until = NULL, last_error = NULL "
+                    + "WHERE id = ?";
+
+    private static final String MARK_FAILED_SQL =
+            "UPDATE public.email_outbox SET status = ?, next_attempt_at = ?, locked_until = NULL, last_error = ? "
+                    + "WHERE id = ?";
+
+    private static final String STATS_SQL =
+            "SELECT count(*) AS pending, min(created_at) AS oldest FROM public.email_outbox "
+                    + "WHERE status IN ('PENDING', 'SENDING')";
+
+    private static final String PURGE_SQL = "DELETE FROM public.email_outbox WHERE status = 'SENT' AND sent_at < ?";
+
+    record OutboxRow(UUID id, EmailDataDto data, int attempts, Instant createdAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EmailService emailService;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private final boolean enabled;
+    private final int workers;
+    private final int batchSize;
+    private final long pollIntervalMs;
+    private final long leaseMs;
+    private final int maxAttempts;
+    private final long backoffBaseMs;
+    private final long backoffMaxMs;
+    private final int sentRetentionDays;
+
+    private final Semaphore wakeups = new Semaphore(0);
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong oldestPendingEpochMs = new AtomicLong();
+    private final AtomicLong lastPurgeEpochMs = new AtomicLong();
+
+    private ExecutorService pool;
+    private volatile boolean running;
+
+    private Counter sentCounter;
+    private Counter retriedCounter;
+    private Counter failedCounter;
+    private Timer batchTimer;
+    private Timer queueLatencyTimer;
+
+    public EmailOutboxWorker(
+            JdbcTemplate jdbcTemplate,
+            EmailService emailService,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${email.outbox.enabled:true}") boolean enabled,
+            @Value("${email.outbox.workers:2}") int workers,
+            @Value("${email.outbox.batch-size:20}") int batchSize,
+            @Value("${email.outbox.poll-interval-ms:2000}") long pollIntervalMs,
+            @Value("${email.outbox.lease-ms:120000}") long leaseMs,
+            @Value("${email.outbox.max-attempts:8}") int maxAttempts,
+            @Value("${email.outbox.backoff-base-ms:30000}") long backoffBaseMs,
+            @Value("${email.outbox.backoff-max-ms:3600000}") long backoffMaxMs,
+            @Value("${email.outbox.sent-retention-days:14}") int sentRetentionDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.emailService = emailService;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.workers = Math.max(1, workers);
+        this.batchSize = Math.max(1, batchSize);
+        this.pollIntervalMs = Math.max(100L, pollIntervalMs);
+        this.leaseMs = Math.max(10_000L, leaseMs);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffBaseMs = Math.max(1_000L, backoffBaseMs);
+        this.backoffMaxMs = Math.max(this.backoffBaseMs, backoffMaxMs);
+        this.sentRetentionDays = Math.max(1, sentRetentionDays);
+    }
+
+    @PostConstruct
+    void start() {
+        sentCounter = Counter.builder("email.outbox.sent").description("E-mails enviados pelo outbox").register(meterRegistry);
+        retriedCounter =
+                Counter.builder("email.outbox.retried")
+                        .description("Envios que falharam e foram reagendados")
+                        .register(meterRegistry);
+        failedCounter =
+                Counter.builder("email.outbox.failed")
+                        .description("E-mails que esgotaram as tentativas")
+                        .register(meterRegistry);
+        batchTimer =
+                Timer.builder("email.outbox.batch")
+                        .description("Duração do envio SMTP de cada lote")
+                        .register(meterRegistry);
+        queueLatencyTimer =
+                Timer.builder("email.outbox.queue.latency")
+                        .description("Tempo entre a gravação no outbox e o envio")
+                        .register(meterRegistry);
+        Gauge.builder("email.outbox.pending", pending, AtomicLong::get)
+                .description("E-mails pendentes ou em envio")
+                .register(meterRegistry);
+        Gauge.builder("email.outbox.oldest.age.seconds", oldestPendingEpochMs, this::oldestPendingAgeSeconds)
+                .description("Idade do e-mail pendente mais antigo")
+                .register(meterRegistry);
+
+        if (!enabled) {
+            log.info("email.outbox.worker.disabled");
+            return;
+        }
+        running = true;
+        AtomicInteger threadIndex = new AtomicInteger();
+        pool = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "email-outbox-worker-" + threadIndex.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        for (int i = 0; i < workers; i++) {
+            pool.submit(this::workLoop);
+        }
+        log.info("email.outbox.worker.started workers={} batchSize={} maxAttempts={}", workers, batchSize, maxAttempts);
+    }
+
+    /** Acorda os workers sem esperar o próximo poll (chamado após o commit de um enqueue). */
+    public void wakeUp() {
+        if (running && wakeups.availablePermits() < workers) {
+            wakeups.release();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        if (pool == null) {
+            return;
+        }
+        wakeups.release(workers);
+        pool.shutdown();
+        try {
+            // Linhas que ficarem em SENDING voltam a ser reservadas quando o lease expirar.
+            if (!pool.awaitTermination(10, TimeUnit.SECONDS)) {
+                pool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pool.shutdownNow();
+        }
+    }
+
+    /** Reserva e envia um lote; devolve quantas linhas foram processadas. */
+    int drainOnce() {
+        List<OutboxRow> rows = claim();
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        List<EmailDataDto> batch = rows.stream().map(OutboxRow::data).toList();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Map<Integer, Exception> failures;
+        try {
+            failures = emailService.sendAll(batch);
+        } catch (RuntimeException e) {
+            failures = new HashMap<>();
+            for (int i = 0; i < rows.size(); i++) {
+                failures.put(i, e);
+            }
+        } finally {
+            sample.stop(batchTimer);
+        }
+
+        Instant now = Instant.now();
+        List<OutboxRow> sent = new ArrayList<>(rows.size());
+        List<Map.Entry<OutboxRow, Exception>> failed = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            Exception error = failures.get(i);
+            if (error == null) {
+                sent.add(rows.get(i));
+            } else {
+                failed.add(Map.entry(rows.get(i), error));
+            }
+        }
+        markSent(sent, now);
+        markFailed(failed, now);
+        return rows.size();
+    }
+
+    void refreshStats() {
+        jdbcTemplate.query(STATS_SQL, rs -> {
+            pending.set(rs.getLong("pending"));
+            Timestamp oldest = rs.getTimestamp("oldest");
+            oldestPendingEpochMs.set(oldest == null ? 0L : oldest.getTime());
+        });
+        long nowMs = System.currentTimeMillis();
+        long last = lastPurgeEpochMs.get();
+        if (nowMs - last >= TimeUnit.HOURS.toMillis(1) && lastPurgeEpochMs.compareAndSet(last, nowMs)) {
+            Instant cutoff = Instant.now().minus(Duration.ofDays(sentRetentionDays));
+            int purged = jdbcTemplate.update(PURGE_SQL, Timestamp.from(cutoff));
+            if (purged > 0) {
+                log.info("email.outbox.purged rows={} olderThanDays={}", purged, sentRetentionDays);
+            }
+        }
+    }
+
+    private void workLoop() {
+        while (running) {
+            try {
+                if (drainOnce() < batchSize) {
+                    wakeups.tryAcquire(pollIntervalMs, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (DataAccessException e) {
+                log.warn("email.outbox.drain_failed err={}", e.getMessage());
+                sleepQuietly();
+            } catch (Exception e) {
+                log.error("email.outbox.drain_failed", e);
+                sleepQuietly();
+            }
+        }
+    }
+
+    private List<OutboxRow> claim() {
+        Timestamp lockedUntil = Timestamp.from(Instant.now().plusMillis(leaseMs));
+        return jdbcTemplate.query(CLAIM_SQL, this::mapRow, lockedUntil, batchSize);
+    }
+
+    private OutboxRow mapRow(ResultSet rs, int rowNum) throws SQLException {
+        EmailDataDto data =
+                new EmailDataDto(
+                        rs.getString("recipient_email"),
+                        rs.getString("template"),
+                        rs.getString("subject"),
+                        readParams(rs.getString("params_json")));
+        return new OutboxRow(
+                rs.getObject("id", UUID.class), data, rs.getInt("attempts"), rs.getTimestamp("created_at").toInstant());
+    }
+
+    private void markSent(List<OutboxRow> sent, Instant now) {
+        if (sent.isEmpty()) {
+            return;
+        }
+        Timestamp sentAt = Timestamp.from(now);
+        jdbcTemplate.batchUpdate(MARK_SENT_SQL, sent, sent.size(), (ps, row) -> {
+            ps.setTimestamp(1, sentAt);
+            ps.setObject(2, row.id());
+        });
+        sent.forEach(row -> queueLatencyTimer.record(Duration.between(row.createdAt(), now)));
+        sentCounter.increment(sent.size());
+    }
+
+    private void markFailed(List<Map.Entry<OutboxRow, Exception>> failed, Instant now) {
+        if (failed.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(MARK_FAILED_SQL, failed, failed.size(), (ps, e) -> {
+            OutboxRow row = e.getKey();
+            boolean exhausted = row.attempts() >= maxAttempts;
+            ps.setString(1, exhausted ? "FAILED" : "PENDING");
+            ps.setTimestamp(2, Timestamp.from(now.plusMillis(backoffMs(row.attempts()))));
+            ps.setString(3, truncate(describe(e.getValue())));
+            ps.setObject(4, row.id());
+        });
+        for (Map.Entry<OutboxRow, Exception> e : failed) {
+            OutboxRow row = e.getKey();
+            if (row.attempts() >= maxAttempts) {
+                failedCounter.increment();
+                log.error(
+                        "email.outbox.failed id={} to={} template={} attempts={} err={}",
+                        row.id(),
+                        row.data().getEmail(),
+                        row.data().getTemplate(),
+                        row.attempts(),
+                        describe(e.getValue()));
+            } else {
+                retriedCounter.increment();
+            }
+        }
+    }
+
+    // Exponencial a partir de backoff-base-ms, limitado a backoff-max-ms, com até 20% de jitter.
+    long backoffMs(int attempts) {
+        int exponent = Math.min(Math.max(0, attempts - 1), 20);
+        long delay = Math.min(backoffMaxMs, backoffBaseMs << exponent);
+        return delay + ThreadLocalRandom.current().nextLong(delay / 5 + 1);
+    }
+
+    private Map<String, String> readParams(String json) {
+        if (json == null || json.isBlank()) {
+            return new HashMap<>();
+        }
+        try {
+            return new HashMap<>(objectMapper.readValue(json, PARAMS_TYPE));
+        } catch (JsonProcessingException e) {
+            log.warn("email.outbox.params_unreadable err={}", e.getMessage());
+            return new HashMap<>();
+        }
+    }
+
+    private double oldestPendingAgeSeconds(AtomicLong oldestEpochMs) {
+        long oldest = oldestEpochMs.get();
+        return oldest == 0L ? 0.0 : Math.max(0L, System.currentTimeMillis() - oldest) / 1000.0;
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.stats-interval-ms:30000}")
+    @InternalScheduledTask
+    public void refreshStatsQuietly() {
+        if (!running) {
+            return;
+        }
+        try {
+            refreshStats();
+        } catch (Exception e) {
+            log.warn("email.outbox.stats_failed err={}", e.getMessage());
+        }
+    }
+
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(pollIntervalMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String describe(Exception e) {
+        return e.getClass().getSimpleName() + ": " + (e.getMessage() == null ? "" : e.getMessage());
+    }
+
+    private static String truncate(String s) {
+        return s.length() <= MAX_ERROR_LEN ? s : s.substring(0, MAX_ERROR_LEN);
+    }
+}
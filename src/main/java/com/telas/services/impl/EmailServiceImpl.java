@@ -16,6 +16,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
@@ -23,7 +24,10 @@ import org.springframework.util.StringUtils;
 
 import java.io.IOException;
 import java.io.StringWriter;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
@@ -58,22 +62,7 @@ public class EmailServiceImpl implements EmailService {
     public void send(EmailDataDto data) {
         Exception transportError = null;
         try {
-            Template template = freemarkerConfig.getTemplate(data.getTemplate());
-
-            StringWriter stringWriter = new StringWriter();
-            template.process(data.getParams(), stringWriter);
-            String emailBody = stringWriter.toString();
-
-            MimeMessage mimeMessage = emailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage);
-            InternetAddress sender = new InternetAddress(emailFrom, SharedConstants.EMAIL_SENDER);
-            InternetAddress destination = new InternetAddress(data.getEmail(), SharedConstants.RECIPIENT);
-
-            helper.setSubject(data.getSubject());
-            helper.setFrom(sender);
-            helper.setTo(destination);
-            helper.setText(emailBody, true);
-            emailSender.send(mimeMessage);
+            emailSender.send(buildMessage(data));
             log.info(
                     "Email sent successfully: to={} subject={} template={}",
                     data.getEmail(),
@@ -88,6 +77,71 @@ public class EmailServiceImpl implements EmailService {
         }
     }
 
+    @Override
+    public Map<Integer, Exception> sendAll(List<EmailDataDto> batch) {
+        Map<Integer, Exception> failures = new HashMap<>();
+        Map<MimeMessage, Integer> indexByMessage = new IdentityHashMap<>();
+        List<MimeMessage> messages = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                MimeMessage message = buildMessage(batch.get(i));
+                indexByMessage.put(message, i);
+                messages.add(message);
+            } catch (MessagingException | IOException | TemplateException | RuntimeException e) {
+                failures.put(i, e);
+            }
+        }
+
+        if (!messages.isEmpty()) {
+            try {
+                // JavaMailSenderImpl abre uma única conexão (Transport) para todas as mensagens da chamada.
+                emailSender.send(messages.toArray(MimeMessage[]::new));
+            } catch (MailSendException e) {
+                if (e.getFailedMessages().isEmpty()) {
+                    indexByMessage.values().forEach(i -> failures.put(i, e));
+                } else {
+                    e.getFailedMessages().forEach((message, error) -> {
+                        Integer i = indexByMessage.get(message);
+                        if (i != null) {
+                            failures.put(i, error);
+                        }
+                    });
+                }
+            } catch (MailException e) {
+                indexByMessage.values().forEach(i -> failures.put(i, e));
+            }
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            Exception error = failures.get(i);
+            if (error != null) {
+                log.error("Error while sending email: to={} err={}", batch.get(i).getEmail(), error.getMessage());
+            }
+            recordEmailInApplicationLogs(batch.get(i), error == null, error);
+        }
+        log.info("Email batch sent: size={} failed={}", batch.size(), failures.size());
+        return failures;
+    }
+
+    private MimeMessage buildMessage(EmailDataDto data) throws IOException, TemplateException, MessagingException {
+        Template template = freemarkerConfig.getTemplate(data.getTemplate());
+
+        StringWriter stringWriter = new StringWriter();
+        template.process(data.getParams(), stringWriter);
+        String emailBody = stringWriter.toString();
+
+        MimeMessage mimeMessage = emailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage);
+        InternetAddress sender = new InternetAddress(emailFrom, SharedConstants.EMAIL_SENDER);
+        InternetAddress destination = new InternetAddress(data.getEmail(), SharedConstants.RECIPIENT);
+
+        helper.setSubject(data.getSubject());
+        helper.setFrom(sender);
+        helper.setTo(destination);
+        helper.setText(emailBody, true);
+        return mimeMessage;
+    }
+
     private void recordEmailInApplicationLogs(EmailDataDto data, boolean success, Exception error) {
         try {
             Map<String, Object> metadata = buildEmailLogMetadata(data);
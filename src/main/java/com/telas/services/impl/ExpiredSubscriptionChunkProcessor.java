@@ -0,0 +1,76 @@
+package com.telas.services.impl;
+
+import com.telas.entities.Monitor;
+import com.telas.entities.Subscription;
+import com.telas.enums.SubscriptionStatus;
+import com.telas.helpers.MonitorHelper;
+import com.telas.helpers.SubscriptionHelper;
+import com.telas.repositories.SubscriptionRepository;
+import com.telas.services.MonitorSubscriptionService;
+import com.telas.services.RemoveMonitorAdsOutcome;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Expira um lote de assinaturas numa transação própria. As remoções de anúncios são agrupadas por box (um
+ * remove-ads por box por lote, enfileirado junto com o commit) e o aviso de wishlist é feito uma vez por lote.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExpiredSubscriptionChunkProcessor {
+
+    private final Logger log = LoggerFactory.getLogger(ExpiredSubscriptionChunkProcessor.class);
+
+    private final SubscriptionRepository repository;
+    private final MonitorSubscriptionService monitorSubscriptionService;
+    private final MonitorHelper monitorHelper;
+    private final SubscriptionHelper subscriptionHelper;
+
+    public record ExpiredSubscription(UUID subscriptionId, String clientBusinessName, List<String> removedAdNames) {
+    }
+
+    public record ChunkResult(List<ExpiredSubscription> expired, int boxCommands) {
+    }
+
+    /**
+     * Assinaturas que deixaram de estar ativas e vencidas desde a listagem dos ids são ignoradas, então reprocessar
+     * um lote (nova execução após falha) é seguro.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public ChunkResult process(List<UUID> subscriptionIds, Instant now) {
+        List<Subscription> subscriptions = repository.findActiveAndExpiredByIdIn(subscriptionIds, now);
+        List<ExpiredSubscription> expired = new ArrayList<>(subscriptions.size());
+        Map<String, Set<String>> boxRemovals = new LinkedHashMap<>();
+        Set<Monitor> releasedMonitors = new HashSet<>();
+
+        for (Subscription subscription : subscriptions) {
+            log.info("Removing ads from expired subscription with id: {}", subscription.getId());
+            // Capturado antes da remoção, que limpa subscriptionMonitors.
+            releasedMonitors.addAll(subscription.getMonitors());
+            subscription.setUsernameUpdate("Virtual Assistant");
+            subscription.setStatus(SubscriptionStatus.EXPIRED);
+            RemoveMonitorAdsOutcome outcome =
+                    monitorSubscriptionService.removeMonitorAdsFromSubscription(subscription, boxRemovals);
+            repository.save(subscription);
+            expired.add(new ExpiredSubscription(
+                    subscription.getId(), subscription.getClient().getBusinessName(), outcome.removedAdNames()));
+        }
+
+        boxRemovals.forEach(monitorHelper::sendBoxRemoveAds);
+        subscriptionHelper.notifyClientsWishList(releasedMonitors);
+        return new ChunkResult(expired, boxRemovals.size());
+    }
+}
@@ -15,6 +15,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 @Service
@@ -28,7 +29,28 @@ public class HeartbeatRecoveryServiceImpl implements HeartbeatRecoveryService {
     @Override
     @Transactional
     public void recoverAfterSuccessfulHeartbeat(Box box) {
-        Box managed = boxRepository.findById(box.getId()).orElse(box);
+        reactivate(boxRepository.findById(box.getId()).orElse(box));
+        List<IncidentEntity> open =
+                incidentEntityRepository.findAllByBox_IdAndIncidentTypeInAndClosedAtIsNull(
+                        box.getId(), MonitoringIncidentTypes.BOX_OUTAGE_INCIDENT_TYPES);
+        closeAll(open);
+    }
+
+    /** As boxes devem vir gerenciadas pela transação de quem chama (com boxAddress carregado). */
+    @Override
+    @Transactional
+    public void recoverAfterSuccessfulHeartbeats(Collection<Box> boxes) {
+        if (boxes.isEmpty()) {
+            return;
+        }
+        boxes.forEach(this::reactivate);
+        List<IncidentEntity> open =
+                incidentEntityRepository.findAllByBox_IdInAndIncidentTypeInAndClosedAtIsNull(
+                        boxes.stream().map(Box::getId).toList(), MonitoringIncidentTypes.BOX_OUTAGE_INCIDENT_TYPES);
+        closeAll(open);
+    }
+
+    private void reactivate(Box managed) {
         if (!managed.isActive()) {
             String ip = managed.getBoxAddress() != null ? managed.getBoxAddress().getIp() : null;
             if (StringUtils.hasText(ip)) {
@@ -41,9 +63,9 @@ public class HeartbeatRecoveryServiceImpl implements HeartbeatRecoveryService {
                 boxRepository.save(managed);
             }
         }
-        List<IncidentEntity> open =
-                incidentEntityRepository.findAllByBox_IdAndIncidentTypeInAndClosedAtIsNull(
-                        box.getId(), MonitoringIncidentTypes.BOX_OUTAGE_INCIDENT_TYPES);
+    }
+
+    private void closeAll(List<IncidentEntity> open) {
         if (open.isEmpty()) {
             return;
         }
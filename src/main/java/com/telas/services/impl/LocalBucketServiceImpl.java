@@ -33,6 +33,7 @@ public class LocalBucketServiceImpl implements BucketService {
     private final Logger log = LoggerFactory.getLogger(LocalBucketServiceImpl.class);
     private final BucketConfigProperties bucketProperties;
     private final MinioClient minioClient;
+    private final PresignedUrlCache presignedUrlCache;
 
     @Override
     @Async
@@ -60,6 +61,7 @@ public class LocalBucketServiceImpl implements BucketService {
                             .bucket(bucketProperties.getName())
                             .object(fileName)
                             .build());
+            presignedUrlCache.invalidate(fileName);
         } catch (Exception e) {
             throw new BusinessRuleException(
                     AttachmentValidationMessages.ERROR_DELETE_ATTACHMENT + fileName + " message: " + e.getMessage());
@@ -73,6 +75,15 @@ public class LocalBucketServiceImpl implements BucketService {
 
     @Override
     public String getLink(String objectName) {
+        return presignedUrlCache.getLink(objectName, () -> presignLink(objectName));
+    }
+
+    @Override
+    public String getDownloadLink(String objectName, String fileName) {
+        return presignedUrlCache.getDownloadLink(objectName, fileName, () -> presignDownloadLink(objectName, fileName));
+    }
+
+    private String presignLink(String objectName) {
         try {
             return minioClient.getPresignedObjectUrl(
                     GetPresignedObjectUrlArgs.builder()
@@ -87,8 +98,7 @@ public class LocalBucketServiceImpl implements BucketService {
         }
     }
 
-  @Override
-  public String getDownloadLink(String objectName, String fileName) {
+  private String presignDownloadLink(String objectName, String fileName) {
     try {
       String safe = sanitizeDownloadFileName(fileName);
       Map<String, String> extra =
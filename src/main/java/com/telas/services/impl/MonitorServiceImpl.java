@@ -10,7 +10,6 @@ import com.telas.dtos.response.*;
 import com.telas.entities.*;
 import com.telas.enums.SubscriptionStatus;
 import com.telas.helpers.AdOnAirNotificationHelper;
-import com.telas.helpers.BoxAdPushNotificationHelper;
 import com.telas.helpers.MonitorHelper;
 import com.telas.infra.exceptions.BusinessRuleException;
 import com.telas.infra.exceptions.ForbiddenException;
@@ -79,7 +78,6 @@ public class MonitorServiceImpl implements MonitorService {
 
 	private final AdOnAirNotificationHelper adOnAirNotificationHelper;
 
-	private final BoxAdPushNotificationHelper boxAdPushNotificationHelper;
 
 	private final AdUnusedTrackingService adUnusedTrackingService;
 
@@ -585,17 +583,11 @@ public class MonitorServiceImpl implements MonitorService {
 		addNewMonitorAdsToMonitor(monitor, newMonitorAds);
 
 		if (monitor.isAbleToSendBoxRequest()) {
-			Set<String> successfulBaseUrls = helper.syncBoxAdsPlaylist(monitor, requestList);
-			boolean sendOnAirEmails = successfulBaseUrls.isEmpty();
-			if (!successfulBaseUrls.isEmpty()) {
-				List<AbstractMap.SimpleEntry<MonitorAd, UpdateBoxMonitorsAdRequestDto>> pairsToNotify =
-						buildDeployNotifyPairs(monitor, newMonitorAds, requestList, successfulBaseUrls);
-				if (!pairsToNotify.isEmpty()) {
-					Map<Monitor, List<AbstractMap.SimpleEntry<MonitorAd, UpdateBoxMonitorsAdRequestDto>>> grouped =
-							Map.of(monitor, pairsToNotify);
-					boxAdPushNotificationHelper.notifyAfterSuccessfulPush(grouped, successfulBaseUrls);
-				}
-			}
+			List<AbstractMap.SimpleEntry<MonitorAd, UpdateBoxMonitorsAdRequestDto>> pairsToNotify =
+					buildDeployNotifyPairs(monitor, newMonitorAds, requestList);
+			helper.syncBoxAdsPlaylist(monitor, requestList, pairsToNotify);
+			// O e-mail de "ad deployed" sai quando a box confirmar a playlist; sem ele, o on-air manda e-mail.
+			boolean sendOnAirEmails = pairsToNotify.isEmpty();
 			adOnAirNotificationHelper.notifyOnAirForNewMonitorAds(newMonitorAds, monitor, sendOnAirEmails);
 		}
 
@@ -727,9 +719,8 @@ public class MonitorServiceImpl implements MonitorService {
 	private static List<AbstractMap.SimpleEntry<MonitorAd, UpdateBoxMonitorsAdRequestDto>> buildDeployNotifyPairs(
 			Monitor monitor,
 			List<MonitorAd> newMonitorAds,
-			List<UpdateBoxMonitorsAdRequestDto> requestList,
-			Set<String> successfulBaseUrls) {
-		if (requestList == null || requestList.isEmpty() || successfulBaseUrls == null || successfulBaseUrls.isEmpty()) {
+			List<UpdateBoxMonitorsAdRequestDto> requestList) {
+		if (requestList == null || requestList.isEmpty()) {
 			return List.of();
 		}
 		List<AbstractMap.SimpleEntry<MonitorAd, UpdateBoxMonitorsAdRequestDto>> allPairs =
@@ -745,9 +736,6 @@ public class MonitorServiceImpl implements MonitorService {
 					if (ma == null || ma.getAd() == null || dto == null || dto.getBaseUrl() == null) {
 						return false;
 					}
-					if (!successfulBaseUrls.contains(dto.getBaseUrl())) {
-						return false;
-					}
 					return newAdIds.contains(ma.getAd().getId());
 				})
 				.toList();
@@ -762,7 +750,7 @@ public class MonitorServiceImpl implements MonitorService {
 			UpdateBoxMonitorsAdRequestDto dto = requestList.stream()
 					.filter(Objects::nonNull)
 					.filter(d -> Objects.equals(ma.getAd().getName(), d.getFileName()))
-					.filter(d -> d.getBaseUrl() != null && successfulBaseUrls.contains(d.getBaseUrl()))
+					.filter(d -> d.getBaseUrl() != null)
 					.findFirst()
 					.orElse(null);
 			if (dto != null) {
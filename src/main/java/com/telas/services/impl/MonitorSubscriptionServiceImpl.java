@@ -21,6 +21,7 @@ import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -37,6 +38,13 @@ public class MonitorSubscriptionServiceImpl implements MonitorSubscriptionServic
     @Override
     @Transactional
     public RemoveMonitorAdsOutcome removeMonitorAdsFromSubscription(Subscription subscription) {
+        return removeMonitorAdsFromSubscription(subscription, null);
+    }
+
+    @Override
+    @Transactional
+    public RemoveMonitorAdsOutcome removeMonitorAdsFromSubscription(
+            Subscription subscription, Map<String, Set<String>> boxRemovals) {
         List<SubscriptionStatus> validStatuses = List.of(SubscriptionStatus.EXPIRED, SubscriptionStatus.CANCELLED);
 
         if (!validStatuses.contains(subscription.getStatus())) {
@@ -64,7 +72,12 @@ public class MonitorSubscriptionServiceImpl implements MonitorSubscriptionServic
                 allRemovedAdNames.addAll(adNamesToRemove);
 
                 if (monitor.isAbleToSendBoxRequest()) {
-                    helper.sendBoxesMonitorsRemoveAds(monitor, adNamesToRemove);
+                    if (boxRemovals == null) {
+                        helper.sendBoxesMonitorsRemoveAds(monitor, adNamesToRemove);
+                    } else {
+                        boxRemovals.computeIfAbsent(helper.boxBaseUrl(monitor), k -> new LinkedHashSet<>())
+                                .addAll(adNamesToRemove);
+                    }
                 }
             }
         });
@@ -0,0 +1,103 @@
+package com.telas.services.impl;
+
+import com.telas.entities.Box;
+import com.telas.monitoring.entities.BoxHeartbeatEntity;
+import com.telas.monitoring.repositories.BoxHeartbeatEntityRepository;
+import com.telas.repositories.BoxRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class MonitoringWorkerPersistence {
+
+    /** {@code refreshed}: candidatas que já têm heartbeat recente no banco (ex.: recebido por outra instância). */
+    public record HeartbeatSnapshot(
+            List<Map<String, String>> stale, List<Map<String, String>> neverSeen, Map<UUID, Instant> refreshed) {
+        static final HeartbeatSnapshot EMPTY = new HeartbeatSnapshot(List.of(), List.of(), Map.of());
+    }
+
+    public record Reconciliation(Map<UUID, Instant> lastSeenByBox, Map<UUID, Instant> neverSeenCreatedAt) {
+    }
+
+    private final BoxHeartbeatEntityRepository boxHeartbeatEntityRepository;
+    private final BoxRepository boxRepository;
+
+    /**
+     * Fase de leitura do worker: confere no banco só as boxes cujo prazo venceu no {@link StaleHeartbeatDetector}
+     * e devolve valores simples (sem entidades) para as fases seguintes.
+     */
+    @Transactional(readOnly = true)
+    public HeartbeatSnapshot readHeartbeatSnapshot(
+            Set<UUID> staleCandidates, Set<UUID> neverSeenCandidates, Instant staleCutoff, int maxRows) {
+        if (staleCandidates.isEmpty() && neverSeenCandidates.isEmpty()) {
+            return HeartbeatSnapshot.EMPTY;
+        }
+        Set<UUID> candidates = new HashSet<>(staleCandidates);
+        candidates.addAll(neverSeenCandidates);
+
+        List<Map<String, String>> staleSummary = new ArrayList<>();
+        Map<UUID, Instant> refreshed = new HashMap<>();
+        Set<UUID> withHeartbeat = new HashSet<>();
+        for (BoxHeartbeatEntity h : boxHeartbeatEntityRepository.findWithBoxByBoxIdIn(candidates)) {
+            Box box = h.getBox();
+            withHeartbeat.add(box.getId());
+            if (h.getLastSeenAt() != null && !h.getLastSeenAt().isBefore(staleCutoff)) {
+                refreshed.put(box.getId(), h.getLastSeenAt());
+                continue;
+            }
+            if (!box.isActive()) {
+                continue;
+            }
+            if (staleSummary.size() < maxRows) {
+                staleSummary.add(summaryRow(box));
+            }
+        }
+
+        List<Map<String, String>> neverSeenSummary = new ArrayList<>();
+        Set<UUID> stillNeverSeen = new HashSet<>(neverSeenCandidates);
+        stillNeverSeen.removeAll(withHeartbeat);
+        if (!stillNeverSeen.isEmpty()) {
+            for (Box box : boxRepository.findActiveWithoutHeartbeatByIdIn(stillNeverSeen)) {
+                if (neverSeenSummary.size() < maxRows) {
+                    neverSeenSummary.add(summaryRow(box));
+                }
+            }
+        }
+        return new HeartbeatSnapshot(staleSummary, neverSeenSummary, refreshed);
+    }
+
+    /** Estado completo para {@link StaleHeartbeatDetector#reconcile}: roda só a cada reconcile-interval-ms. */
+    @Transactional(readOnly = true)
+    public Reconciliation readReconciliation() {
+        Map<UUID, Instant> lastSeenByBox = new HashMap<>();
+        for (BoxHeartbeatEntityRepository.LastSeenRow row : boxHeartbeatEntityRepository.findLastSeenOfActiveBoxes()) {
+            if (row.getLastSeenAt() != null) {
+                lastSeenByBox.put(row.getBoxId(), row.getLastSeenAt());
+            }
+        }
+        Map<UUID, Instant> neverSeenCreatedAt = new HashMap<>();
+        for (BoxRepository.BoxCreatedRow row : boxRepository.findActiveBoxesWithoutHeartbeat()) {
+            neverSeenCreatedAt.put(row.getId(), row.getCreatedAt());
+        }
+        return new Reconciliation(lastSeenByBox, neverSeenCreatedAt);
+    }
+
+    private static Map<String, String> summaryRow(Box box) {
+        Map<String, String> row = new LinkedHashMap<>();
+        row.put("boxId", box.getId().toString());
+        row.put("ip", box.getBoxAddress().getIp());
+        return row;
+    }
+}
@@ -1,44 +1,46 @@
 package com.telas.services.impl;
 
-import com.telas.entities.Box;
 import com.telas.monitoring.KasMonitoringCheckRunner;
-import com.telas.monitoring.entities.BoxHeartbeatEntity;
-import com.telas.monitoring.repositories.BoxHeartbeatEntityRepository;
-import com.telas.repositories.BoxRepository;
 import com.telas.scheduler.SchedulerJobRunContext;
+import com.telas.services.SmartPlugCheckService;
 import com.telas.services.SmartPlugIpDiscoveryService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
+/**
+ * Ciclo do worker em fases, sem transação própria: leitura do snapshot (transação read-only curta, só das
+ * boxes com prazo vencido no {@link StaleHeartbeatDetector}, mais a reconciliação completa periódica),
+ * I/O de rede (descoberta e leituras Kasa, sem transação) e gravação dos resultados (transação curta).
+ * A duração de cada fase vai para {@code monitoring.worker.phase} e para o contexto do job.
+ */
 @Service
 @RequiredArgsConstructor
 public class MonitoringWorkerService {
 
     private static final int HEARTBEAT_SUMMARY_MAX_ROWS = 50;
 
-    private final BoxHeartbeatEntityRepository boxHeartbeatEntityRepository;
-    private final BoxRepository boxRepository;
+    private final MonitoringWorkerPersistence monitoringWorkerPersistence;
+    private final StaleHeartbeatDetector staleHeartbeatDetector;
     private final KasMonitoringCheckRunner kasMonitoringCheckRunner;
     private final SmartPlugIpDiscoveryService smartPlugIpDiscoveryService;
     private final SchedulerJobRunContext schedulerJobRunContext;
+    private final MeterRegistry meterRegistry;
 
     @Value("${monitoring.heartbeat.stale-seconds:180}")
     private long staleSeconds;
 
-    @Value("${monitoring.heartbeat.never-seen-grace-seconds:600}")
-    private long neverSeenGraceSeconds;
-
     @Value("${monitoring.kasa.enabled:true}")
     private boolean kasaEnabled;
 
@@ -55,63 +57,66 @@ public class MonitoringWorkerService {
 
     @Scheduled(fixedDelayString = "${monitoring.worker.heartbeat-check-interval-ms:10000}")
     @SchedulerLock(name = "monitoringWorker", lockAtMostFor = "PT120S", lockAtLeastFor = "PT2S")
-    @Transactional
     public void runChecks() {
-        Instant cutoff = Instant.now().minusSeconds(staleSeconds);
-        List<BoxHeartbeatEntity> stale = List.of();
-        List<Map<String, String>> staleSummary = new ArrayList<>();
-        int staleProcessed = 0;
+        Map<String, Long> phaseDurationsMs = new LinkedHashMap<>();
+
+        MonitoringWorkerPersistence.HeartbeatSnapshot snapshot = MonitoringWorkerPersistence.HeartbeatSnapshot.EMPTY;
         if (!probeDrivesBoxActiveState) {
-            stale = boxHeartbeatEntityRepository.findStaleHeartbeats(cutoff);
-            for (BoxHeartbeatEntity h : stale) {
-                Box box = h.getBox();
-                if (!box.isActive()) {
-                    continue;
-                }
-                if (staleSummary.size() < HEARTBEAT_SUMMARY_MAX_ROWS) {
-                    Map<String, String> row = new LinkedHashMap<>();
-                    row.put("boxId", box.getId().toString());
-                    row.put("ip", box.getBoxAddress().getIp());
-                    staleSummary.add(row);
-                }
+            Instant tick = Instant.now();
+            if (staleHeartbeatDetector.reconciliationDue(tick)) {
+                MonitoringWorkerPersistence.Reconciliation reconciliation =
+                        timed("reconcile", phaseDurationsMs, monitoringWorkerPersistence::readReconciliation);
+                staleHeartbeatDetector.reconcile(
+                        reconciliation.lastSeenByBox(), reconciliation.neverSeenCreatedAt(), tick);
             }
+            StaleHeartbeatDetector.Expired expired = staleHeartbeatDetector.poll(tick);
+            Instant cutoff = tick.minusSeconds(staleSeconds);
+            snapshot = timed("snapshot", phaseDurationsMs, () ->
+                    monitoringWorkerPersistence.readHeartbeatSnapshot(
+                            expired.stale(), expired.neverSeen(), cutoff, HEARTBEAT_SUMMARY_MAX_ROWS));
+            snapshot.refreshed().forEach(staleHeartbeatDetector::onHeartbeat);
         }
-        Instant graceCutoff = Instant.now().minusSeconds(neverSeenGraceSeconds);
-        List<Box> neverSeen = List.of();
-        List<Map<String, String>> neverSeenSummary = new ArrayList<>();
+        int staleProcessed = 0;
         int neverSeenProcessed = 0;
-        if (!probeDrivesBoxActiveState) {
-            neverSeen = boxRepository.findActiveBoxesWithoutHeartbeatAfterGrace(graceCutoff);
-            for (Box box : neverSeen) {
-                if (!box.isActive()) {
-                    continue;
-                }
-                if (neverSeenSummary.size() < HEARTBEAT_SUMMARY_MAX_ROWS) {
-                    Map<String, String> row = new LinkedHashMap<>();
-                    row.put("boxId", box.getId().toString());
-                    row.put("ip", box.getBoxAddress().getIp());
-                    neverSeenSummary.add(row);
-                }
-            }
-        }
         schedulerJobRunContext.put("staleHeartbeatsProcessed", staleProcessed);
-        schedulerJobRunContext.put("staleHeartbeats", staleSummary);
-        if (staleProcessed > staleSummary.size()) {
+        schedulerJobRunContext.put("staleHeartbeats", snapshot.stale());
+        if (staleProcessed > snapshot.stale().size()) {
             schedulerJobRunContext.put("staleHeartbeatsTruncated", true);
         }
         schedulerJobRunContext.put("neverSeenHeartbeatsProcessed", neverSeenProcessed);
-        schedulerJobRunContext.put("neverSeenHeartbeats", neverSeenSummary);
-        if (neverSeenProcessed > neverSeenSummary.size()) {
+        schedulerJobRunContext.put("neverSeenHeartbeats", snapshot.neverSeen());
+        if (neverSeenProcessed > snapshot.neverSeen().size()) {
             schedulerJobRunContext.put("neverSeenHeartbeatsTruncated", true);
         }
+
         Instant now = Instant.now();
         if (kasaEnabled
                 && Duration.between(lastKasaRunAt, now).toMillis() >= kasaIntervalMs) {
             lastKasaRunAt = now;
             if (kasDiscoveryEnabled) {
-                schedulerJobRunContext.putAll(smartPlugIpDiscoveryService.runDiscoveryCycle());
+                schedulerJobRunContext.putAll(
+                        timed("discovery", phaseDurationsMs, smartPlugIpDiscoveryService::runDiscoveryCycle));
             }
-            schedulerJobRunContext.putAll(kasMonitoringCheckRunner.runKasaChecks());
+            SmartPlugCheckService.CheckCycle cycle =
+                    timed("kasa_io", phaseDurationsMs, kasMonitoringCheckRunner::readKasa);
+            schedulerJobRunContext.putAll(
+                    timed("kasa_apply", phaseDurationsMs, () -> kasMonitoringCheckRunner.applyKasa(cycle)));
+        }
+        schedulerJobRunContext.put("phaseDurationsMs", phaseDurationsMs);
+    }
+
+    private <T> T timed(String phase, Map<String, Long> phaseDurationsMs, Supplier<T> body) {
+        long started = System.nanoTime();
+        try {
+            return body.get();
+        } finally {
+            long elapsed = System.nanoTime() - started;
+            phaseDurationsMs.put(phase, TimeUnit.NANOSECONDS.toMillis(elapsed));
+            Timer.builder("monitoring.worker.phase")
+                    .description("Duração de cada fase do ciclo do monitoring worker")
+                    .tag("phase", phase)
+                    .register(meterRegistry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
         }
     }
 }
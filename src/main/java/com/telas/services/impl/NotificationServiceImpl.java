@@ -1,16 +1,25 @@
 package com.telas.services.impl;
 
 import com.telas.dtos.EmailDataDto;
+import com.telas.dtos.IdempotentNotificationDto;
+import com.telas.dtos.NotificationFanOutDto;
+import com.telas.dtos.NotificationRecipientDto;
 import com.telas.dtos.response.NotificationResponseDto;
 import com.telas.entities.Client;
 import com.telas.entities.Notification;
+import com.telas.enums.AdminEmailAlertCategory;
 import com.telas.enums.NotificationReference;
+import com.telas.enums.Permission;
+import com.telas.enums.Role;
 import com.telas.infra.exceptions.ForbiddenException;
 import com.telas.infra.exceptions.ResourceNotFoundException;
 import com.telas.infra.security.services.AuthenticatedUserService;
+import com.telas.repositories.ClientRepository;
 import com.telas.repositories.NotificationRepository;
-import com.telas.services.EmailService;
+import com.telas.services.AdminEmailAlertPreferenceService;
+import com.telas.services.EmailOutboxService;
 import com.telas.services.NotificationService;
+import com.telas.services.PermissionService;
 import com.telas.shared.constants.MessageCommonsConstants;
 import com.telas.shared.constants.valitation.AuthValidationMessageConstants;
 import com.telas.shared.utils.ValidateDataUtils;
@@ -18,15 +27,21 @@ import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.transaction.support.TransactionSynchronization;
-import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -34,9 +49,26 @@ import java.util.UUID;
 public class NotificationServiceImpl implements NotificationService {
     private static final Logger LOGGER = LoggerFactory.getLogger(NotificationServiceImpl.class);
 
+    private static final String INSERT_SQL =
+            "INSERT INTO notifications (id, message, reference, fl_visualized, action_url, client_id, created_at) "
+                    + "VALUES (?, ?, ?, FALSE, ?, ?, ?)";
+
+    // Um único statement para o lote inteiro; RETURNING diz quais chaves eram novas (batch JDBC não garante contagens).
+    private static final String INSERT_IDEMPOTENT_SQL =
+            "INSERT INTO notifications (id, message, reference, fl_visualized, action_url, client_id, created_at, idempotency_key) "
+                    + "SELECT t.id, t.message, t.reference, FALSE, t.action_url, t.client_id, ?, t.idempotency_key "
+                    + "FROM unnest(?::uuid[], ?::text[], ?::text[], ?::text[], ?::uuid[], ?::text[]) "
+                    + "AS t(id, message, reference, action_url, client_id, idempotency_key) "
+                    + "ON CONFLICT (idempotency_key) WHERE idempotency_key IS NOT NULL DO NOTHING "
+                    + "RETURNING idempotency_key";
+
     private final NotificationRepository repository;
     private final AuthenticatedUserService authenticatedUserService;
-    private final EmailService emailService;
+    private final EmailOutboxService emailOutboxService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ClientRepository clientRepository;
+    private final PermissionService permissionService;
+    private final AdminEmailAlertPreferenceService adminEmailAlertPreferenceService;
 
     @Value("${front.base.url}")
     private String frontBaseUrl;
@@ -45,21 +77,150 @@ public class NotificationServiceImpl implements NotificationService {
     @Transactional
     public void save(NotificationReference notificationReference, Client client, Map<String, String> params, boolean sendEmail) {
         Notification notification = repository.save(new Notification(notificationReference, client, params));
-        if (!sendEmail) {
+        if (sendEmail) {
+            enqueueEmail(notification, params == null ? Map.of() : new HashMap<>(params));
+        }
+    }
+
+    @Override
+    @Transactional
+    public void saveAll(NotificationReference notificationReference, Map<String, String> params, List<NotificationRecipientDto> recipients) {
+        saveAll(List.of(new NotificationFanOutDto(notificationReference, params, recipients)));
+    }
+
+    @Override
+    @Transactional
+    public void saveAll(List<NotificationFanOutDto> fanOuts) {
+        if (ValidateDataUtils.isNullOrEmpty(fanOuts)) {
             return;
         }
-        UUID notificationId = notification.getId();
-        Map<String, String> paramsCopy = params == null ? Map.of() : new HashMap<>(params);
-        if (TransactionSynchronizationManager.isSynchronizationActive()) {
-            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
-                @Override
-                public void afterCommit() {
-                    loadAndNotify(notificationId, paramsCopy);
-                }
-            });
-        } else {
-            loadAndNotify(notificationId, paramsCopy);
+        List<PendingRow> rows = new ArrayList<>();
+        for (NotificationFanOutDto fanOut : fanOuts) {
+            if (ValidateDataUtils.isNullOrEmpty(fanOut.recipients())) {
+                continue;
+            }
+            Map<String, String> safeParams = safe(fanOut.params());
+            String message = fanOut.reference().getNotificationMessage(safeParams);
+            String actionUrl = safeParams.get("link");
+            EmailDataDto rendered = fanOut.recipients().stream().anyMatch(NotificationRecipientDto::sendEmail)
+                    ? renderEmail(fanOut.reference(), new HashMap<>(safeParams))
+                    : null;
+            for (NotificationRecipientDto recipient : fanOut.recipients()) {
+                rows.add(new PendingRow(UUID.randomUUID(), fanOut.reference(), message, actionUrl, recipient, rendered));
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setObject(1, row.id());
+            ps.setString(2, row.message());
+            ps.setString(3, row.reference().name());
+            ps.setString(4, row.actionUrl());
+            ps.setObject(5, row.recipient().clientId());
+            ps.setTimestamp(6, now);
+        });
+
+        Map<UUID, EmailDataDto> emails = new LinkedHashMap<>();
+        for (PendingRow row : rows) {
+            NotificationRecipientDto recipient = row.recipient();
+            if (!recipient.sendEmail() || row.rendered() == null) {
+                continue;
+            }
+            if (ValidateDataUtils.isNullOrEmptyString(recipient.email())) {
+                LOGGER.warn(
+                        "notification.email.skip.no_recipient_email reference={} notificationId={} clientId={}",
+                        row.reference(),
+                        row.id(),
+                        recipient.clientId()
+                );
+                continue;
+            }
+            emails.put(row.id(), addressTo(row.rendered(), recipient.clientId(), recipient.email()));
+        }
+        emailOutboxService.enqueueAll(emails);
+    }
+
+    @Override
+    @Transactional
+    public void notifyAdminsWithPermission(
+            NotificationReference notificationReference, Map<String, String> params, Permission permission,
+            AdminEmailAlertCategory emailCategory, boolean allowEmail) {
+        saveAll(notificationReference, params, adminRecipientsWithPermission(permission, emailCategory, allowEmail));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<NotificationRecipientDto> adminRecipientsWithPermission(
+            Permission permission, AdminEmailAlertCategory emailCategory, boolean allowEmail) {
+        List<ClientRepository.AdminContactRow> contacts = clientRepository.findAdminAndDeveloperContacts();
+        Map<UUID, Role> rolesById = new HashMap<>();
+        contacts.forEach(c -> rolesById.put(c.getId(), c.getRole()));
+        Map<UUID, Boolean> granted = permissionService.hasPermission(rolesById, permission);
+
+        List<NotificationRecipientDto> recipients = new ArrayList<>(contacts.size());
+        for (ClientRepository.AdminContactRow contact : contacts) {
+            boolean developer = Role.DEVELOPER.equals(contact.getRole());
+            if (!developer && !granted.getOrDefault(contact.getId(), false)) {
+                continue;
+            }
+            boolean sendEmail = allowEmail
+                    && !developer
+                    && adminEmailAlertPreferenceService.wantsEmail(contact.getId(), emailCategory);
+            recipients.add(new NotificationRecipientDto(contact.getId(), contact.getEmail(), sendEmail));
+        }
+        return recipients;
+    }
+
+    @Override
+    @Transactional
+    public Set<String> saveAllIdempotent(List<IdempotentNotificationDto> notifications) {
+        if (ValidateDataUtils.isNullOrEmpty(notifications)) {
+            return Set.of();
+        }
+        Map<String, IdempotentNotificationDto> byKey = new LinkedHashMap<>();
+        notifications.forEach(n -> byKey.putIfAbsent(n.idempotencyKey(), n));
+        List<IdempotentNotificationDto> rows = List.copyOf(byKey.values());
+        Map<String, UUID> ids = new HashMap<>();
+        rows.forEach(n -> ids.put(n.idempotencyKey(), UUID.randomUUID()));
+
+        List<String> inserted = jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(INSERT_IDEMPOTENT_SQL);
+            ps.setTimestamp(1, Timestamp.from(Instant.now()));
+            ps.setArray(2, con.createArrayOf("uuid", rows.stream().map(n -> ids.get(n.idempotencyKey())).toArray()));
+            ps.setArray(3, con.createArrayOf("text", rows.stream().map(n -> n.reference().getNotificationMessage(safe(n.params()))).toArray()));
+            ps.setArray(4, con.createArrayOf("text", rows.stream().map(n -> n.reference().name()).toArray()));
+            ps.setArray(5, con.createArrayOf("text", rows.stream().map(n -> safe(n.params()).get("link")).toArray()));
+            ps.setArray(6, con.createArrayOf("uuid", rows.stream().map(IdempotentNotificationDto::clientId).toArray()));
+            ps.setArray(7, con.createArrayOf("text", rows.stream().map(IdempotentNotificationDto::idempotencyKey).toArray()));
+            return ps;
+        }, (rs, rowNum) -> rs.getString(1));
+
+        Set<String> insertedKeys = new LinkedHashSet<>(inserted);
+        Map<UUID, EmailDataDto> emails = new LinkedHashMap<>();
+        for (IdempotentNotificationDto n : rows) {
+            if (!n.sendEmail() || !insertedKeys.contains(n.idempotencyKey())) {
+                continue;
+            }
+            UUID notificationId = ids.get(n.idempotencyKey());
+            if (ValidateDataUtils.isNullOrEmptyString(n.email())) {
+                LOGGER.warn(
+                        "notification.email.skip.no_recipient_email reference={} notificationId={} clientId={}",
+                        n.reference(),
+                        notificationId,
+                        n.clientId()
+                );
+                continue;
+            }
+            EmailDataDto rendered = renderEmail(n.reference(), new HashMap<>(safe(n.params())));
+            if (rendered != null) {
+                emails.put(notificationId, addressTo(rendered, n.clientId(), n.email()));
+            }
         }
+        emailOutboxService.enqueueAll(emails);
+        return insertedKeys;
     }
 
     @Override
@@ -94,28 +255,13 @@ public class NotificationServiceImpl implements NotificationService {
         return notifications.stream().map(NotificationResponseDto::new).toList();
     }
 
-    private void loadAndNotify(UUID notificationId, Map<String, String> params) {
-        repository.findWithClientAndContactForEmail(notificationId).ifPresentOrElse(n -> notify(n, params), () ->
-                LOGGER.warn("notification.not_found.after_commit id={}", notificationId)
-        );
-    }
-
-    private void notify(Notification notification, Map<String, String> params) {
-        EmailDataDto emailData = notification.getReference().getEmailData(params);
+    // Mesma transação da notificação: o e-mail só sai (pelo EmailOutboxWorker) se a notificação for commitada.
+    private void enqueueEmail(Notification notification, Map<String, String> params) {
+        EmailDataDto emailData = renderEmail(notification.getReference(), params);
         if (emailData == null) {
             return;
         }
 
-        Map<String, String> emailParams = emailData.getParams();
-        if (emailParams != null) {
-            String link = emailParams.get("link");
-            if (!ValidateDataUtils.isNullOrEmptyString(link) && !link.startsWith(frontBaseUrl)) {
-                String base = frontBaseUrl.endsWith("/") ? frontBaseUrl.substring(0, frontBaseUrl.length() - 1) : frontBaseUrl;
-                String newLink = link.startsWith("/") ? base + link : base + "/" + link;
-                emailParams.put("link", newLink);
-            }
-        }
-
         Client recipientClient = notification.getClient();
         String email = recipientClient.getContact() != null
                 ? recipientClient.getContact().getEmail()
@@ -129,22 +275,41 @@ public class NotificationServiceImpl implements NotificationService {
             );
             return;
         }
-        emailData.setEmail(email);
-        if (emailData.getParams() != null) {
-            emailData.getParams().put("clientId", recipientClient.getId().toString());
+        emailOutboxService.enqueue(addressTo(emailData, recipientClient.getId(), email), notification.getId());
+    }
+
+    private EmailDataDto renderEmail(NotificationReference reference, Map<String, String> params) {
+        EmailDataDto emailData = reference.getEmailData(params);
+        if (emailData == null) {
+            return null;
         }
-        try {
-            emailService.send(emailData);
-        } catch (RuntimeException ex) {
-            LOGGER.error(
-                    "notification.email.send.failed reference={} clientId={} template={}",
-                    notification.getReference(),
-                    notification.getClient().getId(),
-                    emailData.getTemplate(),
-                    ex
-            );
+
+        Map<String, String> emailParams = emailData.getParams();
+        if (emailParams != null) {
+            String link = emailParams.get("link");
+            if (!ValidateDataUtils.isNullOrEmptyString(link) && !link.startsWith(frontBaseUrl)) {
+                String base = frontBaseUrl.endsWith("/") ? frontBaseUrl.substring(0, frontBaseUrl.length() - 1) : frontBaseUrl;
+                String newLink = link.startsWith("/") ? base + link : base + "/" + link;
+                emailParams.put("link", newLink);
+            }
         }
+        return emailData;
     }
 
+    private static Map<String, String> safe(Map<String, String> params) {
+        return params == null ? Map.of() : params;
+    }
 
+    private static EmailDataDto addressTo(EmailDataDto rendered, UUID clientId, String email) {
+        Map<String, String> params = rendered.getParams() == null ? null : new HashMap<>(rendered.getParams());
+        if (params != null) {
+            params.put("clientId", clientId.toString());
+        }
+        return new EmailDataDto(email, rendered.getTemplate(), rendered.getSubject(), params);
+    }
+
+    private record PendingRow(
+            UUID id, NotificationReference reference, String message, String actionUrl,
+            NotificationRecipientDto recipient, EmailDataDto rendered) {
+    }
 }
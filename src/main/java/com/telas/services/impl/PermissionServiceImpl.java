@@ -9,44 +9,167 @@ import com.telas.repositories.ClientGrantedPermissionRepository;
 import com.telas.repositories.ClientRepository;
 import com.telas.services.PermissionService;
 import com.telas.shared.constants.valitation.ClientValidationMessages;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+/**
+ * As permissões concedidas a cada cliente ficam em cache ({@code permissions.cache.ttl-seconds}); o papel vem
+ * sempre do próprio {@link Client} (ou de uma consulta em lote), então mudar o papel não depende de invalidação.
+ * {@link #replacePermissionsForAdmin} e a exclusão de clientes invalidam as permissões do cliente alterado.
+ */
 @Service
-@RequiredArgsConstructor
 public class PermissionServiceImpl implements PermissionService {
 
+    static final String CACHE_NAME = "permissions.granted-codes";
+
     private final ClientGrantedPermissionRepository clientGrantedPermissionRepository;
     private final ClientRepository clientRepository;
+    private final Cache<UUID, Set<String>> grantedCodes;
+
+    public PermissionServiceImpl(
+            ClientGrantedPermissionRepository clientGrantedPermissionRepository,
+            ClientRepository clientRepository,
+            MeterRegistry meterRegistry,
+            @Value("${permissions.cache.ttl-seconds:300}") long ttlSeconds,
+            @Value("${permissions.cache.max-entries:5000}") long maxEntries) {
+        this.clientGrantedPermissionRepository = clientGrantedPermissionRepository;
+        this.clientRepository = clientRepository;
+        this.grantedCodes =
+                Caffeine.newBuilder()
+                        .maximumSize(maxEntries)
+                        .expireAfterWrite(Duration.ofSeconds(Math.max(1L, ttlSeconds)))
+                        .recordStats()
+                        .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, grantedCodes, CACHE_NAME);
+    }
 
     @Override
     @Transactional(readOnly = true)
     public boolean hasPermission(Client client, Permission permission) {
-        if (client == null || permission == null) {
+        if (client == null) {
             return false;
         }
-        if (Role.DEVELOPER.equals(client.getRole())) {
+        return hasPermission(client.getId(), client.getRole(), permission);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean hasPermission(UUID clientId, Role role, Permission permission) {
+        if (clientId == null || permission == null) {
+            return false;
+        }
+        if (Role.DEVELOPER.equals(role)) {
+            return true;
+        }
+        return decide(role, loadGrantedCodes(List.of(clientId)).get(clientId), permission);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<UUID, Boolean> hasPermission(Collection<UUID> clientIds, Permission permission) {
+        Map<UUID, Boolean> result = new HashMap<>();
+        if (clientIds == null || clientIds.isEmpty() || permission == null) {
+            return result;
+        }
+        Set<UUID> ids = clientIds.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return result;
+        }
+        Map<UUID, Role> rolesById = new HashMap<>();
+        for (ClientRepository.ClientRoleRow row : clientRepository.findRolesByIdIn(ids)) {
+            rolesById.put(row.getId(), row.getRole());
+        }
+        result.putAll(hasPermission(rolesById, permission));
+        for (UUID id : ids) {
+            result.putIfAbsent(id, false);
+        }
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<UUID, Boolean> hasPermission(Map<UUID, Role> rolesById, Permission permission) {
+        Map<UUID, Boolean> result = new HashMap<>();
+        if (rolesById == null || rolesById.isEmpty() || permission == null) {
+            return result;
+        }
+        Set<UUID> restricted = rolesById.entrySet().stream()
+                .filter(e -> e.getKey() != null && !Role.DEVELOPER.equals(e.getValue()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+        Map<UUID, Set<String>> codes = restricted.isEmpty() ? Map.of() : loadGrantedCodes(restricted);
+        rolesById.forEach((id, role) -> {
+            if (id != null) {
+                result.put(id, decide(role, codes.getOrDefault(id, Set.of()), permission));
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public void evictClient(UUID clientId) {
+        if (clientId == null) {
+            return;
+        }
+        grantedCodes.invalidate(clientId);
+        // Uma leitura concorrente pode recarregar o estado anterior antes do commit.
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    grantedCodes.invalidate(clientId);
+                }
+            });
+        }
+    }
+
+    private static boolean decide(Role role, Set<String> codes, Permission permission) {
+        if (Role.DEVELOPER.equals(role)) {
             return true;
         }
-        boolean explicit = clientGrantedPermissionRepository.existsByClient_IdAndPermissionCode(
-                client.getId(), permission.name());
-        if (explicit) {
+        if (codes.contains(permission.name())) {
             return true;
         }
-        if (Role.ADMIN.equals(client.getRole())) {
-            return clientGrantedPermissionRepository.countByClient_Id(client.getId()) == 0;
+        // ADMIN sem nenhuma concessão explícita mantém acesso total (comportamento legado).
+        return Role.ADMIN.equals(role) && codes.isEmpty();
+    }
+
+    private Map<UUID, Set<String>> loadGrantedCodes(Collection<UUID> clientIds) {
+        Map<UUID, Set<String>> cached = new HashMap<>(grantedCodes.getAllPresent(clientIds));
+        List<UUID> missing = clientIds.stream().filter(id -> !cached.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            Map<UUID, Set<String>> loaded = new HashMap<>();
+            missing.forEach(id -> loaded.put(id, new HashSet<>()));
+            for (ClientGrantedPermissionRepository.ClientPermissionCodeRow row
+                    : clientGrantedPermissionRepository.findPermissionCodesByClientIds(missing)) {
+                loaded.computeIfAbsent(row.getClientId(), k -> new HashSet<>()).add(row.getPermissionCode());
+            }
+            loaded.replaceAll((id, set) -> Set.copyOf(set));
+            grantedCodes.putAll(loaded);
+            cached.putAll(loaded);
         }
-        return false;
+        return cached;
     }
 
     @Override
@@ -85,6 +208,7 @@ public class PermissionServiceImpl implements PermissionService {
             row.setGrantedBy(grantedBy);
             clientGrantedPermissionRepository.save(row);
         }
+        evictClient(targetClientId);
     }
 
     @Override
@@ -0,0 +1,77 @@
+package com.telas.services.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.telas.shared.constants.SharedConstants;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Supplier;
+
+/**
+ * Cache de URLs pré-assinadas compartilhado pelas implementações de {@link com.telas.services.BucketService}.
+ * Cada URL é assinada com validade {@link SharedConstants#ATTACHMENT_LINK_EXPIRY_TIME}; a entrada expira do cache
+ * {@code safety-margin-seconds} antes disso, então o link devolvido ainda tem pelo menos essa margem de validade.
+ */
+@Component
+public class PresignedUrlCache {
+
+    static final String CACHE_NAME = "bucket.presigned-urls";
+    private static final long MIN_TTL_SECONDS = 60L;
+
+    private final Cache<LinkKey, String> cache;
+    private final long linkEpochSeconds;
+
+    public PresignedUrlCache(
+            MeterRegistry meterRegistry,
+            @Value("${bucket.link-cache.max-entries:20000}") long maxEntries,
+            @Value("${bucket.link-cache.safety-margin-seconds:86400}") long safetyMarginSeconds) {
+        long ttlSeconds = Math.max(MIN_TTL_SECONDS, SharedConstants.ATTACHMENT_LINK_EXPIRY_TIME - safetyMarginSeconds);
+        this.cache =
+                Caffeine.newBuilder()
+                        .maximumSize(maxEntries)
+                        .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                        .recordStats()
+                        .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        this.linkEpochSeconds = Math.max(MIN_TTL_SECONDS, safetyMarginSeconds / 2);
+    }
+
+    /**
+     * Muda a cada metade da margem de segurança. Quem guarda links (ex.: playlist da box com ETag) deve
+     * re-buscar quando o epoch mudar, garantindo que os links em uso nunca expiram.
+     */
+    public long currentLinkEpoch() {
+        return Instant.now().getEpochSecond() / linkEpochSeconds;
+    }
+
+    public String getLink(String objectName, Supplier<String> signer) {
+        return get(new LinkKey(objectName, null), signer);
+    }
+
+    public String getDownloadLink(String objectName, String fileName, Supplier<String> signer) {
+        return get(new LinkKey(objectName, fileName == null ? "" : fileName), signer);
+    }
+
+    public void invalidate(String objectName) {
+        if (objectName == null) {
+            return;
+        }
+        cache.asMap().keySet().removeIf(k -> objectName.equals(k.objectName()));
+    }
+
+    private String get(LinkKey key, Supplier<String> signer) {
+        if (key.objectName() == null) {
+            return signer.get();
+        }
+        return cache.get(key, k -> signer.get());
+    }
+
+    // downloadFileName nulo = link inline (getLink); preenchido = link com Content-Disposition.
+    private record LinkKey(String objectName, String downloadFileName) {
+    }
+}
@@ -0,0 +1,74 @@
+package com.telas.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.telas.monitoring.entities.CheckRunEntity;
+import com.telas.monitoring.repositories.CheckRunEntityRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class SmartPlugCheckPersistence {
+
+    private static final String INSERT_RUN_SQL =
+            "INSERT INTO monitoring.check_runs "
+                    + "(smart_plug_id, started_at, finished_at, success, error_message, metadata_json) "
+                    + "VALUES (?, ?, ?, ?, ?, CAST(? AS jsonb))";
+
+    private final CheckRunEntityRepository checkRunEntityRepository;
+    private final SmartPlugLatestReadingWriter smartPlugLatestReadingWriter;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /** Check runs do ciclo e a última leitura de cada tomada numa única transação curta. */
+    @Transactional
+    public void saveRuns(List<CheckRunEntity> runs) {
+        if (runs.isEmpty()) {
+            return;
+        }
+        checkRunEntityRepository.saveAll(runs);
+        smartPlugLatestReadingWriter.upsert(runs);
+    }
+
+    /**
+     * Como {@link #saveRuns}, mas grava os check runs num único batch JDBC (ids gerados pelo banco). Usado no ingest
+     * em lote do agente, onde as entidades não precisam voltar gerenciadas.
+     */
+    @Transactional
+    public void insertRuns(List<CheckRunEntity> runs) {
+        if (runs.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_RUN_SQL, runs, runs.size(), this::bind);
+        smartPlugLatestReadingWriter.upsert(runs);
+    }
+
+    private void bind(PreparedStatement ps, CheckRunEntity run) throws SQLException {
+        ps.setObject(1, run.getSmartPlug().getId());
+        ps.setTimestamp(2, Timestamp.from(run.getStartedAt()));
+        ps.setTimestamp(3, run.getFinishedAt() != null ? Timestamp.from(run.getFinishedAt()) : null);
+        ps.setObject(4, run.getSuccess(), Types.BOOLEAN);
+        ps.setString(5, run.getErrorMessage());
+        ps.setString(6, toJson(run));
+    }
+
+    private String toJson(CheckRunEntity run) {
+        if (run.getMetadataJson() == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(run.getMetadataJson());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("check run metadata not serializable", e);
+        }
+    }
+}
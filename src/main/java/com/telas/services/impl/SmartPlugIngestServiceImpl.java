@@ -1,11 +1,11 @@
 package com.telas.services.impl;
 
 import com.telas.dtos.request.SmartPlugIngestRequestDto;
+import com.telas.monitoring.entities.BoxHeartbeatEntity;
 import com.telas.monitoring.entities.CheckRunEntity;
 import com.telas.monitoring.entities.SmartPlugEntity;
 import com.telas.monitoring.plug.PlugReading;
 import com.telas.monitoring.repositories.BoxHeartbeatEntityRepository;
-import com.telas.monitoring.repositories.CheckRunEntityRepository;
 import com.telas.monitoring.repositories.SmartPlugEntityRepository;
 import com.telas.services.SmartPlugIngestService;
 import com.telas.services.SmartPlugRulesService;
@@ -17,10 +17,18 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -29,9 +37,10 @@ public class SmartPlugIngestServiceImpl implements SmartPlugIngestService {
     private static final Logger log = LoggerFactory.getLogger(SmartPlugIngestServiceImpl.class);
 
     private final SmartPlugEntityRepository smartPlugEntityRepository;
-    private final CheckRunEntityRepository checkRunEntityRepository;
     private final SmartPlugRulesService smartPlugRulesService;
     private final BoxHeartbeatEntityRepository boxHeartbeatEntityRepository;
+    private final BoxHeartbeatWriteBuffer boxHeartbeatWriteBuffer;
+    private final SmartPlugCheckPersistence smartPlugCheckPersistence;
 
     @Value("${monitoring.heartbeat.stale-seconds:180}")
     private long staleSeconds;
@@ -51,21 +60,130 @@ public class SmartPlugIngestServiceImpl implements SmartPlugIngestService {
             smartPlugEntityRepository.save(plug);
         }
 
-        PlugReading reading =
-                new PlugReading(
-                        Boolean.TRUE.equals(dto.getReachable()),
-                        dto.getRelayOn(),
-                        dto.getPowerWatts(),
-                        dto.getVoltageVolts(),
-                        dto.getCurrentAmperes(),
-                        dto.getErrorCode());
-
-        persistCheckRun(plug, dto.getAt(), reading);
+        PlugReading reading = toReading(dto);
+        smartPlugCheckPersistence.saveRuns(List.of(buildCheckRun(plug, dto.getAt(), reading)));
 
         boolean heartbeatStale = isHeartbeatStale(dto.getBoxId());
         smartPlugRulesService.evaluate(plug, reading, heartbeatStale);
     }
 
+    /**
+     * Todas as leituras viram check runs (um único batch JDBC), mas as regras só rodam sobre a leitura mais recente
+     * de cada tomada: leituras antigas acumuladas offline não devem abrir incidentes de um estado já superado.
+     */
+    @Override
+    @Transactional
+    public void ingestBatch(List<SmartPlugIngestRequestDto> readings) {
+        Map<SmartPlugIngestRequestDto, SmartPlugEntity> plugs = resolvePlugs(readings);
+        if (plugs.size() < readings.size()) {
+            log.warn("smartPlug.ingest.batch.unknownPlugs count={} of={}", readings.size() - plugs.size(), readings.size());
+        }
+        if (plugs.isEmpty()) {
+            return;
+        }
+
+        List<CheckRunEntity> runs = new ArrayList<>(plugs.size());
+        Map<UUID, SmartPlugIngestRequestDto> latestByPlug = new LinkedHashMap<>();
+        Comparator<SmartPlugIngestRequestDto> byAt =
+                Comparator.comparing(SmartPlugIngestRequestDto::getAt, Comparator.nullsFirst(Comparator.naturalOrder()));
+        plugs.forEach((dto, plug) -> {
+            runs.add(buildCheckRun(plug, dto.getAt(), toReading(dto)));
+            latestByPlug.merge(plug.getId(), dto, (a, b) -> byAt.compare(b, a) >= 0 ? b : a);
+        });
+
+        Set<SmartPlugEntity> touched = new HashSet<>();
+        latestByPlug.values().forEach(dto -> {
+            SmartPlugEntity plug = plugs.get(dto);
+            if (dto.getResolvedIp() != null && !dto.getResolvedIp().isBlank()) {
+                plug.setLastSeenIp(dto.getResolvedIp().trim());
+                plug.setUpdatedAt(Instant.now());
+                touched.add(plug);
+            }
+        });
+        if (!touched.isEmpty()) {
+            smartPlugEntityRepository.saveAll(touched);
+        }
+
+        smartPlugCheckPersistence.insertRuns(runs);
+
+        Set<UUID> staleBoxes = staleBoxes(latestByPlug.values().stream()
+                .map(SmartPlugIngestRequestDto::getBoxId)
+                .collect(Collectors.toSet()));
+        latestByPlug.values().forEach(dto ->
+                smartPlugRulesService.evaluate(plugs.get(dto), toReading(dto), staleBoxes.contains(dto.getBoxId())));
+    }
+
+    /** Id da tomada quando informado e conhecido; senão o MAC. Uma consulta por MAC e, só se preciso, uma por id. */
+    private Map<SmartPlugIngestRequestDto, SmartPlugEntity> resolvePlugs(List<SmartPlugIngestRequestDto> readings) {
+        Set<String> macs = readings.stream()
+                .map(dto -> normalizeMac(dto.getMacAddress()))
+                .filter(mac -> !mac.isBlank())
+                .collect(Collectors.toSet());
+        Map<String, SmartPlugEntity> byMac = macs.isEmpty()
+                ? Map.of()
+                : smartPlugEntityRepository.findAllWithBoxByMacAddressIn(macs).stream()
+                        .collect(Collectors.toMap(SmartPlugEntity::getMacAddress, Function.identity(), (a, b) -> a));
+
+        Map<UUID, SmartPlugEntity> byId = new HashMap<>();
+        byMac.values().forEach(plug -> byId.put(plug.getId(), plug));
+        Set<UUID> missingIds = readings.stream()
+                .map(SmartPlugIngestRequestDto::getSmartPlugId)
+                .filter(id -> id != null && !byId.containsKey(id))
+                .collect(Collectors.toSet());
+        if (!missingIds.isEmpty()) {
+            smartPlugEntityRepository.findAllWithBoxByIdIn(missingIds).forEach(plug -> byId.put(plug.getId(), plug));
+        }
+
+        Map<SmartPlugIngestRequestDto, SmartPlugEntity> resolved = new LinkedHashMap<>();
+        for (SmartPlugIngestRequestDto dto : readings) {
+            SmartPlugEntity plug = dto.getSmartPlugId() != null ? byId.get(dto.getSmartPlugId()) : null;
+            if (plug == null) {
+                plug = byMac.get(normalizeMac(dto.getMacAddress()));
+            }
+            if (plug != null) {
+                resolved.put(dto, plug);
+            }
+        }
+        return resolved;
+    }
+
+    private Set<UUID> staleBoxes(Set<UUID> boxIds) {
+        Instant cutoff = Instant.now().minusSeconds(staleSeconds);
+        Set<UUID> stale = new HashSet<>();
+        Set<UUID> unknown = new HashSet<>();
+        for (UUID boxId : boxIds) {
+            if (boxId == null) {
+                stale.add(null);
+            } else if (boxHeartbeatWriteBuffer.lastSeenAt(boxId).filter(seen -> !seen.isBefore(cutoff)).isEmpty()) {
+                unknown.add(boxId);
+            }
+        }
+        if (unknown.isEmpty()) {
+            return stale;
+        }
+        stale.addAll(unknown);
+        for (BoxHeartbeatEntity heartbeat : boxHeartbeatEntityRepository.findAllByBox_IdIn(unknown)) {
+            if (!heartbeat.getLastSeenAt().isBefore(cutoff)) {
+                stale.remove(heartbeat.getBox().getId());
+            }
+        }
+        return stale;
+    }
+
+    private static PlugReading toReading(SmartPlugIngestRequestDto dto) {
+        return new PlugReading(
+                Boolean.TRUE.equals(dto.getReachable()),
+                dto.getRelayOn(),
+                dto.getPowerWatts(),
+                dto.getVoltageVolts(),
+                dto.getCurrentAmperes(),
+                dto.getErrorCode());
+    }
+
+    private static String normalizeMac(String mac) {
+        return mac != null ? mac.replace(":", "").replace("-", "").trim().toUpperCase() : "";
+    }
+
     private SmartPlugEntity resolvePlug(SmartPlugIngestRequestDto dto) {
         UUID plugId = dto.getSmartPlugId();
         if (plugId != null) {
@@ -74,16 +192,14 @@ public class SmartPlugIngestServiceImpl implements SmartPlugIngestService {
                 return p.get();
             }
         }
-        String macHex = dto.getMacAddress() != null
-                ? dto.getMacAddress().replace(":", "").replace("-", "").trim().toUpperCase()
-                : "";
+        String macHex = normalizeMac(dto.getMacAddress());
         if (!macHex.isBlank()) {
             return smartPlugEntityRepository.findByMacAddress(macHex).orElse(null);
         }
         return null;
     }
 
-    private void persistCheckRun(SmartPlugEntity plug, Instant at, PlugReading reading) {
+    private static CheckRunEntity buildCheckRun(SmartPlugEntity plug, Instant at, PlugReading reading) {
         CheckRunEntity run = new CheckRunEntity();
         run.setSmartPlug(plug);
         run.setStartedAt(at != null ? at : Instant.now());
@@ -99,7 +215,7 @@ public class SmartPlugIngestServiceImpl implements SmartPlugIngestService {
         meta.put("currentAmperes", reading.currentAmperes());
         meta.put("confidence", "agent");
         run.setMetadataJson(meta);
-        checkRunEntityRepository.save(run);
+        return run;
     }
 
     private boolean isHeartbeatStale(UUID boxId) {
@@ -107,6 +223,9 @@ public class SmartPlugIngestServiceImpl implements SmartPlugIngestService {
             return true;
         }
         Instant cutoff = Instant.now().minusSeconds(staleSeconds);
+        if (boxHeartbeatWriteBuffer.lastSeenAt(boxId).filter(seen -> !seen.isBefore(cutoff)).isPresent()) {
+            return false;
+        }
         return boxHeartbeatEntityRepository
                 .findByBox_Id(boxId)
                 .map(h -> h.getLastSeenAt().isBefore(cutoff))
@@ -101,8 +101,12 @@ public class SmartPlugIpDiscoveryServiceImpl implements SmartPlugIpDiscoveryServ
                 continue;
             }
             eligible++;
-            if (tryDiscoverAndPersist(plug)) {
-                resolved++;
+            try {
+                if (tryDiscoverAndPersist(plug)) {
+                    resolved++;
+                }
+            } catch (RuntimeException e) {
+                log.warn("smartplug.discovery.failed plugId={} err={}", plug.getId(), e.getMessage());
             }
         }
         summary.put("discoveryPlugsTotal", plugs.size());
@@ -151,9 +155,13 @@ public class SmartPlugIpDiscoveryServiceImpl implements SmartPlugIpDiscoveryServ
         return err.startsWith("http_");
     }
 
+    /**
+     * Roda fora de transação (o worker não abre uma e open-in-view está desligado): a plug é relida com box,
+     * monitor e conta já carregados para não depender de lazy loading.
+     */
     public boolean tryDiscoverAndPersist(SmartPlugEntity plug) {
         UUID plugId = plug.getId();
-        SmartPlugEntity managed = smartPlugEntityRepository.findById(plugId).orElse(null);
+        SmartPlugEntity managed = smartPlugEntityRepository.findWithBoxAndAccountById(plugId).orElse(null);
         if (managed == null) {
             return false;
         }
@@ -0,0 +1,64 @@
+package com.telas.services.impl;
+
+import com.telas.monitoring.entities.CheckRunEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mantém {@code monitoring.smart_plug_latest_reading} a partir dos check runs recém-gravados. Leituras mais
+ * antigas (ex.: ingest atrasado da box) não sobrescrevem uma leitura mais recente.
+ */
+@Service
+@RequiredArgsConstructor
+public class SmartPlugLatestReadingWriter {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO monitoring.smart_plug_latest_reading "
+                    + "(smart_plug_id, started_at, success, error_message, relay_on, power_watts, voltage_volts, current_amperes, updated_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, now()) "
+                    + "ON CONFLICT (smart_plug_id) DO UPDATE SET "
+                    + "started_at = EXCLUDED.started_at, success = EXCLUDED.success, error_message = EXCLUDED.error_message, "
+                    + "relay_on = EXCLUDED.relay_on, power_watts = EXCLUDED.power_watts, voltage_volts = EXCLUDED.voltage_volts, "
+                    + "current_amperes = EXCLUDED.current_amperes, updated_at = EXCLUDED.updated_at "
+                    + "WHERE monitoring.smart_plug_latest_reading.started_at <= EXCLUDED.started_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public void upsert(Collection<CheckRunEntity> runs) {
+        List<CheckRunEntity> rows =
+                runs.stream().filter(r -> r.getSmartPlug() != null && r.getSmartPlug().getId() != null).toList();
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, rows.size(), SmartPlugLatestReadingWriter::bind);
+    }
+
+    private static void bind(PreparedStatement ps, CheckRunEntity run) throws SQLException {
+        Map<String, Object> meta = run.getMetadataJson() != null ? run.getMetadataJson() : Map.of();
+        Instant startedAt = run.getStartedAt() != null ? run.getStartedAt() : Instant.now();
+        ps.setObject(1, run.getSmartPlug().getId());
+        ps.setTimestamp(2, Timestamp.from(startedAt));
+        ps.setObject(3, run.getSuccess(), Types.BOOLEAN);
+        ps.setString(4, run.getErrorMessage());
+        ps.setObject(5, meta.get("relayOn") instanceof Boolean b ? b : null, Types.BOOLEAN);
+        ps.setObject(6, toDouble(meta.get("powerWatts")), Types.DOUBLE);
+        ps.setObject(7, toDouble(meta.get("voltageVolts")), Types.DOUBLE);
+        ps.setObject(8, toDouble(meta.get("currentAmperes")), Types.DOUBLE);
+    }
+
+    private static Double toDouble(Object value) {
+        return value instanceof Number n ? n.doubleValue() : null;
+    }
+}
@@ -0,0 +1,145 @@
+package com.telas.services.impl;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Detector incremental de heartbeats atrasados. Cada heartbeat agenda o próximo prazo da box
+ * ({@code lastSeenAt + stale-seconds}) num min-heap; o tick do worker só desempilha os prazos vencidos
+ * em vez de varrer todas as boxes. Boxes que nunca enviaram heartbeat entram com prazo
+ * {@code createdAt + never-seen-grace-seconds}.
+ * <p>
+ * O heap só conhece heartbeats recebidos por esta instância; a reconciliação periódica
+ * ({@link #reconcile}) reconstrói tudo a partir do banco (restart, outras instâncias, boxes novas/removidas).
+ */
+@Component
+public class StaleHeartbeatDetector {
+
+    enum Kind {STALE, NEVER_SEEN}
+
+    private record Deadline(UUID boxId, Instant at, Kind kind) {
+    }
+
+    /** Boxes com prazo vencido e sem heartbeat posterior, por tipo. */
+    public record Expired(Set<UUID> stale, Set<UUID> neverSeen) {
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final long staleSeconds;
+    private final long neverSeenGraceSeconds;
+    private final long reconcileIntervalMs;
+
+    private final PriorityQueue<Deadline> heap = new PriorityQueue<>(Comparator.comparing(Deadline::at));
+    // Prazo vigente por box; entradas do heap que não batem com ele estão obsoletas e são descartadas ao sair.
+    private final Map<UUID, Deadline> current = new HashMap<>();
+    private final Set<UUID> stale = new HashSet<>();
+    private final Set<UUID> neverSeen = new HashSet<>();
+    private Instant lastReconciledAt;
+
+    public StaleHeartbeatDetector(
+            MeterRegistry meterRegistry,
+            @Value("${monitoring.heartbeat.stale-seconds:180}") long staleSeconds,
+            @Value("${monitoring.heartbeat.never-seen-grace-seconds:600}") long neverSeenGraceSeconds,
+            @Value("${monitoring.heartbeat.reconcile-interval-ms:300000}") long reconcileIntervalMs) {
+        this.meterRegistry = meterRegistry;
+        this.staleSeconds = staleSeconds;
+        this.neverSeenGraceSeconds = neverSeenGraceSeconds;
+        this.reconcileIntervalMs = Math.max(10_000L, reconcileIntervalMs);
+    }
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("monitoring.heartbeat.detector.tracked", this, StaleHeartbeatDetector::trackedCount)
+                .description("Boxes acompanhadas pelo detector de heartbeat")
+                .register(meterRegistry);
+        Gauge.builder("monitoring.heartbeat.detector.stale", this, StaleHeartbeatDetector::staleCount)
+                .description("Boxes com heartbeat atrasado")
+                .register(meterRegistry);
+    }
+
+    public synchronized void onHeartbeat(UUID boxId, Instant seenAt) {
+        Deadline existing = current.get(boxId);
+        Instant at = seenAt.plusSeconds(staleSeconds);
+        if (existing != null && existing.kind() == Kind.STALE && !at.isAfter(existing.at())) {
+            return;
+        }
+        schedule(new Deadline(boxId, at, Kind.STALE));
+        stale.remove(boxId);
+        neverSeen.remove(boxId);
+    }
+
+    /** Desempilha os prazos vencidos até {@code now} e devolve todas as boxes atualmente atrasadas. */
+    public synchronized Expired poll(Instant now) {
+        while (!heap.isEmpty() && heap.peek().at().isBefore(now)) {
+            Deadline head = heap.poll();
+            if (!head.equals(current.get(head.boxId()))) {
+                continue;
+            }
+            (head.kind() == Kind.STALE ? stale : neverSeen).add(head.boxId());
+        }
+        return new Expired(Set.copyOf(stale), Set.copyOf(neverSeen));
+    }
+
+    public synchronized boolean reconciliationDue(Instant now) {
+        return lastReconciledAt == null || !lastReconciledAt.plusMillis(reconcileIntervalMs).isAfter(now);
+    }
+
+    /**
+     * Substitui o estado pelo banco: último heartbeat de cada box ativa e data de criação das boxes ativas
+     * que nunca enviaram. Heartbeats mais novos já vistos por esta instância são preservados.
+     */
+    public synchronized void reconcile(Map<UUID, Instant> lastSeenByBox, Map<UUID, Instant> neverSeenCreatedAt, Instant now) {
+        Map<UUID, Deadline> previous = new HashMap<>(current);
+        heap.clear();
+        current.clear();
+        stale.clear();
+        neverSeen.clear();
+        lastSeenByBox.forEach((boxId, lastSeen) -> {
+            Instant at = lastSeen.plusSeconds(staleSeconds);
+            Deadline known = previous.get(boxId);
+            if (known != null && known.kind() == Kind.STALE && known.at().isAfter(at)) {
+                at = known.at();
+            }
+            schedule(new Deadline(boxId, at, Kind.STALE));
+        });
+        neverSeenCreatedAt.forEach((boxId, createdAt) -> {
+            Deadline known = previous.get(boxId);
+            if (known != null && known.kind() == Kind.STALE) {
+                schedule(known);
+            } else {
+                schedule(new Deadline(boxId, createdAt.plusSeconds(neverSeenGraceSeconds), Kind.NEVER_SEEN));
+            }
+        });
+        lastReconciledAt = now;
+    }
+
+    private void schedule(Deadline deadline) {
+        current.put(deadline.boxId(), deadline);
+        heap.add(deadline);
+        // Heartbeats frequentes deixam entradas obsoletas no heap; reconstrói quando elas dominam.
+        if (heap.size() > 4 * current.size() + 1024) {
+            heap.clear();
+            heap.addAll(current.values());
+        }
+    }
+
+    private synchronized double trackedCount() {
+        return current.size();
+    }
+
+    private synchronized double staleCount() {
+        return stale.size() + neverSeen.size();
+    }
+}
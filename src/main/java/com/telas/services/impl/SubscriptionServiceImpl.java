@@ -2,6 +2,7 @@ package com.telas.services.impl;
 
 import com.stripe.exception.StripeException;
 import com.stripe.model.checkout.Session;
+import com.telas.dtos.IdempotentNotificationDto;
 import com.telas.dtos.request.filters.SubscriptionFilterRequestDto;
 import com.telas.dtos.response.PaginationResponseDto;
 import com.telas.dtos.response.SubscriptionMinResponseDto;
@@ -12,6 +13,7 @@ import com.telas.entities.Monitor;
 import com.telas.entities.Subscription;
 import com.telas.enums.Recurrence;
 import com.telas.enums.Role;
+import com.telas.enums.SubscriptionExpiryReminder;
 import com.telas.enums.SubscriptionStatus;
 import com.telas.helpers.SubscriptionHelper;
 import com.telas.infra.exceptions.BusinessRuleException;
@@ -21,7 +23,7 @@ import com.telas.repositories.ClientRepository;
 import com.telas.repositories.MonitorRepository;
 import com.telas.repositories.SubscriptionRepository;
 import com.telas.scheduler.SchedulerJobRunContext;
-import com.telas.services.RemoveMonitorAdsOutcome;
+import com.telas.services.NotificationService;
 import com.telas.services.SubscriptionService;
 import com.telas.shared.constants.valitation.SubscriptionValidationMessages;
 import com.telas.shared.utils.PaginationFilterUtil;
@@ -32,6 +34,7 @@ import lombok.RequiredArgsConstructor;
 import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -44,8 +47,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 
 import static java.util.Locale.US;
@@ -63,6 +68,11 @@ public class SubscriptionServiceImpl implements SubscriptionService {
     private final AuthenticatedUserService authenticatedUserService;
     private final SubscriptionHelper helper;
     private final SchedulerJobRunContext schedulerJobRunContext;
+    private final ExpiredSubscriptionChunkProcessor expiredSubscriptionChunkProcessor;
+    private final NotificationService notificationService;
+
+    @Value("${subscription.expired-ads.chunk-size:50}")
+    private int expiredAdsChunkSize;
 
     @Override
     @Transactional
@@ -130,7 +140,8 @@ public class SubscriptionServiceImpl implements SubscriptionService {
     @Transactional(readOnly = true)
     public SubscriptionResponseDto findById(UUID subscriptionId) {
         Subscription entity = helper.findEntityById(subscriptionId);
-        Client loggedUser = authenticatedUserService.validateSelfOrAdmin(entity.getClient().getId()).client();
+        authenticatedUserService.validateSelfOrAdmin(entity.getClient().getId());
+        Client loggedUser = authenticatedUserService.getLoggedUser().client();
         return helper.getSubscriptionResponse(entity, loggedUser);
     }
 
@@ -183,15 +194,17 @@ public class SubscriptionServiceImpl implements SubscriptionService {
             throw new BusinessRuleException(SubscriptionValidationMessages.SUBSCRIPTION_ALREADY_SCHEDULED_TO_CANCEL);
         }
 
-        Client client = authenticatedUserService.validateSelfOrAdmin(subscription.getClient().getId()).client();
+        authenticatedUserService.validateSelfOrAdmin(subscription.getClient().getId());
+        Client client = authenticatedUserService.getLoggedUser().client();
 
         if (Recurrence.MONTHLY.equals(subscription.getRecurrence()) && !subscription.isBonus()) {
             handleStripeCancellation(subscription, client);
         } else {
             subscription.setCancelRequestedAt(Instant.now());
             updateSubscriptionStatusCancelled(subscription, Instant.now(), client.getBusinessName());
+            Set<Monitor> releasedMonitors = subscription.getMonitors();
             helper.removeMonitorAdsFromSubscription(subscription);
-            notifyClientsWishList(subscription);
+            helper.notifyClientsWishList(releasedMonitors);
         }
     }
 
@@ -204,8 +217,9 @@ public class SubscriptionServiceImpl implements SubscriptionService {
         }
         Subscription subscription = existing.get();
         updateSubscriptionStatusCancelled(subscription, Instant.now(), subscription.getClient().getBusinessName());
+        Set<Monitor> releasedMonitors = subscription.getMonitors();
         helper.removeMonitorAdsFromSubscription(subscription);
-        notifyClientsWishList(subscription);
+        helper.notifyClientsWishList(releasedMonitors);
     }
 
     @Override
@@ -221,8 +235,9 @@ public class SubscriptionServiceImpl implements SubscriptionService {
 
         Instant endedAt = Instant.ofEpochSecond(stripeSubscription.getEndedAt());
         updateSubscriptionStatusCancelled(subscription, endedAt, "Stripe Webhook");
+        Set<Monitor> releasedMonitors = subscription.getMonitors();
         helper.removeMonitorAdsFromSubscription(subscription);
-        notifyClientsWishList(subscription);
+        helper.notifyClientsWishList(releasedMonitors);
         helper.voidLatestInvoice(stripeSubscription);
 
     }
@@ -246,43 +261,96 @@ public class SubscriptionServiceImpl implements SubscriptionService {
         }
     }
 
+    /**
+     * Processa as assinaturas vencidas em lotes de {@code chunk-size}, cada um com commit próprio. O progresso é o
+     * próprio status: lotes já commitados saem da consulta, então uma execução interrompida retoma de onde parou.
+     * Um lote que falha é refeito assinatura a assinatura para isolar a que quebrou.
+     */
     @Override
-    @Transactional
     @Scheduled(
             cron = "${subscription.cron.remove-expired-ads:0 0 4 * * *}",
             zone = "${app.scheduler.zone:America/New_York}")
     @SchedulerLock(name = "removeAdsFromExpiredSubscriptionsLock", lockAtLeastFor = "PT10M", lockAtMostFor = "PT1H")
     public void removeAdsFromExpiredSubscriptions() {
-        List<Subscription> expiredSubscriptions = repository.getActiveAndExpiredSubscriptions(Instant.now());
+        Instant now = Instant.now();
+        List<UUID> expiredIds = repository.findActiveAndExpiredSubscriptionIds(now);
 
-        if (expiredSubscriptions.isEmpty()) {
+        if (expiredIds.isEmpty()) {
             log.info("No expired subscriptions found.");
             schedulerJobRunContext.putAll(buildRemoveExpiredAdsSummary(0, List.of(), false));
             return;
         }
 
-        log.info("Found {} expired subscriptions, removing ads.", expiredSubscriptions.size());
+        int chunkSize = Math.max(1, expiredAdsChunkSize);
+        log.info("Found {} expired subscriptions, removing ads in chunks of {}.", expiredIds.size(), chunkSize);
 
         List<Map<String, Object>> items = new ArrayList<>();
+        List<Map<String, Object>> chunks = new ArrayList<>();
+        List<String> failedIds = new ArrayList<>();
         boolean truncated = false;
-        for (Subscription subscription : expiredSubscriptions) {
-            log.info("Removing ads from expired subscription with id: {}", subscription.getId());
-            subscription.setUsernameUpdate("Virtual Assistant");
-            subscription.setStatus(SubscriptionStatus.EXPIRED);
-            RemoveMonitorAdsOutcome outcome = helper.removeMonitorAdsFromSubscription(subscription);
-            repository.save(subscription);
-            notifyClientsWishList(subscription);
-            if (items.size() < SCHEDULER_SUMMARY_MAX_ITEMS) {
-                Map<String, Object> row = new LinkedHashMap<>();
-                row.put("subscriptionId", subscription.getId().toString());
-                row.put("clientBusinessName", subscription.getClient().getBusinessName());
-                row.put("removedAdNames", outcome.removedAdNames());
-                items.add(row);
-            } else {
-                truncated = true;
+        int processed = 0;
+        int boxCommands = 0;
+
+        for (int from = 0; from < expiredIds.size(); from += chunkSize) {
+            List<UUID> chunkIds = expiredIds.subList(from, Math.min(from + chunkSize, expiredIds.size()));
+            long startedNanos = System.nanoTime();
+            List<ExpiredSubscriptionChunkProcessor.ChunkResult> results = new ArrayList<>();
+            int failed = 0;
+            try {
+                results.add(expiredSubscriptionChunkProcessor.process(chunkIds, now));
+            } catch (RuntimeException e) {
+                log.warn("Expired subscriptions chunk failed, retrying one by one. size={} err={}", chunkIds.size(), e.getMessage());
+                for (UUID id : chunkIds) {
+                    try {
+                        results.add(expiredSubscriptionChunkProcessor.process(List.of(id), now));
+                    } catch (RuntimeException single) {
+                        log.error("Error removing ads from expired subscription with id: {}", id, single);
+                        failed++;
+                        if (failedIds.size() < SCHEDULER_SUMMARY_MAX_ITEMS) {
+                            failedIds.add(id.toString());
+                        }
+                    }
+                }
             }
+
+            int chunkProcessed = 0;
+            int chunkBoxCommands = 0;
+            for (ExpiredSubscriptionChunkProcessor.ChunkResult result : results) {
+                chunkProcessed += result.expired().size();
+                chunkBoxCommands += result.boxCommands();
+                for (ExpiredSubscriptionChunkProcessor.ExpiredSubscription expired : result.expired()) {
+                    if (items.size() < SCHEDULER_SUMMARY_MAX_ITEMS) {
+                        Map<String, Object> row = new LinkedHashMap<>();
+                        row.put("subscriptionId", expired.subscriptionId().toString());
+                        row.put("clientBusinessName", expired.clientBusinessName());
+                        row.put("removedAdNames", expired.removedAdNames());
+                        items.add(row);
+                    } else {
+                        truncated = true;
+                    }
+                }
+            }
+            processed += chunkProcessed;
+            boxCommands += chunkBoxCommands;
+
+            Map<String, Object> chunk = new LinkedHashMap<>();
+            chunk.put("index", chunks.size());
+            chunk.put("size", chunkIds.size());
+            chunk.put("processed", chunkProcessed);
+            chunk.put("failed", failed);
+            chunk.put("boxCommands", chunkBoxCommands);
+            chunk.put("durationMs", (System.nanoTime() - startedNanos) / 1_000_000L);
+            chunks.add(chunk);
         }
-        schedulerJobRunContext.putAll(buildRemoveExpiredAdsSummary(expiredSubscriptions.size(), items, truncated));
+
+        Map<String, Object> summary = buildRemoveExpiredAdsSummary(processed, items, truncated);
+        summary.put("subscriptionsFound", expiredIds.size());
+        summary.put("boxCommands", boxCommands);
+        summary.put("chunks", chunks);
+        if (!failedIds.isEmpty()) {
+            summary.put("failedSubscriptionIds", failedIds);
+        }
+        schedulerJobRunContext.putAll(summary);
     }
 
     @Override
@@ -293,54 +361,54 @@ public class SubscriptionServiceImpl implements SubscriptionService {
     @SchedulerLock(name = "sendSubscriptionExpirationEmailLock", lockAtLeastFor = "PT10M", lockAtMostFor = "PT30M")
     public void sendSubscriptionExpirationEmail() {
         LocalDate today = LocalDate.now();
-        LocalDate in15Days = today.plusDays(15);
-        LocalDate in10Days = today.plusDays(10);
-        LocalDate in5Days = today.plusDays(5);
-        LocalDate in3Days = today.plusDays(3);
-        LocalDate endDateOnTomorrow = today.plusDays(1);
-
-        List<Subscription> subscriptionsReminder15 = repository.findSubscriptionsWithEndsAtOnDate(java.sql.Date.valueOf(in15Days));
-        List<Subscription> subscriptionsReminder10 = repository.findSubscriptionsWithEndsAtOnDate(java.sql.Date.valueOf(in10Days));
-        List<Subscription> subscriptionsReminder5 = repository.findSubscriptionsWithEndsAtOnDate(java.sql.Date.valueOf(in5Days));
-        List<Subscription> subscriptionsReminder3 = repository.findSubscriptionsWithEndsAtOnDate(java.sql.Date.valueOf(in3Days));
-        List<Subscription> subscriptionsPenultimateDay = repository.findSubscriptionsWithEndsAtOnDate(java.sql.Date.valueOf(endDateOnTomorrow));
-
-        if (!subscriptionsReminder15.isEmpty()) {
-            log.info("Found {} subscriptions expiring in 15 days, sending reminder emails.", subscriptionsReminder15.size());
-            subscriptionsReminder15.forEach(helper::sendSubscriptionAboutToExpiryEmail);
-        }
-
-        if (!subscriptionsReminder10.isEmpty()) {
-            log.info("Found {} subscriptions expiring in 10 days, sending reminder emails.", subscriptionsReminder10.size());
-            subscriptionsReminder10.forEach(helper::sendSubscriptionTenDaysBeforeExpiryEmail);
+        List<java.sql.Date> targetDates = Arrays.stream(SubscriptionExpiryReminder.values())
+                .map(reminder -> java.sql.Date.valueOf(today.plusDays(reminder.getDaysBefore())))
+                .toList();
+
+        // Uma consulta para todas as janelas; o bucket sai da distância entre hoje e a data de fim (mesmo fuso
+        // da sessão JDBC, que é o da JVM, usado por FUNCTION('date') na consulta).
+        Map<SubscriptionExpiryReminder, List<Subscription>> buckets = new EnumMap<>(SubscriptionExpiryReminder.class);
+        for (SubscriptionExpiryReminder reminder : SubscriptionExpiryReminder.values()) {
+            buckets.put(reminder, new ArrayList<>());
         }
-
-        if (!subscriptionsReminder5.isEmpty()) {
-            log.info("Found {} subscriptions expiring in 5 days, sending reminder emails.", subscriptionsReminder5.size());
-            subscriptionsReminder5.forEach(helper::sendSubscriptionFiveDaysBeforeExpiryEmail);
-        }
-
-        if (!subscriptionsReminder3.isEmpty()) {
-            log.info("Found {} subscriptions expiring in 3 days, sending reminder emails.", subscriptionsReminder3.size());
-            subscriptionsReminder3.forEach(helper::sendSubscriptionThreeDaysBeforeExpiryEmail);
+        for (Subscription subscription : repository.findSubscriptionsWithEndsAtOnDates(targetDates)) {
+            LocalDate endDate = LocalDate.ofInstant(subscription.getEndsAt(), ZoneId.systemDefault());
+            SubscriptionExpiryReminder reminder =
+                    SubscriptionExpiryReminder.forDaysBefore(ChronoUnit.DAYS.between(today, endDate));
+            if (reminder != null) {
+                buckets.get(reminder).add(subscription);
+            }
         }
 
-        if (!subscriptionsPenultimateDay.isEmpty()) {
-            log.info("Found {} subscriptions on penultimate day (end date tomorrow), sending final reminder emails.", subscriptionsPenultimateDay.size());
-            subscriptionsPenultimateDay.forEach(helper::sendSubscriptionPenultimateDayEmail);
-        }
+        Map<SubscriptionExpiryReminder, List<IdempotentNotificationDto>> reminders = new EnumMap<>(SubscriptionExpiryReminder.class);
+        List<IdempotentNotificationDto> notifications = new ArrayList<>();
+        buckets.forEach((reminder, subscriptions) -> {
+            if (!subscriptions.isEmpty()) {
+                log.info("Found {} subscriptions for expiry reminder {}, enqueueing emails.", subscriptions.size(), reminder);
+            }
+            List<IdempotentNotificationDto> bucket =
+                    subscriptions.stream().map(subscription -> helper.buildExpiryReminder(subscription, reminder)).toList();
+            reminders.put(reminder, bucket);
+            notifications.addAll(bucket);
+        });
 
-        if (subscriptionsReminder15.isEmpty() && subscriptionsReminder10.isEmpty() && subscriptionsReminder5.isEmpty()
-                && subscriptionsReminder3.isEmpty() && subscriptionsPenultimateDay.isEmpty()) {
+        if (notifications.isEmpty()) {
             log.info("No subscription expiry reminders to send (15/10/5/3 days or penultimate day).");
         }
 
+        // Chaves já gravadas numa execução anterior do dia não geram notificação nem e-mail de novo.
+        Set<String> enqueuedKeys = notificationService.saveAllIdempotent(notifications);
+
         Map<String, Object> emailSummary = new LinkedHashMap<>();
-        emailSummary.put("reminder15", buildExpiryEmailBucket(subscriptionsReminder15));
-        emailSummary.put("reminder10", buildExpiryEmailBucket(subscriptionsReminder10));
-        emailSummary.put("reminder5", buildExpiryEmailBucket(subscriptionsReminder5));
-        emailSummary.put("reminder3", buildExpiryEmailBucket(subscriptionsReminder3));
-        emailSummary.put("penultimate", buildExpiryEmailBucket(subscriptionsPenultimateDay));
+        buckets.forEach((reminder, subscriptions) -> {
+            Map<String, Object> bucket = buildExpiryEmailBucket(subscriptions);
+            int enqueued = (int) reminders.get(reminder).stream()
+                    .filter(notification -> enqueuedKeys.contains(notification.idempotencyKey()))
+                    .count();
+            bucket.put("enqueued", enqueued);
+            bucket.put("alreadySent", subscriptions.size() - enqueued);
+            emailSummary.put(reminder.getSummaryKey(), bucket);
+        });
         schedulerJobRunContext.putAll(emailSummary);
     }
 
@@ -397,18 +465,6 @@ public class SubscriptionServiceImpl implements SubscriptionService {
         return PaginationResponseDto.fromResult(response, (int) page.getTotalElements(), page.getTotalPages(), request.getPage());
     }
 
-    private void notifyClientsWishList(Subscription subscription) {
-        List<Client> clients = clientRepository.findAllByMonitorsInWishlist(subscription.getMonitors());
-        Set<Monitor> monitors = subscription.getMonitors();
-
-        if (clients.isEmpty() || monitors.isEmpty()) {
-            log.info("No clients or monitors to notify.");
-            return;
-        }
-
-        helper.notifyClientsWishList(clients, subscription.getMonitors());
-    }
-
     private boolean isInvalidStatus(SubscriptionStatus status) {
         return List.of(SubscriptionStatus.CANCELLED, SubscriptionStatus.EXPIRED).contains(status);
     }
@@ -34,8 +34,11 @@ public class AllowedEndpointsConstants {
                 "/auth/recovery-password/**",
                 "/boxes/health",
                 "/monitoring/heartbeat",
+                "/monitoring/heartbeat/batch",
                 "/monitoring/logs",
+                "/monitoring/logs/batch",
                 "/monitoring/smart-plugs/ingest",
+                "/monitoring/smart-plugs/ingest/batch",
                 "/monitoring/box-script/commands/ack"
         ));
         ALLOWED_ENDPOINTS.put(HttpMethod.PATCH, List.of(
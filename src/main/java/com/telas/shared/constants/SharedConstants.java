@@ -86,6 +86,9 @@ public final class SharedConstants {
     public static final String TEMPLATE_EMAIL_ADMIN_CLIENT_AD_DEPLOYED_TO_BOX = "email_admin_client_ad_deployed_to_box.ftlh";
     public static final String EMAIL_SUBJECT_ADMIN_CLIENT_AD_DEPLOYED_TO_BOX = "Customer ad deployed to box — Telas";
 
+    public static final String TEMPLATE_EMAIL_ADMIN_AD_DEPLOY_FAILED = "email_admin_ad_deploy_failed.ftlh";
+    public static final String EMAIL_SUBJECT_ADMIN_AD_DEPLOY_FAILED = "Customer ad could not be sent to box — Telas";
+
     public static final String TEMPLATE_EMAIL_SCHEDULER_PRERUN = "email_scheduler_prerun.ftlh";
     public static final String TEMPLATE_EMAIL_MONITOR_WISHLIST_AVAILABLE = "email_monitor_wishlist_available.ftlh";
     public static final String EMAIL_SUBJECT_SCHEDULER_PRERUN = "Scheduled job starting — Telas";
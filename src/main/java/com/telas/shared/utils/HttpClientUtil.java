@@ -10,7 +10,9 @@ import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.Map;
 
 @Component
@@ -23,6 +25,14 @@ public class HttpClientUtil {
     }
 
     public <T> void makePostRequest(String url, Object body, Class<T> responseType, Map<String, String> queryParams, Map<String, String> headers) {
+        makePostRequest(url, body, responseType, queryParams, headers, null);
+    }
+
+    /**
+     * Igual a {@link #makePostRequest(String, Object, Class, Map, Map)}, mas desiste após {@code timeout}
+     * (conexão + resposta); estoura {@link java.util.concurrent.TimeoutException} embrulhada em RuntimeException.
+     */
+    public <T> void makePostRequest(String url, Object body, Class<T> responseType, Map<String, String> queryParams, Map<String, String> headers, Duration timeout) {
         try {
             UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(url);
 
@@ -38,11 +48,16 @@ public class HttpClientUtil {
                 requestBodySpec.headers(httpHeaders -> headers.forEach(httpHeaders::add));
             }
 
-            requestBodySpec
+            Mono<T> response = requestBodySpec
                     .bodyValue(body)
                     .retrieve()
-                    .bodyToMono(responseType)
-                    .block();
+                    .bodyToMono(responseType);
+
+            if (timeout != null) {
+                response = response.timeout(timeout);
+            }
+
+            response.block();
         } catch (WebClientResponseException | HttpClientErrorException exception) {
             log.error("Error during POST request to: {}, error: {}", url, exception.getMessage());
             handleException(exception);
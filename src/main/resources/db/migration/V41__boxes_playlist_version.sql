@@ -0,0 +1,107 @@
+-- Versão da playlist por box: GET /boxes/ads responde 304 (If-None-Match) enquanto nada mudou.
+-- Incrementada por triggers para cobrir todos os caminhos de escrita (ordem/blocos de monitors_ads,
+-- validação/nome do ad, nome do cliente e vínculo monitor <-> box).
+
+ALTER TABLE boxes
+    ADD COLUMN IF NOT EXISTS playlist_version BIGINT NOT NULL DEFAULT 1;
+
+CREATE OR REPLACE FUNCTION bump_box_playlist_version_by_monitor(p_monitor_id UUID) RETURNS VOID AS
+$$
+BEGIN
+    UPDATE boxes b
+    SET playlist_version = b.playlist_version + 1
+    FROM monitors m
+    WHERE m.id = p_monitor_id
+      AND m.box_id = b.id;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION bump_box_playlist_version_by_ad(p_ad_id UUID) RETURNS VOID AS
+$$
+BEGIN
+    UPDATE boxes b
+    SET playlist_version = b.playlist_version + 1
+    WHERE b.id IN (SELECT m.box_id
+                   FROM monitors_ads ma
+                            JOIN monitors m ON m.id = ma.monitor_id
+                   WHERE ma.ad_id = p_ad_id
+                     AND m.box_id IS NOT NULL);
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION trg_monitors_ads_bump_playlist_version() RETURNS TRIGGER AS
+$$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM bump_box_playlist_version_by_monitor(OLD.monitor_id);
+    END IF;
+    IF TG_OP = 'INSERT' OR (TG_OP = 'UPDATE' AND NEW.monitor_id IS DISTINCT FROM OLD.monitor_id) THEN
+        PERFORM bump_box_playlist_version_by_monitor(NEW.monitor_id);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_monitors_ads_playlist_version ON monitors_ads;
+CREATE TRIGGER trg_monitors_ads_playlist_version
+    AFTER INSERT OR DELETE OR UPDATE OF monitor_id, ad_id, order_index, block_quantity
+    ON monitors_ads
+    FOR EACH ROW
+EXECUTE FUNCTION trg_monitors_ads_bump_playlist_version();
+
+CREATE OR REPLACE FUNCTION trg_monitors_bump_playlist_version() RETURNS TRIGGER AS
+$$
+BEGIN
+    UPDATE boxes
+    SET playlist_version = playlist_version + 1
+    WHERE id IN (OLD.box_id, NEW.box_id);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_monitors_playlist_version ON monitors;
+CREATE TRIGGER trg_monitors_playlist_version
+    AFTER UPDATE OF box_id
+    ON monitors
+    FOR EACH ROW
+    WHEN (OLD.box_id IS DISTINCT FROM NEW.box_id)
+EXECUTE FUNCTION trg_monitors_bump_playlist_version();
+
+CREATE OR REPLACE FUNCTION trg_ads_bump_playlist_version() RETURNS TRIGGER AS
+$$
+BEGIN
+    PERFORM bump_box_playlist_version_by_ad(NEW.id);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_ads_playlist_version ON ads;
+CREATE TRIGGER trg_ads_playlist_version
+    AFTER UPDATE OF validation, name
+    ON ads
+    FOR EACH ROW
+    WHEN (OLD.validation IS DISTINCT FROM NEW.validation OR OLD.name IS DISTINCT FROM NEW.name)
+EXECUTE FUNCTION trg_ads_bump_playlist_version();
+
+CREATE OR REPLACE FUNCTION trg_clients_bump_playlist_version() RETURNS TRIGGER AS
+$$
+BEGIN
+    UPDATE boxes b
+    SET playlist_version = b.playlist_version + 1
+    WHERE b.id IN (SELECT m.box_id
+                   FROM ads a
+                            JOIN monitors_ads ma ON ma.ad_id = a.id
+                            JOIN monitors m ON m.id = ma.monitor_id
+                   WHERE a.client_id = NEW.id
+                     AND m.box_id IS NOT NULL);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_clients_playlist_version ON clients;
+CREATE TRIGGER trg_clients_playlist_version
+    AFTER UPDATE OF business_name
+    ON clients
+    FOR EACH ROW
+    WHEN (OLD.business_name IS DISTINCT FROM NEW.business_name)
+EXECUTE FUNCTION trg_clients_bump_playlist_version();
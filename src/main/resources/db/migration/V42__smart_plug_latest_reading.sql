@@ -0,0 +1,40 @@
+-- Última leitura por tomada, mantida pela aplicação a cada check run gravado (SmartPlugCheckService /
+-- SmartPlugIngestServiceImpl). Substitui o GROUP BY MAX(started_at) sobre todo o histórico de check_runs.
+
+CREATE TABLE IF NOT EXISTS monitoring.smart_plug_latest_reading
+(
+    smart_plug_id   UUID PRIMARY KEY REFERENCES monitoring.smart_plugs (id) ON DELETE CASCADE,
+    started_at      TIMESTAMPTZ      NOT NULL,
+    success         BOOLEAN NULL,
+    error_message   TEXT NULL,
+    relay_on        BOOLEAN NULL,
+    power_watts     DOUBLE PRECISION NULL,
+    voltage_volts   DOUBLE PRECISION NULL,
+    current_amperes DOUBLE PRECISION NULL,
+    updated_at      TIMESTAMPTZ      NOT NULL DEFAULT (now())
+);
+
+INSERT INTO monitoring.smart_plug_latest_reading
+    (smart_plug_id, started_at, success, error_message, relay_on, power_watts, voltage_volts, current_amperes)
+SELECT DISTINCT ON (cr.smart_plug_id)
+    cr.smart_plug_id,
+    cr.started_at,
+    cr.success,
+    cr.error_message,
+    (cr.metadata_json ->> 'relayOn')::boolean,
+    (cr.metadata_json ->> 'powerWatts')::double precision,
+    (cr.metadata_json ->> 'voltageVolts')::double precision,
+    (cr.metadata_json ->> 'currentAmperes')::double precision
+FROM monitoring.check_runs cr
+WHERE cr.smart_plug_id IS NOT NULL
+ORDER BY cr.smart_plug_id, cr.started_at DESC
+ON CONFLICT (smart_plug_id) DO NOTHING;
+
+DO
+$$
+    BEGIN
+        IF EXISTS (SELECT 1 FROM pg_roles WHERE rolname = 'telas_monitoring_worker') THEN
+            GRANT SELECT, INSERT, UPDATE ON monitoring.smart_plug_latest_reading TO telas_monitoring_worker;
+        END IF;
+    END
+$$;
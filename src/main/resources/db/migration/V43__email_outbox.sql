@@ -0,0 +1,29 @@
+-- Outbox de e-mails: gravado na mesma transação da notificação (NotificationServiceImpl) e drenado
+-- pelo EmailOutboxWorker, que reenvia com backoff até max-attempts.
+
+CREATE TABLE IF NOT EXISTS public.email_outbox
+(
+    id              UUID PRIMARY KEY      DEFAULT gen_random_uuid(),
+    notification_id UUID         NULL,
+    recipient_email VARCHAR(255) NOT NULL,
+    subject         TEXT         NOT NULL,
+    template        VARCHAR(255) NOT NULL,
+    params_json     JSONB        NOT NULL DEFAULT '{}'::jsonb,
+    status          VARCHAR(16)  NOT NULL DEFAULT 'PENDING',
+    attempts        INT          NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMPTZ  NOT NULL DEFAULT (now()),
+    locked_until    TIMESTAMPTZ  NULL,
+    last_error      TEXT         NULL,
+    created_at      TIMESTAMPTZ  NOT NULL DEFAULT (now()),
+    sent_at         TIMESTAMPTZ  NULL,
+    CONSTRAINT email_outbox_status_check CHECK (status IN ('PENDING', 'SENDING', 'SENT', 'FAILED'))
+);
+
+-- Só as linhas ainda em trânsito entram no índice usado pelo claim.
+CREATE INDEX IF NOT EXISTS idx_email_outbox_due
+    ON public.email_outbox (next_attempt_at)
+    WHERE status IN ('PENDING', 'SENDING');
+
+CREATE INDEX IF NOT EXISTS idx_email_outbox_sent_at
+    ON public.email_outbox (sent_at)
+    WHERE status = 'SENT';
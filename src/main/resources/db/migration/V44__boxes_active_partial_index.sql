@@ -0,0 +1,6 @@
+-- Reconciliação do StaleHeartbeatDetector: lê só boxes ativas (últimos heartbeats e boxes que nunca enviaram).
+-- As checagens a cada tick são por id (PK / box_heartbeat.box_id) e não varrem mais as tabelas.
+
+CREATE INDEX IF NOT EXISTS idx_boxes_active_created_at
+    ON public.boxes (id, created_at)
+    WHERE fl_active = true;
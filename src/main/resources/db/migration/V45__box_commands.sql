@@ -0,0 +1,28 @@
+-- Fila de comandos para as boxes (POST /update-ads e /remove-ads): gravada na transação do serviço e
+-- entregue pelo BoxCommandWorker, um comando por box de cada vez, na ordem de id.
+
+CREATE TABLE IF NOT EXISTS public.box_commands
+(
+    id              BIGSERIAL PRIMARY KEY,
+    base_url        VARCHAR(255) NOT NULL,
+    command         VARCHAR(32)  NOT NULL,
+    payload_json    JSONB        NOT NULL,
+    status          VARCHAR(16)  NOT NULL DEFAULT 'PENDING',
+    attempts        INT          NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMPTZ  NOT NULL DEFAULT (now()),
+    locked_until    TIMESTAMPTZ  NULL,
+    last_error      TEXT         NULL,
+    created_at      TIMESTAMPTZ  NOT NULL DEFAULT (now()),
+    sent_at         TIMESTAMPTZ  NULL,
+    CONSTRAINT box_commands_command_check CHECK (command IN ('UPDATE_ADS', 'REMOVE_ADS')),
+    CONSTRAINT box_commands_status_check CHECK (status IN ('PENDING', 'SENDING', 'SENT', 'FAILED', 'SUPERSEDED'))
+);
+
+-- Cabeça da fila de cada box (claim) e coalescência de UPDATE_ADS pendentes.
+CREATE INDEX IF NOT EXISTS idx_box_commands_open
+    ON public.box_commands (base_url, id)
+    WHERE status IN ('PENDING', 'SENDING');
+
+CREATE INDEX IF NOT EXISTS idx_box_commands_closed_at
+    ON public.box_commands (created_at)
+    WHERE status IN ('SENT', 'SUPERSEDED');
@@ -0,0 +1,9 @@
+-- Chave de idempotência opcional das notificações (ex.: lembretes de vencimento): uma reexecução do job
+-- não duplica a notificação nem o e-mail gravado junto com ela.
+
+ALTER TABLE public.notifications
+    ADD COLUMN IF NOT EXISTS idempotency_key VARCHAR(255) NULL;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_notifications_idempotency_key
+    ON public.notifications (idempotency_key)
+    WHERE idempotency_key IS NOT NULL;
@@ -0,0 +1,66 @@
+-- monitoring.application_logs passa a ser particionada por dia (created_at, UTC). A retenção vira DROP da
+-- partição vencida (ApplicationLogPartitionManager) em vez de um DELETE em massa; as partições dos próximos dias
+-- são criadas com antecedência pelo mesmo job. Linhas fora das partições existentes (ex.: horário antigo enviado
+-- pela box) caem em application_logs_default.
+
+ALTER TABLE monitoring.application_logs RENAME TO application_logs_legacy;
+ALTER INDEX IF EXISTS monitoring.idx_application_logs_created_at RENAME TO idx_application_logs_legacy_created_at;
+ALTER TABLE monitoring.application_logs_legacy RENAME CONSTRAINT application_logs_pkey TO application_logs_legacy_pkey;
+
+CREATE TABLE monitoring.application_logs
+(
+    id             UUID         NOT NULL DEFAULT gen_random_uuid(),
+    created_at     TIMESTAMPTZ  NOT NULL DEFAULT (now()),
+    level          VARCHAR(20)  NOT NULL,
+    message        TEXT         NOT NULL,
+    source         VARCHAR(50)  NOT NULL,
+    correlation_id VARCHAR(64)  NULL,
+    stack_trace    TEXT         NULL,
+    endpoint       VARCHAR(255) NULL,
+    client_id      UUID         NULL REFERENCES public.clients (id) ON DELETE SET NULL,
+    metadata_json  JSONB        NULL,
+    -- A chave de partição precisa estar na PK; id continua único na prática (UUID aleatório).
+    CONSTRAINT application_logs_pkey PRIMARY KEY (id, created_at),
+    CONSTRAINT chk_application_logs_level CHECK (level IN ('TRACE', 'DEBUG', 'INFO', 'WARN', 'ERROR')),
+    CONSTRAINT chk_application_logs_source
+        CHECK (source IN ('API', 'WORKER', 'BOX', 'EMAIL', 'MONITORING', 'SMART_PLUG'))
+) PARTITION BY RANGE (created_at);
+
+CREATE INDEX idx_application_logs_created_at ON monitoring.application_logs (created_at DESC);
+
+CREATE TABLE monitoring.application_logs_default PARTITION OF monitoring.application_logs DEFAULT;
+
+-- Uma partição por dia desde o log mais antigo até 7 dias à frente.
+DO
+$$
+    DECLARE
+        first_day DATE := COALESCE(
+                (SELECT (min(created_at) AT TIME ZONE 'UTC')::date FROM monitoring.application_logs_legacy),
+                (now() AT TIME ZONE 'UTC')::date);
+        last_day  DATE := (now() AT TIME ZONE 'UTC')::date + 7;
+        d         DATE;
+    BEGIN
+        d := first_day;
+        WHILE d <= last_day
+            LOOP
+                EXECUTE format(
+                        'CREATE TABLE IF NOT EXISTS monitoring.%I PARTITION OF monitoring.application_logs '
+                            || 'FOR VALUES FROM (%L) TO (%L)',
+                        'application_logs_p' || to_char(d, 'YYYYMMDD'),
+                        d::timestamp AT TIME ZONE 'UTC',
+                        (d + 1)::timestamp AT TIME ZONE 'UTC');
+                d := d + 1;
+            END LOOP;
+    END
+$$;
+
+INSERT INTO monitoring.application_logs
+    (id, created_at, level, message, source, correlation_id, stack_trace, endpoint, client_id, metadata_json)
+SELECT id, created_at, level, message, source, correlation_id, stack_trace, endpoint, client_id, metadata_json
+FROM monitoring.application_logs_legacy;
+
+DROP TABLE monitoring.application_logs_legacy;
+
+GRANT SELECT, INSERT, UPDATE, DELETE ON monitoring.application_logs TO telas_app;
+GRANT SELECT, INSERT ON monitoring.application_logs TO telas_monitoring_worker;
+GRANT SELECT ON monitoring.application_logs TO telas_readonly;
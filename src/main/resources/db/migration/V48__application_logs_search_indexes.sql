@@ -0,0 +1,26 @@
+-- Busca de logs sem varredura completa: tsvector (mensagem, endpoint e valores textuais do metadata) com GIN,
+-- trigramas para substring em message, jsonb_path_ops para filtros @> / @@ no metadata e (created_at, id) para
+-- paginação por cursor. Índices criados no pai valem para as partições atuais e futuras.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE monitoring.application_logs
+    ADD COLUMN search_tsv tsvector GENERATED ALWAYS AS (
+        to_tsvector('simple', coalesce(message, '') || ' ' || coalesce(endpoint, ''))
+            || jsonb_to_tsvector('simple', coalesce(metadata_json, '{}'::jsonb), '["string", "numeric"]')
+        ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_application_logs_search_tsv
+    ON monitoring.application_logs USING gin (search_tsv);
+
+CREATE INDEX IF NOT EXISTS idx_application_logs_message_trgm
+    ON monitoring.application_logs USING gin (message gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_application_logs_metadata
+    ON monitoring.application_logs USING gin (metadata_json jsonb_path_ops);
+
+-- Substitui o índice só em created_at: cobre o ORDER BY created_at DESC, id DESC do cursor.
+CREATE INDEX IF NOT EXISTS idx_application_logs_created_at_id
+    ON monitoring.application_logs (created_at DESC, id DESC);
+
+DROP INDEX IF EXISTS monitoring.idx_application_logs_created_at;
@@ -0,0 +1,19 @@
+-- Agregado por hora das execuções com sucesso dos jobs amostrados (ver scheduler.runs.sampled-jobs): as linhas
+-- individuais de scheduler_job_runs passam a existir só para falhas, mudanças de estado e amostras.
+CREATE TABLE IF NOT EXISTS scheduler_job_run_hourly
+(
+    job_id        VARCHAR(128) NOT NULL,
+    hour_start    TIMESTAMPTZ  NOT NULL,
+    success_count INTEGER      NOT NULL,
+    p50_ms        BIGINT       NOT NULL,
+    p95_ms        BIGINT       NOT NULL,
+    max_ms        BIGINT       NOT NULL,
+    PRIMARY KEY (job_id, hour_start)
+);
+
+CREATE INDEX IF NOT EXISTS idx_scheduler_job_run_hourly_hour
+    ON scheduler_job_run_hourly (hour_start);
+
+-- Purge de retenção por started_at (o índice existente começa por job_id).
+CREATE INDEX IF NOT EXISTS idx_scheduler_job_runs_started
+    ON scheduler_job_runs (started_at);
@@ -0,0 +1,4 @@
+-- Anúncios (monitorId, adId) cuja notificação "ad deployed" o BoxCommandWorker envia quando a box confirma o
+-- UPDATE_ADS; antes o push era tentado dentro da transação do serviço para saber quem notificar.
+ALTER TABLE public.box_commands
+    ADD COLUMN IF NOT EXISTS notify_json JSONB NULL;
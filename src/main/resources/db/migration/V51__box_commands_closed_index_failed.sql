@@ -0,0 +1,6 @@
+-- O purge do BoxCommandWorker também remove comandos FAILED; o índice parcial passa a cobri-los.
+DROP INDEX IF EXISTS public.idx_box_commands_closed_at;
+
+CREATE INDEX IF NOT EXISTS idx_box_commands_closed_at
+    ON public.box_commands (created_at)
+    WHERE status IN ('SENT', 'SUPERSEDED', 'FAILED');
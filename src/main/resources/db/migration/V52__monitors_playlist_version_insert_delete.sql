@@ -0,0 +1,23 @@
+-- O trigger de V41 em monitors só disparava em UPDATE OF box_id: criar um monitor já vinculado a uma box ou
+-- apagar um monitor não mudava a playlist_version, e a box seguia recebendo 304 com a playlist antiga.
+-- O WHEN com OLD não vale para INSERT, então o UPDATE continua num trigger próprio.
+
+CREATE OR REPLACE FUNCTION trg_monitors_bump_playlist_version() RETURNS TRIGGER AS
+$$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') AND OLD.box_id IS NOT NULL THEN
+        UPDATE boxes SET playlist_version = playlist_version + 1 WHERE id = OLD.box_id;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') AND NEW.box_id IS NOT NULL THEN
+        UPDATE boxes SET playlist_version = playlist_version + 1 WHERE id = NEW.box_id;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_monitors_playlist_version_insert_delete ON monitors;
+CREATE TRIGGER trg_monitors_playlist_version_insert_delete
+    AFTER INSERT OR DELETE
+    ON monitors
+    FOR EACH ROW
+EXECUTE FUNCTION trg_monitors_bump_playlist_version();
@@ -5,13 +5,11 @@ import com.telas.entities.Client;
 import com.telas.entities.Monitor;
 import com.telas.entities.MonitorAd;
 import com.telas.enums.AdValidationType;
+import com.telas.enums.AdminEmailAlertCategory;
 import com.telas.enums.NotificationReference;
 import com.telas.enums.Permission;
 import com.telas.repositories.AdRepository;
-import com.telas.repositories.ClientRepository;
-import com.telas.services.AdminEmailAlertPreferenceService;
 import com.telas.services.NotificationService;
-import com.telas.services.PermissionService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -36,12 +34,6 @@ class AdOnAirNotificationHelperTest {
     @Mock
     private NotificationService notificationService;
     @Mock
-    private ClientRepository clientRepository;
-    @Mock
-    private PermissionService permissionService;
-    @Mock
-    private AdminEmailAlertPreferenceService adminEmailAlertPreferenceService;
-    @Mock
     private AdRepository adRepository;
 
     @InjectMocks
@@ -73,7 +65,8 @@ class AdOnAirNotificationHelperTest {
         helper.notifyOnAirForNewMonitorAds(List.of(ma), monitor);
 
         verify(notificationService, never()).save(eq(NotificationReference.CLIENT_AD_ON_AIR), any(), any(), anyBoolean());
-        verify(notificationService, never()).save(eq(NotificationReference.ADMIN_AD_ON_AIR), any(), any(), anyBoolean());
+        verify(notificationService, never())
+                .notifyAdminsWithPermission(any(), any(), any(), any(), anyBoolean());
         verify(adRepository, never()).save(any(Ad.class));
     }
 
@@ -85,9 +78,6 @@ class AdOnAirNotificationHelperTest {
         client.setId(UUID.randomUUID());
         client.setBusinessName("ACME");
 
-        Client admin = new Client();
-        admin.setId(UUID.randomUUID());
-
         Ad ad = new Ad();
         ad.setId(UUID.randomUUID());
         ad.setClient(client);
@@ -106,16 +96,13 @@ class AdOnAirNotificationHelperTest {
         box.setBoxAddress(addr);
         monitor.setBox(box);
 
-        when(clientRepository.findAllAdminsAndDevelopers()).thenReturn(List.of(admin));
-        when(permissionService.hasPermission(admin, Permission.ADMIN_ADS_MANAGE)).thenReturn(true);
-        when(adminEmailAlertPreferenceService.wantsEmail(admin.getId(), com.telas.enums.AdminEmailAlertCategory.ADS_MANAGEMENT))
-                .thenReturn(true);
         when(adRepository.save(any(Ad.class))).thenAnswer(inv -> inv.getArgument(0));
 
         helper.notifyOnAirForNewMonitorAds(List.of(ma), monitor);
 
         verify(notificationService).save(eq(NotificationReference.CLIENT_AD_ON_AIR), eq(client), any(), eq(true));
-        verify(notificationService).save(eq(NotificationReference.ADMIN_AD_ON_AIR), eq(admin), any(), eq(true));
+        verify(notificationService).notifyAdminsWithPermission(eq(NotificationReference.ADMIN_AD_ON_AIR), any(),
+                eq(Permission.ADMIN_ADS_MANAGE), eq(AdminEmailAlertCategory.ADS_MANAGEMENT), eq(true));
         verify(adRepository).save(eq(ad));
     }
 
@@ -127,9 +114,6 @@ class AdOnAirNotificationHelperTest {
         client.setId(UUID.randomUUID());
         client.setBusinessName("ACME");
 
-        Client admin = new Client();
-        admin.setId(UUID.randomUUID());
-
         Ad ad = new Ad();
         ad.setId(UUID.randomUUID());
         ad.setClient(client);
@@ -148,14 +132,13 @@ class AdOnAirNotificationHelperTest {
         box.setBoxAddress(addr);
         monitor.setBox(box);
 
-        when(clientRepository.findAllAdminsAndDevelopers()).thenReturn(List.of(admin));
-        when(permissionService.hasPermission(admin, Permission.ADMIN_ADS_MANAGE)).thenReturn(true);
         when(adRepository.save(any(Ad.class))).thenAnswer(inv -> inv.getArgument(0));
 
         helper.notifyOnAirForNewMonitorAds(List.of(ma), monitor, false);
 
         verify(notificationService).save(eq(NotificationReference.CLIENT_AD_ON_AIR), eq(client), any(), eq(false));
-        verify(notificationService).save(eq(NotificationReference.ADMIN_AD_ON_AIR), eq(admin), any(), eq(false));
+        verify(notificationService).notifyAdminsWithPermission(eq(NotificationReference.ADMIN_AD_ON_AIR), any(),
+                eq(Permission.ADMIN_ADS_MANAGE), eq(AdminEmailAlertCategory.ADS_MANAGEMENT), eq(false));
     }
 }
 
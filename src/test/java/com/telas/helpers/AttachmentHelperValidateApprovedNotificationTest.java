@@ -4,27 +4,28 @@ import com.telas.dtos.request.RefusedAdRequestDto;
 import com.telas.entities.Ad;
 import com.telas.entities.Client;
 import com.telas.enums.AdValidationType;
+import com.telas.enums.AdminEmailAlertCategory;
+import com.telas.enums.NotificationReference;
+import com.telas.enums.Permission;
 import com.telas.repositories.AdRepository;
 import com.telas.repositories.AdRequestRepository;
 import com.telas.repositories.AttachmentRepository;
 import com.telas.repositories.ClientRepository;
 import com.telas.services.AdUnusedTrackingService;
-import com.telas.services.AdminEmailAlertPreferenceService;
 import com.telas.services.BucketService;
 import com.telas.services.NotificationService;
-import com.telas.services.PermissionService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -48,10 +49,6 @@ class AttachmentHelperValidateApprovedNotificationTest {
     @Mock
     private MonitorHelper monitorHelper;
     @Mock
-    private PermissionService permissionService;
-    @Mock
-    private AdminEmailAlertPreferenceService adminEmailAlertPreferenceService;
-    @Mock
     private AdUnusedTrackingService adUnusedTrackingService;
 
     @InjectMocks
@@ -69,11 +66,13 @@ class AttachmentHelperValidateApprovedNotificationTest {
         ad.setValidation(AdValidationType.PENDING);
 
         when(adRepository.save(any(Ad.class))).thenAnswer(inv -> inv.getArgument(0));
-        when(clientRepository.findAllAdminsAndDevelopers()).thenReturn(List.of());
 
         helper.validateAd(ad, owner, AdValidationType.APPROVED, (RefusedAdRequestDto) null);
 
         verify(notificationService).save(any(), any(), any(), anyBoolean());
+        verify(notificationService).notifyAdminsWithPermission(
+                eq(NotificationReference.ADMIN_CLIENT_AD_APPROVED), any(), eq(Permission.ADMIN_ADS_MANAGE),
+                eq(AdminEmailAlertCategory.ADS_MANAGEMENT));
     }
 }
 
@@ -0,0 +1,116 @@
+package com.telas.helpers;
+
+import com.telas.dtos.NotificationFanOutDto;
+import com.telas.dtos.NotificationRecipientDto;
+import com.telas.entities.Ad;
+import com.telas.entities.Client;
+import com.telas.entities.Monitor;
+import com.telas.enums.AdminEmailAlertCategory;
+import com.telas.enums.NotificationReference;
+import com.telas.enums.Permission;
+import com.telas.repositories.AdRepository;
+import com.telas.repositories.MonitorRepository;
+import com.telas.repositories.SubscriptionRepository;
+import com.telas.services.BoxCommandService;
+import com.telas.services.NotificationService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BoxAdPushNotificationHelperTest {
+
+    @Mock private NotificationService notificationService;
+    @Mock private SubscriptionRepository subscriptionRepository;
+    @Mock private MonitorRepository monitorRepository;
+    @Mock private AdRepository adRepository;
+
+    @InjectMocks private BoxAdPushNotificationHelper helper;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void notifyAfterDelivery_resolvesAdminsOnceAndWritesEveryAdInOneBatch() {
+        ReflectionTestUtils.setField(helper, "frontBaseUrl", "https://front.test");
+        Client client = new Client();
+        client.setId(UUID.randomUUID());
+        client.setBusinessName("ACME");
+        Ad first = ad(client, "first.png");
+        Ad second = ad(client, "second.png");
+        Monitor monitor = new Monitor();
+        monitor.setId(UUID.randomUUID());
+        List<NotificationRecipientDto> admins =
+                List.of(new NotificationRecipientDto(UUID.randomUUID(), "admin@example.com", true));
+        when(monitorRepository.findAllById(anyCollection())).thenReturn(List.of(monitor));
+        when(adRepository.findAllById(anyCollection())).thenReturn(List.of(first, second));
+        when(notificationService.adminRecipientsWithPermission(
+                Permission.ADMIN_ADS_MANAGE, AdminEmailAlertCategory.ADS_MANAGEMENT, true)).thenReturn(admins);
+        when(subscriptionRepository.findActiveSubscriptionsByClientId(client.getId())).thenReturn(List.of());
+
+        helper.notifyAfterDelivery(List.of(
+                new BoxCommandService.PushedAd(monitor.getId(), first.getId()),
+                new BoxCommandService.PushedAd(monitor.getId(), second.getId())));
+
+        ArgumentCaptor<List<NotificationFanOutDto>> fanOuts = ArgumentCaptor.forClass(List.class);
+        verify(notificationService).saveAll(fanOuts.capture());
+        assertThat(fanOuts.getValue())
+                .extracting(NotificationFanOutDto::reference)
+                .containsExactly(
+                        NotificationReference.CLIENT_AD_DEPLOYED_TO_BOX, NotificationReference.ADMIN_CLIENT_AD_DEPLOYED_TO_BOX,
+                        NotificationReference.CLIENT_AD_DEPLOYED_TO_BOX, NotificationReference.ADMIN_CLIENT_AD_DEPLOYED_TO_BOX);
+        verify(notificationService, times(1)).adminRecipientsWithPermission(any(), any(), anyBoolean());
+        verify(subscriptionRepository, times(1)).findActiveSubscriptionsByClientId(client.getId());
+        verify(notificationService, never()).save(any(), any(), any(), anyBoolean());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void notifyDeliveryFailed_alertsAdminsOncePerAd() {
+        ReflectionTestUtils.setField(helper, "frontBaseUrl", "https://front.test");
+        Client client = new Client();
+        client.setId(UUID.randomUUID());
+        client.setBusinessName("ACME");
+        Ad ad = ad(client, "first.png");
+        Monitor monitor = new Monitor();
+        monitor.setId(UUID.randomUUID());
+        List<NotificationRecipientDto> admins =
+                List.of(new NotificationRecipientDto(UUID.randomUUID(), "admin@example.com", true));
+        when(monitorRepository.findAllById(anyCollection())).thenReturn(List.of(monitor));
+        when(adRepository.findAllById(anyCollection())).thenReturn(List.of(ad));
+        when(notificationService.adminRecipientsWithPermission(
+                Permission.ADMIN_ADS_MANAGE, AdminEmailAlertCategory.ADS_MANAGEMENT, true)).thenReturn(admins);
+
+        helper.notifyDeliveryFailed(List.of(new BoxCommandService.PushedAd(monitor.getId(), ad.getId())));
+
+        ArgumentCaptor<List<NotificationFanOutDto>> fanOuts = ArgumentCaptor.forClass(List.class);
+        verify(notificationService).saveAll(fanOuts.capture());
+        assertThat(fanOuts.getValue()).singleElement().satisfies(f -> {
+            assertThat(f.reference()).isEqualTo(NotificationReference.ADMIN_AD_DEPLOY_FAILED);
+            assertThat(f.recipients()).isEqualTo(admins);
+            assertThat(f.params()).containsEntry("adName", "first.png");
+        });
+    }
+
+    private static Ad ad(Client client, String name) {
+        Ad ad = new Ad();
+        ad.setId(UUID.randomUUID());
+        ad.setClient(client);
+        ad.setName(name);
+        return ad;
+    }
+}
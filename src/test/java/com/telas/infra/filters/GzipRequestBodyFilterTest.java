@@ -0,0 +1,58 @@
+package com.telas.infra.filters;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GzipRequestBodyFilterTest {
+
+    private static final String BODY = "{\"boxAddress\":\"10.0.0.7\",\"entries\":[]}";
+
+    private final GzipRequestBodyFilter filter = new GzipRequestBodyFilter(1024);
+
+    @Test
+    void logIngest_decompressesBodyForReader() throws Exception {
+        MockHttpServletRequest request = gzipRequest("/monitoring/logs/batch");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        HttpServletRequest forwarded = (HttpServletRequest) chain.getRequest();
+        assertThat(forwarded.getReader().lines().collect(Collectors.joining())).isEqualTo(BODY);
+        assertThat(forwarded.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+    }
+
+    @Test
+    void otherEndpoints_keepGzipBodyUntouched() throws Exception {
+        MockHttpServletRequest request = gzipRequest("/clients");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+    }
+
+    private static MockHttpServletRequest gzipRequest(String servletPath) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(BODY.getBytes(StandardCharsets.UTF_8));
+        }
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api" + servletPath);
+        request.setContextPath("/api");
+        request.setServletPath(servletPath);
+        request.addHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        request.setContent(out.toByteArray());
+        return request;
+    }
+}
@@ -0,0 +1,96 @@
+package com.telas.infra.security.services.impl;
+
+import com.telas.entities.Client;
+import com.telas.enums.Permission;
+import com.telas.enums.Role;
+import com.telas.infra.exceptions.ForbiddenException;
+import com.telas.infra.security.model.PrincipalSnapshot;
+import com.telas.repositories.ClientRepository;
+import com.telas.services.PermissionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuthenticatedUserServiceImplTest {
+
+    @Mock private ClientRepository clientRepository;
+    @Mock private PermissionService permissionService;
+    @Mock private PrincipalSnapshotCache principalSnapshotCache;
+
+    @InjectMocks private AuthenticatedUserServiceImpl service;
+
+    private final UUID clientId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void roleAndPermissionChecks_areAnsweredFromThePrincipalWithoutLoadingTheClient() {
+        authenticate(Role.ADMIN);
+        when(permissionService.hasPermission(clientId, Role.ADMIN, Permission.ADMIN_ADS_MANAGE)).thenReturn(true);
+
+        assertThat(service.validateAdmin().clientId()).isEqualTo(clientId);
+        assertThat(service.validateSelfOrAdmin(UUID.randomUUID()).clientId()).isEqualTo(clientId);
+        service.validatePermission(Permission.ADMIN_ADS_MANAGE);
+        assertThatThrownBy(() -> service.validateDeveloper()).isInstanceOf(ForbiddenException.class);
+
+        verifyNoInteractions(clientRepository);
+    }
+
+    @Test
+    void validateSelfOrAdmin_rejectsOtherClientsForNonPrivilegedUsers() {
+        authenticate(Role.CLIENT);
+
+        assertThat(service.validateSelfOrAdmin(clientId).clientId()).isEqualTo(clientId);
+        assertThatThrownBy(() -> service.validateSelfOrAdmin(UUID.randomUUID())).isInstanceOf(ForbiddenException.class);
+    }
+
+    @Test
+    void getLoggedUser_loadsClientOncePerRequestOutsideTransactions() {
+        authenticate(Role.CLIENT);
+        Client client = new Client();
+        client.setId(clientId);
+        when(clientRepository.findActiveById(clientId)).thenReturn(Optional.of(client));
+
+        Client first = service.getLoggedUser().client();
+        Client second = service.getLoggedUser().client();
+
+        assertThat(second).isSameAs(first);
+        verify(clientRepository, times(1)).findActiveById(clientId);
+    }
+
+    private void authenticate(Role role) {
+        PrincipalSnapshot principal = new PrincipalSnapshot(clientId, "user@telas.com", role, true);
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+}
@@ -0,0 +1,61 @@
+package com.telas.infra.security.services.impl;
+
+import com.telas.entities.Client;
+import com.telas.entities.Contact;
+import com.telas.infra.security.model.AuthenticatedUser;
+import com.telas.infra.security.model.PrincipalSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PrincipalSnapshotCacheTest {
+
+    private static final String EMAIL = "client@telas.com";
+
+    @Mock private UserDetailsServiceImpl userDetailsService;
+
+    private PrincipalSnapshotCache cache;
+    private final UUID clientId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        cache = new PrincipalSnapshotCache(userDetailsService, new SimpleMeterRegistry(), 30L, 100L);
+        Client client = new Client();
+        client.setId(clientId);
+        Contact contact = new Contact();
+        contact.setEmail(EMAIL);
+        client.setContact(contact);
+        when(userDetailsService.loadUserByUsername(EMAIL)).thenReturn(new AuthenticatedUser(client));
+    }
+
+    @Test
+    void get_loadsClientOnceWithinTtl() {
+        PrincipalSnapshot first = cache.get(EMAIL);
+        PrincipalSnapshot second = cache.get(EMAIL);
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.clientId()).isEqualTo(clientId);
+        verify(userDetailsService, times(1)).loadUserByUsername(EMAIL);
+    }
+
+    @Test
+    void invalidateClient_forcesReload() {
+        cache.get(EMAIL);
+
+        cache.invalidateClient(clientId);
+        cache.get(EMAIL);
+
+        verify(userDetailsService, times(2)).loadUserByUsername(EMAIL);
+    }
+}
@@ -0,0 +1,96 @@
+package com.telas.infra.security.services.impl;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.telas.infra.security.model.TokenData;
+import com.telas.shared.constants.SharedConstants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenServiceImplTest {
+
+    private static final String SECRET = "test-secret";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TokenServiceImpl tokenService;
+
+    @BeforeEach
+    void setUp() {
+        tokenService = new TokenServiceImpl(meterRegistry);
+        ReflectionTestUtils.setField(tokenService, "secret", SECRET);
+        ReflectionTestUtils.setField(tokenService, "cacheMaxEntries", 100L);
+        tokenService.init();
+    }
+
+    @Test
+    void validateToken_secondCallIsServedFromCache() {
+        String token = token("a@telas.com", Instant.now().plusSeconds(600), SECRET);
+
+        TokenData first = tokenService.validateToken(token);
+        TokenData second = tokenService.validateToken(token);
+
+        assertThat(first).isNotNull();
+        assertThat(second).isSameAs(first);
+        assertThat(hits()).isEqualTo(1.0);
+    }
+
+    @Test
+    void validateToken_rejectsTamperedAndExpiredTokens() {
+        assertThat(tokenService.validateToken(token("a@telas.com", Instant.now().plusSeconds(600), "other"))).isNull();
+        assertThat(tokenService.validateToken(token("a@telas.com", Instant.now().minusSeconds(5), SECRET))).isNull();
+    }
+
+    @Test
+    void invalidateUser_rejectsTokensIssuedBeforeTheRevocation() throws InterruptedException {
+        String token = token("a@telas.com", Instant.now().minusSeconds(5), Instant.now().plusSeconds(600), SECRET);
+        String legacy = token("a@telas.com", null, Instant.now().plusSeconds(600), SECRET);
+        assertThat(tokenService.validateToken(token)).isNotNull();
+
+        tokenService.invalidateUser("A@telas.com");
+
+        assertThat(tokenService.validateToken(token)).isNull();
+        assertThat(tokenService.validateToken(legacy)).isNull();
+        Thread.sleep(1100L); // iat tem precisão de segundos
+        String fresh = token("a@telas.com", Instant.now().plusSeconds(600), SECRET);
+        assertThat(tokenService.validateToken(fresh)).isNotNull();
+        assertThat(tokenService.validateToken(token("b@telas.com", Instant.now().plusSeconds(600), SECRET))).isNotNull();
+    }
+
+    @Test
+    void invalidateToken_rejectsOnlyThatToken() {
+        String revoked = token("a@telas.com", Instant.now().plusSeconds(600), SECRET);
+        String other = token("a@telas.com", Instant.now().plusSeconds(601), SECRET);
+        assertThat(tokenService.validateToken(revoked)).isNotNull();
+
+        tokenService.invalidateToken(revoked);
+
+        assertThat(tokenService.validateToken(revoked)).isNull();
+        assertThat(tokenService.validateToken(other)).isNotNull();
+    }
+
+    private double hits() {
+        return meterRegistry.get("cache.gets").tag("cache", TokenServiceImpl.CACHE_NAME).tag("result", "hit")
+                .functionCounter().count();
+    }
+
+    private static String token(String email, Instant expiresAt, String secret) {
+        return token(email, Instant.now(), expiresAt, secret);
+    }
+
+    private static String token(String email, Instant issuedAt, Instant expiresAt, String secret) {
+        return JWT.create()
+                .withIssuer(SharedConstants.PROJECT_NAME)
+                .withSubject(UUID.randomUUID().toString())
+                .withClaim("email", email)
+                .withIssuedAt(issuedAt)
+                .withExpiresAt(expiresAt)
+                .sign(Algorithm.HMAC256(secret));
+    }
+}
@@ -0,0 +1,48 @@
+package com.telas.scheduler;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class SchedulerJobRunHourlyRollupTest {
+
+    @Mock private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks private SchedulerJobRunHourlyRollup rollup;
+
+    @Test
+    void recordSuccess_writesClosedHourWithPercentilesOnRollover() {
+        Instant hour = Instant.parse("2026-10-18T10:00:00Z");
+        for (long ms = 1; ms <= 20; ms++) {
+            rollup.recordSuccess("monitoringWorker", hour.plusSeconds(ms * 10), ms * 10);
+        }
+        verifyNoInteractions(jdbcTemplate);
+
+        rollup.recordSuccess("monitoringWorker", hour.plusSeconds(3600), 5);
+
+        verify(jdbcTemplate).update(
+                anyString(), eq("monitoringWorker"), eq(Timestamp.from(hour)), eq(20), eq(100L), eq(190L), eq(200L));
+    }
+
+    @Test
+    void flushCompleted_keepsCurrentHourInMemory() {
+        Instant now = Instant.parse("2026-10-18T10:30:00Z");
+        rollup.recordSuccess("monitoringWorker", now, 40);
+
+        assertThat(rollup.flushCompleted(now)).isZero();
+        assertThat(rollup.flushCompleted(now.plusSeconds(3600))).isEqualTo(1);
+    }
+}
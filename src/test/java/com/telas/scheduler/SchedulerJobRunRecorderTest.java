@@ -0,0 +1,78 @@
+package com.telas.scheduler;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SchedulerJobRunRecorderTest {
+
+    @Mock private SchedulerJobRunService schedulerJobRunService;
+    @Mock private SchedulerJobRunHourlyRollup schedulerJobRunHourlyRollup;
+    @Mock private SchedulerJobStatusRegistry schedulerJobStatusRegistry;
+
+    private SchedulerJobRunRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        recorder = new SchedulerJobRunRecorder(
+                schedulerJobRunService,
+                schedulerJobRunHourlyRollup,
+                schedulerJobStatusRegistry,
+                List.of("monitoringWorker"),
+                300);
+    }
+
+    @Test
+    void sampledJob_recordsFirstSuccessFailuresAndRecoveryButRollsUpTheRest() {
+        RuntimeException error = new RuntimeException("boom");
+
+        recorder.finishSuccess(recorder.start("monitoringWorker"), Map.of());
+        recorder.finishSuccess(recorder.start("monitoringWorker"), Map.of());
+        recorder.finishFailure(recorder.start("monitoringWorker"), error, Map.of());
+        recorder.finishSuccess(recorder.start("monitoringWorker"), Map.of());
+
+        verify(schedulerJobRunService, times(2))
+                .recordFinished(eq("monitoringWorker"), any(), any(), isNull(), eq(Map.of()));
+        verify(schedulerJobRunService)
+                .recordFinished(eq("monitoringWorker"), any(), any(), eq(error), eq(Map.of()));
+        verify(schedulerJobRunHourlyRollup, times(3)).recordSuccess(eq("monitoringWorker"), any(), anyLong());
+        verify(schedulerJobStatusRegistry, times(3))
+                .runFinished(eq("monitoringWorker"), any(), any(), isNull(), eq(Map.of()));
+        verify(schedulerJobStatusRegistry)
+                .runFinished(eq("monitoringWorker"), any(), any(), eq(error), eq(Map.of()));
+        verifyNoMoreInteractions(schedulerJobRunService);
+    }
+
+    @Test
+    void otherJobs_keepOneRowPerRun() {
+        UUID runId = UUID.randomUUID();
+        when(schedulerJobRunService.start("cleanupUnusedAds")).thenReturn(runId);
+
+        UUID started = recorder.start("cleanupUnusedAds");
+        recorder.finishSuccess(started, Map.of("deleted", 3));
+
+        assertThat(started).isEqualTo(runId);
+        verify(schedulerJobRunService).finishSuccess(runId, Map.of("deleted", 3));
+        verify(schedulerJobStatusRegistry).runStarted(eq("cleanupUnusedAds"), any());
+        verify(schedulerJobStatusRegistry)
+                .runFinished(eq("cleanupUnusedAds"), any(), any(), isNull(), eq(Map.of("deleted", 3)));
+        verifyNoMoreInteractions(schedulerJobRunHourlyRollup);
+    }
+}
@@ -0,0 +1,103 @@
+package com.telas.scheduler;
+
+import com.telas.dtos.response.SchedulerJobStatusResponseDto;
+import com.telas.scheduler.model.SchedulerJobRunEntity;
+import com.telas.scheduler.model.SchedulerJobRunStatus;
+import com.telas.scheduler.repository.SchedulerJobRunRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SchedulerJobStatusRegistryTest {
+
+    @Mock private SchedulerJobRunRepository schedulerJobRunRepository;
+    @Mock private JdbcTemplate jdbcTemplate;
+
+    private SchedulerJobStatusRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SchedulerJobStatusRegistry(
+                schedulerJobRunRepository, jdbcTemplate, "UTC",
+                "0 0 3 * * *", "0 0 4 * * *", "0 0 6 * * *", "0 0 5 * * *", "0 15 * * * *", 10000, 300000);
+    }
+
+    @Test
+    void runFinished_updatesLastRunAndPrecomputesNextFire() {
+        Instant started = Instant.parse("2026-10-18T12:00:00Z");
+        Instant ended = started.plusMillis(250);
+        RuntimeException error = new RuntimeException("kasa offline");
+
+        registry.runStarted("monitoringWorker", started);
+        registry.runFinished("monitoringWorker", started, ended, null, Map.of("boxes", 4));
+        registry.runFinished("monitoringWorker", started.plusSeconds(10), ended.plusSeconds(10), error, Map.of());
+
+        SchedulerJobStatusResponseDto dto = find(registry.snapshot(ended.plusSeconds(11)), "monitoringWorker");
+        assertThat(dto.getLastStatus()).isEqualTo(SchedulerJobRunStatus.FAILED);
+        assertThat(dto.getLastDurationMillis()).isEqualTo(250L);
+        assertThat(dto.getLastSuccessAt()).isEqualTo(ended);
+        assertThat(dto.getLastFailureAt()).isEqualTo(ended.plusSeconds(10));
+        assertThat(dto.getLastFailureMessage()).isEqualTo("kasa offline");
+        assertThat(dto.getNextExecutionEstimated()).isEqualTo(ended.plusSeconds(20));
+
+        SchedulerJobStatusResponseDto cron = find(registry.snapshot(ended), "purgeApplicationLogs");
+        assertThat(cron.getNextExecutionEstimated()).isEqualTo(Instant.parse("2026-10-19T03:00:00Z"));
+    }
+
+    @Test
+    void refresh_reloadsJobFromDbWhenLockIsTakenByAnotherInstance() throws Exception {
+        Instant startedElsewhere = Instant.parse("2026-10-18T04:00:00Z");
+        SchedulerJobRunEntity row = new SchedulerJobRunEntity();
+        row.setJobId("removeAdsFromExpiredSubscriptionsLock");
+        row.setStartedAt(startedElsewhere);
+        row.setEndedAt(startedElsewhere.plusSeconds(3));
+        row.setStatus(SchedulerJobRunStatus.SUCCESS);
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString("name")).thenReturn("removeAdsFromExpiredSubscriptionsLock");
+        when(rs.getString("locked_by")).thenReturn("another-host");
+        when(rs.getTimestamp("locked_at")).thenReturn(Timestamp.from(startedElsewhere));
+        doAnswer(inv -> {
+            inv.<RowCallbackHandler>getArgument(1).processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        when(schedulerJobRunRepository.findFirstByJobIdOrderByStartedAtDesc("removeAdsFromExpiredSubscriptionsLock"))
+                .thenReturn(Optional.of(row));
+        when(schedulerJobRunRepository.findFirstByJobIdAndStatusOrderByStartedAtDesc(
+                        "removeAdsFromExpiredSubscriptionsLock", SchedulerJobRunStatus.SUCCESS))
+                .thenReturn(Optional.of(row));
+        when(schedulerJobRunRepository.findFirstByJobIdAndStatusOrderByStartedAtDesc(
+                        "removeAdsFromExpiredSubscriptionsLock", SchedulerJobRunStatus.FAILED))
+                .thenReturn(Optional.empty());
+
+        registry.refresh();
+
+        SchedulerJobStatusResponseDto dto =
+                find(registry.snapshot(Instant.parse("2026-10-18T05:00:00Z")), "removeAdsFromExpiredSubscriptionsLock");
+        assertThat(dto.getLastStatus()).isEqualTo(SchedulerJobRunStatus.SUCCESS);
+        assertThat(dto.getLastSuccessAt()).isEqualTo(startedElsewhere.plusSeconds(3));
+        assertThat(dto.getLastDurationMillis()).isEqualTo(3000L);
+    }
+
+    private static SchedulerJobStatusResponseDto find(List<SchedulerJobStatusResponseDto> list, String jobId) {
+        return list.stream().filter(d -> d.getJobId().equals(jobId)).findFirst().orElseThrow();
+    }
+}
@@ -10,9 +10,9 @@ import com.telas.infra.security.services.TokenService;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.core.userdetails.UserDetails;
 import com.telas.enums.Permission;
 import com.telas.infra.security.model.AuthenticatedUser;
+import com.telas.infra.security.model.PrincipalSnapshot;
 
 import java.util.UUID;
 
@@ -43,6 +43,14 @@ class TestSecuritySupportConfig {
       public TokenData validateToken(String token) {
         return null;
       }
+
+      @Override
+      public void invalidateToken(String token) {
+      }
+
+      @Override
+      public void invalidateUser(String email) {
+      }
     };
   }
 
@@ -62,22 +70,22 @@ class TestSecuritySupportConfig {
       }
 
       @Override
-      public AuthenticatedUser validateSelfOrAdmin(UUID id) {
+      public PrincipalSnapshot validateSelfOrAdmin(UUID id) {
         throw new UnsupportedOperationException("Not used in security endpoint tests");
       }
 
       @Override
-      public AuthenticatedUser validateAdmin() {
+      public PrincipalSnapshot validateAdmin() {
         throw new UnsupportedOperationException("Not used in security endpoint tests");
       }
 
       @Override
-      public AuthenticatedUser validateAdminOrAdsManageAccess() {
+      public PrincipalSnapshot validateAdminOrAdsManageAccess() {
         throw new UnsupportedOperationException("Not used in security endpoint tests");
       }
 
       @Override
-      public AuthenticatedUser validateDeveloper() {
+      public PrincipalSnapshot validateDeveloper() {
         throw new UnsupportedOperationException("Not used in security endpoint tests");
       }
 
@@ -92,18 +100,31 @@ class TestSecuritySupportConfig {
       }
 
       @Override
-      public void verifyTermsAccepted(UserDetails user) {
+      public void verifyTermsAccepted(PrincipalSnapshot principal) {
         throw new UnsupportedOperationException("Not used in security endpoint tests");
       }
+
+      @Override
+      public PrincipalSnapshot loadPrincipal(String email) {
+        throw new UnsupportedOperationException("Not used in security endpoint tests");
+      }
+
+      @Override
+      public PrincipalSnapshot getLoggedPrincipal() {
+        throw new UnsupportedOperationException("Not used in security endpoint tests");
+      }
+
+      @Override
+      public void evictPrincipal(UUID clientId) {
+      }
     };
   }
 
   @Bean
   SecurityFilter securityFilter(
       TokenService tokenService,
-      UserDetailsService userDetailsService,
       AuthenticatedUserService authenticatedUserService) {
-    return new SecurityFilter(tokenService, userDetailsService, authenticatedUserService);
+    return new SecurityFilter(tokenService, authenticatedUserService);
   }
 }
 
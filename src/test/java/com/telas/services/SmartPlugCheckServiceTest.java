@@ -6,20 +6,25 @@ import com.telas.monitoring.plug.PlugReading;
 import com.telas.monitoring.plug.SmartPlugClient;
 import com.telas.monitoring.plug.SmartPlugCredentials;
 import com.telas.monitoring.repositories.BoxHeartbeatEntityRepository;
-import com.telas.monitoring.repositories.CheckRunEntityRepository;
 import com.telas.monitoring.repositories.SmartPlugEntityRepository;
+import com.telas.services.impl.BoxHeartbeatWriteBuffer;
+import com.telas.services.impl.SmartPlugCheckPersistence;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -32,8 +37,9 @@ class SmartPlugCheckServiceTest {
     @Mock private SmartPlugClient smartPlugClient;
     @Mock private SmartPlugCredentialsResolver credentialsResolver;
     @Mock private BoxHeartbeatEntityRepository boxHeartbeatEntityRepository;
-    @Mock private CheckRunEntityRepository checkRunEntityRepository;
     @Mock private SmartPlugRulesService smartPlugRulesService;
+    @Mock private BoxHeartbeatWriteBuffer boxHeartbeatWriteBuffer;
+    @Mock private SmartPlugCheckPersistence smartPlugCheckPersistence;
 
     private SmartPlugCheckService service;
 
@@ -47,8 +53,9 @@ class SmartPlugCheckServiceTest {
                         smartPlugClient,
                         credentialsResolver,
                         boxHeartbeatEntityRepository,
-                        checkRunEntityRepository,
-                        smartPlugRulesService);
+                        smartPlugRulesService,
+                        boxHeartbeatWriteBuffer,
+                        smartPlugCheckPersistence);
         org.springframework.test.util.ReflectionTestUtils.setField(service, "raiseIncidents", true);
         org.springframework.test.util.ReflectionTestUtils.setField(service, "staleSeconds", 180L);
     }
@@ -64,15 +71,15 @@ class SmartPlugCheckServiceTest {
 
         when(smartPlugEntityRepository.findAllEnabledForChecks()).thenReturn(List.of(plug));
         when(credentialsResolver.resolve(plug)).thenReturn(new SmartPlugCredentials("u", "p"));
-        when(smartPlugClient.read(any(), any()))
-                .thenReturn(new PlugReading(true, true, 100.0, 120.0, 0.5, null));
-        when(boxHeartbeatEntityRepository.findByBox_Id(boxUuid)).thenReturn(Optional.empty());
+        when(smartPlugClient.readAsync(any(), any()))
+                .thenReturn(Mono.just(new PlugReading(true, true, 100.0, 120.0, 0.5, null)));
+        when(boxHeartbeatEntityRepository.findAllByBox_IdIn(Set.of(boxUuid))).thenReturn(List.of());
 
         service.runAllChecks();
 
         verify(credentialsResolver).resolve(plug);
-        verify(smartPlugClient).read(eq(plug), any(SmartPlugCredentials.class));
-        verify(checkRunEntityRepository).save(any());
+        verify(smartPlugClient).readAsync(eq(plug), any(SmartPlugCredentials.class));
+        verify(smartPlugCheckPersistence).saveRuns(argThat(runs -> runs.size() == 1));
         verify(smartPlugRulesService).evaluate(eq(plug), any(PlugReading.class), eq(true));
     }
 
@@ -87,12 +94,67 @@ class SmartPlugCheckServiceTest {
 
         when(smartPlugEntityRepository.findAllEnabledForChecks()).thenReturn(List.of(plug));
         when(credentialsResolver.resolve(plug)).thenReturn(null);
-        when(smartPlugClient.read(any(), any()))
-                .thenReturn(new PlugReading(true, true, 1.0, 120.0, 0.1, null));
+        when(smartPlugClient.readAsync(any(), any()))
+                .thenReturn(Mono.just(new PlugReading(true, true, 1.0, 120.0, 0.1, null)));
 
         service.runAllChecks();
 
-        verify(checkRunEntityRepository).save(any());
+        verify(smartPlugCheckPersistence).saveRuns(any());
         verify(smartPlugRulesService, never()).evaluate(any(), any(), anyBoolean());
     }
+
+    @Test
+    void runAllChecks_marksSlowPlugAsTimeoutWithoutBlockingOthers() {
+        org.springframework.test.util.ReflectionTestUtils.setField(service, "perPlugTimeoutMs", 100L);
+
+        SmartPlugEntity slow = new SmartPlugEntity();
+        slow.setId(UUID.randomUUID());
+        slow.setBox(new Box());
+        slow.getBox().setId(boxUuid);
+        SmartPlugEntity fast = new SmartPlugEntity();
+        fast.setId(UUID.randomUUID());
+        fast.setBox(slow.getBox());
+
+        when(smartPlugEntityRepository.findAllEnabledForChecks()).thenReturn(List.of(slow, fast));
+        when(smartPlugClient.readAsync(eq(slow), any())).thenReturn(Mono.never());
+        when(smartPlugClient.readAsync(eq(fast), any()))
+                .thenReturn(Mono.just(new PlugReading(true, true, 50.0, 120.0, 0.4, null)));
+        when(boxHeartbeatEntityRepository.findAllByBox_IdIn(Set.of(boxUuid))).thenReturn(List.of());
+
+        Map<String, Object> summary = service.runAllChecks();
+
+        assertThat(summary).containsEntry("kasaPlugsChecked", 2).containsEntry("kasaTimedOut", 1);
+        verify(smartPlugRulesService)
+                .evaluate(eq(slow), argThat(r -> !r.reachable() && "timeout".equals(r.errorCode())), eq(true));
+        verify(smartPlugRulesService).evaluate(eq(fast), argThat(PlugReading::reachable), eq(true));
+    }
+
+    @Test
+    void runAllChecks_resolvesCredentialsOnCallerThreadAndIsolatesResolverFailure() {
+        SmartPlugEntity broken = new SmartPlugEntity();
+        broken.setId(UUID.randomUUID());
+        broken.setBox(new Box());
+        broken.getBox().setId(boxUuid);
+        SmartPlugEntity ok = new SmartPlugEntity();
+        ok.setId(UUID.randomUUID());
+        ok.setBox(broken.getBox());
+        Thread caller = Thread.currentThread();
+
+        when(smartPlugEntityRepository.findAllEnabledForChecks()).thenReturn(List.of(broken, ok));
+        when(credentialsResolver.resolve(broken)).thenThrow(new IllegalStateException("vault down"));
+        when(credentialsResolver.resolve(ok)).thenAnswer(inv -> {
+            assertThat(Thread.currentThread()).isSameAs(caller);
+            return new SmartPlugCredentials("u", "p");
+        });
+        when(smartPlugClient.readAsync(eq(ok), any()))
+                .thenReturn(Mono.just(new PlugReading(true, true, 50.0, 120.0, 0.4, null)));
+        when(boxHeartbeatEntityRepository.findAllByBox_IdIn(Set.of(boxUuid))).thenReturn(List.of());
+
+        service.runAllChecks();
+
+        verify(smartPlugClient, never()).readAsync(eq(broken), any());
+        verify(smartPlugRulesService)
+                .evaluate(eq(broken), argThat(r -> !r.reachable() && "check_error".equals(r.errorCode())), eq(true));
+        verify(smartPlugRulesService).evaluate(eq(ok), argThat(PlugReading::reachable), eq(true));
+    }
 }
@@ -21,6 +21,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,47 +29,17 @@ class AdminEmailAlertPreferenceServiceImplTest {
 
     @Mock private AdminEmailAlertPreferenceRepository preferenceRepository;
     @Mock private ClientRepository clientRepository;
+    @Mock private AdminEmailAlertPreferenceSnapshot snapshot;
 
     @InjectMocks private AdminEmailAlertPreferenceServiceImpl service;
 
     @Test
-    void wantsEmail_falseWhenNoRowAndNotDeveloper() {
+    void wantsEmail_readsFromSnapshot() {
         UUID id = UUID.randomUUID();
-        Client admin = new Client();
-        admin.setId(id);
-        admin.setRole(Role.ADMIN);
-        when(preferenceRepository.findByClient_IdAndAlertCategory(
-                        eq(id), eq(AdminEmailAlertCategory.HOST_REBOOT.name())))
-                .thenReturn(Optional.empty());
-        when(clientRepository.findById(id)).thenReturn(Optional.of(admin));
-
-        assertThat(service.wantsEmail(id, AdminEmailAlertCategory.HOST_REBOOT)).isFalse();
-    }
-
-    @Test
-    void wantsEmail_trueWhenDeveloperAndNoPreferenceRow() {
-        UUID id = UUID.randomUUID();
-        Client developer = new Client();
-        developer.setId(id);
-        developer.setRole(Role.DEVELOPER);
-        when(preferenceRepository.findByClient_IdAndAlertCategory(
-                        eq(id), eq(AdminEmailAlertCategory.BOX_HEARTBEAT_CONNECTIVITY.name())))
-                .thenReturn(Optional.empty());
-        when(clientRepository.findById(id)).thenReturn(Optional.of(developer));
-
-        assertThat(service.wantsEmail(id, AdminEmailAlertCategory.BOX_HEARTBEAT_CONNECTIVITY)).isTrue();
-    }
-
-    @Test
-    void wantsEmail_trueWhenEnabledRow() {
-        UUID id = UUID.randomUUID();
-        AdminEmailAlertPreference row = new AdminEmailAlertPreference();
-        row.setEnabled(true);
-        when(preferenceRepository.findByClient_IdAndAlertCategory(
-                        eq(id), eq(AdminEmailAlertCategory.BOX_HEARTBEAT_CONNECTIVITY.name())))
-                .thenReturn(Optional.of(row));
+        when(snapshot.wantsEmail(id, AdminEmailAlertCategory.HOST_REBOOT)).thenReturn(true);
 
-        assertThat(service.wantsEmail(id, AdminEmailAlertCategory.BOX_HEARTBEAT_CONNECTIVITY)).isTrue();
+        assertThat(service.wantsEmail(id, AdminEmailAlertCategory.HOST_REBOOT)).isTrue();
+        verifyNoInteractions(preferenceRepository, clientRepository);
     }
 
     @Test
@@ -126,6 +97,7 @@ class AdminEmailAlertPreferenceServiceImplTest {
         service.replacePreferencesForAdmin(targetId, map);
 
         verify(preferenceRepository).deleteByClient_Id(targetId);
+        verify(snapshot).invalidate();
         verify(preferenceRepository).save(org.mockito.ArgumentMatchers.argThat(
                 (AdminEmailAlertPreference p) ->
                         AdminEmailAlertCategory.HOST_REBOOT.name().equals(p.getAlertCategory())
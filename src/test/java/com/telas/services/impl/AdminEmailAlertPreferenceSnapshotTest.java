@@ -0,0 +1,151 @@
+package com.telas.services.impl;
+
+import com.telas.dtos.NotificationRecipientDto;
+import com.telas.enums.AdminEmailAlertCategory;
+import com.telas.enums.Role;
+import com.telas.repositories.AdminEmailAlertPreferenceRepository;
+import com.telas.repositories.ClientRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AdminEmailAlertPreferenceSnapshotTest {
+
+    @Mock private AdminEmailAlertPreferenceRepository preferenceRepository;
+    @Mock private ClientRepository clientRepository;
+    @Mock private JdbcTemplate jdbcTemplate;
+
+    private AdminEmailAlertPreferenceSnapshot snapshot;
+
+    private final UUID admin = UUID.randomUUID();
+    private final UUID developer = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        snapshot =
+                new AdminEmailAlertPreferenceSnapshot(
+                        preferenceRepository, clientRepository, jdbcTemplate, new SimpleMeterRegistry());
+        when(jdbcTemplate.queryForObject(anyString(), eq(String.class))).thenReturn("v1");
+        when(clientRepository.findAdminAndDeveloperContacts())
+                .thenReturn(List.of(contact(admin, Role.ADMIN, "admin@example.com"),
+                        contact(developer, Role.DEVELOPER, "dev@example.com")));
+        when(preferenceRepository.findAllRows())
+                .thenReturn(List.of(preference(admin, AdminEmailAlertCategory.BOX_HEARTBEAT_CONNECTIVITY, true),
+                        preference(developer, AdminEmailAlertCategory.HOST_REBOOT, false)));
+    }
+
+    @Test
+    void wantsEmail_storedPreferenceWinsOtherwiseOnlyDevelopers() {
+        assertThat(snapshot.wantsEmail(admin, AdminEmailAlertCategory.BOX_HEARTBEAT_CONNECTIVITY)).isTrue();
+        assertThat(snapshot.wantsEmail(admin, AdminEmailAlertCategory.HOST_REBOOT)).isFalse();
+        assertThat(snapshot.wantsEmail(developer, AdminEmailAlertCategory.BOX_HEARTBEAT_CONNECTIVITY)).isTrue();
+        assertThat(snapshot.wantsEmail(developer, AdminEmailAlertCategory.HOST_REBOOT)).isFalse();
+        assertThat(snapshot.wantsEmail(UUID.randomUUID(), AdminEmailAlertCategory.HOST_REBOOT)).isFalse();
+
+        verify(preferenceRepository, times(1)).findAllRows();
+    }
+
+    @Test
+    void recipientsFor_resolvesSendEmailPerCategory() {
+        assertThat(snapshot.recipientsFor(AdminEmailAlertCategory.HOST_REBOOT))
+                .extracting(NotificationRecipientDto::sendEmail)
+                .containsExactly(false, false);
+        assertThat(snapshot.recipientsFor(AdminEmailAlertCategory.SMART_PLUG_RELAY_OFF))
+                .extracting(NotificationRecipientDto::email, NotificationRecipientDto::sendEmail)
+                .containsExactly(
+                        org.assertj.core.groups.Tuple.tuple("admin@example.com", false),
+                        org.assertj.core.groups.Tuple.tuple("dev@example.com", true));
+        assertThat(snapshot.recipientsFor(null)).noneMatch(NotificationRecipientDto::sendEmail);
+    }
+
+    @Test
+    void recipientsFor_keepsAdminsWithoutContactForInAppOnly() {
+        UUID noContact = UUID.randomUUID();
+        when(clientRepository.findAdminAndDeveloperContacts())
+                .thenReturn(List.of(contact(admin, Role.ADMIN, "admin@example.com"),
+                        contact(noContact, Role.DEVELOPER, null)));
+
+        assertThat(snapshot.recipientsFor(AdminEmailAlertCategory.SMART_PLUG_RELAY_OFF))
+                .extracting(NotificationRecipientDto::clientId, NotificationRecipientDto::sendEmail)
+                .containsExactly(
+                        org.assertj.core.groups.Tuple.tuple(admin, false),
+                        org.assertj.core.groups.Tuple.tuple(noContact, false));
+    }
+
+    @Test
+    void checkVersion_reloadsOnlyWhenDatabaseVersionChanges() {
+        snapshot.wantsEmail(admin, AdminEmailAlertCategory.HOST_REBOOT);
+
+        snapshot.checkVersion();
+        snapshot.wantsEmail(admin, AdminEmailAlertCategory.HOST_REBOOT);
+        verify(preferenceRepository, times(1)).findAllRows();
+
+        when(jdbcTemplate.queryForObject(anyString(), eq(String.class))).thenReturn("v2");
+        snapshot.checkVersion();
+        snapshot.wantsEmail(admin, AdminEmailAlertCategory.HOST_REBOOT);
+        verify(preferenceRepository, times(2)).findAllRows();
+    }
+
+    @Test
+    void invalidate_forcesReloadOnNextRead() {
+        snapshot.wantsEmail(admin, AdminEmailAlertCategory.HOST_REBOOT);
+        snapshot.invalidate();
+        snapshot.wantsEmail(admin, AdminEmailAlertCategory.HOST_REBOOT);
+
+        verify(preferenceRepository, times(2)).findAllRows();
+    }
+
+    private static ClientRepository.AdminContactRow contact(UUID id, Role role, String email) {
+        return new ClientRepository.AdminContactRow() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public Role getRole() {
+                return role;
+            }
+
+            @Override
+            public String getEmail() {
+                return email;
+            }
+        };
+    }
+
+    private static AdminEmailAlertPreferenceRepository.PreferenceRow preference(
+            UUID clientId, AdminEmailAlertCategory category, boolean enabled) {
+        return new AdminEmailAlertPreferenceRepository.PreferenceRow() {
+            @Override
+            public UUID getClientId() {
+                return clientId;
+            }
+
+            @Override
+            public String getAlertCategory() {
+                return category.name();
+            }
+
+            @Override
+            public Boolean getEnabled() {
+                return enabled;
+            }
+        };
+    }
+}
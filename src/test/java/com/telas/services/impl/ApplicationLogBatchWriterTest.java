@@ -0,0 +1,84 @@
+package com.telas.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.telas.monitoring.entities.ApplicationLogEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@ExtendWith(MockitoExtension.class)
+class ApplicationLogBatchWriterTest {
+
+    @Mock private JdbcTemplate jdbcTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ApplicationLogBatchWriter writer;
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null) {
+            writer.shutdown();
+        }
+    }
+
+    @Test
+    void enqueue_dropOldest_keepsQueueBoundedAndCountsDrops() {
+        writer = newWriter(2, "DROP_OLDEST");
+
+        writer.enqueue(entry("a"));
+        writer.enqueue(entry("b"));
+        writer.enqueue(entry("c"));
+
+        assertThat(writer.remainingCapacity()).isZero();
+        assertThat(meterRegistry.get("application_logs.writer.dropped").tag("reason", "overflow").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void start_flushesQueuedEntriesInOneMultiRowInsert() throws InterruptedException {
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        CountDownLatch flushed = new CountDownLatch(1);
+        doAnswer(inv -> {
+            String sql = inv.getArgument(0);
+            batchSizes.add(sql.split("CAST\\(\\? AS jsonb\\)", -1).length - 1);
+            flushed.countDown();
+            return 2;
+        }).when(jdbcTemplate).update(anyString(), any(PreparedStatementSetter.class));
+        writer = newWriter(100, "DROP_OLDEST");
+        writer.enqueue(entry("a"));
+        writer.enqueue(entry("b"));
+
+        writer.start();
+
+        assertThat(flushed.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(batchSizes).containsExactly(2);
+    }
+
+    private ApplicationLogBatchWriter newWriter(int capacity, String policy) {
+        return new ApplicationLogBatchWriter(
+                jdbcTemplate, new ObjectMapper(), meterRegistry, capacity, 50, 100, policy, 0, 0.8, 10, 1000);
+    }
+
+    private static ApplicationLogEntity entry(String message) {
+        ApplicationLogEntity e = new ApplicationLogEntity();
+        e.setLevel("INFO");
+        e.setSource("API");
+        e.setMessage(message);
+        return e;
+    }
+}
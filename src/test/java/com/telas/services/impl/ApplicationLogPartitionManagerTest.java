@@ -0,0 +1,55 @@
+package com.telas.services.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ApplicationLogPartitionManagerTest {
+
+    @Mock private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks private ApplicationLogPartitionManager manager;
+
+    @Test
+    void ensurePartitions_createsOnlyMissingDaysWithUtcBounds() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class)))
+                .thenReturn(List.of("application_logs_default", "application_logs_p20261018"));
+
+        int created = manager.ensurePartitions(LocalDate.of(2026, 10, 18), 1);
+
+        assertThat(created).isEqualTo(1);
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS monitoring.application_logs_p20261019"
+                + " PARTITION OF monitoring.application_logs"
+                + " FOR VALUES FROM ('2026-10-19T00:00:00Z') TO ('2026-10-20T00:00:00Z')");
+    }
+
+    @Test
+    void dropPartitionsBefore_dropsOnlyWholeDaysBeforeCutoffAndNeverTheDefault() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(List.of(
+                "application_logs_default",
+                "application_logs_p20260818",
+                "application_logs_p20260819",
+                "application_logs_p20260820"));
+
+        int dropped = manager.dropPartitionsBefore(LocalDate.of(2026, 8, 20));
+
+        assertThat(dropped).isEqualTo(2);
+        verify(jdbcTemplate).execute("DROP TABLE IF EXISTS monitoring.application_logs_p20260818");
+        verify(jdbcTemplate).execute("DROP TABLE IF EXISTS monitoring.application_logs_p20260819");
+        verify(jdbcTemplate, times(2)).execute(anyString());
+    }
+}
@@ -0,0 +1,130 @@
+package com.telas.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.telas.dtos.request.filters.ApplicationLogFilterRequestDto;
+import com.telas.dtos.response.ApplicationLogPageResponseDto;
+import com.telas.infra.exceptions.InvalidQueryParamsException;
+import com.telas.monitoring.entities.ApplicationLogEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ApplicationLogQueryServiceImplTest {
+
+    @Mock private JdbcTemplate jdbcTemplate;
+
+    private ApplicationLogQueryServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ApplicationLogQueryServiceImpl(jdbcTemplate, new ObjectMapper(), 1000);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void search_usesIndexedPredicatesAndReturnsCursorWhenMoreRowsExist() {
+        List<ApplicationLogEntity> rows = new ArrayList<>(List.of(log(30), log(20), log(10)));
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        when(jdbcTemplate.query(sql.capture(), any(RowMapper.class), any(Object[].class))).thenReturn(rows);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), any(Object[].class))).thenReturn(3L);
+        ApplicationLogFilterRequestDto request = new ApplicationLogFilterRequestDto();
+        request.setQ("timeout");
+        request.setMetadata(List.of("boxAddress=100.64.0.1"));
+        request.setSize(2);
+
+        ApplicationLogPageResponseDto page = service.search(request);
+
+        assertThat(sql.getValue())
+                .contains("e.search_tsv @@ websearch_to_tsquery('simple', ?) OR e.message ILIKE ?")
+                .contains("e.metadata_json @> CAST(? AS jsonb)")
+                .contains("ORDER BY e.created_at DESC, e.id DESC LIMIT ?")
+                .doesNotContain("OFFSET");
+        assertThat(page.getList()).hasSize(2);
+        assertThat(page.getNextCursor()).isEqualTo(ApplicationLogQueryServiceImpl.encodeCursor(rows.get(1)));
+        assertThat(page.getTotalRecords()).isEqualTo(3L);
+        assertThat(page.isTotalIsEstimate()).isFalse();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void search_matchesNumericAndBooleanMetadataByJsonTypeOrText() {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        when(jdbcTemplate.query(sql.capture(), any(RowMapper.class), args.capture())).thenReturn(List.of());
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), any(Object[].class))).thenReturn(0L);
+        ApplicationLogFilterRequestDto request = new ApplicationLogFilterRequestDto();
+        request.setMetadata(List.of("status=500", "retried=true", "boxAddress=100.64.0.1", "code=12 abc"));
+
+        service.search(request);
+
+        assertThat(sql.getValue())
+                .contains("(e.metadata_json @> CAST(? AS jsonb) OR e.metadata_json @> CAST(? AS jsonb))");
+        assertThat(args.getValue()).contains(
+                "{\"status\":500}", "{\"status\":\"500\"}",
+                "{\"retried\":true}", "{\"retried\":\"true\"}",
+                "{\"boxAddress\":\"100.64.0.1\",\"code\":\"12 abc\"}");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void search_withCursorAddsKeysetPredicateAndEstimatesLargeTotals() {
+        ApplicationLogEntity last = log(10);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), args.capture())).thenReturn(List.of());
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), any(Object[].class))).thenReturn(1001L);
+        when(jdbcTemplate.queryForObject(anyString(), eq(String.class), any(Object[].class)))
+                .thenReturn("[{\"Plan\": {\"Plan Rows\": 52000}}]");
+        ApplicationLogFilterRequestDto request = new ApplicationLogFilterRequestDto();
+        request.setCursor(ApplicationLogQueryServiceImpl.encodeCursor(last));
+
+        ApplicationLogPageResponseDto page = service.search(request);
+
+        verify(jdbcTemplate).query(
+                eq("SELECT e.id, e.created_at, e.level, e.message, e.source, e.correlation_id, e.stack_trace, e.endpoint, "
+                        + "e.client_id, CAST(e.metadata_json AS TEXT) AS metadata_json FROM monitoring.application_logs e "
+                        + "WHERE 1 = 1 AND (e.created_at, e.id) < (?, ?) ORDER BY e.created_at DESC, e.id DESC LIMIT ?"),
+                any(RowMapper.class),
+                any(Object[].class));
+        assertThat(args.getValue()[1]).isEqualTo(last.getId());
+        assertThat(page.getNextCursor()).isNull();
+        assertThat(page.getTotalRecords()).isEqualTo(52000L);
+        assertThat(page.isTotalIsEstimate()).isTrue();
+    }
+
+    @Test
+    void search_rejectsMalformedCursor() {
+        ApplicationLogFilterRequestDto request = new ApplicationLogFilterRequestDto();
+        request.setCursor("not-a-cursor");
+
+        assertThatThrownBy(() -> service.search(request)).isInstanceOf(InvalidQueryParamsException.class);
+    }
+
+    private static ApplicationLogEntity log(long minutesAgo) {
+        ApplicationLogEntity entity = new ApplicationLogEntity();
+        entity.setId(UUID.randomUUID());
+        entity.setCreatedAt(Instant.parse("2026-10-18T12:00:00Z").minusSeconds(minutesAgo * 60));
+        entity.setLevel("ERROR");
+        entity.setSource("BOX");
+        entity.setMessage("player timeout");
+        return entity;
+    }
+}
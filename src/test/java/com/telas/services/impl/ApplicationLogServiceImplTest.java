@@ -0,0 +1,114 @@
+package com.telas.services.impl;
+
+import com.telas.dtos.request.BoxLogBatchRequestDto;
+import com.telas.dtos.request.BoxLogRequestDto;
+import com.telas.infra.exceptions.TooManyRequestsException;
+import com.telas.monitoring.entities.ApplicationLogEntity;
+import com.telas.repositories.BoxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ApplicationLogServiceImplTest {
+
+    @Mock private ApplicationLogBatchWriter applicationLogBatchWriter;
+    @Mock private BoxRepository boxRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ApplicationLogServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ApplicationLogServiceImpl(applicationLogBatchWriter, meterRegistry, boxRepository);
+        ReflectionTestUtils.setField(service, "bulkRejectFillRatio", 0.8);
+        ReflectionTestUtils.setField(service, "bulkRetryAfterSeconds", 10L);
+        ReflectionTestUtils.setField(service, "retentionDays", 60L);
+    }
+
+    @Test
+    void persistBoxLogBatch_enqueuesEntriesWithClientTimestampsAndCountsEntries() {
+        when(applicationLogBatchWriter.fillRatio()).thenReturn(0.1);
+        when(applicationLogBatchWriter.remainingCapacity()).thenReturn(100);
+        UUID boxId = UUID.randomUUID();
+        when(boxRepository.findIdsByAddress("10.0.0.7")).thenReturn(List.of(boxId));
+        Instant past = Instant.now().minusSeconds(3600);
+        Instant future = Instant.now().plusSeconds(3600);
+        Instant beforeRetention = Instant.now().minus(Duration.ofDays(61));
+
+        service.persistBoxLogBatch(batch("10.0.0.7", entry("info", past), entry("bogus", future), entry("warn", beforeRetention)));
+
+        ArgumentCaptor<ApplicationLogEntity> captor = ArgumentCaptor.forClass(ApplicationLogEntity.class);
+        verify(applicationLogBatchWriter, times(3)).enqueue(captor.capture());
+        ApplicationLogEntity first = captor.getAllValues().get(0);
+        ApplicationLogEntity second = captor.getAllValues().get(1);
+        ApplicationLogEntity third = captor.getAllValues().get(2);
+        assertThat(first.getCreatedAt()).isEqualTo(past);
+        assertThat(first.getLevel()).isEqualTo("INFO");
+        assertThat(first.getMetadataJson()).containsEntry("boxAddress", "10.0.0.7");
+        assertThat(second.getCreatedAt()).isBefore(future);
+        assertThat(second.getLevel()).isEqualTo("ERROR");
+        assertThat(third.getCreatedAt()).isAfter(beforeRetention.plus(Duration.ofDays(1)));
+        assertThat(meterRegistry.get("box.logs.ingested").tag("box", boxId.toString()).counter().count()).isEqualTo(3.0);
+    }
+
+    @Test
+    void persistBoxLogBatch_tagsUnregisteredAddressesAsUnknownAndCachesTheLookup() {
+        when(applicationLogBatchWriter.fillRatio()).thenReturn(0.1);
+        when(applicationLogBatchWriter.remainingCapacity()).thenReturn(100);
+        when(boxRepository.findIdsByAddress("203.0.113.9")).thenReturn(List.of());
+
+        service.persistBoxLogBatch(batch("203.0.113.9", entry("info", null)));
+        service.persistBoxLogBatch(batch("203.0.113.9", entry("info", null)));
+
+        assertThat(meterRegistry.get("box.logs.ingested").tag("box", "unknown").counter().count()).isEqualTo(2.0);
+        verify(boxRepository, times(1)).findIdsByAddress("203.0.113.9");
+    }
+
+    @Test
+    void persistBoxLogBatch_rejectsWholeBatchWhenWriterIsBehind() {
+        when(applicationLogBatchWriter.fillRatio()).thenReturn(0.9);
+        when(boxRepository.findIdsByAddress("10.0.0.7")).thenReturn(List.of());
+
+        assertThatThrownBy(() -> service.persistBoxLogBatch(batch("10.0.0.7", entry("info", null))))
+                .isInstanceOf(TooManyRequestsException.class)
+                .extracting("retryAfterSeconds")
+                .isEqualTo(10L);
+
+        verify(applicationLogBatchWriter, never()).enqueue(any());
+        assertThat(meterRegistry.get("box.logs.ingest.rejected").counter().count()).isEqualTo(1.0);
+    }
+
+    private static BoxLogBatchRequestDto batch(String boxAddress, BoxLogRequestDto... entries) {
+        BoxLogBatchRequestDto dto = new BoxLogBatchRequestDto();
+        dto.setBoxAddress(boxAddress);
+        dto.setEntries(List.of(entries));
+        return dto;
+    }
+
+    private static BoxLogRequestDto entry(String level, Instant at) {
+        BoxLogRequestDto dto = new BoxLogRequestDto();
+        dto.setLevel(level);
+        dto.setMessage("player restarted");
+        dto.setAt(at);
+        return dto;
+    }
+}
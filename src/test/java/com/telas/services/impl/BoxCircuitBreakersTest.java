@@ -0,0 +1,55 @@
+package com.telas.services.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoxCircuitBreakersTest {
+
+    private static final String BOX = "http://10.0.0.1:8081/";
+
+    private final Instant t0 = Instant.parse("2026-01-01T00:00:00Z");
+
+    private BoxCircuitBreakers breakers;
+
+    @BeforeEach
+    void setUp() {
+        breakers = new BoxCircuitBreakers(new SimpleMeterRegistry(), 3, 60_000L, 900_000L);
+        breakers.registerMetrics();
+    }
+
+    @Test
+    void opensAfterThresholdAndAllowsSingleProbeAfterOpenPeriod() {
+        breakers.onFailure(BOX, t0);
+        breakers.onFailure(BOX, t0);
+        assertThat(breakers.tryAcquire(BOX, t0)).isTrue();
+
+        breakers.onFailure(BOX, t0);
+
+        assertThat(breakers.tryAcquire(BOX, t0.plusSeconds(59))).isFalse();
+        assertThat(breakers.retryAt(BOX)).isEqualTo(t0.plusSeconds(60));
+        assertThat(breakers.tryAcquire(BOX, t0.plusSeconds(61))).isTrue();
+        assertThat(breakers.tryAcquire(BOX, t0.plusSeconds(61))).isFalse();
+    }
+
+    @Test
+    void failedProbeDoublesOpenPeriodAndSuccessCloses() {
+        for (int i = 0; i < 3; i++) {
+            breakers.onFailure(BOX, t0);
+        }
+        breakers.tryAcquire(BOX, t0.plusSeconds(61));
+        breakers.onFailure(BOX, t0.plusSeconds(61));
+
+        assertThat(breakers.retryAt(BOX)).isEqualTo(t0.plusSeconds(181));
+
+        breakers.tryAcquire(BOX, t0.plusSeconds(200));
+        breakers.onSuccess(BOX);
+
+        assertThat(breakers.retryAt(BOX)).isNull();
+        assertThat(breakers.tryAcquire(BOX, t0.plusSeconds(200))).isTrue();
+    }
+}
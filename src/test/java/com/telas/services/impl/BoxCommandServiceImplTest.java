@@ -0,0 +1,68 @@
+package com.telas.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.telas.services.BoxCommandService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BoxCommandServiceImplTest {
+
+    private static final String BOX = "http://10.0.0.1:8081/";
+
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private BoxCommandWorker worker;
+
+    private SimpleMeterRegistry meterRegistry;
+    private BoxCommandServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new BoxCommandServiceImpl(jdbcTemplate, new ObjectMapper(), worker, meterRegistry);
+    }
+
+    @Test
+    void enqueueUpdateAds_insertsPlaylistWithoutNotifyWhenNothingToAnnounce() {
+        when(jdbcTemplate.queryForList(startsWith("UPDATE public.box_commands SET status = 'SUPERSEDED'"),
+                eq(String.class), eq(BOX))).thenReturn(List.of());
+
+        service.enqueueUpdateAds(BOX, List.of());
+
+        verify(jdbcTemplate).update(startsWith("INSERT INTO public.box_commands"),
+                eq(BOX), eq("UPDATE_ADS"), eq("[]"), isNull());
+        verify(worker).wakeUp();
+        assertThat(meterRegistry.counter("box.commands.superseded").count()).isZero();
+    }
+
+    @Test
+    void enqueueUpdateAds_supersedesPendingUpdateAndCarriesItsNotifications() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        BoxCommandService.PushedAd earlier = new BoxCommandService.PushedAd(UUID.randomUUID(), UUID.randomUUID());
+        BoxCommandService.PushedAd current = new BoxCommandService.PushedAd(UUID.randomUUID(), UUID.randomUUID());
+        when(jdbcTemplate.queryForList(startsWith("UPDATE public.box_commands SET status = 'SUPERSEDED'"),
+                eq(String.class), eq(BOX))).thenReturn(Arrays.asList(mapper.writeValueAsString(List.of(earlier)), null));
+
+        service.enqueueUpdateAds(BOX, List.of(), List.of(current));
+
+        verify(jdbcTemplate).update(startsWith("INSERT INTO public.box_commands"),
+                eq(BOX), eq("UPDATE_ADS"), eq("[]"), eq(mapper.writeValueAsString(List.of(current, earlier))));
+        assertThat(meterRegistry.counter("box.commands.superseded").count()).isEqualTo(2.0);
+    }
+}
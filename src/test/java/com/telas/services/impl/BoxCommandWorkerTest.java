@@ -0,0 +1,161 @@
+package com.telas.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.telas.helpers.BoxAdPushNotificationHelper;
+import com.telas.services.BoxCommandService;
+import com.telas.shared.utils.HttpClientUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BoxCommandWorkerTest {
+
+    private static final String BOX = "http://10.0.0.1:8081/";
+
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private HttpClientUtil httpClient;
+    @Mock private BoxAdPushNotificationHelper boxAdPushNotificationHelper;
+
+    private SimpleMeterRegistry meterRegistry;
+    private BoxCircuitBreakers breakers;
+    private BoxCommandWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        breakers = new BoxCircuitBreakers(meterRegistry, 1, 60_000L, 900_000L);
+        breakers.registerMetrics();
+        worker =
+                new BoxCommandWorker(
+                        jdbcTemplate, httpClient, breakers, new ObjectMapper(), meterRegistry,
+                        boxAdPushNotificationHelper, false, 1, 5, 1000L, 2000L, 3, 1000L, 60_000L, 7);
+        org.springframework.test.util.ReflectionTestUtils.setField(worker, "API_KEY", "key");
+        worker.start();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void drainOnce_postsClaimedCommandWithTimeoutAndMarksSent() {
+        when(jdbcTemplate.query(startsWith("UPDATE public.box_commands c SET status = 'SENDING'"),
+                any(RowMapper.class), any(), eq(5)))
+                .thenReturn(List.of(row(1)));
+
+        assertThat(worker.drainOnce()).isEqualTo(1);
+
+        verify(httpClient).makePostRequest(eq(BOX + "remove-ads"), any(), eq(Void.class), isNull(), anyMap(),
+                eq(Duration.ofMillis(2000L)));
+        verify(jdbcTemplate).update(startsWith("UPDATE public.box_commands SET status = 'SENT'"), any(), eq(1L));
+        assertThat(meterRegistry.counter("box.commands.sent").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void drainOnce_notifiesPushedAdsOnlyAfterPlaylistIsDelivered() {
+        UUID monitorId = UUID.randomUUID();
+        UUID adId = UUID.randomUUID();
+        BoxCommandWorker.CommandRow playlist = new BoxCommandWorker.CommandRow(1L, BOX,
+                BoxCommandWorker.BoxCommand.UPDATE_ADS, "[]",
+                "[{\"monitorId\":\"" + monitorId + "\",\"adId\":\"" + adId + "\"}]",
+                0, Instant.now().minusSeconds(5));
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(), eq(5)))
+                .thenReturn(List.of(playlist), List.of(playlist));
+        doThrow(new IllegalStateException("connect timed out")).doNothing()
+                .when(httpClient).makePostRequest(anyString(), any(), any(), any(), anyMap(), any(Duration.class));
+
+        worker.drainOnce();
+        verify(boxAdPushNotificationHelper, never()).notifyAfterDelivery(any());
+
+        breakers.onSuccess(BOX);
+        worker.drainOnce();
+        verify(boxAdPushNotificationHelper).notifyAfterDelivery(List.of(new BoxCommandService.PushedAd(monitorId, adId)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void drainOnce_failureReschedulesAndOpenCircuitDefersWithoutCallingBox() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(), eq(5)))
+                .thenReturn(List.of(row(1)), List.of(row(2)));
+        doThrow(new IllegalStateException("connect timed out"))
+                .when(httpClient).makePostRequest(anyString(), any(), any(), any(), anyMap(), any(Duration.class));
+
+        worker.drainOnce();
+        worker.drainOnce();
+
+        verify(jdbcTemplate).update(startsWith("UPDATE public.box_commands SET status = ?"), eq("PENDING"), any(),
+                anyString(), eq(1L));
+        verify(jdbcTemplate).update(startsWith("UPDATE public.box_commands SET status = 'PENDING', attempts = attempts - 1"),
+                any(), eq(1L));
+        assertThat(meterRegistry.counter("box.commands.retried").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("box.commands.deferred").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void drainOnce_marksExhaustedCommandAsFailed() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(), eq(5))).thenReturn(List.of(row(3)));
+        doThrow(new IllegalStateException("boom"))
+                .when(httpClient).makePostRequest(anyString(), any(), any(), any(), anyMap(), any(Duration.class));
+
+        worker.drainOnce();
+
+        verify(jdbcTemplate).update(startsWith("UPDATE public.box_commands SET status = ?"), eq("FAILED"), any(),
+                anyString(), eq(1L));
+        verify(jdbcTemplate, never()).update(startsWith("UPDATE public.box_commands SET status = 'SENT'"), any(), any());
+        assertThat(meterRegistry.counter("box.commands.failed").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void drainOnce_exhaustedPlaylistAlertsAdminsInsteadOfDeployNotification() {
+        UUID monitorId = UUID.randomUUID();
+        UUID adId = UUID.randomUUID();
+        BoxCommandWorker.CommandRow playlist = new BoxCommandWorker.CommandRow(1L, BOX,
+                BoxCommandWorker.BoxCommand.UPDATE_ADS, "[]",
+                "[{\"monitorId\":\"" + monitorId + "\",\"adId\":\"" + adId + "\"}]",
+                3, Instant.now().minusSeconds(5));
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(), eq(5))).thenReturn(List.of(playlist));
+        doThrow(new IllegalStateException("boom"))
+                .when(httpClient).makePostRequest(anyString(), any(), any(), any(), anyMap(), any(Duration.class));
+
+        worker.drainOnce();
+
+        verify(boxAdPushNotificationHelper).notifyDeliveryFailed(List.of(new BoxCommandService.PushedAd(monitorId, adId)));
+        verify(boxAdPushNotificationHelper, never()).notifyAfterDelivery(any());
+    }
+
+    @Test
+    void refreshStats_purgesFailedCommandsToo() {
+        worker.refreshStats();
+
+        verify(jdbcTemplate).update(contains("'FAILED'"), any(Object[].class));
+    }
+
+    private static BoxCommandWorker.CommandRow row(int attempts) {
+        return new BoxCommandWorker.CommandRow(1L, BOX, BoxCommandWorker.BoxCommand.REMOVE_ADS,
+                "{\"fileNames\":[\"ad.mp4\"]}", null, attempts, Instant.now().minusSeconds(5));
+    }
+}
@@ -0,0 +1,69 @@
+package com.telas.services.impl;
+
+import com.telas.services.BoxTailscalePingOutcome;
+import com.telas.services.BoxTailscalePingService;
+import com.telas.services.SideApiHealthCheckService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BoxConnectivityProbeEngineTest {
+
+    @Mock private BoxTailscalePingService boxTailscalePingService;
+    @Mock private SideApiHealthCheckService sideApiHealthCheckService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ExecutorService executor;
+    private BoxConnectivityProbeEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        engine = new BoxConnectivityProbeEngine(boxTailscalePingService, sideApiHealthCheckService, executor, meterRegistry);
+        ReflectionTestUtils.setField(engine, "cycleTimeoutMs", 300L);
+        ReflectionTestUtils.setField(engine, "sideApiEnabled", true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void probeAll_marksSlowBoxesAsDeadlineExceededWithoutWaitingForThem() {
+        BoxConnectivityProbeEngine.ProbeTarget fast = new BoxConnectivityProbeEngine.ProbeTarget(UUID.randomUUID(), "10.0.0.1", true);
+        BoxConnectivityProbeEngine.ProbeTarget slow = new BoxConnectivityProbeEngine.ProbeTarget(UUID.randomUUID(), "10.0.0.2", true);
+        when(boxTailscalePingService.pingBoxAddressIp("10.0.0.1")).thenReturn(BoxTailscalePingOutcome.attempted(true, "tcp_connect_ok:8081"));
+        when(boxTailscalePingService.pingBoxAddressIp("10.0.0.2")).thenAnswer(inv -> {
+            Thread.sleep(5_000);
+            return BoxTailscalePingOutcome.attempted(true, "late");
+        });
+        when(sideApiHealthCheckService.check("10.0.0.1")).thenReturn(SideApiHealthCheckService.SideApiHealthOutcome.up(200));
+
+        long start = System.currentTimeMillis();
+        List<BoxConnectivityProbeEngine.ProbeResult> results = engine.probeAll(List.of(fast, slow));
+
+        assertThat(System.currentTimeMillis() - start).isLessThan(3_000);
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0).reachable()).isTrue();
+        assertThat(results.get(0).sideApi().up()).isTrue();
+        assertThat(results.get(1).timedOut()).isTrue();
+        assertThat(results.get(1).reachable()).isFalse();
+        assertThat(results.get(1).outcome().detail()).isEqualTo(BoxConnectivityProbeEngine.DEADLINE_EXCEEDED);
+        assertThat(meterRegistry.get("box_connectivity_probe.timeouts").counter().count()).isEqualTo(1.0);
+    }
+}
@@ -0,0 +1,125 @@
+package com.telas.services.impl;
+
+import com.telas.dtos.request.HeartbeatRequestDto;
+import com.telas.dtos.response.HeartbeatBatchResponseDto;
+import com.telas.entities.Box;
+import com.telas.entities.BoxAddress;
+import com.telas.repositories.BoxRepository;
+import com.telas.services.HeartbeatRebootIncidentService;
+import com.telas.services.HeartbeatRecoveryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BoxHeartbeatServiceImplTest {
+
+    @Mock private BoxRepository boxRepository;
+    @Mock private BoxHeartbeatWriteBuffer boxHeartbeatWriteBuffer;
+    @Mock private StaleHeartbeatDetector staleHeartbeatDetector;
+    @Mock private HeartbeatRebootIncidentService heartbeatRebootIncidentService;
+    @Mock private HeartbeatRecoveryService heartbeatRecoveryService;
+
+    private BoxHeartbeatServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new BoxHeartbeatServiceImpl(
+                boxRepository, boxHeartbeatWriteBuffer, staleHeartbeatDetector,
+                heartbeatRebootIncidentService, heartbeatRecoveryService);
+        ReflectionTestUtils.setField(service, "staleSeconds", 180L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void persistHeartbeats_keepsNewestPerBoxAndRecoversOnce() {
+        Box box = box("100.64.0.1", "AA:BB:CC:DD:EE:FF");
+        Instant now = Instant.now();
+        HeartbeatRequestDto older = heartbeat("100.64.0.1", now.minusSeconds(30), Map.of("uptime", 10));
+        HeartbeatRequestDto newest = heartbeat("AA:BB:CC:DD:EE:FF", now.minusSeconds(5), Map.of("uptime", 35));
+        HeartbeatRequestDto unknown = heartbeat("100.64.0.99", null, null);
+        when(boxRepository.findAllByAddressIn(Set.of("100.64.0.1", "AA:BB:CC:DD:EE:FF", "100.64.0.99")))
+                .thenReturn(List.of(box));
+        BoxHeartbeatWriteBuffer.HeartbeatSnapshot prior =
+                new BoxHeartbeatWriteBuffer.HeartbeatSnapshot(now.minusSeconds(600), null, Map.of("uptime", 9000), false);
+        when(boxHeartbeatWriteBuffer.record(eq(box.getId()), any(), any(), eq(newest.getMetadata())))
+                .thenReturn(Optional.of(prior));
+
+        HeartbeatBatchResponseDto result = service.persistHeartbeats(List.of(newest, older, unknown));
+
+        assertThat(result.getReceived()).isEqualTo(3);
+        assertThat(result.getBoxesUpdated()).isEqualTo(1);
+        assertThat(result.getUnknownBoxAddresses()).containsExactly("100.64.0.99");
+        verify(boxHeartbeatWriteBuffer).preload(Set.of(box.getId()));
+        verify(boxHeartbeatWriteBuffer, times(1)).record(any(), any(), any(), any());
+        verify(staleHeartbeatDetector).onHeartbeat(box.getId(), newest.getAt());
+        verify(heartbeatRebootIncidentService).recordIfHostRebootDetected(box, prior.metadata(), newest.getMetadata());
+        ArgumentCaptor<Collection<Box>> recovered = ArgumentCaptor.forClass(Collection.class);
+        verify(heartbeatRecoveryService).recoverAfterSuccessfulHeartbeats(recovered.capture());
+        assertThat(recovered.getValue()).containsExactly(box);
+    }
+
+    @Test
+    void persistHeartbeats_replayOlderThanStaleWindowDoesNotRecover() {
+        Box box = box("100.64.0.1", null);
+        when(boxRepository.findAllByAddressIn(Set.of("100.64.0.1"))).thenReturn(List.of(box));
+        when(boxHeartbeatWriteBuffer.record(any(), any(), any(), any())).thenReturn(Optional.empty());
+
+        service.persistHeartbeats(List.of(heartbeat("100.64.0.1", Instant.now().minusSeconds(900), null)));
+
+        verify(heartbeatRecoveryService).recoverAfterSuccessfulHeartbeats(List.of());
+    }
+
+    @Test
+    void persistHeartbeats_replayOlderThanCurrentHeartbeatSkipsRebootDetection() {
+        Box box = box("100.64.0.1", null);
+        Instant now = Instant.now();
+        when(boxRepository.findAllByAddressIn(Set.of("100.64.0.1"))).thenReturn(List.of(box));
+        BoxHeartbeatWriteBuffer.HeartbeatSnapshot current =
+                new BoxHeartbeatWriteBuffer.HeartbeatSnapshot(now.minusSeconds(5), "2.0", Map.of("uptime", 9000), false);
+        when(boxHeartbeatWriteBuffer.record(any(), any(), any(), any())).thenReturn(Optional.of(current));
+
+        service.persistHeartbeats(List.of(heartbeat("100.64.0.1", now.minusSeconds(60), Map.of("uptime", 10))));
+
+        verify(heartbeatRebootIncidentService, never()).recordIfHostRebootDetected(any(), any(), any());
+    }
+
+    private static Box box(String ip, String mac) {
+        BoxAddress address = new BoxAddress();
+        address.setIp(ip);
+        address.setMac(mac);
+        Box box = new Box();
+        box.setId(UUID.randomUUID());
+        box.setActive(true);
+        box.setBoxAddress(address);
+        return box;
+    }
+
+    private static HeartbeatRequestDto heartbeat(String address, Instant at, Map<String, Object> metadata) {
+        HeartbeatRequestDto dto = new HeartbeatRequestDto();
+        dto.setBoxAddress(address);
+        dto.setAt(at);
+        dto.setMetadata(metadata);
+        return dto;
+    }
+}
@@ -0,0 +1,110 @@
+package com.telas.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.telas.monitoring.entities.BoxHeartbeatEntity;
+import com.telas.monitoring.repositories.BoxHeartbeatEntityRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BoxHeartbeatWriteBufferTest {
+
+    @Mock private BoxHeartbeatEntityRepository boxHeartbeatEntityRepository;
+    @Mock private JdbcTemplate jdbcTemplate;
+
+    private BoxHeartbeatWriteBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        buffer =
+                new BoxHeartbeatWriteBuffer(
+                        boxHeartbeatEntityRepository, jdbcTemplate, new ObjectMapper(), new SimpleMeterRegistry());
+        buffer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        buffer.shutdown();
+    }
+
+    @Test
+    void record_returnsPreviousFromDatabaseThenFromMemory() {
+        UUID boxId = UUID.randomUUID();
+        BoxHeartbeatEntity row = new BoxHeartbeatEntity();
+        row.setLastSeenAt(Instant.now().minusSeconds(30));
+        row.setMetadataJson(Map.of("hostUptimeSeconds", 500));
+        when(boxHeartbeatEntityRepository.findByBox_Id(boxId)).thenReturn(Optional.of(row));
+
+        Optional<BoxHeartbeatWriteBuffer.HeartbeatSnapshot> first =
+                buffer.record(boxId, Instant.now(), "1.0", Map.of("hostUptimeSeconds", 10));
+        Optional<BoxHeartbeatWriteBuffer.HeartbeatSnapshot> second =
+                buffer.record(boxId, Instant.now(), "1.0", Map.of("hostUptimeSeconds", 20));
+
+        assertThat(first).get().extracting(s -> s.metadata().get("hostUptimeSeconds")).isEqualTo(500);
+        assertThat(second).get().extracting(s -> s.metadata().get("hostUptimeSeconds")).isEqualTo(10);
+        verify(boxHeartbeatEntityRepository, times(1)).findByBox_Id(boxId);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_upsertsDirtyBoxesInOneBatchAndOnlyOnce() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        Instant seenAt = Instant.now();
+        buffer.record(a, seenAt.minusSeconds(1), null, null);
+        buffer.record(a, seenAt, "2.0", null);
+        buffer.record(b, seenAt, "2.0", null);
+
+        buffer.flush();
+        buffer.flush();
+
+        verify(jdbcTemplate, times(1))
+                .batchUpdate(anyString(), argThat((List<Object> rows) -> rows.size() == 2), anyInt(),
+                        any(ParameterizedPreparedStatementSetter.class));
+        assertThat(buffer.lastSeenAt(a)).contains(seenAt);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void record_replayOlderThanCurrentKeepsVersionAndMetadata() {
+        UUID boxId = UUID.randomUUID();
+        Instant seenAt = Instant.now();
+        buffer.record(boxId, seenAt, "2.0", Map.of("hostUptimeSeconds", 500));
+
+        Optional<BoxHeartbeatWriteBuffer.HeartbeatSnapshot> prior =
+                buffer.record(boxId, seenAt.minusSeconds(60), "1.0", Map.of("hostUptimeSeconds", 10));
+        buffer.flush();
+
+        assertThat(prior).get().matches(p -> p.isNewerThan(seenAt.minusSeconds(60)));
+        assertThat(buffer.lastSeenAt(boxId)).contains(seenAt);
+        verify(jdbcTemplate).batchUpdate(
+                argThat((String sql) -> sql.contains("CASE WHEN EXCLUDED.last_seen_at >= monitoring.box_heartbeat.last_seen_at")),
+                argThat((List<Map.Entry<UUID, BoxHeartbeatWriteBuffer.HeartbeatSnapshot>> rows) -> rows.size() == 1
+                        && "2.0".equals(rows.get(0).getValue().reportedVersion())
+                        && Integer.valueOf(500).equals(rows.get(0).getValue().metadata().get("hostUptimeSeconds"))),
+                anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+}
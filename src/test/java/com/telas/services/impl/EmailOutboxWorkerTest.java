@@ -0,0 +1,113 @@
+package com.telas.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.telas.dtos.EmailDataDto;
+import com.telas.services.EmailService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.mail.MailSendException;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EmailOutboxWorkerTest {
+
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private EmailService emailService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private EmailOutboxWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        worker =
+                new EmailOutboxWorker(
+                        jdbcTemplate, emailService, new ObjectMapper(), meterRegistry,
+                        false, 1, 20, 1000L, 60_000L, 3, 1000L, 60_000L, 14);
+        worker.start();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void drainOnce_sendsClaimedBatchInOneCallAndSplitsSentFromRetried() {
+        EmailOutboxWorker.OutboxRow ok = row(1);
+        EmailOutboxWorker.OutboxRow broken = row(1);
+        when(jdbcTemplate.query(startsWith("UPDATE public.email_outbox o SET status = 'SENDING'"),
+                any(RowMapper.class), any(), eq(20)))
+                .thenReturn(List.of(ok, broken));
+        when(emailService.sendAll(List.of(ok.data(), broken.data())))
+                .thenReturn(Map.of(1, new MailSendException("550 mailbox unavailable")));
+
+        int processed = worker.drainOnce();
+
+        assertThat(processed).isEqualTo(2);
+        verify(emailService).sendAll(argThat(batch -> batch.size() == 2));
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE public.email_outbox SET status = 'SENT'"),
+                argThat((List<Object> rows) -> rows.equals(List.of(ok))), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE public.email_outbox SET status = ?"),
+                argThat((List<Object> rows) -> rows.size() == 1), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertThat(meterRegistry.counter("email.outbox.sent").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("email.outbox.retried").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("email.outbox.failed").count()).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void drainOnce_countsExhaustedRowAsFailed() {
+        EmailOutboxWorker.OutboxRow last = row(3);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(), eq(20))).thenReturn(List.of(last));
+        when(emailService.sendAll(any())).thenThrow(new IllegalStateException("smtp down"));
+
+        worker.drainOnce();
+
+        verify(jdbcTemplate, never()).batchUpdate(startsWith("UPDATE public.email_outbox SET status = 'SENT'"),
+                any(List.class), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        assertThat(meterRegistry.counter("email.outbox.failed").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void drainOnce_returnsZeroWhenNothingIsDue() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(), eq(20))).thenReturn(List.of());
+
+        assertThat(worker.drainOnce()).isZero();
+        verify(emailService, never()).sendAll(any());
+    }
+
+    @Test
+    void backoffMs_growsExponentiallyAndIsCapped() {
+        assertThat(worker.backoffMs(1)).isBetween(1000L, 1200L);
+        assertThat(worker.backoffMs(3)).isBetween(4000L, 4800L);
+        assertThat(worker.backoffMs(30)).isBetween(60_000L, 72_000L);
+    }
+
+    private static EmailOutboxWorker.OutboxRow row(int attempts) {
+        EmailDataDto data = new EmailDataDto(UUID.randomUUID() + "@example.com", "template.ftl", "Subject", new HashMap<>());
+        return new EmailOutboxWorker.OutboxRow(UUID.randomUUID(), data, attempts, Instant.now().minusSeconds(5));
+    }
+}
@@ -7,7 +7,9 @@ import com.telas.monitoring.entities.BoxHeartbeatEntity;
 import com.telas.monitoring.repositories.BoxHeartbeatEntityRepository;
 import com.telas.repositories.BoxRepository;
 import com.telas.scheduler.SchedulerJobRunContext;
+import com.telas.services.SmartPlugCheckService;
 import com.telas.services.SmartPlugIpDiscoveryService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,12 +18,15 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -35,74 +40,87 @@ class MonitoringWorkerServiceTest {
     @Mock private SchedulerJobRunContext schedulerJobRunContext;
 
     private MonitoringWorkerService service;
+    private StaleHeartbeatDetector detector;
 
     @BeforeEach
     void setUp() {
+        detector = new StaleHeartbeatDetector(new SimpleMeterRegistry(), 180L, 600L, 300_000L);
         service = new MonitoringWorkerService(
-                boxHeartbeatEntityRepository,
-                boxRepository,
+                new MonitoringWorkerPersistence(boxHeartbeatEntityRepository, boxRepository),
+                detector,
                 kasMonitoringCheckRunner,
                 smartPlugIpDiscoveryService,
-                schedulerJobRunContext);
+                schedulerJobRunContext,
+                new SimpleMeterRegistry());
         org.springframework.test.util.ReflectionTestUtils.setField(service, "staleSeconds", 180L);
-        org.springframework.test.util.ReflectionTestUtils.setField(service, "neverSeenGraceSeconds", 600L);
         org.springframework.test.util.ReflectionTestUtils.setField(service, "kasaEnabled", false);
         org.springframework.test.util.ReflectionTestUtils.setField(service, "probeDrivesBoxActiveState", false);
     }
 
     @Test
     void runChecks_neverSeen_recordsSummaryWithoutDeactivation() {
-        Box box = new Box();
-        box.setId(UUID.randomUUID());
-        box.setActive(true);
-        BoxAddress addr = new BoxAddress();
-        addr.setIp("10.0.0.1");
-        addr.setMac("00:00:00:00:00:01");
-        box.setBoxAddress(addr);
-        when(boxRepository.findActiveBoxesWithoutHeartbeatAfterGrace(any())).thenReturn(List.of(box));
-        when(boxHeartbeatEntityRepository.findStaleHeartbeats(any())).thenReturn(List.of());
+        Box box = box("10.0.0.1", true);
+        when(boxHeartbeatEntityRepository.findLastSeenOfActiveBoxes()).thenReturn(List.of());
+        when(boxRepository.findActiveBoxesWithoutHeartbeat())
+                .thenReturn(List.of(createdRow(box.getId(), Instant.parse("2020-01-01T00:00:00Z"))));
+        when(boxHeartbeatEntityRepository.findWithBoxByBoxIdIn(Set.of(box.getId()))).thenReturn(List.of());
+        when(boxRepository.findActiveWithoutHeartbeatByIdIn(Set.of(box.getId()))).thenReturn(List.of(box));
 
         service.runChecks();
 
         verify(schedulerJobRunContext).put(eq("neverSeenHeartbeatsProcessed"), eq(0));
-        verify(schedulerJobRunContext, atLeastOnce()).put(eq("neverSeenHeartbeats"), any());
+        verify(schedulerJobRunContext).put(eq("neverSeenHeartbeats"), argThat(rows -> ((List<?>) rows).size() == 1));
     }
 
     @Test
     void runChecks_staleHeartbeat_recordsSummaryWithoutDeactivation() {
-        BoxHeartbeatEntity hb = new BoxHeartbeatEntity();
-        Box box = new Box();
-        box.setId(UUID.randomUUID());
-        box.setActive(true);
-        BoxAddress addr = new BoxAddress();
-        addr.setIp("10.0.0.2");
-        addr.setMac("00:00:00:00:00:02");
-        box.setBoxAddress(addr);
-        hb.setBox(box);
-        hb.setLastSeenAt(Instant.parse("2020-01-01T00:00:00Z"));
-
-        when(boxHeartbeatEntityRepository.findStaleHeartbeats(any())).thenReturn(List.of(hb));
-        when(boxRepository.findActiveBoxesWithoutHeartbeatAfterGrace(any())).thenReturn(List.of());
+        Box box = box("10.0.0.2", true);
+        BoxHeartbeatEntity hb = heartbeat(box, Instant.parse("2020-01-01T00:00:00Z"));
+        reconcileWithHeartbeat(hb);
+        when(boxHeartbeatEntityRepository.findWithBoxByBoxIdIn(Set.of(box.getId()))).thenReturn(List.of(hb));
 
         service.runChecks();
 
         verify(schedulerJobRunContext).put(eq("staleHeartbeatsProcessed"), eq(0));
-        verify(schedulerJobRunContext, atLeastOnce()).put(eq("staleHeartbeats"), any());
+        verify(schedulerJobRunContext).put(eq("staleHeartbeats"), argThat(rows -> ((List<?>) rows).size() == 1));
     }
 
     @Test
     void runChecks_skipsInactiveBoxForStale() {
-        BoxHeartbeatEntity hb = new BoxHeartbeatEntity();
-        Box box = new Box();
-        box.setActive(false);
-        hb.setBox(box);
+        Box box = box("10.0.0.3", false);
+        BoxHeartbeatEntity hb = heartbeat(box, Instant.parse("2020-01-01T00:00:00Z"));
+        reconcileWithHeartbeat(hb);
+        when(boxHeartbeatEntityRepository.findWithBoxByBoxIdIn(Set.of(box.getId()))).thenReturn(List.of(hb));
+
+        service.runChecks();
 
-        when(boxHeartbeatEntityRepository.findStaleHeartbeats(any())).thenReturn(List.of(hb));
-        when(boxRepository.findActiveBoxesWithoutHeartbeatAfterGrace(any())).thenReturn(List.of());
+        verify(schedulerJobRunContext).put(eq("staleHeartbeats"), eq(List.of()));
+    }
+
+    @Test
+    void runChecks_onlyChecksExpiredBoxesBetweenReconciliations() {
+        Box fresh = box("10.0.0.4", true);
+        reconcileWithHeartbeat(heartbeat(fresh, Instant.now()));
 
+        service.runChecks();
         service.runChecks();
 
-        verify(schedulerJobRunContext).put(eq("staleHeartbeatsProcessed"), eq(0));
+        verify(boxHeartbeatEntityRepository, times(1)).findLastSeenOfActiveBoxes();
+        verify(boxHeartbeatEntityRepository, never()).findWithBoxByBoxIdIn(any());
+    }
+
+    @Test
+    void runChecks_heartbeatFromAnotherInstanceReschedulesBox() {
+        Box box = box("10.0.0.5", true);
+        reconcileWithHeartbeat(heartbeat(box, Instant.parse("2020-01-01T00:00:00Z")));
+        when(boxHeartbeatEntityRepository.findWithBoxByBoxIdIn(Set.of(box.getId())))
+                .thenReturn(List.of(heartbeat(box, Instant.now())));
+
+        service.runChecks();
+        service.runChecks();
+
+        verify(boxHeartbeatEntityRepository, times(1)).findWithBoxByBoxIdIn(any());
+        verify(schedulerJobRunContext, times(2)).put(eq("staleHeartbeats"), eq(List.of()));
     }
 
     @Test
@@ -111,7 +129,73 @@ class MonitoringWorkerServiceTest {
 
         service.runChecks();
 
-        verify(boxHeartbeatEntityRepository, never()).findStaleHeartbeats(any());
-        verify(boxRepository, never()).findActiveBoxesWithoutHeartbeatAfterGrace(any());
+        verify(boxHeartbeatEntityRepository, never()).findLastSeenOfActiveBoxes();
+        verify(boxHeartbeatEntityRepository, never()).findWithBoxByBoxIdIn(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void runChecks_runsKasaInSeparateIoAndApplyPhasesAndRecordsDurations() {
+        org.springframework.test.util.ReflectionTestUtils.setField(service, "probeDrivesBoxActiveState", true);
+        org.springframework.test.util.ReflectionTestUtils.setField(service, "kasaEnabled", true);
+        org.springframework.test.util.ReflectionTestUtils.setField(service, "kasaIntervalMs", 0L);
+        SmartPlugCheckService.CheckCycle cycle =
+                new SmartPlugCheckService.CheckCycle(List.of(), new java.util.HashMap<>(), Map.of(), Instant.now(), 0L);
+        when(kasMonitoringCheckRunner.readKasa()).thenReturn(cycle);
+        when(kasMonitoringCheckRunner.applyKasa(cycle)).thenReturn(Map.of("kasaPlugsChecked", 0));
+
+        service.runChecks();
+
+        verify(kasMonitoringCheckRunner).applyKasa(cycle);
+        verify(schedulerJobRunContext).put(eq("phaseDurationsMs"),
+                argThat(phases -> ((Map<String, Long>) phases).keySet().containsAll(List.of("kasa_io", "kasa_apply"))));
+    }
+
+    private void reconcileWithHeartbeat(BoxHeartbeatEntity hb) {
+        BoxHeartbeatEntityRepository.LastSeenRow row = new BoxHeartbeatEntityRepository.LastSeenRow() {
+            @Override
+            public UUID getBoxId() {
+                return hb.getBox().getId();
+            }
+
+            @Override
+            public Instant getLastSeenAt() {
+                return hb.getLastSeenAt();
+            }
+        };
+        when(boxHeartbeatEntityRepository.findLastSeenOfActiveBoxes()).thenReturn(List.of(row));
+        when(boxRepository.findActiveBoxesWithoutHeartbeat()).thenReturn(List.of());
+    }
+
+    private static BoxRepository.BoxCreatedRow createdRow(UUID id, Instant createdAt) {
+        return new BoxRepository.BoxCreatedRow() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public Instant getCreatedAt() {
+                return createdAt;
+            }
+        };
+    }
+
+    private static Box box(String ip, boolean active) {
+        Box box = new Box();
+        box.setId(UUID.randomUUID());
+        box.setActive(active);
+        BoxAddress addr = new BoxAddress();
+        addr.setIp(ip);
+        addr.setMac("00:00:00:00:00:01");
+        box.setBoxAddress(addr);
+        return box;
+    }
+
+    private static BoxHeartbeatEntity heartbeat(Box box, Instant lastSeenAt) {
+        BoxHeartbeatEntity hb = new BoxHeartbeatEntity();
+        hb.setBox(box);
+        hb.setLastSeenAt(lastSeenAt);
+        return hb;
     }
 }
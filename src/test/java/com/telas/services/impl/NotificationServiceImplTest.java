@@ -0,0 +1,208 @@
+package com.telas.services.impl;
+
+import com.telas.dtos.EmailDataDto;
+import com.telas.dtos.IdempotentNotificationDto;
+import com.telas.dtos.NotificationFanOutDto;
+import com.telas.dtos.NotificationRecipientDto;
+import com.telas.enums.AdminEmailAlertCategory;
+import com.telas.enums.NotificationReference;
+import com.telas.enums.Permission;
+import com.telas.enums.Role;
+import com.telas.infra.security.services.AuthenticatedUserService;
+import com.telas.repositories.ClientRepository;
+import com.telas.repositories.NotificationRepository;
+import com.telas.services.AdminEmailAlertPreferenceService;
+import com.telas.services.EmailOutboxService;
+import com.telas.services.PermissionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationServiceImplTest {
+
+    @Mock private NotificationRepository repository;
+    @Mock private AuthenticatedUserService authenticatedUserService;
+    @Mock private EmailOutboxService emailOutboxService;
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private ClientRepository clientRepository;
+    @Mock private PermissionService permissionService;
+    @Mock private AdminEmailAlertPreferenceService adminEmailAlertPreferenceService;
+
+    private NotificationServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new NotificationServiceImpl(
+                repository, authenticatedUserService, emailOutboxService, jdbcTemplate, clientRepository,
+                permissionService, adminEmailAlertPreferenceService);
+        ReflectionTestUtils.setField(service, "frontBaseUrl", "https://app.example.com");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void saveAll_insertsAllNotificationsInOneBatchAndQueuesOnlyOptedInEmails() {
+        UUID admin = UUID.randomUUID();
+        UUID developer = UUID.randomUUID();
+        UUID muted = UUID.randomUUID();
+        List<NotificationRecipientDto> recipients = List.of(
+                new NotificationRecipientDto(admin, "admin@example.com", true),
+                new NotificationRecipientDto(developer, "dev@example.com", true),
+                new NotificationRecipientDto(muted, "muted@example.com", false));
+
+        service.saveAll(NotificationReference.BOX_STATUS_UPDATED, boxStatusParams(), recipients);
+
+        verify(jdbcTemplate).batchUpdate(anyString(), argThat((List<Object> rows) -> rows.size() == 3), eq(3),
+                any(ParameterizedPreparedStatementSetter.class));
+        ArgumentCaptor<Map<UUID, EmailDataDto>> emails = ArgumentCaptor.forClass(Map.class);
+        verify(emailOutboxService).enqueueAll(emails.capture());
+        assertThat(emails.getValue().values())
+                .extracting(EmailDataDto::getEmail)
+                .containsExactly("admin@example.com", "dev@example.com");
+        assertThat(emails.getValue().values())
+                .extracting(e -> e.getParams().get("clientId"))
+                .containsExactly(admin.toString(), developer.toString());
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void adminRecipientsWithPermission_skipsAdminsWithoutPermissionAndEmailsOnlyOptedInAdmins() {
+        ClientRepository.AdminContactRow granted = contact(Role.ADMIN, "granted@example.com");
+        ClientRepository.AdminContactRow denied = contact(Role.ADMIN, "denied@example.com");
+        ClientRepository.AdminContactRow developer = contact(Role.DEVELOPER, "dev@example.com");
+        when(clientRepository.findAdminAndDeveloperContacts()).thenReturn(List.of(granted, denied, developer));
+        when(permissionService.hasPermission(
+                Map.of(granted.getId(), Role.ADMIN, denied.getId(), Role.ADMIN, developer.getId(), Role.DEVELOPER),
+                Permission.ADMIN_ADS_MANAGE))
+                .thenReturn(Map.of(granted.getId(), true, denied.getId(), false, developer.getId(), true));
+        when(adminEmailAlertPreferenceService.wantsEmail(granted.getId(), AdminEmailAlertCategory.ADS_MANAGEMENT))
+                .thenReturn(true);
+
+        List<NotificationRecipientDto> recipients = service.adminRecipientsWithPermission(
+                Permission.ADMIN_ADS_MANAGE, AdminEmailAlertCategory.ADS_MANAGEMENT, true);
+
+        assertThat(recipients).containsExactly(
+                new NotificationRecipientDto(granted.getId(), "granted@example.com", true),
+                new NotificationRecipientDto(developer.getId(), "dev@example.com", false));
+        verify(permissionService, never()).hasPermission(anyCollection(), any(Permission.class));
+    }
+
+    @Test
+    void notifyAdminsWithPermission_insertsRecipientsInOneBatch() {
+        ClientRepository.AdminContactRow admin = contact(Role.ADMIN, "admin@example.com");
+        ClientRepository.AdminContactRow developer = contact(Role.DEVELOPER, "dev@example.com");
+        when(clientRepository.findAdminAndDeveloperContacts()).thenReturn(List.of(admin, developer));
+        when(permissionService.hasPermission(anyMap(), eq(Permission.ADMIN_ADS_MANAGE)))
+                .thenReturn(Map.of(admin.getId(), true, developer.getId(), true));
+        Map<String, String> params = Map.of("clientName", "Acme", "adName", "ad.mp4", "link", "https://x");
+
+        service.notifyAdminsWithPermission(NotificationReference.ADMIN_CLIENT_AD_APPROVED, params,
+                Permission.ADMIN_ADS_MANAGE, AdminEmailAlertCategory.ADS_MANAGEMENT, false);
+
+        verify(jdbcTemplate).batchUpdate(anyString(), argThat((List<Object> rows) -> rows.size() == 2), eq(2),
+                any(ParameterizedPreparedStatementSetter.class));
+        verify(repository, never()).save(any());
+        verifyNoInteractions(adminEmailAlertPreferenceService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void saveAll_writesSeveralFanOutsInASingleBatch() {
+        UUID client = UUID.randomUUID();
+        UUID admin = UUID.randomUUID();
+        Map<String, String> params = Map.of("clientName", "Acme", "adName", "ad.mp4", "link", "https://x");
+
+        service.saveAll(List.of(
+                new NotificationFanOutDto(NotificationReference.ADMIN_CLIENT_AD_APPROVED, params,
+                        List.of(new NotificationRecipientDto(client, "client@example.com", false))),
+                new NotificationFanOutDto(NotificationReference.BOX_STATUS_UPDATED, boxStatusParams(),
+                        List.of(new NotificationRecipientDto(admin, "admin@example.com", false))),
+                new NotificationFanOutDto(NotificationReference.BOX_STATUS_UPDATED, boxStatusParams(), List.of())));
+
+        verify(jdbcTemplate).batchUpdate(anyString(), argThat((List<Object> rows) -> rows.size() == 2), eq(2),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    void saveAll_withoutRecipientsDoesNothing() {
+        service.saveAll(NotificationReference.BOX_STATUS_UPDATED, boxStatusParams(), List.of());
+
+        verifyNoInteractions(jdbcTemplate, emailOutboxService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void saveAllIdempotent_queuesEmailsOnlyForNewlyInsertedKeys() {
+        UUID fresh = UUID.randomUUID();
+        UUID repeated = UUID.randomUUID();
+        Map<String, String> params = Map.of("name", "Acme", "link", "subscriptions/1", "endDate", "01/01/2026",
+                "daysRemaining", "10");
+        List<IdempotentNotificationDto> notifications = List.of(
+                new IdempotentNotificationDto("k-fresh", NotificationReference.SUBSCRIPTION_ABOUT_TO_EXPIRY_10_DAYS,
+                        fresh, "fresh@example.com", params, true),
+                new IdempotentNotificationDto("k-repeated", NotificationReference.SUBSCRIPTION_ABOUT_TO_EXPIRY_10_DAYS,
+                        repeated, "repeated@example.com", params, true));
+        when(jdbcTemplate.query(any(PreparedStatementCreator.class), any(RowMapper.class))).thenReturn(List.of("k-fresh"));
+
+        Set<String> inserted = service.saveAllIdempotent(notifications);
+
+        assertThat(inserted).containsExactly("k-fresh");
+        ArgumentCaptor<Map<UUID, EmailDataDto>> emails = ArgumentCaptor.forClass(Map.class);
+        verify(emailOutboxService).enqueueAll(emails.capture());
+        assertThat(emails.getValue().values()).extracting(EmailDataDto::getEmail).containsExactly("fresh@example.com");
+    }
+
+    private static Map<String, String> boxStatusParams() {
+        return Map.of(
+                "ip", "10.0.0.5",
+                "statusLabel", "offline",
+                "monitorAddresses", "Main St",
+                "notifiedAt", "2026-01-01 10:00",
+                "link", "/admin/boxes");
+    }
+
+    private static ClientRepository.AdminContactRow contact(Role role, String email) {
+        UUID id = UUID.randomUUID();
+        return new ClientRepository.AdminContactRow() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public Role getRole() {
+                return role;
+            }
+
+            @Override
+            public String getEmail() {
+                return email;
+            }
+        };
+    }
+}
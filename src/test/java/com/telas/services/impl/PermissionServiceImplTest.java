@@ -0,0 +1,123 @@
+package com.telas.services.impl;
+
+import com.telas.entities.Client;
+import com.telas.enums.Permission;
+import com.telas.enums.Role;
+import com.telas.repositories.ClientGrantedPermissionRepository;
+import com.telas.repositories.ClientRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PermissionServiceImplTest {
+
+    @Mock private ClientGrantedPermissionRepository clientGrantedPermissionRepository;
+    @Mock private ClientRepository clientRepository;
+
+    private PermissionServiceImpl service;
+
+    private final UUID restrictedAdmin = UUID.randomUUID();
+    private final UUID fullAdmin = UUID.randomUUID();
+    private final UUID developer = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        service =
+                new PermissionServiceImpl(
+                        clientGrantedPermissionRepository, clientRepository, new SimpleMeterRegistry(), 300L, 100L);
+    }
+
+    @Test
+    void bulkHasPermission_decidesAllClientsWithTwoQueries() {
+        when(clientGrantedPermissionRepository.findPermissionCodesByClientIds(anyCollection()))
+                .thenReturn(List.of(grant(restrictedAdmin, Permission.ADMIN_CLIENTS_DEACTIVATE.name())));
+        when(clientRepository.findRolesByIdIn(anyCollection()))
+                .thenReturn(List.of(role(restrictedAdmin, Role.ADMIN), role(fullAdmin, Role.ADMIN), role(developer, Role.DEVELOPER)));
+
+        Map<UUID, Boolean> result =
+                service.hasPermission(List.of(restrictedAdmin, fullAdmin, developer), Permission.ADMIN_ADS_MANAGE);
+
+        assertThat(result)
+                .containsEntry(restrictedAdmin, false)
+                .containsEntry(fullAdmin, true)
+                .containsEntry(developer, true);
+    }
+
+    @Test
+    void bulkHasPermission_withKnownRolesSkipsRoleLookupAndDeveloperGrants() {
+        when(clientGrantedPermissionRepository.findPermissionCodesByClientIds(anyCollection()))
+                .thenReturn(List.of(grant(restrictedAdmin, Permission.ADMIN_CLIENTS_DEACTIVATE.name())));
+
+        Map<UUID, Boolean> result = service.hasPermission(
+                Map.of(restrictedAdmin, Role.ADMIN, fullAdmin, Role.ADMIN, developer, Role.DEVELOPER),
+                Permission.ADMIN_ADS_MANAGE);
+
+        assertThat(result)
+                .containsEntry(restrictedAdmin, false)
+                .containsEntry(fullAdmin, true)
+                .containsEntry(developer, true);
+        verify(clientGrantedPermissionRepository)
+                .findPermissionCodesByClientIds(argThat(ids -> ids.size() == 2 && !ids.contains(developer)));
+        verifyNoInteractions(clientRepository);
+    }
+
+    @Test
+    void hasPermission_reusesCachedGrantsUntilEvicted() {
+        Client admin = new Client();
+        admin.setId(restrictedAdmin);
+        admin.setRole(Role.ADMIN);
+        when(clientGrantedPermissionRepository.findPermissionCodesByClientIds(anyCollection()))
+                .thenReturn(List.of(grant(restrictedAdmin, Permission.ADMIN_ADS_MANAGE.name())));
+
+        assertThat(service.hasPermission(admin, Permission.ADMIN_ADS_MANAGE)).isTrue();
+        assertThat(service.hasPermission(admin, Permission.ADMIN_CLIENTS_DEACTIVATE)).isFalse();
+        service.evictClient(restrictedAdmin);
+        service.hasPermission(admin, Permission.ADMIN_ADS_MANAGE);
+
+        verify(clientGrantedPermissionRepository, times(2)).findPermissionCodesByClientIds(anyCollection());
+    }
+
+    private static ClientGrantedPermissionRepository.ClientPermissionCodeRow grant(UUID clientId, String code) {
+        return new ClientGrantedPermissionRepository.ClientPermissionCodeRow() {
+            @Override
+            public UUID getClientId() {
+                return clientId;
+            }
+
+            @Override
+            public String getPermissionCode() {
+                return code;
+            }
+        };
+    }
+
+    private static ClientRepository.ClientRoleRow role(UUID id, Role role) {
+        return new ClientRepository.ClientRoleRow() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public Role getRole() {
+                return role;
+            }
+        };
+    }
+}
@@ -0,0 +1,49 @@
+package com.telas.services.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PresignedUrlCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PresignedUrlCache cache = new PresignedUrlCache(meterRegistry, 100, 86400);
+
+    @Test
+    void getLink_reusesSignedUrlForSameObject() {
+        AtomicInteger signs = new AtomicInteger();
+
+        String first = cache.getLink("ads/a.png", () -> "url-" + signs.incrementAndGet());
+        String second = cache.getLink("ads/a.png", () -> "url-" + signs.incrementAndGet());
+
+        assertThat(first).isEqualTo("url-1");
+        assertThat(second).isEqualTo("url-1");
+        assertThat(signs).hasValue(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", PresignedUrlCache.CACHE_NAME).tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void downloadLink_isCachedSeparatelyFromInlineLink() {
+        cache.getLink("ads/a.png", () -> "inline");
+
+        String download = cache.getDownloadLink("ads/a.png", "a.png", () -> "download");
+
+        assertThat(download).isEqualTo("download");
+        assertThat(cache.getLink("ads/a.png", () -> "other")).isEqualTo("inline");
+    }
+
+    @Test
+    void invalidate_dropsAllLinksForObject() {
+        cache.getLink("ads/a.png", () -> "inline");
+        cache.getDownloadLink("ads/a.png", "a.png", () -> "download");
+
+        cache.invalidate("ads/a.png");
+
+        assertThat(cache.getLink("ads/a.png", () -> "inline-2")).isEqualTo("inline-2");
+        assertThat(cache.getDownloadLink("ads/a.png", "a.png", () -> "download-2")).isEqualTo("download-2");
+    }
+}
@@ -0,0 +1,137 @@
+package com.telas.services.impl;
+
+import com.telas.dtos.request.SmartPlugIngestRequestDto;
+import com.telas.entities.Box;
+import com.telas.monitoring.entities.BoxHeartbeatEntity;
+import com.telas.monitoring.entities.CheckRunEntity;
+import com.telas.monitoring.entities.SmartPlugEntity;
+import com.telas.monitoring.plug.PlugReading;
+import com.telas.monitoring.repositories.BoxHeartbeatEntityRepository;
+import com.telas.monitoring.repositories.SmartPlugEntityRepository;
+import com.telas.services.SmartPlugRulesService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SmartPlugIngestServiceImplTest {
+
+    @Mock private SmartPlugEntityRepository smartPlugEntityRepository;
+    @Mock private SmartPlugRulesService smartPlugRulesService;
+    @Mock private BoxHeartbeatEntityRepository boxHeartbeatEntityRepository;
+    @Mock private BoxHeartbeatWriteBuffer boxHeartbeatWriteBuffer;
+    @Mock private SmartPlugCheckPersistence smartPlugCheckPersistence;
+
+    private SmartPlugIngestServiceImpl service;
+
+    private final Instant now = Instant.now();
+    private final UUID boxId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        service = new SmartPlugIngestServiceImpl(
+                smartPlugEntityRepository,
+                smartPlugRulesService,
+                boxHeartbeatEntityRepository,
+                boxHeartbeatWriteBuffer,
+                smartPlugCheckPersistence);
+        ReflectionTestUtils.setField(service, "staleSeconds", 180L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void ingestBatch_insertsEveryReadingAndEvaluatesOnlyTheLatestPerPlug() {
+        SmartPlugEntity plug = plug("AABBCCDDEEFF");
+        when(smartPlugEntityRepository.findAllWithBoxByMacAddressIn(Set.of("AABBCCDDEEFF"))).thenReturn(List.of(plug));
+        when(boxHeartbeatWriteBuffer.lastSeenAt(boxId)).thenReturn(Optional.of(now));
+
+        SmartPlugIngestRequestDto older = reading("aa:bb:cc:dd:ee:ff", now.minusSeconds(120), 0.0, "10.0.0.5");
+        SmartPlugIngestRequestDto latest = reading("AA-BB-CC-DD-EE-FF", now.minusSeconds(10), 42.0, "10.0.0.9");
+        SmartPlugIngestRequestDto middle = reading("AABBCCDDEEFF", now.minusSeconds(60), 0.0, null);
+
+        service.ingestBatch(List.of(older, latest, middle));
+
+        ArgumentCaptor<List<CheckRunEntity>> runs = ArgumentCaptor.forClass(List.class);
+        verify(smartPlugCheckPersistence).insertRuns(runs.capture());
+        assertThat(runs.getValue()).hasSize(3).allMatch(run -> run.getSmartPlug() == plug);
+
+        ArgumentCaptor<PlugReading> evaluated = ArgumentCaptor.forClass(PlugReading.class);
+        verify(smartPlugRulesService).evaluate(eq(plug), evaluated.capture(), eq(false));
+        assertThat(evaluated.getValue().powerWatts()).isEqualTo(42.0);
+        assertThat(plug.getLastSeenIp()).isEqualTo("10.0.0.9");
+        verify(boxHeartbeatEntityRepository, never()).findAllByBox_IdIn(any());
+    }
+
+    @Test
+    void ingestBatch_skipsUnknownPlugsAndReadsHeartbeatsInBulk() {
+        SmartPlugEntity plug = plug("AABBCCDDEEFF");
+        when(smartPlugEntityRepository.findAllWithBoxByMacAddressIn(Set.of("AABBCCDDEEFF", "112233445566")))
+                .thenReturn(List.of(plug));
+        when(boxHeartbeatWriteBuffer.lastSeenAt(boxId)).thenReturn(Optional.empty());
+        when(boxHeartbeatEntityRepository.findAllByBox_IdIn(Set.of(boxId))).thenReturn(List.of(heartbeat(now.minusSeconds(600))));
+
+        service.ingestBatch(List.of(
+                reading("AABBCCDDEEFF", now, 42.0, null),
+                reading("112233445566", now, 42.0, null)));
+
+        verify(smartPlugCheckPersistence).insertRuns(any());
+        verify(smartPlugRulesService).evaluate(eq(plug), any(), eq(true));
+        verify(smartPlugEntityRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void ingestBatch_withoutKnownPlugsPersistsNothing() {
+        when(smartPlugEntityRepository.findAllWithBoxByMacAddressIn(Set.of("112233445566"))).thenReturn(List.of());
+
+        service.ingestBatch(List.of(reading("112233445566", now, 42.0, null)));
+
+        verify(smartPlugCheckPersistence, never()).insertRuns(any());
+        verify(smartPlugRulesService, never()).evaluate(any(), any(), anyBoolean());
+    }
+
+    private SmartPlugEntity plug(String mac) {
+        SmartPlugEntity plug = new SmartPlugEntity();
+        plug.setId(UUID.randomUUID());
+        plug.setMacAddress(mac);
+        return plug;
+    }
+
+    private BoxHeartbeatEntity heartbeat(Instant lastSeenAt) {
+        Box box = new Box();
+        box.setId(boxId);
+        BoxHeartbeatEntity heartbeat = new BoxHeartbeatEntity();
+        heartbeat.setBox(box);
+        heartbeat.setLastSeenAt(lastSeenAt);
+        return heartbeat;
+    }
+
+    private SmartPlugIngestRequestDto reading(String mac, Instant at, Double powerWatts, String resolvedIp) {
+        SmartPlugIngestRequestDto dto = new SmartPlugIngestRequestDto();
+        dto.setBoxId(boxId);
+        dto.setMacAddress(mac);
+        dto.setAt(at);
+        dto.setReachable(true);
+        dto.setRelayOn(true);
+        dto.setPowerWatts(powerWatts);
+        dto.setResolvedIp(resolvedIp);
+        return dto;
+    }
+}
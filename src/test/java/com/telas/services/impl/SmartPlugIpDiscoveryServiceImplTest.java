@@ -1,7 +1,9 @@
 package com.telas.services.impl;
 
 import com.telas.entities.Box;
+import com.telas.entities.Monitor;
 import com.telas.monitoring.entities.BoxSubnetRouteEntity;
+import com.telas.monitoring.entities.SmartPlugAccountEntity;
 import com.telas.monitoring.entities.SmartPlugEntity;
 import com.telas.monitoring.plug.PlugReading;
 import com.telas.monitoring.plug.SmartPlugClient;
@@ -10,6 +12,7 @@ import com.telas.monitoring.repositories.BoxSubnetRouteEntityRepository;
 import com.telas.monitoring.repositories.SmartPlugCheckRunRepository;
 import com.telas.monitoring.repositories.SmartPlugEntityRepository;
 import com.telas.services.SmartPlugCredentialsResolver;
+import org.hibernate.LazyInitializationException;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -28,6 +31,7 @@ import java.util.concurrent.Executors;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -84,7 +88,7 @@ class SmartPlugIpDiscoveryServiceImplTest {
 
         when(smartPlugEntityRepository.findAllEnabledForChecks()).thenReturn(List.of(plug));
         when(smartPlugCheckRunRepository.findLastReadingsForAllPlugs()).thenReturn(List.of());
-        when(smartPlugEntityRepository.findById(plugId)).thenReturn(Optional.of(plug));
+        when(smartPlugEntityRepository.findWithBoxAndAccountById(plugId)).thenReturn(Optional.of(plug));
         when(boxSubnetRouteEntityRepository.findByBox_IdOrderByCidrAsc(boxId)).thenReturn(List.of(route));
         when(credentialsResolver.resolve(plug)).thenReturn(new SmartPlugCredentials("u", "p"));
 
@@ -104,4 +108,72 @@ class SmartPlugIpDiscoveryServiceImplTest {
         verify(smartPlugIpDiscoveryPersistence).updateLastSeenIp(eq(plugId), ipCaptor.capture());
         assertThat(ipCaptor.getValue()).isEqualTo("10.0.0.77");
     }
+
+    @Test
+    void runDiscoveryCycle_reloadsPlugWithAssociationsInsteadOfTouchingDetachedLazyOnes() {
+        UUID plugId = UUID.randomUUID();
+        UUID boxId = UUID.randomUUID();
+
+        // Como vem do ciclo sem sessão: qualquer associação lazy estoura.
+        SmartPlugEntity detached = new DetachedSmartPlug();
+        detached.setId(plugId);
+
+        Box box = new Box();
+        box.setId(boxId);
+        Monitor monitor = new Monitor();
+        monitor.setBox(box);
+        SmartPlugAccountEntity account = new SmartPlugAccountEntity();
+        account.setAccountEmail("owner@example.com");
+        SmartPlugEntity fetched = new SmartPlugEntity();
+        fetched.setId(plugId);
+        fetched.setMonitor(monitor);
+        fetched.setSmartPlugAccount(account);
+
+        BoxSubnetRouteEntity route = new BoxSubnetRouteEntity();
+        route.setCidr("10.0.0.0/24");
+
+        when(smartPlugEntityRepository.findAllEnabledForChecks()).thenReturn(List.of(detached));
+        when(smartPlugCheckRunRepository.findLastReadingsForAllPlugs()).thenReturn(List.of());
+        when(smartPlugEntityRepository.findWithBoxAndAccountById(plugId)).thenReturn(Optional.of(fetched));
+        when(boxSubnetRouteEntityRepository.findByBox_IdOrderByCidrAsc(boxId)).thenReturn(List.of(route));
+        when(credentialsResolver.resolve(fetched)).thenReturn(new SmartPlugCredentials("owner@example.com", "p"));
+        when(smartPlugClient.readAtHost(eq(fetched), any(), any()))
+                .thenAnswer(inv -> "10.0.0.9".equals(inv.getArgument(1))
+                        ? new PlugReading(true, true, 1.0, 120.0, 0.1, null)
+                        : PlugReading.unreachable("stub"));
+
+        service.runDiscoveryCycle();
+
+        verify(smartPlugIpDiscoveryPersistence).updateLastSeenIp(plugId, "10.0.0.9");
+        verify(smartPlugEntityRepository, never()).findById(any());
+    }
+
+    @Test
+    void runDiscoveryCycle_failureOnOnePlugDoesNotAbortTheCycle() {
+        SmartPlugEntity plug = new SmartPlugEntity();
+        plug.setId(UUID.randomUUID());
+        when(smartPlugEntityRepository.findAllEnabledForChecks()).thenReturn(List.of(plug));
+        when(smartPlugCheckRunRepository.findLastReadingsForAllPlugs()).thenReturn(List.of());
+        when(smartPlugEntityRepository.findWithBoxAndAccountById(plug.getId()))
+                .thenThrow(new LazyInitializationException("no session"));
+
+        assertThat(service.runDiscoveryCycle()).containsEntry("discoveryEligible", 1).containsEntry("discoveryResolved", 0);
+    }
+
+    private static final class DetachedSmartPlug extends SmartPlugEntity {
+        @Override
+        public Monitor getMonitor() {
+            throw new LazyInitializationException("could not initialize proxy - no Session");
+        }
+
+        @Override
+        public Box getBox() {
+            throw new LazyInitializationException("could not initialize proxy - no Session");
+        }
+
+        @Override
+        public SmartPlugAccountEntity getSmartPlugAccount() {
+            throw new LazyInitializationException("could not initialize proxy - no Session");
+        }
+    }
 }
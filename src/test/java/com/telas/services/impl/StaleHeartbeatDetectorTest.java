@@ -0,0 +1,63 @@
+package com.telas.services.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StaleHeartbeatDetectorTest {
+
+    private final Instant t0 = Instant.parse("2026-01-01T00:00:00Z");
+
+    private StaleHeartbeatDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        detector = new StaleHeartbeatDetector(new SimpleMeterRegistry(), 180L, 600L, 300_000L);
+        detector.registerMetrics();
+    }
+
+    @Test
+    void poll_reportsBoxOnlyAfterItsDeadline() {
+        UUID box = UUID.randomUUID();
+        detector.onHeartbeat(box, t0);
+
+        assertThat(detector.poll(t0.plusSeconds(179)).stale()).isEmpty();
+        assertThat(detector.poll(t0.plusSeconds(181)).stale()).containsExactly(box);
+    }
+
+    @Test
+    void onHeartbeat_clearsStaleAndReschedules() {
+        UUID box = UUID.randomUUID();
+        detector.onHeartbeat(box, t0);
+        detector.poll(t0.plusSeconds(200));
+
+        detector.onHeartbeat(box, t0.plusSeconds(200));
+
+        assertThat(detector.poll(t0.plusSeconds(300)).stale()).isEmpty();
+        assertThat(detector.poll(t0.plusSeconds(381)).stale()).containsExactly(box);
+    }
+
+    @Test
+    void reconcile_schedulesNeverSeenAfterGraceAndKeepsNewerLocalHeartbeat() {
+        UUID neverSeen = UUID.randomUUID();
+        UUID seen = UUID.randomUUID();
+        detector.onHeartbeat(seen, t0.plusSeconds(100));
+
+        detector.reconcile(Map.of(seen, t0), Map.of(neverSeen, t0), t0);
+
+        StaleHeartbeatDetector.Expired at250 = detector.poll(t0.plusSeconds(250));
+        assertThat(at250.stale()).isEmpty();
+        assertThat(at250.neverSeen()).isEmpty();
+        StaleHeartbeatDetector.Expired at601 = detector.poll(t0.plusSeconds(601));
+        assertThat(at601.stale()).containsExactly(seen);
+        assertThat(at601.neverSeen()).containsExactly(neverSeen);
+        assertThat(detector.reconciliationDue(t0.plusSeconds(299))).isFalse();
+        assertThat(detector.reconciliationDue(t0.plusSeconds(300))).isTrue();
+    }
+}
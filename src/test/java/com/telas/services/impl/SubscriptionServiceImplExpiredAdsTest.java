@@ -0,0 +1,82 @@
+package com.telas.services.impl;
+
+import com.telas.helpers.SubscriptionHelper;
+import com.telas.infra.security.services.AuthenticatedUserService;
+import com.telas.repositories.ClientRepository;
+import com.telas.repositories.MonitorRepository;
+import com.telas.repositories.SubscriptionRepository;
+import com.telas.scheduler.SchedulerJobRunContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SubscriptionServiceImplExpiredAdsTest {
+
+    @Mock
+    private SubscriptionRepository repository;
+    @Mock
+    private ClientRepository clientRepository;
+    @Mock
+    private MonitorRepository monitorRepository;
+    @Mock
+    private AuthenticatedUserService authenticatedUserService;
+    @Mock
+    private SubscriptionHelper helper;
+    @Mock
+    private SchedulerJobRunContext schedulerJobRunContext;
+    @Mock
+    private ExpiredSubscriptionChunkProcessor expiredSubscriptionChunkProcessor;
+
+    @InjectMocks
+    private SubscriptionServiceImpl service;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void removeAdsFromExpiredSubscriptions_commitsPerChunkAndIsolatesFailingSubscription() {
+        ReflectionTestUtils.setField(service, "expiredAdsChunkSize", 2);
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        UUID c = UUID.randomUUID();
+        when(repository.findActiveAndExpiredSubscriptionIds(any(Instant.class))).thenReturn(List.of(a, b, c));
+        when(expiredSubscriptionChunkProcessor.process(eq(List.of(a, b)), any())).thenThrow(new IllegalStateException("boom"));
+        when(expiredSubscriptionChunkProcessor.process(eq(List.of(a)), any())).thenReturn(result(a, 1));
+        when(expiredSubscriptionChunkProcessor.process(eq(List.of(b)), any())).thenThrow(new IllegalStateException("boom"));
+        when(expiredSubscriptionChunkProcessor.process(eq(List.of(c)), any())).thenReturn(result(c, 2));
+
+        service.removeAdsFromExpiredSubscriptions();
+
+        ArgumentCaptor<Map<String, Object>> summary = ArgumentCaptor.forClass(Map.class);
+        verify(schedulerJobRunContext).putAll(summary.capture());
+        assertThat(summary.getValue())
+                .containsEntry("subscriptionsFound", 3)
+                .containsEntry("subscriptionsProcessed", 2)
+                .containsEntry("boxCommands", 3)
+                .containsEntry("failedSubscriptionIds", List.of(b.toString()));
+        List<Map<String, Object>> chunks = (List<Map<String, Object>>) summary.getValue().get("chunks");
+        assertThat(chunks).hasSize(2);
+        assertThat(chunks.get(0)).containsEntry("size", 2).containsEntry("processed", 1).containsEntry("failed", 1);
+        assertThat(chunks.get(1)).containsEntry("size", 1).containsEntry("processed", 1).containsEntry("boxCommands", 2);
+    }
+
+    private static ExpiredSubscriptionChunkProcessor.ChunkResult result(UUID id, int boxCommands) {
+        return new ExpiredSubscriptionChunkProcessor.ChunkResult(
+                List.of(new ExpiredSubscriptionChunkProcessor.ExpiredSubscription(id, "Client", List.of("ad.mp4"))),
+                boxCommands);
+    }
+}